@@ -0,0 +1,55 @@
+package com.richard.gaming_trading_system.benchmark;
+
+import com.richard.gaming_trading_system.dto.MostTradedAssets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AnalyticsBenchmark {
+
+    private static final LocalDateTime SINCE = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Benchmark
+    public Map<Long, Integer> getMostTradedAssets(MarketState market) {
+        return market.analyticsService.getMostTradedAssets();
+    }
+
+    @Benchmark
+    public MostTradedAssets getMostTradedAssetsInWindow(MarketState market) {
+        return market.analyticsService.getMostTradedAssets(10, "1h");
+    }
+
+    @Benchmark
+    public Map<Long, BigDecimal> getHighestPortfolioValues(MarketState market) {
+        return market.analyticsService.getHighestPortfolioValues();
+    }
+
+    @Benchmark
+    public Map<Long, BigDecimal> getPortfolioPerformance(MarketState market) {
+        return market.analyticsService.getPortfolioPerformance(market.randomUserId(), SINCE);
+    }
+
+    @Benchmark
+    public Map<Long, Integer> getTradingVolumeByAsset(MarketState market) {
+        return market.analyticsService.getTradingVolumeByAsset();
+    }
+
+    @Benchmark
+    public Map<Long, BigDecimal> getAverageTradeSizeByUser(MarketState market) {
+        return market.analyticsService.getAverageTradeSizeByUser();
+    }
+}
@@ -0,0 +1,135 @@
+package com.richard.gaming_trading_system.benchmark;
+
+import com.richard.gaming_trading_system.GamingTradingSystemApplication;
+import com.richard.gaming_trading_system.dto.CreateAssetRequest;
+import com.richard.gaming_trading_system.dto.CreatePortfolioRequest;
+import com.richard.gaming_trading_system.engine.TradeExecutionEngine;
+import com.richard.gaming_trading_system.events.EventBus;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.TradeType;
+import com.richard.gaming_trading_system.model.User;
+import com.richard.gaming_trading_system.repository.UserRepository;
+import com.richard.gaming_trading_system.service.AssetPriceService;
+import com.richard.gaming_trading_system.service.AssetService;
+import com.richard.gaming_trading_system.service.PortfolioAnalyticsService;
+import com.richard.gaming_trading_system.service.PortfolioService;
+import com.richard.gaming_trading_system.service.RankingService;
+import com.richard.gaming_trading_system.service.UserService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The real service layer in a non-web application context, seeded with {@code size} users. Each user
+ * has a funded portfolio and one executed trade spread over {@link #ASSETS} assets, so user and trade
+ * counts both scale with {@code size}. Shared by every benchmark thread.
+ */
+@State(Scope.Benchmark)
+public class MarketState {
+
+    static final int ASSETS = 100;
+    static final int STARTING_GEMS = 1_000_000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    ConfigurableApplicationContext context;
+    UserService userService;
+    UserRepository userRepository;
+    RankingService rankingService;
+    PortfolioService portfolioService;
+    PortfolioAnalyticsService analyticsService;
+    AssetPriceService assetPriceService;
+    TradeExecutionEngine tradeExecutionEngine;
+
+    long[] userIds;
+    String[] usernames;
+    long[] assetIds;
+
+    private final AtomicInteger traders = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void start() throws InterruptedException {
+        context = new SpringApplicationBuilder(GamingTradingSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                // Benchmarks drive ticks themselves; keep the scheduler out of the measurements
+                .properties("asset.price.update.interval=86400000", "logging.level.root=WARN")
+                .run();
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        rankingService = context.getBean(RankingService.class);
+        portfolioService = context.getBean(PortfolioService.class);
+        analyticsService = context.getBean(PortfolioAnalyticsService.class);
+        assetPriceService = context.getBean(AssetPriceService.class);
+        tradeExecutionEngine = context.getBean(TradeExecutionEngine.class);
+
+        AssetService assetService = context.getBean(AssetService.class);
+        assetIds = new long[ASSETS];
+        for (int i = 0; i < ASSETS; i++) {
+            assetIds[i] = assetService.createAsset(
+                    new CreateAssetRequest("A" + i, "Asset " + i, BigDecimal.TEN)).getAssetId();
+        }
+
+        userIds = new long[size];
+        usernames = new String[size];
+        for (int i = 0; i < size; i++) {
+            usernames[i] = "user-" + i;
+            long portfolioId = openAccount(usernames[i]);
+            userIds[i] = userRepository.findByUsername(usernames[i]).orElseThrow().getUserId();
+            portfolioService.executeTrade(portfolioId, assetIds[i % ASSETS], BigDecimal.ONE, BigDecimal.TEN,
+                    TradeType.BUY);
+        }
+        // Let ranking and market data catch up, so reads measure a settled board
+        if (!context.getBean(EventBus.class).awaitDrained(TimeUnit.MINUTES.toMillis(5))) {
+            throw new IllegalStateException("Event bus did not drain after seeding");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * Creates a funded user with one portfolio and returns the portfolio id.
+     */
+    long openAccount(String username) {
+        User user = userService.createUser(username);
+        userService.updateUserGems(user.getUserId(), STARTING_GEMS);
+        Portfolio portfolio = portfolioService.createPortfolio(new CreatePortfolioRequest(user.getUserId(), "Main"));
+        return portfolio.getPortfolioId();
+    }
+
+    /**
+     * A portfolio owned by no other thread, so concurrent trades never race on one user.
+     */
+    long openTraderAccount() {
+        return openAccount("trader-" + traders.incrementAndGet());
+    }
+
+    long randomUserId() {
+        return userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+    }
+
+    String randomUsername() {
+        return usernames[ThreadLocalRandom.current().nextInt(usernames.length)];
+    }
+
+    long randomAssetId() {
+        return assetIds[ThreadLocalRandom.current().nextInt(assetIds.length)];
+    }
+}
@@ -0,0 +1,139 @@
+package com.richard.gaming_trading_system.benchmark;
+
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.OrderType;
+import com.richard.gaming_trading_system.model.Quantity;
+import com.richard.gaming_trading_system.model.TradeType;
+import com.richard.gaming_trading_system.orderbook.FillHandler;
+import com.richard.gaming_trading_system.orderbook.Order;
+import com.richard.gaming_trading_system.orderbook.OrderBook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching throughput of one book, without settlement. Each benchmark thread owns its own book, as
+ * each asset's book has its own thread in the application, so the thread counts show how books scale
+ * side by side. {@code TradingBenchmark.settleFill} measures what settling each fill adds.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OrderBookBenchmark {
+
+    private static final byte LIMIT = 0;
+    private static final byte MARKET = 1;
+    private static final byte CANCEL = 2;
+
+    /**
+     * A pre-generated order flow around a fixed mid price: limit orders on both sides within
+     * {@code spread} ticks of the mid, some of them crossing, plus market orders and cancels. While the
+     * book holds more than {@code depth} orders a cancel takes the oldest resting order, otherwise it
+     * targets a recent order that may already be gone, which keeps the book at a steady size.
+     */
+    @State(Scope.Thread)
+    public static class OrderFlow {
+        private static final int COUNT = 1 << 16;
+        private static final int RESTED = 1 << 20;
+        private static final long MID = Money.ofWhole(100);
+        private static final long TICK = Money.ONE / 100;
+
+        @Param({"20"})
+        int spread;
+
+        @Param({"40"})
+        int cancelPercent;
+
+        @Param({"5"})
+        int marketPercent;
+
+        @Param({"10000"})
+        int depth;
+
+        OrderBook book;
+        byte[] kinds;
+        TradeType[] sides;
+        long[] prices;
+        long[] quantities;
+        long[] portfolios;
+        long[] rested;
+        int restedHead;
+        int restedTail;
+        long nextOrderId;
+        int next;
+
+        @Setup(Level.Trial)
+        public void prepare() {
+            SplittableRandom random = new SplittableRandom(42);
+            kinds = new byte[COUNT];
+            sides = new TradeType[COUNT];
+            prices = new long[COUNT];
+            quantities = new long[COUNT];
+            portfolios = new long[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                int roll = random.nextInt(100);
+                kinds[i] = roll < cancelPercent ? CANCEL : roll < cancelPercent + marketPercent ? MARKET : LIMIT;
+                boolean buy = random.nextBoolean();
+                sides[i] = buy ? TradeType.BUY : TradeType.SELL;
+                // Skewed towards the passive side, so the book keeps some depth while part of the flow crosses
+                int offset = random.nextInt(-spread / 4, spread + 1);
+                prices[i] = buy ? MID - offset * TICK : MID + offset * TICK;
+                quantities[i] = Quantity.ofWhole(1 + random.nextInt(10));
+                portfolios[i] = 1 + random.nextInt(1000);
+            }
+            book = new OrderBook(1L);
+            rested = new long[RESTED];
+            for (int i = 0; i < COUNT; i++) {
+                step();
+            }
+        }
+
+        Object step() {
+            int i = next;
+            next = (next + 1) & (COUNT - 1);
+            if (kinds[i] == CANCEL) {
+                return cancel();
+            }
+            long orderId = ++nextOrderId;
+            OrderType type = kinds[i] == MARKET ? OrderType.MARKET : OrderType.LIMIT;
+            Order order = book.submit(new Order(orderId, portfolios[i], portfolios[i], sides[i], type, prices[i],
+                    quantities[i]), FillHandler.ACCEPT_ALL);
+            if (order.isResting()) {
+                rested[restedTail++ & (RESTED - 1)] = orderId;
+            }
+            return order;
+        }
+
+        private Order cancel() {
+            if (book.getRestingOrderCount() <= depth) {
+                return book.cancel(nextOrderId - 100);
+            }
+            while (restedHead != restedTail) {
+                Order cancelled = book.cancel(rested[restedHead++ & (RESTED - 1)]);
+                if (cancelled != null) {
+                    return cancelled;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Object orders(OrderFlow flow) {
+        return flow.step();
+    }
+}
@@ -0,0 +1,72 @@
+package com.richard.gaming_trading_system.benchmark;
+
+import com.richard.gaming_trading_system.dto.LeaderboardEntry;
+import com.richard.gaming_trading_system.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RankingBenchmark {
+
+    /**
+     * Pre-built rank updates for random users, so the benchmark measures the index and not the setup.
+     */
+    @State(Scope.Thread)
+    public static class RankUpdates {
+        private static final int COUNT = 1024;
+
+        User[] updates;
+        int next;
+
+        @Setup(Level.Trial)
+        public void prepare(MarketState market) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            updates = new User[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                User user = new User();
+                user.setUserId(market.randomUserId());
+                user.setGemCount(random.nextInt(MarketState.STARTING_GEMS * 2));
+                updates[i] = user;
+            }
+        }
+
+        User next() {
+            User user = updates[next];
+            next = (next + 1) % COUNT;
+            return user;
+        }
+    }
+
+    @Benchmark
+    public void updateUserRank(MarketState market, RankUpdates updates) {
+        market.rankingService.updateUserRank(updates.next());
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> getTopUsers(MarketState market) {
+        return market.rankingService.getTopUsers(10);
+    }
+
+    @Benchmark
+    public Optional<User> findByUsername(MarketState market) {
+        return market.userRepository.findByUsername(market.randomUsername());
+    }
+}
@@ -0,0 +1,111 @@
+package com.richard.gaming_trading_system.benchmark;
+
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.Quantity;
+import com.richard.gaming_trading_system.model.Trade;
+import com.richard.gaming_trading_system.model.TradeType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TradingBenchmark {
+
+    /**
+     * One trader per benchmark thread, alternating a buy and a sell so holdings stay level. Streak
+     * bonuses grow with every trade, so the trader moves to a fresh account before its gems overflow.
+     */
+    @State(Scope.Thread)
+    public static class Trader {
+        private static final int TRADES_PER_ACCOUNT = 10_000;
+
+        long portfolioId;
+        long assetId;
+        boolean buy;
+        int trades;
+
+        @Setup(Level.Trial)
+        public void open(MarketState market) {
+            portfolioId = market.openTraderAccount();
+            assetId = market.randomAssetId();
+        }
+    }
+
+    /**
+     * Two accounts per benchmark thread settling order book fills between them, the way a book's
+     * thread does, shards held and all. The accounts swap sides on every fill so holdings stay level,
+     * and move to fresh accounts before streak bonuses overflow their gems.
+     */
+    @State(Scope.Thread)
+    public static class Counterparties {
+        private static final int FILLS_PER_ACCOUNT = 10_000;
+        private static final long QUANTITY = Quantity.ofWhole(1);
+        private static final long PRICE = Money.ofWhole(10);
+
+        long[] portfolioIds = new long[2];
+        long[] userIds = new long[2];
+        long assetId;
+        int fills;
+
+        @Setup(Level.Trial)
+        public void open(MarketState market) {
+            assetId = market.randomAssetId();
+            reopen(market);
+        }
+
+        void reopen(MarketState market) {
+            for (int i = 0; i < 2; i++) {
+                portfolioIds[i] = market.openTraderAccount();
+                userIds[i] = market.portfolioService.getPortfolioById(portfolioIds[i]).getUserId();
+                market.portfolioService.executeTrade(portfolioIds[i], assetId, BigDecimal.ONE, BigDecimal.TEN,
+                        TradeType.BUY);
+            }
+            fills = 0;
+        }
+    }
+
+    @Benchmark
+    public List<Trade> settleFill(MarketState market, Counterparties pair) {
+        if (++pair.fills == Counterparties.FILLS_PER_ACCOUNT) {
+            pair.reopen(market);
+        }
+        int buyer = pair.fills & 1;
+        long buyPortfolioId = pair.portfolioIds[buyer];
+        long sellPortfolioId = pair.portfolioIds[buyer ^ 1];
+        return market.tradeExecutionEngine.executeExclusive(pair.userIds, () -> market.portfolioService.settleFill(
+                buyPortfolioId, sellPortfolioId, pair.assetId, Counterparties.QUANTITY, Counterparties.PRICE));
+    }
+
+    @Benchmark
+    public Trade executeTrade(MarketState market, Trader trader) {
+        if (++trader.trades == Trader.TRADES_PER_ACCOUNT) {
+            trader.portfolioId = market.openTraderAccount();
+            trader.trades = 0;
+            trader.buy = false;
+        }
+        trader.buy = !trader.buy;
+        return market.portfolioService.executeTrade(trader.portfolioId, trader.assetId, BigDecimal.ONE,
+                BigDecimal.TEN, trader.buy ? TradeType.BUY : TradeType.SELL);
+    }
+
+    @Benchmark
+    public void updateAssetPrices(MarketState market) {
+        market.assetPriceService.updateAssetPrices();
+    }
+}
@@ -0,0 +1,93 @@
+package com.richard.gaming_trading_system.analytics;
+
+import com.richard.gaming_trading_system.dto.HeavyHitter;
+import com.richard.gaming_trading_system.dto.MostTradedAssets;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Most-traded assets per sliding window in fixed memory. Each window keeps {@code ceil(1 / epsilon)}
+ * counters per pane, so an asset's reported trade count exceeds the true count by at most
+ * {@code epsilon * trades in the window}; the exact bound for the current window is returned with
+ * every answer.
+ */
+@Component
+public class HeavyHitterTracker {
+
+    private static final Pattern WINDOW = Pattern.compile("(\\d+)([smhd])");
+
+    private final double epsilon;
+    private final int counters;
+    private final LongSupplier clock;
+    private final Map<String, SlidingTopK> windows = new LinkedHashMap<>();
+
+    @Autowired
+    public HeavyHitterTracker(
+            @Value("${trading.analytics.top-k.epsilon:0.001}") double epsilon,
+            @Value("${trading.analytics.top-k.windows:1h,1d}") String windows,
+            @Value("${trading.analytics.top-k.panes:12}") int panes,
+            @Value("${trading.analytics.top-k.refresh-ms:1000}") long refreshMillis) {
+        this(epsilon, windows, panes, refreshMillis, System::currentTimeMillis);
+    }
+
+    HeavyHitterTracker(double epsilon, String windows, int panes, long refreshMillis, LongSupplier clock) {
+        if (epsilon <= 0 || epsilon >= 1) {
+            throw new IllegalArgumentException("trading.analytics.top-k.epsilon must be between 0 and 1");
+        }
+        this.epsilon = epsilon;
+        this.counters = (int) Math.ceil(1 / epsilon);
+        this.clock = clock;
+        for (String window : windows.split(",")) {
+            String code = window.trim();
+            this.windows.put(code, new SlidingTopK(parseMillis(code), Math.max(panes, 1), counters, refreshMillis));
+        }
+    }
+
+    public void recordTrade(long assetId) {
+        long now = clock.getAsLong();
+        for (SlidingTopK window : windows.values()) {
+            window.record(assetId, now);
+        }
+    }
+
+    public MostTradedAssets getTopK(String window, int k) {
+        SlidingTopK topK = windows.get(window);
+        if (topK == null) {
+            throw new IllegalArgumentException("Unsupported window: " + window + ", expected one of " + windows.keySet());
+        }
+        SlidingTopK.Snapshot snapshot = topK.snapshot(clock.getAsLong());
+        int size = Math.min(Math.max(k, 0), snapshot.size());
+        List<HeavyHitter> assets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            assets.add(new HeavyHitter(snapshot.items()[i], snapshot.counts()[i], snapshot.errors()[i]));
+        }
+        return new MostTradedAssets(window, epsilon, snapshot.trades(), snapshot.maxError(), assets);
+    }
+
+    public int getCounters() {
+        return counters;
+    }
+
+    static long parseMillis(String window) {
+        Matcher matcher = WINDOW.matcher(window);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid window: " + window);
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        return switch (matcher.group(2)) {
+            case "s" -> amount * 1_000L;
+            case "m" -> amount * 60_000L;
+            case "h" -> amount * 3_600_000L;
+            default -> amount * 86_400_000L;
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package com.richard.gaming_trading_system.analytics;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Top-K over a sliding time window, built from a ring of {@link SpaceSaving} panes. Each pane covers
+ * {@code window / panes} of time and is cleared when its slot is reused, so the window advances one
+ * pane at a time and memory stays at {@code panes * counters}. Queries read a merged, sorted snapshot
+ * that is rebuilt at most once per refresh interval.
+ */
+final class SlidingTopK {
+
+    private final long paneMillis;
+    private final long refreshMillis;
+    private final int counters;
+    private final SpaceSaving[] panes;
+    private final long[] paneNumbers;
+    private volatile Snapshot snapshot;
+
+    SlidingTopK(long windowMillis, int paneCount, int counters, long refreshMillis) {
+        this.paneMillis = Math.max(windowMillis / paneCount, 1L);
+        this.refreshMillis = refreshMillis;
+        this.counters = counters;
+        this.panes = new SpaceSaving[paneCount];
+        this.paneNumbers = new long[paneCount];
+        for (int i = 0; i < paneCount; i++) {
+            panes[i] = new SpaceSaving(counters);
+            paneNumbers[i] = Long.MIN_VALUE;
+        }
+    }
+
+    synchronized void record(long item, long nowMillis) {
+        long number = Math.floorDiv(nowMillis, paneMillis);
+        int slot = (int) Math.floorMod(number, (long) panes.length);
+        if (paneNumbers[slot] != number) {
+            if (paneNumbers[slot] > number) {
+                return;
+            }
+            panes[slot].clear();
+            paneNumbers[slot] = number;
+        }
+        panes[slot].offer(item);
+    }
+
+    Snapshot snapshot(long nowMillis) {
+        Snapshot current = snapshot;
+        if (isFresh(current, nowMillis)) {
+            return current;
+        }
+        synchronized (this) {
+            if (!isFresh(snapshot, nowMillis)) {
+                snapshot = merge(nowMillis);
+            }
+            return snapshot;
+        }
+    }
+
+    private boolean isFresh(Snapshot current, long nowMillis) {
+        return current != null && nowMillis - current.computedAt < refreshMillis;
+    }
+
+    /**
+     * Merges the live panes. An item missing from a full pane may still have occurred there up to that
+     * pane's minimum count times, so the minimum is added to both its estimate and its error.
+     */
+    private Snapshot merge(long nowMillis) {
+        long newest = Math.floorDiv(nowMillis, paneMillis);
+        int live = 0;
+        SpaceSaving[] active = new SpaceSaving[panes.length];
+        for (int i = 0; i < panes.length; i++) {
+            if (paneNumbers[i] > newest - panes.length && paneNumbers[i] <= newest) {
+                active[live++] = panes[i];
+            }
+        }
+        long maxError = 0L;
+        long trades = 0L;
+        Set<Long> candidates = new HashSet<>();
+        for (int p = 0; p < live; p++) {
+            maxError += active[p].minCount();
+            trades += active[p].offered();
+            for (int i = 0; i < active[p].size(); i++) {
+                candidates.add(active[p].item(i));
+            }
+        }
+
+        int n = candidates.size();
+        long[] items = new long[n];
+        long[] counts = new long[n];
+        long[] errors = new long[n];
+        int c = 0;
+        for (long item : candidates) {
+            long count = 0L;
+            long error = 0L;
+            for (int p = 0; p < live; p++) {
+                int index = active[p].indexOf(item);
+                if (index >= 0) {
+                    count += active[p].count(index);
+                    error += active[p].error(index);
+                } else {
+                    count += active[p].minCount();
+                    error += active[p].minCount();
+                }
+            }
+            items[c] = item;
+            counts[c] = count;
+            errors[c] = error;
+            c++;
+        }
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> counts[a] != counts[b]
+                ? Long.compare(counts[b], counts[a])
+                : Long.compare(items[a], items[b]));
+        int kept = Math.min(n, counters);
+        long[] topItems = new long[kept];
+        long[] topCounts = new long[kept];
+        long[] topErrors = new long[kept];
+        for (int i = 0; i < kept; i++) {
+            topItems[i] = items[order[i]];
+            topCounts[i] = counts[order[i]];
+            topErrors[i] = errors[order[i]];
+        }
+        return new Snapshot(topItems, topCounts, topErrors, maxError, trades, nowMillis);
+    }
+
+    record Snapshot(long[] items, long[] counts, long[] errors, long maxError, long trades, long computedAt) {
+
+        int size() {
+            return items.length;
+        }
+    }
+}
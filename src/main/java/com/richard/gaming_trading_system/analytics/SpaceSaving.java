@@ -0,0 +1,133 @@
+package com.richard.gaming_trading_system.analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter summary with a fixed number of counters kept in a min-heap. When the summary
+ * is full, an unseen item evicts the smallest counter and inherits its count as its error, so every
+ * estimate over-counts by at most {@link #minCount()}, which never exceeds {@code offered / capacity}.
+ */
+final class SpaceSaving {
+
+    private final int capacity;
+    private final long[] items;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<Long, Integer> slots;
+    private int size;
+    private long offered;
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.items = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.slots = new HashMap<>(capacity * 2);
+    }
+
+    void offer(long item) {
+        offered++;
+        Integer slot = slots.get(item);
+        if (slot != null) {
+            counts[slot]++;
+            siftDown(slot);
+            return;
+        }
+        if (size < capacity) {
+            items[size] = item;
+            counts[size] = 1;
+            errors[size] = 0;
+            slots.put(item, size);
+            siftUp(size++);
+            return;
+        }
+        slots.remove(items[0]);
+        items[0] = item;
+        errors[0] = counts[0];
+        counts[0]++;
+        slots.put(item, 0);
+        siftDown(0);
+    }
+
+    /**
+     * Upper bound on the count of any item not in the summary, and on every estimate's over-count.
+     */
+    long minCount() {
+        return size < capacity ? 0 : counts[0];
+    }
+
+    long offered() {
+        return offered;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long item(int index) {
+        return items[index];
+    }
+
+    long count(int index) {
+        return counts[index];
+    }
+
+    long error(int index) {
+        return errors[index];
+    }
+
+    /**
+     * Returns the counter index of {@code item}, or -1 if it is not tracked.
+     */
+    int indexOf(long item) {
+        Integer slot = slots.get(item);
+        return slot == null ? -1 : slot;
+    }
+
+    void clear() {
+        slots.clear();
+        size = 0;
+        offered = 0;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (counts[parent] <= counts[index]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && counts[left + 1] < counts[left] ? left + 1 : left;
+            if (counts[index] <= counts[smallest]) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long item = items[a];
+        long count = counts[a];
+        long error = errors[a];
+        items[a] = items[b];
+        counts[a] = counts[b];
+        errors[a] = errors[b];
+        items[b] = item;
+        counts[b] = count;
+        errors[b] = error;
+        slots.put(items[a], a);
+        slots.put(items[b], b);
+    }
+}
@@ -1,21 +1,50 @@
 package com.richard.gaming_trading_system.controller;
 
+import com.richard.gaming_trading_system.dto.BatchTradeResponse;
+import com.richard.gaming_trading_system.dto.Candle;
 import com.richard.gaming_trading_system.dto.CreateAssetRequest;
 import com.richard.gaming_trading_system.dto.CreatePortfolioRequest;
+import com.richard.gaming_trading_system.dto.EngineShardStats;
+import com.richard.gaming_trading_system.dto.EventSubscriberStats;
+import com.richard.gaming_trading_system.dto.FlightRecordingInfo;
+import com.richard.gaming_trading_system.dto.IdempotencyStats;
+import com.richard.gaming_trading_system.dto.LeaderboardEntry;
+import com.richard.gaming_trading_system.dto.LeaderboardPage;
+import com.richard.gaming_trading_system.dto.MostTradedAssets;
+import com.richard.gaming_trading_system.dto.OrderBookSnapshot;
+import com.richard.gaming_trading_system.dto.OrderRequest;
+import com.richard.gaming_trading_system.dto.OrderResult;
+import com.richard.gaming_trading_system.dto.PricePoint;
 import com.richard.gaming_trading_system.dto.TradeRequest;
 import com.richard.gaming_trading_system.dto.UserStatsResponse;
+import com.richard.gaming_trading_system.engine.TradeExecutionEngine;
+import com.richard.gaming_trading_system.events.EventBus;
+import com.richard.gaming_trading_system.exception.IdempotencyCacheFullException;
+import com.richard.gaming_trading_system.exception.IdempotencyKeyReusedException;
+import com.richard.gaming_trading_system.idempotency.IdempotencyCache;
+import com.richard.gaming_trading_system.metrics.MetricsExporter;
+import com.richard.gaming_trading_system.metrics.PrometheusText;
 import com.richard.gaming_trading_system.model.Asset;
 import com.richard.gaming_trading_system.model.Portfolio;
 import com.richard.gaming_trading_system.model.Trade;
 import com.richard.gaming_trading_system.model.User;
+import com.richard.gaming_trading_system.orderbook.MatchingEngine;
+import com.richard.gaming_trading_system.profiling.FlightRecordingService;
 import com.richard.gaming_trading_system.service.AssetService;
+import com.richard.gaming_trading_system.service.BatchTradeService;
 import com.richard.gaming_trading_system.service.PortfolioAnalyticsService;
 import com.richard.gaming_trading_system.service.PortfolioService;
 import com.richard.gaming_trading_system.service.RankingService;
 import com.richard.gaming_trading_system.service.UserService;
+import com.richard.gaming_trading_system.stream.MarketStreamHub;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -36,19 +65,47 @@ public class TradingController {
 
     private AssetService assetService;
 
+    private TradeExecutionEngine tradeExecutionEngine;
+
+    private MarketStreamHub marketStreamHub;
+
+    private MetricsExporter metricsExporter;
+
+    private FlightRecordingService flightRecordingService;
+
+    private EventBus eventBus;
+
+    private BatchTradeService batchTradeService;
+
+    private IdempotencyCache idempotencyCache;
+
+    private MatchingEngine matchingEngine;
+
     @Autowired
-    public TradingController(UserService userService, PortfolioService portfolioService, RankingService rankingService, PortfolioAnalyticsService portfolioAnalyticsService, AssetService assetService) {
+    public TradingController(UserService userService, PortfolioService portfolioService, RankingService rankingService, PortfolioAnalyticsService portfolioAnalyticsService, AssetService assetService, TradeExecutionEngine tradeExecutionEngine, MarketStreamHub marketStreamHub, MetricsExporter metricsExporter, FlightRecordingService flightRecordingService, EventBus eventBus, BatchTradeService batchTradeService, IdempotencyCache idempotencyCache, MatchingEngine matchingEngine) {
         this.userService = userService;
         this.portfolioService = portfolioService;
         this.rankingService = rankingService;
         this.portfolioAnalyticsService = portfolioAnalyticsService;
         this.assetService = assetService;
+        this.tradeExecutionEngine = tradeExecutionEngine;
+        this.marketStreamHub = marketStreamHub;
+        this.metricsExporter = metricsExporter;
+        this.flightRecordingService = flightRecordingService;
+        this.eventBus = eventBus;
+        this.batchTradeService = batchTradeService;
+        this.idempotencyCache = idempotencyCache;
+        this.matchingEngine = matchingEngine;
     }
 
     // User Management Endpoints
     @PostMapping("/users")
     public ResponseEntity<User> createUser(@RequestParam String username) {
-        return ResponseEntity.ok(userService.createUser(username));
+        try {
+            return ResponseEntity.ok(userService.createUser(username));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/users/{userId}")
@@ -59,7 +116,11 @@ public class TradingController {
     // Portfolio Management Endpoints
     @PostMapping("/portfolios")
     public ResponseEntity<Portfolio> createPortfolio(@RequestBody CreatePortfolioRequest request) {
-        return ResponseEntity.ok(portfolioService.createPortfolio(request));
+        try {
+            return ResponseEntity.ok(portfolioService.createPortfolio(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/portfolios/{portfolioId}")
@@ -72,27 +133,105 @@ public class TradingController {
         return ResponseEntity.ok(portfolioService.getPortfoliosByUserId(userId));
     }
 
+    @GetMapping("/users/{userId}/trades")
+    public ResponseEntity<List<Trade>> getUserTrades(
+            @PathVariable Long userId,
+            @RequestParam(required = false) LocalDateTime from,
+            @RequestParam(required = false) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(portfolioService.getTradeHistory(userId, from, to, limit));
+    }
+
     // Trading Endpoints
     @PostMapping("/trade")
-    public ResponseEntity<Trade> executeTrade(@RequestBody TradeRequest request) {
-        Trade trade = portfolioService.executeTrade(
+    public ResponseEntity<Trade> executeTrade(
+            @RequestBody TradeRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(runTrade(request));
+        }
+        if (!IdempotencyCache.isValidKey(idempotencyKey)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(idempotencyCache.execute(idempotencyKey, request, () -> runTrade(request)));
+        } catch (IdempotencyKeyReusedException e) {
+            return ResponseEntity.unprocessableEntity().build();
+        } catch (IdempotencyCacheFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(idempotencyCache.getRetryAfterSeconds()))
+                .build();
+        }
+    }
+
+    private Trade runTrade(TradeRequest request) {
+        Long userId = portfolioService.getPortfolioById(request.getPortfolioId()).getUserId();
+        return tradeExecutionEngine.execute(userId, () -> portfolioService.executeTrade(
             request.getPortfolioId(),
             request.getAssetId(),
             request.getQuantity(),
             request.getPrice(),
             request.getTradeType()
-        );
-        return ResponseEntity.ok(trade);
+        ));
+    }
+
+    @GetMapping("/trade/idempotency")
+    public ResponseEntity<IdempotencyStats> getIdempotencyStats() {
+        return ResponseEntity.ok(idempotencyCache.getStats());
+    }
+
+    @PostMapping("/trades/batch")
+    public ResponseEntity<BatchTradeResponse> executeTradeBatch(
+            @RequestBody List<TradeRequest> requests,
+            @RequestParam(defaultValue = "false") boolean atomic) {
+        if (requests.size() > batchTradeService.getMaxBatchSize()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(batchTradeService.executeBatch(requests, atomic));
+    }
+
+    @GetMapping("/engine/shards")
+    public ResponseEntity<List<EngineShardStats>> getEngineShardStats() {
+        return ResponseEntity.ok(tradeExecutionEngine.getShardStats());
+    }
+
+    // Order Book Endpoints
+    @PostMapping("/orders")
+    public ResponseEntity<OrderResult> placeOrder(@RequestBody OrderRequest request) {
+        return ResponseEntity.ok(matchingEngine.placeOrder(request));
+    }
+
+    @DeleteMapping("/assets/{assetId}/orders/{orderId}")
+    public ResponseEntity<OrderResult> cancelOrder(@PathVariable Long assetId, @PathVariable Long orderId) {
+        return matchingEngine.cancelOrder(assetId, orderId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/assets/{assetId}/book")
+    public ResponseEntity<OrderBookSnapshot> getOrderBook(
+            @PathVariable Long assetId,
+            @RequestParam(defaultValue = "10") int depth) {
+        return ResponseEntity.ok(matchingEngine.getBook(assetId, depth));
     }
 
     // Leaderboard Endpoints
     @GetMapping("/leaderboard")
-    public ResponseEntity<List<User>> getLeaderboard() {
-        return ResponseEntity.ok(rankingService.getLeaderboard());
+    public ResponseEntity<LeaderboardPage> getLeaderboard(
+            @RequestParam(defaultValue = "0") int after,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(rankingService.getLeaderboardPage(after, size));
+    }
+
+    @GetMapping("/leaderboard/around/{userId}")
+    public ResponseEntity<List<LeaderboardEntry>> getLeaderboardAround(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "10") int radius) {
+        return ResponseEntity.ok(rankingService.getLeaderboardAround(userId, radius));
     }
 
     @GetMapping("/leaderboard/top")
-    public ResponseEntity<List<User>> getTopUsers(@RequestParam(defaultValue = "10") int limit) {
+    public ResponseEntity<List<LeaderboardEntry>> getTopUsers(@RequestParam(defaultValue = "10") int limit) {
         return ResponseEntity.ok(rankingService.getTopUsers(limit));
     }
 
@@ -102,6 +241,13 @@ public class TradingController {
         return ResponseEntity.ok(portfolioAnalyticsService.getMostTradedAssets());
     }
 
+    @GetMapping(value = "/analytics/most-traded", params = "window")
+    public ResponseEntity<MostTradedAssets> getMostTradedAssets(
+            @RequestParam String window,
+            @RequestParam(defaultValue = "20") int k) {
+        return ResponseEntity.ok(portfolioAnalyticsService.getMostTradedAssets(k, window));
+    }
+
     @GetMapping("/analytics/highest-portfolios")
     public ResponseEntity<Map<Long, BigDecimal>> getHighestPortfolioValues() {
         return ResponseEntity.ok(portfolioAnalyticsService.getHighestPortfolioValues());
@@ -130,7 +276,11 @@ public class TradingController {
     // Asset Management Endpoints
     @PostMapping("/assets")
     public ResponseEntity<Asset> createAsset(@RequestBody CreateAssetRequest request) {
-        return ResponseEntity.ok(assetService.createAsset(request));
+        try {
+            return ResponseEntity.ok(assetService.createAsset(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/assets")
@@ -143,8 +293,70 @@ public class TradingController {
         return ResponseEntity.ok(assetService.getAssetById(assetId));
     }
 
+    @GetMapping("/assets/{assetId}/candles")
+    public ResponseEntity<List<Candle>> getCandles(
+            @PathVariable Long assetId,
+            @RequestParam(defaultValue = "1m") String res,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(assetService.getCandles(assetId, res, limit));
+    }
+
+    @GetMapping("/assets/{assetId}/history")
+    public ResponseEntity<List<PricePoint>> getPriceHistory(
+            @PathVariable Long assetId,
+            @RequestParam(required = false) LocalDateTime from,
+            @RequestParam(required = false) LocalDateTime to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(assetService.getPriceHistory(assetId, from, to, limit));
+    }
+
     @GetMapping("/assets/symbol/{symbol}")
     public ResponseEntity<Asset> getAssetBySymbol(@PathVariable String symbol) {
         return ResponseEntity.ok(assetService.getAssetBySymbol(symbol));
     }
-} 
+
+    // Streaming Endpoints
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) String symbols,
+            @RequestParam(defaultValue = "true") boolean leaderboard) {
+        return marketStreamHub.subscribe(symbols, leaderboard);
+    }
+
+    // Metrics Endpoints
+    @GetMapping(value = "/metrics", produces = PrometheusText.CONTENT_TYPE)
+    public ResponseEntity<String> getMetrics() {
+        return ResponseEntity.ok(metricsExporter.scrape());
+    }
+
+    @GetMapping("/events/subscribers")
+    public ResponseEntity<List<EventSubscriberStats>> getEventSubscriberStats() {
+        return ResponseEntity.ok(eventBus.getSubscriberStats());
+    }
+
+    // Profiling Endpoints
+    @PostMapping("/profiling/recording")
+    public ResponseEntity<FlightRecordingInfo> startRecording(@RequestParam(defaultValue = "0") long durationSeconds) {
+        return ResponseEntity.ok(flightRecordingService.start(durationSeconds));
+    }
+
+    @GetMapping(value = "/profiling/recording", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> dumpRecording() {
+        return flightRecordingService.dump()
+                .map(data -> ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename("trading.jfr").build().toString())
+                        .body(data))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/profiling/recording/status")
+    public ResponseEntity<FlightRecordingInfo> getRecordingStatus() {
+        return ResponseEntity.of(flightRecordingService.getStatus());
+    }
+
+    @DeleteMapping("/profiling/recording")
+    public ResponseEntity<FlightRecordingInfo> stopRecording() {
+        return ResponseEntity.of(flightRecordingService.stop());
+    }
+}
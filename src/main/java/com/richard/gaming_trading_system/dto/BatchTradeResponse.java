@@ -0,0 +1,32 @@
+package com.richard.gaming_trading_system.dto;
+
+import java.util.List;
+
+public class BatchTradeResponse {
+    private Boolean atomic;
+    private Integer executed;
+    private Integer rejected;
+    private List<TradeResult> results;
+
+    public BatchTradeResponse() {}
+
+    public BatchTradeResponse(Boolean atomic, Integer executed, Integer rejected, List<TradeResult> results) {
+        this.atomic = atomic;
+        this.executed = executed;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    // Getters and Setters
+    public Boolean getAtomic() { return atomic; }
+    public void setAtomic(Boolean atomic) { this.atomic = atomic; }
+
+    public Integer getExecuted() { return executed; }
+    public void setExecuted(Integer executed) { this.executed = executed; }
+
+    public Integer getRejected() { return rejected; }
+    public void setRejected(Integer rejected) { this.rejected = rejected; }
+
+    public List<TradeResult> getResults() { return results; }
+    public void setResults(List<TradeResult> results) { this.results = results; }
+}
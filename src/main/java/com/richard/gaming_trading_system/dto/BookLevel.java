@@ -0,0 +1,27 @@
+package com.richard.gaming_trading_system.dto;
+
+import java.math.BigDecimal;
+
+public class BookLevel {
+    private BigDecimal price;
+    private BigDecimal quantity;
+    private Integer orders;
+
+    public BookLevel() {}
+
+    public BookLevel(BigDecimal price, BigDecimal quantity, Integer orders) {
+        this.price = price;
+        this.quantity = quantity;
+        this.orders = orders;
+    }
+
+    // Getters and Setters
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public Integer getOrders() { return orders; }
+    public void setOrders(Integer orders) { this.orders = orders; }
+}
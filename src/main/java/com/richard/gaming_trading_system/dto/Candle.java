@@ -0,0 +1,49 @@
+package com.richard.gaming_trading_system.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class Candle {
+    private LocalDateTime openTime;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private BigDecimal volume;
+    private BigDecimal vwap;
+
+    public Candle() {}
+
+    public Candle(LocalDateTime openTime, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close,
+                  BigDecimal volume, BigDecimal vwap) {
+        this.openTime = openTime;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.vwap = vwap;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getOpenTime() { return openTime; }
+    public void setOpenTime(LocalDateTime openTime) { this.openTime = openTime; }
+
+    public BigDecimal getOpen() { return open; }
+    public void setOpen(BigDecimal open) { this.open = open; }
+
+    public BigDecimal getHigh() { return high; }
+    public void setHigh(BigDecimal high) { this.high = high; }
+
+    public BigDecimal getLow() { return low; }
+    public void setLow(BigDecimal low) { this.low = low; }
+
+    public BigDecimal getClose() { return close; }
+    public void setClose(BigDecimal close) { this.close = close; }
+
+    public BigDecimal getVolume() { return volume; }
+    public void setVolume(BigDecimal volume) { this.volume = volume; }
+
+    public BigDecimal getVwap() { return vwap; }
+    public void setVwap(BigDecimal vwap) { this.vwap = vwap; }
+}
@@ -0,0 +1,36 @@
+package com.richard.gaming_trading_system.dto;
+
+public class EngineShardStats {
+    private Integer shard;
+    private Integer queueDepth;
+    private Long completedTasks;
+    private Double averageServiceMicros;
+    private Double maxServiceMicros;
+
+    public EngineShardStats() {}
+
+    public EngineShardStats(Integer shard, Integer queueDepth, Long completedTasks,
+                            Double averageServiceMicros, Double maxServiceMicros) {
+        this.shard = shard;
+        this.queueDepth = queueDepth;
+        this.completedTasks = completedTasks;
+        this.averageServiceMicros = averageServiceMicros;
+        this.maxServiceMicros = maxServiceMicros;
+    }
+
+    // Getters and Setters
+    public Integer getShard() { return shard; }
+    public void setShard(Integer shard) { this.shard = shard; }
+
+    public Integer getQueueDepth() { return queueDepth; }
+    public void setQueueDepth(Integer queueDepth) { this.queueDepth = queueDepth; }
+
+    public Long getCompletedTasks() { return completedTasks; }
+    public void setCompletedTasks(Long completedTasks) { this.completedTasks = completedTasks; }
+
+    public Double getAverageServiceMicros() { return averageServiceMicros; }
+    public void setAverageServiceMicros(Double averageServiceMicros) { this.averageServiceMicros = averageServiceMicros; }
+
+    public Double getMaxServiceMicros() { return maxServiceMicros; }
+    public void setMaxServiceMicros(Double maxServiceMicros) { this.maxServiceMicros = maxServiceMicros; }
+}
@@ -0,0 +1,51 @@
+package com.richard.gaming_trading_system.dto;
+
+public class EventSubscriberStats {
+    private String subscriber;
+    private Long lagEvents;
+    private Double oldestPendingMicros;
+    private Long processedEvents;
+    private Long batches;
+    private Double averageBatchSize;
+    private Long publishWaits;
+    private Long failedBatches;
+
+    public EventSubscriberStats() {}
+
+    public EventSubscriberStats(String subscriber, Long lagEvents, Double oldestPendingMicros, Long processedEvents,
+                                Long batches, Double averageBatchSize, Long publishWaits, Long failedBatches) {
+        this.subscriber = subscriber;
+        this.lagEvents = lagEvents;
+        this.oldestPendingMicros = oldestPendingMicros;
+        this.processedEvents = processedEvents;
+        this.batches = batches;
+        this.averageBatchSize = averageBatchSize;
+        this.publishWaits = publishWaits;
+        this.failedBatches = failedBatches;
+    }
+
+    // Getters and Setters
+    public String getSubscriber() { return subscriber; }
+    public void setSubscriber(String subscriber) { this.subscriber = subscriber; }
+
+    public Long getLagEvents() { return lagEvents; }
+    public void setLagEvents(Long lagEvents) { this.lagEvents = lagEvents; }
+
+    public Double getOldestPendingMicros() { return oldestPendingMicros; }
+    public void setOldestPendingMicros(Double oldestPendingMicros) { this.oldestPendingMicros = oldestPendingMicros; }
+
+    public Long getProcessedEvents() { return processedEvents; }
+    public void setProcessedEvents(Long processedEvents) { this.processedEvents = processedEvents; }
+
+    public Long getBatches() { return batches; }
+    public void setBatches(Long batches) { this.batches = batches; }
+
+    public Double getAverageBatchSize() { return averageBatchSize; }
+    public void setAverageBatchSize(Double averageBatchSize) { this.averageBatchSize = averageBatchSize; }
+
+    public Long getPublishWaits() { return publishWaits; }
+    public void setPublishWaits(Long publishWaits) { this.publishWaits = publishWaits; }
+
+    public Long getFailedBatches() { return failedBatches; }
+    public void setFailedBatches(Long failedBatches) { this.failedBatches = failedBatches; }
+}
@@ -0,0 +1,37 @@
+package com.richard.gaming_trading_system.dto;
+
+import java.time.Instant;
+
+public class FlightRecordingInfo {
+    private Long id;
+    private String name;
+    private String state;
+    private Instant startTime;
+    private Long durationSeconds;
+
+    public FlightRecordingInfo() {}
+
+    public FlightRecordingInfo(Long id, String name, String state, Instant startTime, Long durationSeconds) {
+        this.id = id;
+        this.name = name;
+        this.state = state;
+        this.startTime = startTime;
+        this.durationSeconds = durationSeconds;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public Instant getStartTime() { return startTime; }
+    public void setStartTime(Instant startTime) { this.startTime = startTime; }
+
+    public Long getDurationSeconds() { return durationSeconds; }
+    public void setDurationSeconds(Long durationSeconds) { this.durationSeconds = durationSeconds; }
+}
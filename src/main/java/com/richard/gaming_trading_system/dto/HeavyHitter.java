@@ -0,0 +1,25 @@
+package com.richard.gaming_trading_system.dto;
+
+public class HeavyHitter {
+    private Long assetId;
+    private Long estimatedTrades;
+    private Long maxOvercount;
+
+    public HeavyHitter() {}
+
+    public HeavyHitter(Long assetId, Long estimatedTrades, Long maxOvercount) {
+        this.assetId = assetId;
+        this.estimatedTrades = estimatedTrades;
+        this.maxOvercount = maxOvercount;
+    }
+
+    // Getters and Setters
+    public Long getAssetId() { return assetId; }
+    public void setAssetId(Long assetId) { this.assetId = assetId; }
+
+    public Long getEstimatedTrades() { return estimatedTrades; }
+    public void setEstimatedTrades(Long estimatedTrades) { this.estimatedTrades = estimatedTrades; }
+
+    public Long getMaxOvercount() { return maxOvercount; }
+    public void setMaxOvercount(Long maxOvercount) { this.maxOvercount = maxOvercount; }
+}
@@ -0,0 +1,46 @@
+package com.richard.gaming_trading_system.dto;
+
+public class IdempotencyStats {
+    private Long entries;
+    private Long hits;
+    private Long inFlightWaits;
+    private Long misses;
+    private Long keyReuses;
+    private Long overflows;
+    private Long expirations;
+
+    public IdempotencyStats() {}
+
+    public IdempotencyStats(Long entries, Long hits, Long inFlightWaits, Long misses, Long keyReuses,
+                            Long overflows, Long expirations) {
+        this.entries = entries;
+        this.hits = hits;
+        this.inFlightWaits = inFlightWaits;
+        this.misses = misses;
+        this.keyReuses = keyReuses;
+        this.overflows = overflows;
+        this.expirations = expirations;
+    }
+
+    // Getters and Setters
+    public Long getEntries() { return entries; }
+    public void setEntries(Long entries) { this.entries = entries; }
+
+    public Long getHits() { return hits; }
+    public void setHits(Long hits) { this.hits = hits; }
+
+    public Long getInFlightWaits() { return inFlightWaits; }
+    public void setInFlightWaits(Long inFlightWaits) { this.inFlightWaits = inFlightWaits; }
+
+    public Long getMisses() { return misses; }
+    public void setMisses(Long misses) { this.misses = misses; }
+
+    public Long getKeyReuses() { return keyReuses; }
+    public void setKeyReuses(Long keyReuses) { this.keyReuses = keyReuses; }
+
+    public Long getOverflows() { return overflows; }
+    public void setOverflows(Long overflows) { this.overflows = overflows; }
+
+    public Long getExpirations() { return expirations; }
+    public void setExpirations(Long expirations) { this.expirations = expirations; }
+}
@@ -0,0 +1,35 @@
+package com.richard.gaming_trading_system.dto;
+
+public class LeaderboardEntry {
+    private Long userId;
+    private String username;
+    private Integer gemCount;
+    private Integer rank;
+    private Integer position;
+
+    public LeaderboardEntry() {}
+
+    public LeaderboardEntry(Long userId, String username, Integer gemCount, Integer rank, Integer position) {
+        this.userId = userId;
+        this.username = username;
+        this.gemCount = gemCount;
+        this.rank = rank;
+        this.position = position;
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Integer getGemCount() { return gemCount; }
+    public void setGemCount(Integer gemCount) { this.gemCount = gemCount; }
+
+    public Integer getRank() { return rank; }
+    public void setRank(Integer rank) { this.rank = rank; }
+
+    public Integer getPosition() { return position; }
+    public void setPosition(Integer position) { this.position = position; }
+}
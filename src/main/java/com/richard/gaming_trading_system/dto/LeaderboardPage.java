@@ -0,0 +1,27 @@
+package com.richard.gaming_trading_system.dto;
+
+import java.util.List;
+
+public class LeaderboardPage {
+    private List<LeaderboardEntry> entries;
+    private Integer nextCursor;
+    private Integer totalUsers;
+
+    public LeaderboardPage() {}
+
+    public LeaderboardPage(List<LeaderboardEntry> entries, Integer nextCursor, Integer totalUsers) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+        this.totalUsers = totalUsers;
+    }
+
+    // Getters and Setters
+    public List<LeaderboardEntry> getEntries() { return entries; }
+    public void setEntries(List<LeaderboardEntry> entries) { this.entries = entries; }
+
+    public Integer getNextCursor() { return nextCursor; }
+    public void setNextCursor(Integer nextCursor) { this.nextCursor = nextCursor; }
+
+    public Integer getTotalUsers() { return totalUsers; }
+    public void setTotalUsers(Integer totalUsers) { this.totalUsers = totalUsers; }
+}
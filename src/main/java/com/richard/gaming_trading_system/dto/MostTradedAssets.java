@@ -0,0 +1,37 @@
+package com.richard.gaming_trading_system.dto;
+
+import java.util.List;
+
+public class MostTradedAssets {
+    private String window;
+    private Double epsilon;
+    private Long windowTrades;
+    private Long maxError;
+    private List<HeavyHitter> assets;
+
+    public MostTradedAssets() {}
+
+    public MostTradedAssets(String window, Double epsilon, Long windowTrades, Long maxError, List<HeavyHitter> assets) {
+        this.window = window;
+        this.epsilon = epsilon;
+        this.windowTrades = windowTrades;
+        this.maxError = maxError;
+        this.assets = assets;
+    }
+
+    // Getters and Setters
+    public String getWindow() { return window; }
+    public void setWindow(String window) { this.window = window; }
+
+    public Double getEpsilon() { return epsilon; }
+    public void setEpsilon(Double epsilon) { this.epsilon = epsilon; }
+
+    public Long getWindowTrades() { return windowTrades; }
+    public void setWindowTrades(Long windowTrades) { this.windowTrades = windowTrades; }
+
+    public Long getMaxError() { return maxError; }
+    public void setMaxError(Long maxError) { this.maxError = maxError; }
+
+    public List<HeavyHitter> getAssets() { return assets; }
+    public void setAssets(List<HeavyHitter> assets) { this.assets = assets; }
+}
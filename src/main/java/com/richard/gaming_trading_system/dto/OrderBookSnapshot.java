@@ -0,0 +1,27 @@
+package com.richard.gaming_trading_system.dto;
+
+import java.util.List;
+
+public class OrderBookSnapshot {
+    private Long assetId;
+    private List<BookLevel> bids;
+    private List<BookLevel> asks;
+
+    public OrderBookSnapshot() {}
+
+    public OrderBookSnapshot(Long assetId, List<BookLevel> bids, List<BookLevel> asks) {
+        this.assetId = assetId;
+        this.bids = bids;
+        this.asks = asks;
+    }
+
+    // Getters and Setters
+    public Long getAssetId() { return assetId; }
+    public void setAssetId(Long assetId) { this.assetId = assetId; }
+
+    public List<BookLevel> getBids() { return bids; }
+    public void setBids(List<BookLevel> bids) { this.bids = bids; }
+
+    public List<BookLevel> getAsks() { return asks; }
+    public void setAsks(List<BookLevel> asks) { this.asks = asks; }
+}
@@ -0,0 +1,49 @@
+package com.richard.gaming_trading_system.dto;
+
+import com.richard.gaming_trading_system.model.TradeType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The order owner's side of one fill. It never names the other party.
+ */
+public class OrderFill {
+    private Long tradeId;
+    private Long orderId;
+    private TradeType side;
+    private BigDecimal price;
+    private BigDecimal quantity;
+    private LocalDateTime timestamp;
+
+    public OrderFill() {}
+
+    public OrderFill(Long tradeId, Long orderId, TradeType side, BigDecimal price, BigDecimal quantity,
+                     LocalDateTime timestamp) {
+        this.tradeId = tradeId;
+        this.orderId = orderId;
+        this.side = side;
+        this.price = price;
+        this.quantity = quantity;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public Long getTradeId() { return tradeId; }
+    public void setTradeId(Long tradeId) { this.tradeId = tradeId; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public TradeType getSide() { return side; }
+    public void setSide(TradeType side) { this.side = side; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+}
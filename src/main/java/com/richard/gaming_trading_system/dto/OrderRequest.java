@@ -0,0 +1,61 @@
+package com.richard.gaming_trading_system.dto;
+
+import com.richard.gaming_trading_system.model.OrderType;
+import com.richard.gaming_trading_system.model.TradeType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public class OrderRequest {
+    @NotNull
+    private Long portfolioId;
+
+    @NotNull
+    private Long assetId;
+
+    @NotNull
+    private TradeType side;
+
+    @NotNull
+    private OrderType orderType;
+
+    @NotNull
+    @Positive
+    private BigDecimal quantity;
+
+    // Limit price; ignored for market orders
+    @Positive
+    private BigDecimal price;
+
+    public OrderRequest() {}
+
+    public OrderRequest(Long portfolioId, Long assetId, TradeType side, OrderType orderType,
+                        BigDecimal quantity, BigDecimal price) {
+        this.portfolioId = portfolioId;
+        this.assetId = assetId;
+        this.side = side;
+        this.orderType = orderType;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    // Getters and Setters
+    public Long getPortfolioId() { return portfolioId; }
+    public void setPortfolioId(Long portfolioId) { this.portfolioId = portfolioId; }
+
+    public Long getAssetId() { return assetId; }
+    public void setAssetId(Long assetId) { this.assetId = assetId; }
+
+    public TradeType getSide() { return side; }
+    public void setSide(TradeType side) { this.side = side; }
+
+    public OrderType getOrderType() { return orderType; }
+    public void setOrderType(OrderType orderType) { this.orderType = orderType; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+}
@@ -0,0 +1,59 @@
+package com.richard.gaming_trading_system.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class OrderResult {
+    private Long orderId;
+    private Long assetId;
+    private OrderStatus status;
+    private BigDecimal filledQuantity;
+    private BigDecimal remainingQuantity;
+    private List<OrderFill> fills;
+    private TradeErrorCode errorCode;
+    private String message;
+
+    public OrderResult() {}
+
+    public OrderResult(Long orderId, Long assetId, OrderStatus status, BigDecimal filledQuantity,
+                       BigDecimal remainingQuantity, List<OrderFill> fills, TradeErrorCode errorCode, String message) {
+        this.orderId = orderId;
+        this.assetId = assetId;
+        this.status = status;
+        this.filledQuantity = filledQuantity;
+        this.remainingQuantity = remainingQuantity;
+        this.fills = fills;
+        this.errorCode = errorCode;
+        this.message = message;
+    }
+
+    public static OrderResult rejected(Long assetId, TradeErrorCode errorCode, String message) {
+        return new OrderResult(null, assetId, OrderStatus.REJECTED, BigDecimal.ZERO, BigDecimal.ZERO, List.of(),
+                errorCode, message);
+    }
+
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Long getAssetId() { return assetId; }
+    public void setAssetId(Long assetId) { this.assetId = assetId; }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public BigDecimal getFilledQuantity() { return filledQuantity; }
+    public void setFilledQuantity(BigDecimal filledQuantity) { this.filledQuantity = filledQuantity; }
+
+    public BigDecimal getRemainingQuantity() { return remainingQuantity; }
+    public void setRemainingQuantity(BigDecimal remainingQuantity) { this.remainingQuantity = remainingQuantity; }
+
+    public List<OrderFill> getFills() { return fills; }
+    public void setFills(List<OrderFill> fills) { this.fills = fills; }
+
+    public TradeErrorCode getErrorCode() { return errorCode; }
+    public void setErrorCode(TradeErrorCode errorCode) { this.errorCode = errorCode; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
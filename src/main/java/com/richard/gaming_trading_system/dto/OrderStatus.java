@@ -0,0 +1,11 @@
+package com.richard.gaming_trading_system.dto;
+
+public enum OrderStatus {
+    /** On the book, possibly partly filled. */
+    RESTING,
+    FILLED,
+    /** Off the book with part or all of it unfilled. */
+    CANCELLED,
+    /** Never reached the book. */
+    REJECTED
+}
@@ -0,0 +1,23 @@
+package com.richard.gaming_trading_system.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class PricePoint {
+    private LocalDateTime timestamp;
+    private BigDecimal price;
+
+    public PricePoint() {}
+
+    public PricePoint(LocalDateTime timestamp, BigDecimal price) {
+        this.timestamp = timestamp;
+        this.price = price;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+}
@@ -0,0 +1,33 @@
+package com.richard.gaming_trading_system.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class PriceUpdate {
+    private Long assetId;
+    private String symbol;
+    private BigDecimal price;
+    private LocalDateTime timestamp;
+
+    public PriceUpdate() {}
+
+    public PriceUpdate(Long assetId, String symbol, BigDecimal price, LocalDateTime timestamp) {
+        this.assetId = assetId;
+        this.symbol = symbol;
+        this.price = price;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public Long getAssetId() { return assetId; }
+    public void setAssetId(Long assetId) { this.assetId = assetId; }
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+}
@@ -0,0 +1,43 @@
+package com.richard.gaming_trading_system.dto;
+
+import java.math.BigDecimal;
+
+public class TopOfBook {
+    private Long assetId;
+    private String symbol;
+    private BigDecimal bidPrice;
+    private BigDecimal bidQuantity;
+    private BigDecimal askPrice;
+    private BigDecimal askQuantity;
+
+    public TopOfBook() {}
+
+    public TopOfBook(Long assetId, String symbol, BigDecimal bidPrice, BigDecimal bidQuantity,
+                     BigDecimal askPrice, BigDecimal askQuantity) {
+        this.assetId = assetId;
+        this.symbol = symbol;
+        this.bidPrice = bidPrice;
+        this.bidQuantity = bidQuantity;
+        this.askPrice = askPrice;
+        this.askQuantity = askQuantity;
+    }
+
+    // Getters and Setters
+    public Long getAssetId() { return assetId; }
+    public void setAssetId(Long assetId) { this.assetId = assetId; }
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public BigDecimal getBidPrice() { return bidPrice; }
+    public void setBidPrice(BigDecimal bidPrice) { this.bidPrice = bidPrice; }
+
+    public BigDecimal getBidQuantity() { return bidQuantity; }
+    public void setBidQuantity(BigDecimal bidQuantity) { this.bidQuantity = bidQuantity; }
+
+    public BigDecimal getAskPrice() { return askPrice; }
+    public void setAskPrice(BigDecimal askPrice) { this.askPrice = askPrice; }
+
+    public BigDecimal getAskQuantity() { return askQuantity; }
+    public void setAskQuantity(BigDecimal askQuantity) { this.askQuantity = askQuantity; }
+}
@@ -0,0 +1,42 @@
+package com.richard.gaming_trading_system.dto;
+
+import com.richard.gaming_trading_system.exception.AssetNotFoundException;
+import com.richard.gaming_trading_system.exception.InsufficientAssetException;
+import com.richard.gaming_trading_system.exception.InsufficientFundsException;
+import com.richard.gaming_trading_system.exception.PortfolioNotFoundException;
+import com.richard.gaming_trading_system.exception.UserNotFoundException;
+
+import java.util.concurrent.RejectedExecutionException;
+
+public enum TradeErrorCode {
+    INSUFFICIENT_FUNDS,
+    INSUFFICIENT_ASSET,
+    PORTFOLIO_NOT_FOUND,
+    ASSET_NOT_FOUND,
+    USER_NOT_FOUND,
+    INVALID_REQUEST,
+    /** The trade engine is not accepting work. */
+    UNAVAILABLE,
+    /** Not attempted, because another trade in an all-or-nothing batch was rejected. */
+    NOT_EXECUTED,
+    INTERNAL_ERROR;
+
+    public static TradeErrorCode of(RuntimeException e) {
+        if (e instanceof InsufficientFundsException) {
+            return INSUFFICIENT_FUNDS;
+        } else if (e instanceof InsufficientAssetException) {
+            return INSUFFICIENT_ASSET;
+        } else if (e instanceof PortfolioNotFoundException) {
+            return PORTFOLIO_NOT_FOUND;
+        } else if (e instanceof AssetNotFoundException) {
+            return ASSET_NOT_FOUND;
+        } else if (e instanceof UserNotFoundException) {
+            return USER_NOT_FOUND;
+        } else if (e instanceof ArithmeticException || e instanceof IllegalArgumentException) {
+            return INVALID_REQUEST;
+        } else if (e instanceof RejectedExecutionException) {
+            return UNAVAILABLE;
+        }
+        return INTERNAL_ERROR;
+    }
+}
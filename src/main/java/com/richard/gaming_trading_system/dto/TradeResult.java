@@ -0,0 +1,45 @@
+package com.richard.gaming_trading_system.dto;
+
+import com.richard.gaming_trading_system.model.Trade;
+
+public class TradeResult {
+    private Integer index;
+    private Boolean executed;
+    private Trade trade;
+    private TradeErrorCode errorCode;
+    private String message;
+
+    public TradeResult() {}
+
+    public TradeResult(Integer index, Boolean executed, Trade trade, TradeErrorCode errorCode, String message) {
+        this.index = index;
+        this.executed = executed;
+        this.trade = trade;
+        this.errorCode = errorCode;
+        this.message = message;
+    }
+
+    public static TradeResult executed(int index, Trade trade) {
+        return new TradeResult(index, true, trade, null, null);
+    }
+
+    public static TradeResult rejected(int index, TradeErrorCode errorCode, String message) {
+        return new TradeResult(index, false, null, errorCode, message);
+    }
+
+    // Getters and Setters
+    public Integer getIndex() { return index; }
+    public void setIndex(Integer index) { this.index = index; }
+
+    public Boolean getExecuted() { return executed; }
+    public void setExecuted(Boolean executed) { this.executed = executed; }
+
+    public Trade getTrade() { return trade; }
+    public void setTrade(Trade trade) { this.trade = trade; }
+
+    public TradeErrorCode getErrorCode() { return errorCode; }
+    public void setErrorCode(TradeErrorCode errorCode) { this.errorCode = errorCode; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,243 @@
+package com.richard.gaming_trading_system.engine;
+
+import com.richard.gaming_trading_system.dto.EngineShardStats;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs trade work on a fixed set of single-threaded shards. Work is routed by user id, so all
+ * mutations of one user's state happen on one thread in submission order without locking, while
+ * different users proceed in parallel.
+ */
+@Component
+public class TradeExecutionEngine {
+
+    private final Shard[] shards;
+
+    public TradeExecutionEngine(
+            @Value("${trading.engine.shards:0}") int shardCount,
+            @Value("${trading.engine.mailbox-capacity:10000}") int mailboxCapacity) {
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i, mailboxCapacity);
+            shards[i].thread.start();
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public int shardOf(long userId) {
+        long mixed = userId * 0x9E3779B97F4A7C15L;
+        return Math.floorMod((int) (mixed ^ (mixed >>> 32)), shards.length);
+    }
+
+    /**
+     * Runs the task on the user's shard and waits for it. Exceptions thrown by the task are rethrown
+     * to the caller unchanged. Calls made from the shard's own thread run inline.
+     */
+    public <T> T execute(long userId, Supplier<T> task) {
+        Shard shard = shards[shardOf(userId)];
+        if (Thread.currentThread() == shard.thread) {
+            return task.get();
+        }
+        try {
+            return submit(shard, task).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a task that touches several users. When they all live on one shard it simply runs there;
+     * otherwise each of their shards is parked on a latch and the task runs on the calling thread, so
+     * none of those users change underneath it. Shards are parked one at a time in index order, each
+     * only once the lower ones are held, so two runs can never each hold a shard the other is waiting
+     * for, and runs over disjoint shards proceed in parallel.
+     */
+    public <T> T executeExclusive(long[] userIds, Supplier<T> task) {
+        boolean[] involved = new boolean[shards.length];
+        int count = 0;
+        for (long userId : userIds) {
+            int index = shardOf(userId);
+            if (!involved[index]) {
+                involved[index] = true;
+                count++;
+            }
+        }
+        if (count == 0) {
+            return task.get();
+        }
+        if (count == 1) {
+            return execute(userIds[0], task);
+        }
+        for (Shard shard : shards) {
+            if (Thread.currentThread() == shard.thread) {
+                throw new IllegalStateException("Exclusive work spanning shards cannot start on a shard thread");
+            }
+        }
+        CountDownLatch released = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < shards.length; i++) {
+                if (involved[i]) {
+                    CountDownLatch parked = new CountDownLatch(1);
+                    submit(shards[i], () -> {
+                        parked.countDown();
+                        awaitUninterruptibly(released);
+                        return null;
+                    });
+                    awaitUninterruptibly(parked);
+                }
+            }
+            return task.get();
+        } finally {
+            released.countDown();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(long userId, Supplier<T> task) {
+        return submit(shards[shardOf(userId)], task);
+    }
+
+    /**
+     * Runs the task once on every shard, in parallel, passing the shard index.
+     */
+    public <T> List<CompletableFuture<T>> submitToAll(IntFunction<T> task) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            futures.add(submit(shard, () -> task.apply(shard.index)));
+        }
+        return futures;
+    }
+
+    private <T> CompletableFuture<T> submit(Shard shard, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable work = () -> {
+            long start = System.nanoTime();
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = task.get();
+            } catch (Throwable t) {
+                failure = t;
+            }
+            // Record before completing, so a caller that has its result also sees it counted.
+            shard.recordService(System.nanoTime() - start);
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        };
+        if (!shard.running || !shard.mailbox.offer(work)) {
+            throw new RejectedExecutionException("Trade shard " + shard.index + " is not accepting work");
+        }
+        return future;
+    }
+
+    public List<EngineShardStats> getShardStats() {
+        List<EngineShardStats> stats = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            long completed = shard.completed;
+            double average = completed == 0 ? 0.0 : shard.totalServiceNanos / (double) completed / 1_000.0;
+            stats.add(new EngineShardStats(shard.index, shard.mailbox.size(), completed,
+                    average, shard.maxServiceNanos / 1_000.0));
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Shard shard : shards) {
+            shard.running = false;
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static final class Shard implements Runnable {
+        private final int index;
+        private final BlockingQueue<Runnable> mailbox;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        // Written only by the shard thread, read by metrics callers.
+        private volatile long completed;
+        private volatile long totalServiceNanos;
+        private volatile long maxServiceNanos;
+
+        private Shard(int index, int mailboxCapacity) {
+            this.index = index;
+            this.mailbox = new ArrayBlockingQueue<>(mailboxCapacity);
+            this.thread = new Thread(this, "trade-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running || !mailbox.isEmpty()) {
+                Runnable task;
+                try {
+                    task = mailbox.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (task == null) {
+                    continue;
+                }
+                task.run();
+            }
+        }
+
+        private void recordService(long elapsed) {
+            totalServiceNanos += elapsed;
+            if (elapsed > maxServiceNanos) {
+                maxServiceNanos = elapsed;
+            }
+            completed++;
+        }
+    }
+}
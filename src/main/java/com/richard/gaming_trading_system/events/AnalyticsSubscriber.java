@@ -0,0 +1,40 @@
+package com.richard.gaming_trading_system.events;
+
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.repository.TradeAggregates;
+import com.richard.gaming_trading_system.repository.TradeRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Feeds executed trades into the trade aggregates, so the totals are not updated on the trade path.
+ */
+@Component
+public class AnalyticsSubscriber implements EventSubscriber {
+
+    private final TradeAggregates aggregates;
+
+    public AnalyticsSubscriber(TradeRepository tradeRepository) {
+        this.aggregates = tradeRepository.getAggregates();
+    }
+
+    @Override
+    public String getName() {
+        return "analytics";
+    }
+
+    @Override
+    public boolean accepts(DomainEvent event) {
+        return event instanceof TradeExecuted;
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> batch) {
+        for (DomainEvent event : batch) {
+            TradeExecuted trade = (TradeExecuted) event;
+            aggregates.record(trade.getAssetId(), trade.getUserId(), trade.getQuantity(),
+                    Money.multiply(trade.getQuantity(), trade.getPrice()));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.richard.gaming_trading_system.events;
+
+import com.richard.gaming_trading_system.stream.MarketStreamHub;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams best bid and ask changes to SSE clients. Only the newest change per asset in a batch is
+ * published, since each one replaces the last.
+ */
+@Component
+public class BookStreamSubscriber implements EventSubscriber {
+
+    private final MarketStreamHub marketStreamHub;
+
+    public BookStreamSubscriber(MarketStreamHub marketStreamHub) {
+        this.marketStreamHub = marketStreamHub;
+    }
+
+    @Override
+    public String getName() {
+        return "book-stream";
+    }
+
+    @Override
+    public boolean accepts(DomainEvent event) {
+        return event instanceof TopOfBookChanged;
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> batch) {
+        Map<Long, TopOfBookChanged> latest = new LinkedHashMap<>();
+        for (DomainEvent event : batch) {
+            TopOfBookChanged change = (TopOfBookChanged) event;
+            latest.put(change.getAssetId(), change);
+        }
+        for (TopOfBookChanged change : latest.values()) {
+            marketStreamHub.publishBook(change);
+        }
+    }
+}
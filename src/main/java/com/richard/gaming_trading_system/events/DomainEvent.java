@@ -0,0 +1,14 @@
+package com.richard.gaming_trading_system.events;
+
+/**
+ * Something that happened in the trading domain, published on the {@link EventBus}. Events are
+ * immutable and stamped with the time they were created, which is when they were published.
+ */
+public abstract class DomainEvent {
+
+    private final long publishedNanos = System.nanoTime();
+
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+}
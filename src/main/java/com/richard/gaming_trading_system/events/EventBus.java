@@ -0,0 +1,203 @@
+package com.richard.gaming_trading_system.events;
+
+import com.richard.gaming_trading_system.dto.EventSubscriberStats;
+import com.richard.gaming_trading_system.metrics.LatencyHistogram;
+import com.richard.gaming_trading_system.metrics.MetricsSource;
+import com.richard.gaming_trading_system.metrics.PrometheusText;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process publish/subscribe for {@link DomainEvent}s. Every subscriber has its own bounded queue
+ * and thread, which drains whatever has queued up, up to the batch size, and hands it over in one
+ * call. A slow subscriber therefore gets bigger batches rather than holding up the others. When a
+ * subscriber's queue is full, publishers wait for room instead of dropping events.
+ */
+@Component
+public class EventBus implements MetricsSource {
+
+    private static final Logger log = LoggerFactory.getLogger(EventBus.class);
+
+    private final Channel[] channels;
+
+    @Autowired
+    public EventBus(
+            List<EventSubscriber> subscribers,
+            @Value("${trading.events.capacity:65536}") int capacity,
+            @Value("${trading.events.batch-size:1024}") int batchSize) {
+        this.channels = new Channel[subscribers.size()];
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = new Channel(subscribers.get(i), Math.max(capacity, 1), Math.max(batchSize, 1));
+            channels[i].thread.start();
+        }
+    }
+
+    public void publish(DomainEvent event) {
+        for (Channel channel : channels) {
+            if (channel.subscriber.accepts(event)) {
+                channel.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Waits until every subscriber has handled everything published so far.
+     *
+     * @return false if that did not happen within the timeout
+     */
+    public boolean awaitDrained(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (Channel channel : channels) {
+            while (channel.processed < channel.published.sum()) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(1);
+            }
+        }
+        return true;
+    }
+
+    public List<EventSubscriberStats> getSubscriberStats() {
+        List<EventSubscriberStats> stats = new ArrayList<>(channels.length);
+        for (Channel channel : channels) {
+            long processed = channel.processed;
+            long batches = channel.batches;
+            stats.add(new EventSubscriberStats(channel.subscriber.getName(), channel.lag(processed),
+                    channel.oldestPendingNanos() / 1_000.0, processed, batches,
+                    batches == 0 ? 0.0 : processed / (double) batches,
+                    channel.publishWaits.sum(), channel.failures));
+        }
+        return stats;
+    }
+
+    @Override
+    public void writeMetrics(PrometheusText out) {
+        out.header("trading_event_bus_lag_events", "gauge", "Events published but not yet handled, per subscriber.");
+        for (Channel channel : channels) {
+            out.sample("trading_event_bus_lag_events", channel.label, channel.lag(channel.processed));
+        }
+        out.header("trading_event_bus_oldest_pending_seconds", "gauge", "Age of the oldest queued event, per subscriber.");
+        for (Channel channel : channels) {
+            out.sample("trading_event_bus_oldest_pending_seconds", channel.label, channel.oldestPendingNanos() / 1e9);
+        }
+        out.header("trading_event_bus_processed_total", "counter", "Events handled, per subscriber.");
+        for (Channel channel : channels) {
+            out.sample("trading_event_bus_processed_total", channel.label, channel.processed);
+        }
+        out.header("trading_event_bus_publish_waits_total", "counter", "Publishes that waited for a full queue.");
+        for (Channel channel : channels) {
+            out.sample("trading_event_bus_publish_waits_total", channel.label, channel.publishWaits.sum());
+        }
+        out.header("trading_event_bus_delivery_seconds", "summary", "Time from publishing a batch's first event to handing the batch over.");
+        for (Channel channel : channels) {
+            out.summary("trading_event_bus_delivery_seconds", channel.label, channel.delivery.snapshot());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Channel channel : channels) {
+            channel.running = false;
+        }
+        for (Channel channel : channels) {
+            try {
+                channel.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static final class Channel implements Runnable {
+        private final EventSubscriber subscriber;
+        private final String label;
+        private final BlockingQueue<DomainEvent> queue;
+        private final int batchSize;
+        private final Thread thread;
+        private final LongAdder published = new LongAdder();
+        private final LongAdder publishWaits = new LongAdder();
+        private final LatencyHistogram delivery = new LatencyHistogram();
+        private volatile boolean running = true;
+
+        // Written only by the channel thread, read by stats callers.
+        private volatile long processed;
+        private volatile long batches;
+        private volatile long failures;
+
+        private Channel(EventSubscriber subscriber, int capacity, int batchSize) {
+            this.subscriber = subscriber;
+            this.label = "subscriber=\"" + subscriber.getName() + "\"";
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.batchSize = batchSize;
+            this.thread = new Thread(this, "event-bus-" + subscriber.getName());
+            this.thread.setDaemon(true);
+        }
+
+        private void offer(DomainEvent event) {
+            published.increment();
+            if (queue.offer(event)) {
+                return;
+            }
+            publishWaits.increment();
+            try {
+                queue.put(event);
+            } catch (InterruptedException e) {
+                published.decrement();
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while publishing to {}; event dropped", subscriber.getName());
+            }
+        }
+
+        private long lag(long processed) {
+            return Math.max(published.sum() - processed, 0L);
+        }
+
+        private long oldestPendingNanos() {
+            DomainEvent oldest = queue.peek();
+            return oldest == null ? 0L : Math.max(System.nanoTime() - oldest.getPublishedNanos(), 0L);
+        }
+
+        @Override
+        public void run() {
+            List<DomainEvent> batch = new ArrayList<>(Math.min(batchSize, 4096));
+            List<DomainEvent> view = Collections.unmodifiableList(batch);
+            while (running || !queue.isEmpty()) {
+                DomainEvent first;
+                try {
+                    first = queue.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                delivery.record(System.nanoTime() - first.getPublishedNanos());
+                try {
+                    subscriber.onEvents(view);
+                } catch (RuntimeException e) {
+                    failures++;
+                    log.error("Event subscriber {} failed on a batch of {} events", subscriber.getName(), batch.size(), e);
+                }
+                processed += batch.size();
+                batches++;
+                batch.clear();
+            }
+        }
+    }
+}
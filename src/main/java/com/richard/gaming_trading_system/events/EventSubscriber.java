@@ -0,0 +1,22 @@
+package com.richard.gaming_trading_system.events;
+
+import java.util.List;
+
+/**
+ * Consumes events from the {@link EventBus} in batches, on a thread of its own. Batches preserve
+ * publication order, so events published by one thread arrive in the order they were published.
+ */
+public interface EventSubscriber {
+
+    String getName();
+
+    /**
+     * Whether the subscriber wants the event; rejected events are never queued for it.
+     */
+    boolean accepts(DomainEvent event);
+
+    /**
+     * Handles a batch of accepted events. The list is reused, so it must not be kept after the call.
+     */
+    void onEvents(List<DomainEvent> batch);
+}
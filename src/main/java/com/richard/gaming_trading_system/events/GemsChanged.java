@@ -0,0 +1,20 @@
+package com.richard.gaming_trading_system.events;
+
+/**
+ * A user's gem balance after a change. It carries the new balance rather than the delta, so a
+ * subscriber can keep only the latest event per user.
+ */
+public final class GemsChanged extends DomainEvent {
+
+    private final long userId;
+    private final int gemCount;
+
+    public GemsChanged(long userId, int gemCount) {
+        this.userId = userId;
+        this.gemCount = gemCount;
+    }
+
+    public long getUserId() { return userId; }
+
+    public int getGemCount() { return gemCount; }
+}
@@ -0,0 +1,41 @@
+package com.richard.gaming_trading_system.events;
+
+import com.richard.gaming_trading_system.analytics.HeavyHitterTracker;
+import com.richard.gaming_trading_system.marketdata.CandleStore;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Feeds executed trades into the candles and the most-traded windows.
+ */
+@Component
+public class MarketDataSubscriber implements EventSubscriber {
+
+    private final CandleStore candleStore;
+    private final HeavyHitterTracker heavyHitterTracker;
+
+    public MarketDataSubscriber(CandleStore candleStore, HeavyHitterTracker heavyHitterTracker) {
+        this.candleStore = candleStore;
+        this.heavyHitterTracker = heavyHitterTracker;
+    }
+
+    @Override
+    public String getName() {
+        return "market-data";
+    }
+
+    @Override
+    public boolean accepts(DomainEvent event) {
+        return event instanceof TradeExecuted;
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> batch) {
+        for (DomainEvent event : batch) {
+            TradeExecuted trade = (TradeExecuted) event;
+            candleStore.recordFixedTrade(trade.getAssetId(), trade.getPrice(), trade.getQuantity(), trade.getTimestamp());
+            heavyHitterTracker.recordTrade(trade.getAssetId());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.richard.gaming_trading_system.events;
+
+import com.richard.gaming_trading_system.stream.MarketStreamHub;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Streams price ticks to SSE clients. The hub diffs against the last snapshot it sent, so when ticks
+ * queue up only the newest is published, and it still carries every price that moved.
+ */
+@Component
+public class PriceStreamSubscriber implements EventSubscriber {
+
+    private final MarketStreamHub marketStreamHub;
+
+    public PriceStreamSubscriber(MarketStreamHub marketStreamHub) {
+        this.marketStreamHub = marketStreamHub;
+    }
+
+    @Override
+    public String getName() {
+        return "price-stream";
+    }
+
+    @Override
+    public boolean accepts(DomainEvent event) {
+        return event instanceof PriceTicked;
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> batch) {
+        PriceTicked latest = (PriceTicked) batch.get(batch.size() - 1);
+        marketStreamHub.publishPrices(latest.getSnapshot());
+    }
+}
@@ -0,0 +1,17 @@
+package com.richard.gaming_trading_system.events;
+
+import com.richard.gaming_trading_system.marketdata.PriceSnapshot;
+
+/**
+ * A new set of prices. Snapshots are complete, so only the latest one in a batch matters.
+ */
+public final class PriceTicked extends DomainEvent {
+
+    private final PriceSnapshot snapshot;
+
+    public PriceTicked(PriceSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public PriceSnapshot getSnapshot() { return snapshot; }
+}
@@ -0,0 +1,46 @@
+package com.richard.gaming_trading_system.events;
+
+import com.richard.gaming_trading_system.service.RankingService;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the leaderboard up to date from {@link GemsChanged} events. A batch is coalesced to the latest
+ * balance per user, so a user whose gems changed many times since the last batch is re-ranked once.
+ */
+@Component
+public class RankingSubscriber implements EventSubscriber {
+
+    private final RankingService rankingService;
+    private final Map<Long, Integer> latest = new HashMap<>();
+
+    public RankingSubscriber(RankingService rankingService) {
+        this.rankingService = rankingService;
+    }
+
+    @Override
+    public String getName() {
+        return "ranking";
+    }
+
+    @Override
+    public boolean accepts(DomainEvent event) {
+        return event instanceof GemsChanged;
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> batch) {
+        for (DomainEvent event : batch) {
+            GemsChanged change = (GemsChanged) event;
+            latest.put(change.getUserId(), change.getGemCount());
+        }
+        try {
+            latest.forEach(rankingService::updateUserRank);
+        } finally {
+            latest.clear();
+        }
+    }
+}
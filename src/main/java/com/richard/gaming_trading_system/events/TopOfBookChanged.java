@@ -0,0 +1,32 @@
+package com.richard.gaming_trading_system.events;
+
+/**
+ * An asset's best bid and ask after an order changed either of them. Prices are Money units and sizes
+ * Quantity units; an empty side has price and size 0.
+ */
+public final class TopOfBookChanged extends DomainEvent {
+
+    private final long assetId;
+    private final long bidPrice;
+    private final long bidQuantity;
+    private final long askPrice;
+    private final long askQuantity;
+
+    public TopOfBookChanged(long assetId, long bidPrice, long bidQuantity, long askPrice, long askQuantity) {
+        this.assetId = assetId;
+        this.bidPrice = bidPrice;
+        this.bidQuantity = bidQuantity;
+        this.askPrice = askPrice;
+        this.askQuantity = askQuantity;
+    }
+
+    public long getAssetId() { return assetId; }
+
+    public long getBidPrice() { return bidPrice; }
+
+    public long getBidQuantity() { return bidQuantity; }
+
+    public long getAskPrice() { return askPrice; }
+
+    public long getAskQuantity() { return askQuantity; }
+}
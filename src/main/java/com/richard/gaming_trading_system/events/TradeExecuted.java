@@ -0,0 +1,45 @@
+package com.richard.gaming_trading_system.events;
+
+import com.richard.gaming_trading_system.model.TradeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A trade that has been applied to the user's gems and portfolio. Price and quantity are fixed-point
+ * {@code Money} and {@code Quantity} units.
+ */
+public final class TradeExecuted extends DomainEvent {
+
+    private final long userId;
+    private final long portfolioId;
+    private final long assetId;
+    private final TradeType tradeType;
+    private final long price;
+    private final long quantity;
+    private final LocalDateTime timestamp;
+
+    public TradeExecuted(long userId, long portfolioId, long assetId, TradeType tradeType,
+                         long price, long quantity, LocalDateTime timestamp) {
+        this.userId = userId;
+        this.portfolioId = portfolioId;
+        this.assetId = assetId;
+        this.tradeType = tradeType;
+        this.price = price;
+        this.quantity = quantity;
+        this.timestamp = timestamp;
+    }
+
+    public long getUserId() { return userId; }
+
+    public long getPortfolioId() { return portfolioId; }
+
+    public long getAssetId() { return assetId; }
+
+    public TradeType getTradeType() { return tradeType; }
+
+    public long getPrice() { return price; }
+
+    public long getQuantity() { return quantity; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+}
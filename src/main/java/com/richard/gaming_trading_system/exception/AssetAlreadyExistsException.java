@@ -0,0 +1,7 @@
+package com.richard.gaming_trading_system.exception;
+
+public class AssetAlreadyExistsException extends RuntimeException {
+    public AssetAlreadyExistsException(String message) {
+        super(message);
+    }
+}
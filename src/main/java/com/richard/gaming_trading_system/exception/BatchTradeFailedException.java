@@ -0,0 +1,24 @@
+package com.richard.gaming_trading_system.exception;
+
+/**
+ * A trade of an all-or-nothing unit failed, so none of the unit was kept. The cause is the trade's own
+ * rejection.
+ */
+public class BatchTradeFailedException extends RuntimeException {
+
+    private final int index;
+
+    public BatchTradeFailedException(int index, RuntimeException cause) {
+        super(cause.getMessage(), cause);
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public synchronized RuntimeException getCause() {
+        return (RuntimeException) super.getCause();
+    }
+}
@@ -0,0 +1,7 @@
+package com.richard.gaming_trading_system.exception;
+
+public class IdempotencyCacheFullException extends RuntimeException {
+    public IdempotencyCacheFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.richard.gaming_trading_system.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.richard.gaming_trading_system.exception;
+
+public class UserAlreadyExistsException extends RuntimeException {
+    public UserAlreadyExistsException(String message) {
+        super(message);
+    }
+}
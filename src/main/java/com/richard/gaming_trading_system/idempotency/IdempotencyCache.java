@@ -0,0 +1,319 @@
+package com.richard.gaming_trading_system.idempotency;
+
+import com.richard.gaming_trading_system.dto.IdempotencyStats;
+import com.richard.gaming_trading_system.dto.TradeRequest;
+import com.richard.gaming_trading_system.exception.IdempotencyCacheFullException;
+import com.richard.gaming_trading_system.exception.IdempotencyKeyReusedException;
+import com.richard.gaming_trading_system.metrics.MetricsSource;
+import com.richard.gaming_trading_system.metrics.PrometheusText;
+import com.richard.gaming_trading_system.model.Trade;
+import com.richard.gaming_trading_system.model.TradeType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of trades submitted with an {@code Idempotency-Key}, so a retried request gets
+ * the original trade back instead of trading twice. Keys are scoped to the portfolio and live in
+ * striped concurrent maps, so a lookup takes no lock. Each entry is also filed in a timing wheel slot by
+ * its expiry; a ticker thread sweeps the slots that have passed, so eviction costs nothing per request.
+ * Only executed trades are remembered: a rejected trade drops its key, and a retry runs again. A new
+ * key that finds its stripe full is refused with {@link IdempotencyCacheFullException} rather than run
+ * unguarded, since its retry could then trade twice.
+ */
+@Component
+public class IdempotencyCache implements MetricsSource {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final Stripe[] stripes;
+    private final long ttlNanos;
+    private final long tickNanos;
+    private final ConcurrentLinkedQueue<Entry>[] wheel;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService ticker;
+    private long sweptTick;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder inFlightWaits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder keyReuses = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @Autowired
+    public IdempotencyCache(
+            @Value("${trading.idempotency.max-entries:100000}") int maxEntries,
+            @Value("${trading.idempotency.ttl-seconds:600}") long ttlSeconds,
+            @Value("${trading.idempotency.tick-ms:1000}") long tickMs,
+            @Value("${trading.idempotency.stripes:16}") int stripeCount) {
+        this(maxEntries, TimeUnit.SECONDS.toNanos(ttlSeconds), TimeUnit.MILLISECONDS.toNanos(tickMs),
+                stripeCount, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    IdempotencyCache(int maxEntries, long ttlNanos, long tickNanos, int stripeCount, LongSupplier clock) {
+        int count = powerOfTwoAtLeast(stripeCount);
+        int perStripe = Math.max(1, (maxEntries + count - 1) / count);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.ttlNanos = ttlNanos;
+        this.tickNanos = Math.max(1, Math.min(tickNanos, ttlNanos));
+        // Longer than the TTL in ticks, so a slot never holds entries from two turns of the wheel
+        int slots = powerOfTwoAtLeast((int) Math.min(1 << 20, ttlNanos / this.tickNanos + 2));
+        this.wheel = new ConcurrentLinkedQueue[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.clock = clock;
+        this.sweptTick = clock.getAsLong() / this.tickNanos - 1;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "idempotency-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(this.tickNanos));
+        ticker.scheduleWithFixedDelay(() -> expire(clock.getAsLong()), tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static int powerOfTwoAtLeast(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    public static boolean isValidKey(String key) {
+        return !key.isBlank() && key.length() <= MAX_KEY_LENGTH;
+    }
+
+    /**
+     * Runs the trade unless the key was already used for this portfolio. A finished duplicate gets the
+     * remembered trade; a duplicate of a trade still executing waits for it and shares its outcome.
+     * Reusing a key for a different trade throws {@link IdempotencyKeyReusedException}, and a new key
+     * that does not fit throws {@link IdempotencyCacheFullException} without running the trade.
+     */
+    public Trade execute(String idempotencyKey, TradeRequest request, Supplier<Trade> trade) {
+        String key = request.getPortfolioId() + ":" + idempotencyKey;
+        Stripe stripe = stripes[stripeOf(key)];
+        long now = clock.getAsLong();
+        Entry existing = stripe.entries.get(key);
+        if (existing != null && existing.isLive(now)) {
+            return replay(existing, request);
+        }
+
+        Entry entry = new Entry(key, request, now + ttlNanos);
+        while (true) {
+            if (existing == null) {
+                if (!stripe.reserve()) {
+                    overflows.increment();
+                    throw new IdempotencyCacheFullException("Too many idempotency keys in flight, retry later");
+                }
+                existing = stripe.entries.putIfAbsent(key, entry);
+                if (existing == null) {
+                    break;
+                }
+                stripe.release();
+            } else if (existing.isLive(now)) {
+                return replay(existing, request);
+            } else if (stripe.entries.replace(key, existing, entry)) {
+                break;
+            } else {
+                existing = stripe.entries.get(key);
+            }
+        }
+        misses.increment();
+        wheel[slotOf(entry.expiresAt)].add(entry);
+
+        try {
+            Trade result = trade.get();
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            // Forget the key before waking any duplicates, so a later retry runs the trade again
+            if (stripe.entries.remove(key, entry)) {
+                stripe.release();
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Trade replay(Entry entry, TradeRequest request) {
+        if (!entry.matches(request)) {
+            keyReuses.increment();
+            throw new IdempotencyKeyReusedException("Idempotency key was already used for a different trade");
+        }
+        if (entry.result.isDone()) {
+            hits.increment();
+        } else {
+            inFlightWaits.increment();
+        }
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sweeps every wheel slot whose tick has fully passed. Catching up after a stall sweeps each slot at
+     * most once, since by then every slot is due.
+     */
+    synchronized void expire(long now) {
+        long lastDue = now / tickNanos - 1;
+        long from = Math.max(sweptTick + 1, lastDue - wheel.length + 1);
+        List<Entry> notDue = new ArrayList<>();
+        for (long tick = from; tick <= lastDue; tick++) {
+            ConcurrentLinkedQueue<Entry> slot = wheel[(int) (tick & (wheel.length - 1))];
+            Entry entry;
+            while ((entry = slot.poll()) != null) {
+                if (entry.isLive(now)) {
+                    notDue.add(entry);
+                } else {
+                    Stripe stripe = stripes[stripeOf(entry.key)];
+                    if (stripe.entries.remove(entry.key, entry)) {
+                        stripe.release();
+                        expirations.increment();
+                    }
+                }
+            }
+            slot.addAll(notDue);
+            notDue.clear();
+        }
+        sweptTick = Math.max(sweptTick, lastDue);
+    }
+
+    private int stripeOf(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    private int slotOf(long expiresAt) {
+        return (int) ((expiresAt / tickNanos) & (wheel.length - 1));
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size.get();
+        }
+        return size;
+    }
+
+    /**
+     * How long a refused caller should wait before retrying: one wheel tick, when the next keys expire.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (tickNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public IdempotencyStats getStats() {
+        return new IdempotencyStats(size(), hits.sum(), inFlightWaits.sum(), misses.sum(), keyReuses.sum(),
+                overflows.sum(), expirations.sum());
+    }
+
+    @Override
+    public void writeMetrics(PrometheusText out) {
+        out.header("trading_idempotency_entries", "gauge", "Idempotency keys currently remembered.")
+                .sample("trading_idempotency_entries", "", size());
+        out.header("trading_idempotency_requests_total", "counter", "Trade requests carrying an idempotency key, by outcome.")
+                .sample("trading_idempotency_requests_total", "result=\"hit\"", hits.sum())
+                .sample("trading_idempotency_requests_total", "result=\"in_flight_wait\"", inFlightWaits.sum())
+                .sample("trading_idempotency_requests_total", "result=\"miss\"", misses.sum())
+                .sample("trading_idempotency_requests_total", "result=\"key_reused\"", keyReuses.sum());
+        out.header("trading_idempotency_overflows_total", "counter", "Keyed trades refused because the cache was full.")
+                .sample("trading_idempotency_overflows_total", "", overflows.sum());
+        out.header("trading_idempotency_expirations_total", "counter", "Idempotency keys evicted after their TTL.")
+                .sample("trading_idempotency_expirations_total", "", expirations.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private static final class Stripe {
+        private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private boolean reserve() {
+            while (true) {
+                int current = size.get();
+                if (current >= capacity) {
+                    return false;
+                }
+                if (size.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release() {
+            size.decrementAndGet();
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final Long assetId;
+        private final BigDecimal quantity;
+        private final BigDecimal price;
+        private final TradeType tradeType;
+        private final long expiresAt;
+        private final CompletableFuture<Trade> result = new CompletableFuture<>();
+
+        private Entry(String key, TradeRequest request, long expiresAt) {
+            this.key = key;
+            this.assetId = request.getAssetId();
+            this.quantity = request.getQuantity();
+            this.price = request.getPrice();
+            this.tradeType = request.getTradeType();
+            this.expiresAt = expiresAt;
+        }
+
+        // A trade still executing outlives its TTL, so its duplicates keep waiting rather than re-running
+        private boolean isLive(long now) {
+            return !result.isDone() || expiresAt - now > 0;
+        }
+
+        private boolean matches(TradeRequest request) {
+            return Objects.equals(assetId, request.getAssetId())
+                    && sameAmount(quantity, request.getQuantity())
+                    && sameAmount(price, request.getPrice())
+                    && tradeType == request.getTradeType();
+        }
+
+        private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+            return a == null ? b == null : b != null && a.compareTo(b) == 0;
+        }
+    }
+}
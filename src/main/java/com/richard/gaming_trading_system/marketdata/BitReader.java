@@ -0,0 +1,35 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads back what a {@link BitWriter} wrote, from a heap or memory-mapped buffer. Uses absolute gets,
+ * so the buffer can be shared by concurrent readers.
+ */
+final class BitReader {
+
+    private final ByteBuffer data;
+    private long position;
+
+    BitReader(ByteBuffer data) {
+        this.data = data;
+    }
+
+    boolean readBit() {
+        return read(1) != 0L;
+    }
+
+    long read(int count) {
+        long value = 0L;
+        while (count > 0) {
+            int offset = (int) (position & 7);
+            int available = 8 - offset;
+            int take = Math.min(available, count);
+            int current = data.get((int) (position >>> 3)) & 0xFF;
+            value = (value << take) | ((current >>> (available - take)) & ((1 << take) - 1));
+            position += take;
+            count -= take;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,54 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import java.util.Arrays;
+
+/**
+ * Appends values of 1 to 64 bits, most significant bit first, into a growable array of words.
+ */
+final class BitWriter {
+
+    private long[] words;
+    private int bitLength;
+
+    BitWriter(int initialWords) {
+        this.words = new long[Math.max(initialWords, 1)];
+    }
+
+    void writeBit(boolean bit) {
+        write(bit ? 1L : 0L, 1);
+    }
+
+    /**
+     * Writes the low {@code count} bits of {@code value}.
+     */
+    void write(long value, int count) {
+        if (count < 64) {
+            value &= (1L << count) - 1;
+        }
+        int index = bitLength >>> 6;
+        int free = 64 - (bitLength & 63);
+        if (index + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        if (count <= free) {
+            words[index] |= value << (free - count);
+        } else {
+            int spill = count - free;
+            words[index] |= value >>> spill;
+            words[index + 1] |= value << (64 - spill);
+        }
+        bitLength += count;
+    }
+
+    int bitLength() {
+        return bitLength;
+    }
+
+    byte[] toByteArray() {
+        byte[] bytes = new byte[(bitLength + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> (56 - ((i & 7) << 3)));
+        }
+        return bytes;
+    }
+}
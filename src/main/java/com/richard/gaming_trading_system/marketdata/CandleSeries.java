@@ -0,0 +1,141 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import java.util.Arrays;
+
+/**
+ * Bounded ring of candles for one asset and resolution, stored in parallel primitive arrays.
+ * A bucket lives in slot {@code bucketNumber % length}, so an event is O(1) whether it lands in the
+ * newest bucket or a slightly late one. The arrays start small and double only when a live bucket
+ * would otherwise be overwritten, so quiet assets stay cheap and no series grows past {@code capacity}.
+ * Prices are fixed-point at {@link CandleStore#PRICE_SCALE}, volumes at {@link CandleStore#QUANTITY_SCALE}.
+ */
+final class CandleSeries {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int INITIAL_LENGTH = 16;
+
+    private final long width;
+    private final int capacity;
+    private long[] bucketStart;
+    private long[] open;
+    private long[] high;
+    private long[] low;
+    private long[] close;
+    private long[] volume;
+    private double[] notional;
+    private long newestBucket = EMPTY;
+
+    CandleSeries(long width, int capacity) {
+        this.width = width;
+        this.capacity = capacity;
+        allocate(Math.min(capacity, INITIAL_LENGTH));
+    }
+
+    private void allocate(int length) {
+        bucketStart = new long[length];
+        open = new long[length];
+        high = new long[length];
+        low = new long[length];
+        close = new long[length];
+        volume = new long[length];
+        notional = new double[length];
+        Arrays.fill(bucketStart, EMPTY);
+    }
+
+    synchronized void record(long timestampMillis, long price, long quantity, double tradeNotional) {
+        long bucketNumber = Math.floorDiv(timestampMillis, width);
+        long start = bucketNumber * width;
+        if (newestBucket != EMPTY && start <= newestBucket - capacity * width) {
+            return; // older than anything the ring may hold
+        }
+        int slot = slotOf(bucketNumber);
+        long occupant = bucketStart[slot];
+        if (occupant != start && occupant != EMPTY && occupant > start - capacity * width
+                && bucketStart.length < capacity) {
+            grow();
+            slot = slotOf(bucketNumber);
+            occupant = bucketStart[slot];
+        }
+        if (occupant != start) {
+            if (occupant != EMPTY && occupant > start) {
+                return;
+            }
+            bucketStart[slot] = start;
+            open[slot] = price;
+            high[slot] = price;
+            low[slot] = price;
+            close[slot] = price;
+            volume[slot] = 0L;
+            notional[slot] = 0.0;
+        } else {
+            high[slot] = Math.max(high[slot], price);
+            low[slot] = Math.min(low[slot], price);
+            close[slot] = price;
+        }
+        volume[slot] += quantity;
+        notional[slot] += tradeNotional;
+        if (start > newestBucket) {
+            newestBucket = start;
+        }
+    }
+
+    /**
+     * Doubles the ring. Buckets that were distinct modulo the old length are also distinct modulo twice
+     * that length, so re-slotting never collides.
+     */
+    private void grow() {
+        long[] oldStart = bucketStart;
+        long[] oldOpen = open;
+        long[] oldHigh = high;
+        long[] oldLow = low;
+        long[] oldClose = close;
+        long[] oldVolume = volume;
+        double[] oldNotional = notional;
+        allocate(Math.min(oldStart.length * 2, capacity));
+        for (int i = 0; i < oldStart.length; i++) {
+            if (oldStart[i] == EMPTY) {
+                continue;
+            }
+            int slot = slotOf(Math.floorDiv(oldStart[i], width));
+            bucketStart[slot] = oldStart[i];
+            open[slot] = oldOpen[i];
+            high[slot] = oldHigh[i];
+            low[slot] = oldLow[i];
+            close[slot] = oldClose[i];
+            volume[slot] = oldVolume[i];
+            notional[slot] = oldNotional[i];
+        }
+    }
+
+    private int slotOf(long bucketNumber) {
+        return (int) Math.floorMod(bucketNumber, (long) bucketStart.length);
+    }
+
+    /**
+     * Passes up to {@code limit} candles to {@code sink}, oldest first.
+     */
+    synchronized void read(int limit, CandleSink sink) {
+        if (newestBucket == EMPTY || limit <= 0) {
+            return;
+        }
+        int[] slots = new int[Math.min(limit, bucketStart.length)];
+        int found = 0;
+        long newestNumber = Math.floorDiv(newestBucket, width);
+        long oldestNumber = newestNumber - capacity;
+        for (long number = newestNumber; number > oldestNumber && found < slots.length; number--) {
+            int slot = slotOf(number);
+            if (bucketStart[slot] == number * width) {
+                slots[found++] = slot;
+            }
+        }
+        for (int i = found - 1; i >= 0; i--) {
+            int slot = slots[i];
+            sink.accept(bucketStart[slot], open[slot], high[slot], low[slot], close[slot], volume[slot], notional[slot]);
+        }
+    }
+
+    @FunctionalInterface
+    interface CandleSink {
+        void accept(long startMillis, long open, long high, long low, long close, long volume, double notional);
+    }
+}
@@ -0,0 +1,123 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import com.richard.gaming_trading_system.dto.Candle;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.Quantity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * OHLCV and VWAP candles per asset at every {@link CandleResolution}, fed by executed trades and
+ * price ticks. Ticks move open/high/low/close but add no volume; VWAP is computed from trades only.
+ * Timestamps are bucketed in UTC.
+ */
+@Component
+public class CandleStore {
+
+    static final int PRICE_SCALE = Money.SCALE;
+    static final int QUANTITY_SCALE = Quantity.SCALE;
+    private static final double QUANTITY_UNIT = Quantity.ONE;
+
+    private final int capacity;
+    private final Map<Long, CandleSeries[]> seriesByAsset = new ConcurrentHashMap<>();
+
+    public CandleStore(@Value("${trading.candles.capacity:500}") int capacity) {
+        this.capacity = Math.max(capacity, 1);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void recordTrade(Long assetId, BigDecimal price, BigDecimal quantity, LocalDateTime timestamp) {
+        record(assetId, price, quantity, timestamp);
+    }
+
+    public void recordPriceTick(Long assetId, BigDecimal price, LocalDateTime timestamp) {
+        record(assetId, price, BigDecimal.ZERO, timestamp);
+    }
+
+    private void record(Long assetId, BigDecimal price, BigDecimal quantity, LocalDateTime timestamp) {
+        long millis = toEpochMillis(timestamp);
+        long fixedPrice = toFixed(price, PRICE_SCALE);
+        long fixedQuantity = toFixed(quantity, QUANTITY_SCALE);
+        double tradeNotional = price.doubleValue() * quantity.doubleValue();
+        for (CandleSeries series : seriesFor(assetId)) {
+            series.record(millis, fixedPrice, fixedQuantity, tradeNotional);
+        }
+    }
+
+    /**
+     * Records a trade given in {@link Money} and {@link Quantity} units.
+     */
+    public void recordFixedTrade(long assetId, long price, long quantity, LocalDateTime timestamp) {
+        long millis = toEpochMillis(timestamp);
+        double tradeNotional = Money.toDouble(Money.multiply(quantity, price));
+        for (CandleSeries series : seriesFor(assetId)) {
+            series.record(millis, price, quantity, tradeNotional);
+        }
+    }
+
+    /**
+     * Records a price tick already in fixed-point form; used by the tick engine to avoid BigDecimal.
+     */
+    void recordFixedPriceTick(long assetId, long fixedPrice, long timestampMillis) {
+        for (CandleSeries series : seriesFor(assetId)) {
+            series.record(timestampMillis, fixedPrice, 0L, 0.0);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} of the most recent candles for the asset, oldest first.
+     */
+    public List<Candle> getCandles(Long assetId, CandleResolution resolution, int limit) {
+        CandleSeries[] series = seriesByAsset.get(assetId);
+        if (series == null) {
+            return List.of();
+        }
+        List<Candle> candles = new ArrayList<>(Math.min(Math.max(limit, 0), capacity));
+        series[resolution.ordinal()].read(limit, (start, open, high, low, close, volume, notional) ->
+                candles.add(new Candle(
+                        LocalDateTime.ofEpochSecond(Math.floorDiv(start, 1000L), 0, ZoneOffset.UTC),
+                        fromFixed(open, PRICE_SCALE),
+                        fromFixed(high, PRICE_SCALE),
+                        fromFixed(low, PRICE_SCALE),
+                        fromFixed(close, PRICE_SCALE),
+                        fromFixed(volume, QUANTITY_SCALE),
+                        volume == 0 ? null : BigDecimal.valueOf(notional * QUANTITY_UNIT / volume)
+                                .setScale(PRICE_SCALE, RoundingMode.HALF_UP))));
+        return candles;
+    }
+
+    private CandleSeries[] seriesFor(Long assetId) {
+        return seriesByAsset.computeIfAbsent(assetId, key -> {
+            CandleResolution[] resolutions = CandleResolution.values();
+            CandleSeries[] series = new CandleSeries[resolutions.length];
+            for (CandleResolution resolution : resolutions) {
+                series[resolution.ordinal()] = new CandleSeries(resolution.getMillis(), capacity);
+            }
+            return series;
+        });
+    }
+
+    static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1000L + timestamp.getNano() / 1_000_000;
+    }
+
+    private static long toFixed(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromFixed(long value, int scale) {
+        return BigDecimal.valueOf(value, scale);
+    }
+}
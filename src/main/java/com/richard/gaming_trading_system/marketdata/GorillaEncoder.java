@@ -0,0 +1,106 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses one block of (timestamp, value) points the way Facebook's Gorilla does: timestamps as
+ * delta-of-delta with a short prefix code, values as the XOR against the previous value, reusing the
+ * previous leading/trailing-zero window when the new XOR fits inside it. A steady series on a steady
+ * clock costs two bits per point. Values are fixed-point prices, so the XOR runs on the long itself
+ * rather than on the bits of a double; decimal prices as doubles have noisy mantissas that XOR badly.
+ */
+final class GorillaEncoder {
+
+    private final BitWriter out;
+    private int count;
+    private long firstMillis;
+    private long lastMillis;
+    private long previousDelta;
+    private long previousValue;
+    private int previousLeading = -1;
+    private int previousTrailing;
+
+    GorillaEncoder(int expectedPoints) {
+        // Roughly three bytes a point for a series that moves on every tick.
+        this.out = new BitWriter(Math.max(expectedPoints * 3 / 8, 4));
+    }
+
+    void append(long millis, long value) {
+        if (count == 0) {
+            firstMillis = millis;
+            out.write(millis, 64);
+            out.write(value, 64);
+        } else {
+            long delta = millis - lastMillis;
+            writeDeltaOfDelta(delta - previousDelta);
+            previousDelta = delta;
+            writeXor(value ^ previousValue);
+        }
+        lastMillis = millis;
+        previousValue = value;
+        count++;
+    }
+
+    private void writeDeltaOfDelta(long dod) {
+        if (dod == 0) {
+            out.write(0b0, 1);
+        } else if (dod >= -64 && dod <= 63) {
+            out.write(0b10, 2);
+            out.write(dod, 7);
+        } else if (dod >= -256 && dod <= 255) {
+            out.write(0b110, 3);
+            out.write(dod, 9);
+        } else if (dod >= -2048 && dod <= 2047) {
+            out.write(0b1110, 4);
+            out.write(dod, 12);
+        } else {
+            out.write(0b1111, 4);
+            out.write(dod, 64);
+        }
+    }
+
+    private void writeXor(long xor) {
+        if (xor == 0) {
+            out.writeBit(false);
+            return;
+        }
+        out.writeBit(true);
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+            out.writeBit(false);
+            out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            return;
+        }
+        int significant = 64 - leading - trailing;
+        out.writeBit(true);
+        out.write(leading, 5);
+        out.write(significant, 6); // 64 wraps to 0
+        out.write(xor >>> trailing, significant);
+        previousLeading = leading;
+        previousTrailing = trailing;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long firstMillis() {
+        return firstMillis;
+    }
+
+    long lastMillis() {
+        return lastMillis;
+    }
+
+    /**
+     * Returns the block's points so far as an immutable copy.
+     */
+    HistoryBlock snapshot() {
+        return new HistoryBlock(firstMillis, lastMillis, count, ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    byte[] toByteArray() {
+        return out.toByteArray();
+    }
+}
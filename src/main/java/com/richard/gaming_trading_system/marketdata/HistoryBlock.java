@@ -0,0 +1,103 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An immutable block of points written by {@link GorillaEncoder}, held on the heap or in a
+ * memory-mapped spill segment.
+ */
+final class HistoryBlock {
+
+    private final long firstMillis;
+    private final long lastMillis;
+    private final int count;
+    private final ByteBuffer data;
+
+    HistoryBlock(long firstMillis, long lastMillis, int count, ByteBuffer data) {
+        this.firstMillis = firstMillis;
+        this.lastMillis = lastMillis;
+        this.count = count;
+        this.data = data.asReadOnlyBuffer();
+    }
+
+    long firstMillis() {
+        return firstMillis;
+    }
+
+    long lastMillis() {
+        return lastMillis;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int sizeBytes() {
+        return data.capacity();
+    }
+
+    /**
+     * Decodes the block, passing points with {@code from <= millis < to} to {@code sink} until it
+     * returns false. Returns false if the sink stopped early.
+     */
+    boolean decode(long from, long to, PointSink sink) {
+        if (count == 0) {
+            return true;
+        }
+        BitReader in = new BitReader(data);
+        long millis = in.read(64);
+        long value = in.read(64);
+        long delta = 0L;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 0; ; i++) {
+            if (millis >= to) {
+                return true;
+            }
+            if (millis >= from && !sink.accept(millis, value)) {
+                return false;
+            }
+            if (i + 1 == count) {
+                return true;
+            }
+            delta += readDeltaOfDelta(in);
+            millis += delta;
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.read(5);
+                    int significant = (int) in.read(6);
+                    if (significant == 0) {
+                        significant = 64;
+                    }
+                    trailing = 64 - leading - significant;
+                }
+                value ^= in.read(64 - leading - trailing) << trailing;
+            }
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader in) {
+        if (!in.readBit()) {
+            return 0L;
+        }
+        if (!in.readBit()) {
+            return signExtend(in.read(7), 7);
+        }
+        if (!in.readBit()) {
+            return signExtend(in.read(9), 9);
+        }
+        if (!in.readBit()) {
+            return signExtend(in.read(12), 12);
+        }
+        return in.read(64);
+    }
+
+    private static long signExtend(long value, int bits) {
+        return (value << (64 - bits)) >> (64 - bits);
+    }
+
+    @FunctionalInterface
+    interface PointSink {
+        boolean accept(long millis, long value);
+    }
+}
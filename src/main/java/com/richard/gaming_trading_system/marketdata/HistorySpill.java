@@ -0,0 +1,69 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Moves sealed history blocks off the heap into fixed-size memory-mapped segment files. Blocks are
+ * appended to the current segment and handed back as read-only slices of the mapping, so the OS page
+ * cache decides what stays resident. Spilled history is not durable: segments left over from an earlier
+ * run are deleted when the spill opens.
+ */
+final class HistorySpill {
+
+    private static final String SEGMENT_GLOB = "history-*.seg";
+
+    private final Path dir;
+    private final int segmentBytes;
+    private MappedByteBuffer segment;
+    private int nextSegment;
+    private long spilledBytes;
+
+    HistorySpill(Path dir, int segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(dir, SEGMENT_GLOB)) {
+            for (Path file : stale) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Copies {@code bytes} into a segment and returns a view of them, or null if they can never fit.
+     */
+    synchronized ByteBuffer write(byte[] bytes) {
+        if (bytes.length > segmentBytes) {
+            return null;
+        }
+        if (segment == null || segment.remaining() < bytes.length) {
+            segment = mapSegment(dir.resolve(String.format("history-%06d.seg", nextSegment++)));
+        }
+        int position = segment.position();
+        segment.put(bytes);
+        spilledBytes += bytes.length;
+        return segment.slice(position, bytes.length);
+    }
+
+    synchronized long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    private MappedByteBuffer mapSegment(Path file) {
+        // The mapping stays valid after the channel is closed.
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map history segment " + file, e);
+        }
+    }
+}
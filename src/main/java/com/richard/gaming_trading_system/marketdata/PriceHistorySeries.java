@@ -0,0 +1,106 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Price history for one asset: a list of sealed {@link HistoryBlock}s in time order plus the block
+ * being written. Readers copy the block list under the lock and decode outside it.
+ */
+final class PriceHistorySeries {
+
+    private final int blockPoints;
+    private final HistorySpill spill;
+    private final List<HistoryBlock> sealed = new ArrayList<>();
+    private GorillaEncoder active;
+    private long lastMillis = Long.MIN_VALUE;
+
+    PriceHistorySeries(int blockPoints, HistorySpill spill) {
+        this.blockPoints = blockPoints;
+        this.spill = spill;
+        this.active = new GorillaEncoder(blockPoints);
+    }
+
+    /**
+     * Appends a point; points older than the newest one are dropped so blocks stay in time order.
+     */
+    synchronized boolean append(long millis, long value) {
+        if (millis < lastMillis) {
+            return false;
+        }
+        active.append(millis, value);
+        lastMillis = millis;
+        if (active.count() >= blockPoints) {
+            sealed.add(seal(active));
+            active = new GorillaEncoder(blockPoints);
+        }
+        return true;
+    }
+
+    private HistoryBlock seal(GorillaEncoder encoder) {
+        byte[] bytes = encoder.toByteArray();
+        ByteBuffer data = spill != null ? spill.write(bytes) : null;
+        if (data == null) {
+            data = ByteBuffer.wrap(bytes);
+        }
+        return new HistoryBlock(encoder.firstMillis(), encoder.lastMillis(), encoder.count(), data);
+    }
+
+    /**
+     * Passes points with {@code from <= millis < to} to {@code sink}, oldest first, until it returns false.
+     */
+    void read(long from, long to, HistoryBlock.PointSink sink) {
+        List<HistoryBlock> blocks = new ArrayList<>();
+        synchronized (this) {
+            for (int i = firstBlockEndingAtOrAfter(from); i < sealed.size(); i++) {
+                HistoryBlock block = sealed.get(i);
+                if (block.firstMillis() >= to) {
+                    break;
+                }
+                blocks.add(block);
+            }
+            if (active.count() > 0 && active.firstMillis() < to && active.lastMillis() >= from) {
+                blocks.add(active.snapshot());
+            }
+        }
+        for (HistoryBlock block : blocks) {
+            if (!block.decode(from, to, sink)) {
+                return;
+            }
+        }
+    }
+
+    private int firstBlockEndingAtOrAfter(long from) {
+        int low = 0;
+        int high = sealed.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sealed.get(middle).lastMillis() < from) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    synchronized long pointCount() {
+        long points = active.count();
+        for (HistoryBlock block : sealed) {
+            points += block.count();
+        }
+        return points;
+    }
+
+    /**
+     * Encoded size of the sealed blocks, on the heap and spilled.
+     */
+    synchronized long sealedBytes() {
+        long bytes = 0L;
+        for (HistoryBlock block : sealed) {
+            bytes += block.sizeBytes();
+        }
+        return bytes;
+    }
+}
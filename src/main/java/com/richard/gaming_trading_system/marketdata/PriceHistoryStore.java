@@ -0,0 +1,99 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import com.richard.gaming_trading_system.dto.PricePoint;
+import com.richard.gaming_trading_system.model.Money;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every price tick per asset, Gorilla-compressed into blocks of {@code trading.history.block-points}
+ * points. Sealed blocks are immutable and, with spilling enabled, live in memory-mapped segment files
+ * instead of the heap. Timestamps are UTC, like the candles.
+ */
+@Component
+public class PriceHistoryStore {
+
+    private final boolean enabled;
+    private final int blockPoints;
+    private final boolean spillEnabled;
+    private final String spillDir;
+    private final int segmentBytes;
+    private final Map<Long, PriceHistorySeries> seriesByAsset = new ConcurrentHashMap<>();
+    private HistorySpill spill;
+
+    public PriceHistoryStore(
+            @Value("${trading.history.enabled:true}") boolean enabled,
+            @Value("${trading.history.block-points:1024}") int blockPoints,
+            @Value("${trading.history.spill.enabled:false}") boolean spillEnabled,
+            @Value("${trading.history.spill.dir:data/history}") String spillDir,
+            @Value("${trading.history.spill.segment-bytes:67108864}") int segmentBytes) {
+        this.enabled = enabled;
+        this.blockPoints = Math.max(blockPoints, 2);
+        this.spillEnabled = spillEnabled;
+        this.spillDir = spillDir;
+        this.segmentBytes = segmentBytes;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (enabled && spillEnabled) {
+            spill = new HistorySpill(Paths.get(spillDir), segmentBytes);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Appends a tick with the price in {@link Money} units; called by the tick engine.
+     */
+    void append(long assetId, long timestampMillis, long price) {
+        if (!enabled) {
+            return;
+        }
+        seriesByAsset.computeIfAbsent(assetId, id -> new PriceHistorySeries(blockPoints, spill))
+                .append(timestampMillis, price);
+    }
+
+    /**
+     * Returns up to {@code limit} points with {@code from <= timestamp < to}, oldest first. Either bound
+     * may be null.
+     */
+    public List<PricePoint> getHistory(Long assetId, LocalDateTime from, LocalDateTime to, int limit) {
+        PriceHistorySeries series = seriesByAsset.get(assetId);
+        if (series == null || limit <= 0) {
+            return List.of();
+        }
+        long fromMillis = from != null ? CandleStore.toEpochMillis(from) : Long.MIN_VALUE;
+        long toMillis = to != null ? CandleStore.toEpochMillis(to) : Long.MAX_VALUE;
+        List<PricePoint> points = new ArrayList<>();
+        series.read(fromMillis, toMillis, (millis, price) -> {
+            points.add(new PricePoint(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC),
+                    Money.toBigDecimal(price)));
+            return points.size() < limit;
+        });
+        return points;
+    }
+
+    PriceHistorySeries getSeries(long assetId) {
+        return seriesByAsset.get(assetId);
+    }
+
+    HistorySpill getSpill() {
+        return spill;
+    }
+}
@@ -0,0 +1,68 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import com.richard.gaming_trading_system.model.Money;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Immutable view of every asset's price after one tick. Asset ids are sorted so a price lookup is a
+ * binary search; prices are in {@link Money} units.
+ */
+public final class PriceSnapshot {
+
+    static final PriceSnapshot EMPTY = new PriceSnapshot(0L, 0L, new long[0], new long[0]);
+
+    private final long version;
+    private final long tickMillis;
+    private final long[] assetIds;
+    private final long[] prices;
+
+    PriceSnapshot(long version, long tickMillis, long[] assetIds, long[] prices) {
+        this.version = version;
+        this.tickMillis = tickMillis;
+        this.assetIds = assetIds;
+        this.prices = prices;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public int size() {
+        return assetIds.length;
+    }
+
+    public long assetIdAt(int index) {
+        return assetIds[index];
+    }
+
+    public long priceAt(int index) {
+        return prices[index];
+    }
+
+    public int indexOf(long assetId) {
+        int index = Arrays.binarySearch(assetIds, assetId);
+        return index < 0 ? -1 : index;
+    }
+
+    /**
+     * Returns the asset's price, or null if it was not priced in this tick.
+     */
+    public BigDecimal getPrice(long assetId) {
+        int index = indexOf(assetId);
+        return index < 0 ? null : Money.toBigDecimal(prices[index]);
+    }
+
+    long[] assetIds() {
+        return assetIds;
+    }
+
+    long[] prices() {
+        return prices;
+    }
+}
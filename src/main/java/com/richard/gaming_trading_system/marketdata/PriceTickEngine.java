@@ -0,0 +1,178 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.repository.AssetRepository;
+import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import com.richard.gaming_trading_system.repository.PortfolioValuation;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Random-walk price ticks over primitive columns of {@link Money} units. Each tick reads the previous
+ * {@link PriceSnapshot}, computes every asset's next price in parallel chunks on a dedicated
+ * {@link ForkJoinPool} (each worker draws from its own {@link SplittableRandom}), then publishes a new
+ * snapshot with a single atomic set, so readers always see one complete tick. Only after that are
+ * changed prices written back to the {@link Asset}s and marked to the holders'
+ * {@link PortfolioValuation}, and the tick fed to the {@link CandleStore} and the
+ * {@link PriceHistoryStore}, so nothing shows a price before the snapshot does.
+ */
+@Component
+public class PriceTickEngine {
+
+    private static final long MIN_PRICE = Money.ONE / 100; // 0.01
+
+    private final AssetRepository assetRepository;
+    private final PortfolioValuation valuation;
+    private final CandleStore candleStore;
+    private final PriceHistoryStore priceHistory;
+    private final double maxChange;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+    private final SplittableRandom seeds = new SplittableRandom();
+    private final ThreadLocal<SplittableRandom> random = ThreadLocal.withInitial(this::splitSeed);
+    private final AtomicReference<PriceSnapshot> snapshot = new AtomicReference<>(PriceSnapshot.EMPTY);
+    private Asset[] assets = new Asset[0];
+    private volatile long lastTickNanos;
+
+    public PriceTickEngine(
+            AssetRepository assetRepository,
+            PortfolioRepository portfolioRepository,
+            CandleStore candleStore,
+            PriceHistoryStore priceHistory,
+            @Value("${asset.price.max-change:0.05}") double maxChange,
+            @Value("${trading.prices.parallelism:0}") int parallelism,
+            @Value("${trading.prices.chunk-size:4096}") int chunkSize) {
+        this.assetRepository = assetRepository;
+        this.valuation = portfolioRepository.getValuation();
+        this.candleStore = candleStore;
+        this.priceHistory = priceHistory;
+        this.maxChange = maxChange;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public PriceSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    public synchronized PriceSnapshot tick() {
+        long start = System.nanoTime();
+        PriceSnapshot previous = syncAssets(snapshot.get());
+        LocalDateTime now = LocalDateTime.now();
+        long nowMillis = CandleStore.toEpochMillis(now);
+        long[] next = new long[previous.size()];
+        pool.invoke(new TickTask(previous.assetIds(), previous.prices(), next, assets, 0, next.length,
+                nowMillis, now, false));
+        PriceSnapshot published = new PriceSnapshot(previous.getVersion() + 1, nowMillis, previous.assetIds(), next);
+        snapshot.set(published);
+        pool.invoke(new TickTask(previous.assetIds(), previous.prices(), next, assets, 0, next.length,
+                nowMillis, now, true));
+        lastTickNanos = System.nanoTime() - start;
+        return published;
+    }
+
+    /**
+     * Rebuilds the columns when assets have been added since the last tick, taking each asset's current
+     * price as its starting point.
+     */
+    private PriceSnapshot syncAssets(PriceSnapshot current) {
+        if (assetRepository.count() == current.size()) {
+            return current;
+        }
+        List<Asset> all = assetRepository.findAll();
+        all.sort(Comparator.comparing(Asset::getAssetId));
+        long[] ids = new long[all.size()];
+        long[] prices = new long[all.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Asset asset = all.get(i);
+            ids[i] = asset.getAssetId();
+            prices[i] = Math.max(Money.of(asset.getCurrentPrice()), MIN_PRICE);
+        }
+        assets = all.toArray(new Asset[0]);
+        PriceSnapshot rebuilt = new PriceSnapshot(current.getVersion(), current.getTickMillis(), ids, prices);
+        snapshot.set(rebuilt);
+        return rebuilt;
+    }
+
+    private SplittableRandom splitSeed() {
+        synchronized (seeds) {
+            return seeds.split();
+        }
+    }
+
+    /**
+     * Computes the next prices into {@code next}, or, once they are published, writes them back.
+     */
+    private final class TickTask extends RecursiveAction {
+        private final long[] ids;
+        private final long[] previous;
+        private final long[] next;
+        private final Asset[] targets;
+        private final int from;
+        private final int to;
+        private final long nowMillis;
+        private final LocalDateTime now;
+        private final boolean writeBack;
+
+        private TickTask(long[] ids, long[] previous, long[] next, Asset[] targets, int from, int to,
+                         long nowMillis, LocalDateTime now, boolean writeBack) {
+            this.ids = ids;
+            this.previous = previous;
+            this.next = next;
+            this.targets = targets;
+            this.from = from;
+            this.to = to;
+            this.nowMillis = nowMillis;
+            this.now = now;
+            this.writeBack = writeBack;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > chunkSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TickTask(ids, previous, next, targets, from, middle, nowMillis, now, writeBack),
+                        new TickTask(ids, previous, next, targets, middle, to, nowMillis, now, writeBack));
+                return;
+            }
+            if (!writeBack) {
+                SplittableRandom rng = random.get();
+                double scale = 2 * maxChange;
+                for (int i = from; i < to; i++) {
+                    double change = (rng.nextDouble() - 0.5) * scale;
+                    next[i] = Math.max(Math.round(previous[i] * (1 + change)), MIN_PRICE);
+                }
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                candleStore.recordFixedPriceTick(ids[i], next[i], nowMillis);
+                priceHistory.append(ids[i], nowMillis, next[i]);
+                if (next[i] != previous[i]) {
+                    Asset asset = targets[i];
+                    asset.setCurrentPrice(Money.toBigDecimal(next[i]));
+                    asset.setLastUpdated(now);
+                    valuation.markPrice(ids[i], next[i]);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
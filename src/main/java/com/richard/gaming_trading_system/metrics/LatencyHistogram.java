@@ -0,0 +1,149 @@
+package com.richard.gaming_trading_system.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram: each power of two is split into 32 linear
+ * buckets, so a value is reported within about 3% from 1 ns up to {@link #MAX_VALUE} (larger values are
+ * clamped). Like {@code LongAdder}, counts are spread over a fixed set of stripes picked by a hash of the
+ * recording thread, so concurrent threads rarely share counters, memory stays bounded however many
+ * threads come and go, and recording never blocks and never allocates once a stripe exists.
+ * {@link #snapshot()} merges the stripes.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    public static final long MAX_VALUE = (1L << 42) - 1; // about 73 minutes in nanoseconds
+    private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+    // Per-stripe totals kept past the buckets: count, sum and max
+    private static final int COUNT = BUCKETS;
+    private static final int SUM = BUCKETS + 1;
+    private static final int MAX = BUCKETS + 2;
+    // Power of two near the core count, capped so a histogram never holds more than 64 stripes of ~10KB
+    static final int STRIPES =
+            Math.min(64, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1));
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0L), MAX_VALUE);
+        AtomicLongArray counts = stripe();
+        counts.getAndIncrement(indexOf(value));
+        counts.getAndIncrement(COUNT);
+        counts.getAndAdd(SUM, value);
+        long max = counts.get(MAX);
+        while (value > max && !counts.compareAndSet(MAX, max, value)) {
+            max = counts.get(MAX);
+        }
+    }
+
+    private AtomicLongArray stripe() {
+        // Fibonacci hash of the thread id: consecutive ids land on different stripes
+        int index = (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+        AtomicLongArray counts = stripes.get(index);
+        if (counts == null) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(BUCKETS + 3));
+            counts = stripes.get(index);
+        }
+        return counts;
+    }
+
+    int stripeCount() {
+        int allocated = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            if (stripes.get(i) != null) {
+                allocated++;
+            }
+        }
+        return allocated;
+    }
+
+    public Snapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            AtomicLongArray counts = stripes.get(stripe);
+            if (counts == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] += counts.get(i);
+            }
+            count += counts.get(COUNT);
+            sum += counts.get(SUM);
+            max = Math.max(max, counts.get(MAX));
+        }
+        return new Snapshot(merged, count, sum, max);
+    }
+
+    static int indexOf(long value) {
+        int shift = Math.max(0, 63 - SUB_BUCKET_BITS - Long.numberOfLeadingZeros(value));
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    static long upperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        long mantissa = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * Merged counts at one point in time. Stripes are read one after another while threads keep
+     * recording, so the totals may differ slightly from the sum of the buckets.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * The bucket bound at or below which at least {@code quantile} of the values fall, capped at the
+         * largest value seen; zero when nothing has been recorded.
+         */
+        public long getValueAtQuantile(double quantile) {
+            long total = 0;
+            for (long bucket : counts) {
+                total += bucket;
+            }
+            if (total == 0) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
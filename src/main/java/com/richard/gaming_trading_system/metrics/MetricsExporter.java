@@ -0,0 +1,26 @@
+package com.richard.gaming_trading_system.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Collects every {@link MetricsSource} bean into one Prometheus scrape.
+ */
+@Component
+public class MetricsExporter {
+
+    private final List<MetricsSource> sources;
+
+    public MetricsExporter(List<MetricsSource> sources) {
+        this.sources = sources;
+    }
+
+    public String scrape() {
+        PrometheusText out = new PrometheusText();
+        for (MetricsSource source : sources) {
+            source.writeMetrics(out);
+        }
+        return out.toString();
+    }
+}
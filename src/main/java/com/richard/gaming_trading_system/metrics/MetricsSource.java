@@ -0,0 +1,9 @@
+package com.richard.gaming_trading_system.metrics;
+
+/**
+ * A component that contributes metric families to the Prometheus scrape.
+ */
+public interface MetricsSource {
+
+    void writeMetrics(PrometheusText out);
+}
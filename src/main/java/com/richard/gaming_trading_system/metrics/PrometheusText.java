@@ -0,0 +1,65 @@
+package com.richard.gaming_trading_system.metrics;
+
+import java.util.Locale;
+
+/**
+ * Builds a scrape in the Prometheus text exposition format (version 0.0.4).
+ */
+public final class PrometheusText {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final StringBuilder out = new StringBuilder(4096);
+
+    public PrometheusText header(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    /**
+     * Appends one sample; {@code labels} is the inside of the braces, e.g. {@code stage="lookup"}, or empty.
+     */
+    public PrometheusText sample(String name, String labels, long value) {
+        appendName(name, labels).append(' ').append(value).append('\n');
+        return this;
+    }
+
+    public PrometheusText sample(String name, String labels, double value) {
+        appendName(name, labels).append(' ').append(format(value)).append('\n');
+        return this;
+    }
+
+    /**
+     * Appends a nanosecond histogram as a summary in seconds: quantiles, sum and count. The header is
+     * written separately, once per metric family.
+     */
+    public PrometheusText summary(String name, String labels, LatencyHistogram.Snapshot snapshot) {
+        String separator = labels.isEmpty() ? "" : ",";
+        for (double quantile : QUANTILES) {
+            sample(name, labels + separator + "quantile=\"" + quantile + "\"",
+                    snapshot.getValueAtQuantile(quantile) / 1e9);
+        }
+        sample(name + "_sum", labels, snapshot.getSum() / 1e9);
+        sample(name + "_count", labels, snapshot.getCount());
+        return this;
+    }
+
+    private StringBuilder appendName(String name, String labels) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        return out;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.9g", value);
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
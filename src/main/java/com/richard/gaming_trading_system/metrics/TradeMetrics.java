@@ -0,0 +1,84 @@
+package com.richard.gaming_trading_system.metrics;
+
+import com.richard.gaming_trading_system.exception.InsufficientAssetException;
+import com.richard.gaming_trading_system.exception.InsufficientFundsException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency per {@link TradeStage} and trade outcome counters. Recording is allocation-free.
+ */
+@Component
+public class TradeMetrics implements MetricsSource {
+
+    private final LatencyHistogram[] stages = new LatencyHistogram[TradeStage.values().length];
+    private final LongAdder insufficientFunds = new LongAdder();
+    private final LongAdder insufficientAssets = new LongAdder();
+    // Trades executed as part of a larger unit beyond its one TOTAL sample
+    private final LongAdder unitTrades = new LongAdder();
+
+    public TradeMetrics() {
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new LatencyHistogram();
+        }
+    }
+
+    public void record(TradeStage stage, long nanos) {
+        stages[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records trades executed as one unit, such as both legs of an order book fill: one latency sample
+     * for the unit, counted as {@code trades} trades.
+     */
+    public void recordUnit(long nanos, int trades) {
+        unitTrades.add(trades - 1);
+        stages[TradeStage.TOTAL.ordinal()].record(nanos);
+    }
+
+    /**
+     * Counts a rejected trade if the exception is one of the business rejections.
+     */
+    public void tradeRejected(RuntimeException e) {
+        if (e instanceof InsufficientFundsException) {
+            insufficientFunds.increment();
+        } else if (e instanceof InsufficientAssetException) {
+            insufficientAssets.increment();
+        }
+    }
+
+    public LatencyHistogram.Snapshot getStage(TradeStage stage) {
+        return stages[stage.ordinal()].snapshot();
+    }
+
+    public long getTrades() {
+        return stages[TradeStage.TOTAL.ordinal()].snapshot().getCount() + unitTrades.sum();
+    }
+
+    public long getRejected(Class<? extends RuntimeException> reason) {
+        if (reason == InsufficientFundsException.class) {
+            return insufficientFunds.sum();
+        }
+        return reason == InsufficientAssetException.class ? insufficientAssets.sum() : 0L;
+    }
+
+    @Override
+    public void writeMetrics(PrometheusText out) {
+        LatencyHistogram.Snapshot[] snapshots = new LatencyHistogram.Snapshot[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            snapshots[i] = stages[i].snapshot();
+        }
+        out.header("trading_trades_total", "counter", "Trades executed.")
+                .sample("trading_trades_total", "", snapshots[TradeStage.TOTAL.ordinal()].getCount() + unitTrades.sum());
+        out.header("trading_trades_rejected_total", "counter", "Trades rejected, by reason.")
+                .sample("trading_trades_rejected_total", "reason=\"insufficient_funds\"", insufficientFunds.sum())
+                .sample("trading_trades_rejected_total", "reason=\"insufficient_assets\"", insufficientAssets.sum());
+        out.header("trading_rank_updates_total", "counter", "Leaderboard rank recomputations.")
+                .sample("trading_rank_updates_total", "", snapshots[TradeStage.RANK_UPDATE.ordinal()].getCount());
+        out.header("trading_trade_stage_seconds", "summary", "Time spent in each stage of trade execution.");
+        for (TradeStage stage : TradeStage.values()) {
+            out.summary("trading_trade_stage_seconds", "stage=\"" + stage.label() + "\"", snapshots[stage.ordinal()]);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.richard.gaming_trading_system.metrics;
+
+import java.util.Locale;
+
+/**
+ * Timed stages of trade execution. Rank updates happen on the event bus after the trade and are timed
+ * on their own.
+ */
+public enum TradeStage {
+    /** Loading the portfolio, its user and the traded asset. */
+    USER_LOOKUP,
+    /** Checking funds and booking the trade's cost or proceeds. */
+    GEM_TRANSFER,
+    /** Adding or removing the holding. */
+    PORTFOLIO_UPDATE,
+    /** Trade count, streak and gem awards. */
+    STREAK_UPDATE,
+    /** Committing the user, portfolio and trade, journaling and publishing the trade's events. */
+    RECORD,
+    /** A leaderboard index update, wherever it happens. */
+    RANK_UPDATE,
+    /** A whole successful trade. */
+    TOTAL;
+
+    private final String label = name().toLowerCase(Locale.ROOT);
+
+    public String label() {
+        return label;
+    }
+}
@@ -0,0 +1,42 @@
+package com.richard.gaming_trading_system.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions and rounding shared by {@link Money} and {@link Quantity}.
+ */
+final class FixedPoint {
+
+    private FixedPoint() {}
+
+    static long toUnits(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Renders units at the shortest scale that loses nothing, but never below {@code minScale}, so 10
+     * whole units at scale 4 come out as {@code 10.00} for money and {@code 10} for quantities.
+     */
+    static BigDecimal toBigDecimal(long units, int scale, int minScale) {
+        while (scale > minScale && units % 10 == 0) {
+            units /= 10;
+            scale--;
+        }
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    /**
+     * {@code a * b / divisor}, rounded half away from zero. {@code a} is split into whole multiples of
+     * the divisor and a remainder, so only a product that is itself out of range overflows.
+     */
+    static long multiplyDivide(long a, long b, long divisor) {
+        long whole = Math.multiplyExact(a / divisor, b);
+        long part = Math.multiplyExact(a % divisor, b);
+        long quotient = part / divisor;
+        if (Math.abs(part % divisor) * 2 >= divisor) {
+            quotient += Long.signum(part);
+        }
+        return Math.addExact(whole, quotient);
+    }
+}
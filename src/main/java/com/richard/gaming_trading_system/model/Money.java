@@ -0,0 +1,59 @@
+package com.richard.gaming_trading_system.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point money: an amount is a {@code long} count of ten-thousandths ({@link #SCALE} decimal
+ * places). Arithmetic is static over primitives and never allocates; BigDecimal appears only in
+ * {@link #of} and {@link #toBigDecimal}, at the REST and persistence boundary. Conversions and products
+ * round half away from zero, and any result that does not fit a long throws {@link ArithmeticException}.
+ */
+public final class Money {
+
+    public static final int SCALE = 4;
+    public static final long ONE = 10_000L;
+    private static final int DISPLAY_SCALE = 2;
+
+    private Money() {}
+
+    public static long of(BigDecimal amount) {
+        return FixedPoint.toUnits(amount, SCALE);
+    }
+
+    public static long ofWhole(long amount) {
+        return Math.multiplyExact(amount, ONE);
+    }
+
+    /**
+     * The amount at the fewest decimals that keep it exact, and at least two.
+     */
+    public static BigDecimal toBigDecimal(long amount) {
+        return FixedPoint.toBigDecimal(amount, SCALE, DISPLAY_SCALE);
+    }
+
+    public static double toDouble(long amount) {
+        return amount / (double) ONE;
+    }
+
+    /**
+     * Whole units of the amount, truncated toward zero.
+     */
+    public static long toWholeUnits(long amount) {
+        return amount / ONE;
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Value of {@code quantity} (in {@link Quantity} units) at {@code price} (in money units).
+     */
+    public static long multiply(long quantity, long price) {
+        return FixedPoint.multiplyDivide(quantity, price, Quantity.ONE);
+    }
+}
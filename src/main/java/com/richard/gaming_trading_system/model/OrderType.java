@@ -0,0 +1,6 @@
+package com.richard.gaming_trading_system.model;
+
+public enum OrderType {
+    LIMIT,
+    MARKET
+}
@@ -1,10 +1,12 @@
 package com.richard.gaming_trading_system.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotNull;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -17,9 +19,15 @@ public class Portfolio {
     private Long userId;
 
     private String name;
-    private List<PortfolioAsset> assets = new ArrayList<>();
     private LocalDateTime createdAt;
 
+    // Holdings sit densely in an array; the map gives each asset's slot. Removal swaps the last
+    // holding into the hole, so every operation is O(1).
+    private PortfolioAsset[] holdings = new PortfolioAsset[4];
+    private final LongIntMap slotsByAsset = new LongIntMap(4);
+    private final HoldingsView assets = new HoldingsView();
+    private long totalValue; // Money units
+
     public Portfolio() {
         this.createdAt = LocalDateTime.now();
     }
@@ -31,10 +39,81 @@ public class Portfolio {
         this.name = name;
     }
 
+    /**
+     * Sum of quantity times last trade price over all holdings, maintained as holdings change.
+     */
     public BigDecimal getTotalValue() {
-        return assets.stream()
-                .map(PortfolioAsset::getTotalValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return Money.toBigDecimal(totalValue);
+    }
+
+    @JsonIgnore
+    public long getFixedTotalValue() {
+        return totalValue;
+    }
+
+    @JsonIgnore
+    public int getPositionCount() {
+        return slotsByAsset.size();
+    }
+
+    public PortfolioAsset getHolding(long assetId) {
+        int slot = slotsByAsset.get(assetId);
+        return slot == LongIntMap.MISSING ? null : holdings[slot];
+    }
+
+    /**
+     * Adds the holding, replacing any existing holding of the same asset.
+     */
+    public void putHolding(PortfolioAsset holding) {
+        long assetId = assetIdOf(holding);
+        int slot = slotsByAsset.get(assetId);
+        if (slot != LongIntMap.MISSING) {
+            detach(holdings[slot]);
+        } else {
+            slot = slotsByAsset.size();
+            if (slot == holdings.length) {
+                holdings = Arrays.copyOf(holdings, slot * 2);
+            }
+            slotsByAsset.put(assetId, slot);
+        }
+        holdings[slot] = holding;
+        holding.attach(this);
+        totalValue = Money.add(totalValue, holding.getFixedTotalValue());
+    }
+
+    public PortfolioAsset removeHolding(long assetId) {
+        int slot = slotsByAsset.remove(assetId);
+        if (slot == LongIntMap.MISSING) {
+            return null;
+        }
+        PortfolioAsset removed = holdings[slot];
+        int last = slotsByAsset.size();
+        if (slot != last) {
+            holdings[slot] = holdings[last];
+            slotsByAsset.put(assetIdOf(holdings[slot]), slot);
+        }
+        holdings[last] = null;
+        detach(removed);
+        return removed;
+    }
+
+    private void detach(PortfolioAsset holding) {
+        totalValue = Money.subtract(totalValue, holding.getFixedTotalValue());
+        holding.attach(null);
+    }
+
+    void holdingValueChanged(long before, long after) {
+        totalValue = Money.add(Money.subtract(totalValue, before), after);
+    }
+
+    private static long assetIdOf(PortfolioAsset holding) {
+        if (holding.getAssetId() != null) {
+            return holding.getAssetId();
+        }
+        if (holding.getAsset() != null && holding.getAsset().getAssetId() != null) {
+            return holding.getAsset().getAssetId();
+        }
+        throw new IllegalArgumentException("Holding has no asset id");
     }
 
     // Getters and Setters
@@ -48,7 +127,13 @@ public class Portfolio {
     public void setName(String name) { this.name = name; }
 
     public List<PortfolioAsset> getAssets() { return assets; }
-    public void setAssets(List<PortfolioAsset> assets) { this.assets = assets; }
+    public void setAssets(List<PortfolioAsset> assets) {
+        List<PortfolioAsset> replacement = List.copyOf(assets);
+        while (slotsByAsset.size() > 0) {
+            removeHolding(assetIdOf(holdings[slotsByAsset.size() - 1]));
+        }
+        replacement.forEach(this::putHolding);
+    }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
@@ -65,4 +150,39 @@ public class Portfolio {
     public int hashCode() {
         return Objects.hash(portfolioId);
     }
+
+    /**
+     * List view of the holdings for JSON and iteration. Adding puts a holding and removing removes it,
+     * so the view and the map never disagree.
+     */
+    private final class HoldingsView extends AbstractList<PortfolioAsset> {
+
+        @Override
+        public PortfolioAsset get(int index) {
+            Objects.checkIndex(index, slotsByAsset.size());
+            return holdings[index];
+        }
+
+        @Override
+        public int size() {
+            return slotsByAsset.size();
+        }
+
+        @Override
+        public boolean add(PortfolioAsset holding) {
+            putHolding(holding);
+            return true;
+        }
+
+        @Override
+        public PortfolioAsset remove(int index) {
+            return removeHolding(assetIdOf(get(index)));
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof PortfolioAsset holding && getHolding(assetIdOf(holding)) == holding
+                    && removeHolding(assetIdOf(holding)) != null;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.richard.gaming_trading_system.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
@@ -14,30 +15,36 @@ public class PortfolioAsset {
     @NotNull
     private Long assetId;
 
-    @NotNull
+    // Fixed-point: Quantity and Money units
     @Positive
-    private BigDecimal quantity;
+    private long quantity;
 
-    @NotNull
     @Positive
-    private BigDecimal averagePrice;
+    private long averagePrice;
 
     private LocalDateTime lastTraded;
 
     private Asset asset;
 
+    private Portfolio portfolio;
+
     public PortfolioAsset() {}
 
     public PortfolioAsset(Long portfolioId, Long assetId, BigDecimal quantity, BigDecimal averagePrice) {
         this.portfolioId = portfolioId;
         this.assetId = assetId;
-        this.quantity = quantity;
-        this.averagePrice = averagePrice;
+        this.quantity = Quantity.of(quantity);
+        this.averagePrice = Money.of(averagePrice);
         this.lastTraded = LocalDateTime.now();
     }
 
     public BigDecimal getTotalValue() {
-        return quantity.multiply(averagePrice);
+        return Money.toBigDecimal(getFixedTotalValue());
+    }
+
+    @JsonIgnore
+    public long getFixedTotalValue() {
+        return Money.multiply(quantity, averagePrice);
     }
 
     // Getters and Setters
@@ -47,11 +54,27 @@ public class PortfolioAsset {
     public Long getAssetId() { return assetId; }
     public void setAssetId(Long assetId) { this.assetId = assetId; }
 
-    public BigDecimal getQuantity() { return quantity; }
-    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+    public BigDecimal getQuantity() { return Quantity.toBigDecimal(quantity); }
+    public void setQuantity(BigDecimal quantity) { setFixedQuantity(Quantity.of(quantity)); }
+
+    @JsonIgnore
+    public long getFixedQuantity() { return quantity; }
+    public void setFixedQuantity(long quantity) {
+        long before = getFixedTotalValue();
+        this.quantity = quantity;
+        valueChanged(before);
+    }
 
-    public BigDecimal getAveragePrice() { return averagePrice; }
-    public void setAveragePrice(BigDecimal averagePrice) { this.averagePrice = averagePrice; }
+    public BigDecimal getAveragePrice() { return Money.toBigDecimal(averagePrice); }
+    public void setAveragePrice(BigDecimal averagePrice) { setFixedAveragePrice(Money.of(averagePrice)); }
+
+    @JsonIgnore
+    public long getFixedAveragePrice() { return averagePrice; }
+    public void setFixedAveragePrice(long averagePrice) {
+        long before = getFixedTotalValue();
+        this.averagePrice = averagePrice;
+        valueChanged(before);
+    }
 
     public LocalDateTime getLastTraded() { return lastTraded; }
     public void setLastTraded(LocalDateTime lastTraded) { this.lastTraded = lastTraded; }
@@ -59,7 +82,17 @@ public class PortfolioAsset {
     public Asset getAsset() { return asset; }
     public void setAsset(Asset asset) { this.asset = asset; }
 
-    public void setPrice(BigDecimal price) { this.averagePrice = price; }
+    public void setPrice(BigDecimal price) { setAveragePrice(price); }
+    public void setFixedPrice(long price) { setFixedAveragePrice(price); }
+
+    // Keeps the owning portfolio's running total in step with in-place edits.
+    void attach(Portfolio portfolio) { this.portfolio = portfolio; }
+
+    private void valueChanged(long before) {
+        if (portfolio != null) {
+            portfolio.holdingValueChanged(before, getFixedTotalValue());
+        }
+    }
 
     @Override
     public boolean equals(Object o) {
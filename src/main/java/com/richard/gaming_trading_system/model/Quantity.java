@@ -0,0 +1,45 @@
+package com.richard.gaming_trading_system.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point quantity: a {@code long} count of millionths ({@link #SCALE} decimal places), with the
+ * same allocation-free, half-up rules as {@link Money}.
+ */
+public final class Quantity {
+
+    public static final int SCALE = 6;
+    public static final long ONE = 1_000_000L;
+
+    private Quantity() {}
+
+    public static long of(BigDecimal quantity) {
+        return FixedPoint.toUnits(quantity, SCALE);
+    }
+
+    public static long ofWhole(long quantity) {
+        return Math.multiplyExact(quantity, ONE);
+    }
+
+    /**
+     * The quantity at the fewest decimals that keep it exact, so whole quantities have no fraction.
+     */
+    public static BigDecimal toBigDecimal(long quantity) {
+        return FixedPoint.toBigDecimal(quantity, SCALE, 0);
+    }
+
+    /**
+     * Whole units of the quantity, truncated toward zero.
+     */
+    public static long toWholeUnits(long quantity) {
+        return quantity / ONE;
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+}
@@ -1,5 +1,6 @@
 package com.richard.gaming_trading_system.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
@@ -20,13 +21,12 @@ public class Trade {
     @NotNull
     private TradeType tradeType;
 
-    @NotNull
+    // Fixed-point: Quantity and Money units
     @Positive
-    private BigDecimal quantity;
+    private long quantity;
 
-    @NotNull
     @Positive
-    private BigDecimal price;
+    private long price;
 
     private Integer gemsAwarded = 1; // Default 1 gem per trade
     private LocalDateTime tradeTimestamp;
@@ -44,12 +44,17 @@ public class Trade {
         this.userId = userId;
         this.assetId = assetId;
         this.tradeType = tradeType;
-        this.quantity = quantity;
-        this.price = price;
+        this.quantity = Quantity.of(quantity);
+        this.price = Money.of(price);
     }
 
     public BigDecimal getTotalAmount() {
-        return quantity.multiply(price);
+        return Money.toBigDecimal(getFixedTotalAmount());
+    }
+
+    @JsonIgnore
+    public long getFixedTotalAmount() {
+        return Money.multiply(quantity, price);
     }
 
     // Getters and Setters
@@ -65,11 +70,19 @@ public class Trade {
     public TradeType getTradeType() { return tradeType; }
     public void setTradeType(TradeType tradeType) { this.tradeType = tradeType; }
 
-    public BigDecimal getQuantity() { return quantity; }
-    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+    public BigDecimal getQuantity() { return Quantity.toBigDecimal(quantity); }
+    public void setQuantity(BigDecimal quantity) { this.quantity = Quantity.of(quantity); }
+
+    @JsonIgnore
+    public long getFixedQuantity() { return quantity; }
+    public void setFixedQuantity(long quantity) { this.quantity = quantity; }
+
+    public BigDecimal getPrice() { return Money.toBigDecimal(price); }
+    public void setPrice(BigDecimal price) { this.price = Money.of(price); }
 
-    public BigDecimal getPrice() { return price; }
-    public void setPrice(BigDecimal price) { this.price = price; }
+    @JsonIgnore
+    public long getFixedPrice() { return price; }
+    public void setFixedPrice(long price) { this.price = price; }
 
     public Integer getGemsAwarded() { return gemsAwarded; }
     public void setGemsAwarded(Integer gemsAwarded) { this.gemsAwarded = gemsAwarded; }
@@ -0,0 +1,87 @@
+package com.richard.gaming_trading_system.orderbook;
+
+import java.util.Arrays;
+
+/**
+ * One side of a book: its price levels in parallel arrays, sorted so the best price is last. Orders
+ * arrive and leave mostly at or near the best price, so that end of the arrays is where levels are
+ * added and dropped, and the shifting on insert or removal is short.
+ */
+final class BookSide {
+
+    private final boolean bids;
+    // Bids rank by price and asks by negated price, so on both sides a higher rank is a better price
+    private long[] ranks = new long[64];
+    private PriceLevel[] levels = new PriceLevel[64];
+    private int size;
+
+    BookSide(boolean bids) {
+        this.bids = bids;
+    }
+
+    PriceLevel best() {
+        return size == 0 ? null : levels[size - 1];
+    }
+
+    /**
+     * The level {@code index} steps away from the best price; 0 is the best.
+     */
+    PriceLevel fromBest(int index) {
+        return levels[size - 1 - index];
+    }
+
+    int depth() {
+        return size;
+    }
+
+    void add(Order order) {
+        long rank = rank(order.getPrice());
+        int index = search(rank);
+        PriceLevel level;
+        if (index >= 0) {
+            level = levels[index];
+        } else {
+            level = new PriceLevel(order.getPrice());
+            insertAt(-index - 1, rank, level);
+        }
+        level.append(order);
+    }
+
+    void remove(Order order) {
+        PriceLevel level = order.level;
+        level.remove(order);
+        if (level.isEmpty()) {
+            removeLevel(level);
+        }
+    }
+
+    private void insertAt(int index, long rank, PriceLevel level) {
+        if (size == ranks.length) {
+            ranks = Arrays.copyOf(ranks, size * 2);
+            levels = Arrays.copyOf(levels, size * 2);
+        }
+        System.arraycopy(ranks, index, ranks, index + 1, size - index);
+        System.arraycopy(levels, index, levels, index + 1, size - index);
+        ranks[index] = rank;
+        levels[index] = level;
+        size++;
+    }
+
+    private void removeLevel(PriceLevel level) {
+        int index = levels[size - 1] == level ? size - 1 : search(rank(level.price));
+        System.arraycopy(ranks, index + 1, ranks, index, size - index - 1);
+        System.arraycopy(levels, index + 1, levels, index, size - index - 1);
+        levels[--size] = null;
+    }
+
+    private int search(long rank) {
+        if (size > 0 && ranks[size - 1] == rank) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(ranks, 0, size, rank);
+    }
+
+    private long rank(long price) {
+        return bids ? price : -price;
+    }
+}
@@ -0,0 +1,13 @@
+package com.richard.gaming_trading_system.orderbook;
+
+/**
+ * Settles fills as the book matches them. Called on the book's thread, before the fill is applied, so
+ * a fill that cannot settle never reaches the book.
+ */
+@FunctionalInterface
+public interface FillHandler {
+
+    FillHandler ACCEPT_ALL = (buy, sell, price, quantity) -> FillOutcome.FILLED;
+
+    FillOutcome onFill(Order buy, Order sell, long price, long quantity);
+}
@@ -0,0 +1,15 @@
+package com.richard.gaming_trading_system.orderbook;
+
+/**
+ * What settling one fill came to, and so how the book carries on matching.
+ */
+public enum FillOutcome {
+    /** Both sides settled; the fill stands. */
+    FILLED,
+    /** The buyer could not pay: the buyer's order is cancelled. */
+    BUYER_REJECTED,
+    /** The seller could not deliver: the seller's order is cancelled. */
+    SELLER_REJECTED,
+    /** Settlement failed for another reason: the incoming order stops matching and is cancelled. */
+    ABORT
+}
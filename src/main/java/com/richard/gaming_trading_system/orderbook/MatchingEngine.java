@@ -0,0 +1,282 @@
+package com.richard.gaming_trading_system.orderbook;
+
+import com.richard.gaming_trading_system.dto.OrderBookSnapshot;
+import com.richard.gaming_trading_system.dto.OrderFill;
+import com.richard.gaming_trading_system.dto.OrderRequest;
+import com.richard.gaming_trading_system.dto.OrderResult;
+import com.richard.gaming_trading_system.dto.OrderStatus;
+import com.richard.gaming_trading_system.dto.TradeErrorCode;
+import com.richard.gaming_trading_system.engine.TradeExecutionEngine;
+import com.richard.gaming_trading_system.events.EventBus;
+import com.richard.gaming_trading_system.events.TopOfBookChanged;
+import com.richard.gaming_trading_system.exception.InsufficientAssetException;
+import com.richard.gaming_trading_system.exception.InsufficientFundsException;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.OrderType;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.Quantity;
+import com.richard.gaming_trading_system.model.Trade;
+import com.richard.gaming_trading_system.model.TradeType;
+import com.richard.gaming_trading_system.service.AssetService;
+import com.richard.gaming_trading_system.service.PortfolioService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs one {@link OrderBook} per asset, each on its own thread, so a busy asset never queues behind
+ * another. Books are created on an asset's first order. Each fill is settled as a pair of trades by
+ * {@link PortfolioService#settleFill} while both users' trade shards are held, and the book publishes
+ * {@link TopOfBookChanged} whenever its best bid or ask moves. An order's result carries only its owner's
+ * side of each fill.
+ */
+@Component
+public class MatchingEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchingEngine.class);
+    static final int MAX_BOOK_DEPTH = 1000;
+
+    private final PortfolioService portfolioService;
+    private final AssetService assetService;
+    private final TradeExecutionEngine tradeExecutionEngine;
+    private final EventBus eventBus;
+    private final int mailboxCapacity;
+    private final ConcurrentHashMap<Long, BookWorker> books = new ConcurrentHashMap<>();
+    private final AtomicLong orderIds = new AtomicLong();
+    private volatile boolean running = true;
+
+    public MatchingEngine(
+            PortfolioService portfolioService,
+            AssetService assetService,
+            TradeExecutionEngine tradeExecutionEngine,
+            EventBus eventBus,
+            @Value("${trading.orderbook.mailbox-capacity:10000}") int mailboxCapacity) {
+        this.portfolioService = portfolioService;
+        this.assetService = assetService;
+        this.tradeExecutionEngine = tradeExecutionEngine;
+        this.eventBus = eventBus;
+        this.mailboxCapacity = mailboxCapacity;
+    }
+
+    public OrderResult placeOrder(OrderRequest request) {
+        String problem = validate(request);
+        if (problem != null) {
+            return OrderResult.rejected(request == null ? null : request.getAssetId(), TradeErrorCode.INVALID_REQUEST, problem);
+        }
+        try {
+            assetService.getAssetById(request.getAssetId());
+            Portfolio portfolio = portfolioService.getPortfolioById(request.getPortfolioId());
+            long price = request.getOrderType() == OrderType.LIMIT ? Money.of(request.getPrice()) : 0;
+            Order order = new Order(orderIds.incrementAndGet(), portfolio.getPortfolioId(), portfolio.getUserId(),
+                    request.getSide(), request.getOrderType(), price, Quantity.of(request.getQuantity()));
+            BookWorker worker = bookFor(request.getAssetId());
+            return worker.call(() -> worker.submit(order));
+        } catch (RuntimeException e) {
+            return OrderResult.rejected(request.getAssetId(), TradeErrorCode.of(e), e.getMessage());
+        }
+    }
+
+    /**
+     * @return the cancelled order, or empty if it is not resting in that asset's book
+     */
+    public Optional<OrderResult> cancelOrder(long assetId, long orderId) {
+        BookWorker worker = books.get(assetId);
+        if (worker == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(worker.call(() -> worker.cancel(orderId)));
+    }
+
+    public OrderBookSnapshot getBook(long assetId, int depth) {
+        assetService.getAssetById(assetId);
+        BookWorker worker = books.get(assetId);
+        if (worker == null) {
+            return new OrderBookSnapshot(assetId, List.of(), List.of());
+        }
+        int levels = Math.max(1, Math.min(depth, MAX_BOOK_DEPTH));
+        return worker.call(() -> worker.book.snapshot(levels));
+    }
+
+    private static String validate(OrderRequest request) {
+        if (request == null) {
+            return "Order is missing";
+        }
+        if (request.getPortfolioId() == null || request.getAssetId() == null
+                || request.getSide() == null || request.getOrderType() == null) {
+            return "portfolioId, assetId, side and orderType are required";
+        }
+        if (request.getQuantity() == null || request.getQuantity().signum() <= 0) {
+            return "quantity must be positive";
+        }
+        if (request.getOrderType() == OrderType.LIMIT
+                && (request.getPrice() == null || request.getPrice().signum() <= 0)) {
+            return "price must be positive for a limit order";
+        }
+        return null;
+    }
+
+    private BookWorker bookFor(long assetId) {
+        BookWorker worker = books.computeIfAbsent(assetId, BookWorker::new);
+        if (!running) {
+            throw new RejectedExecutionException("Order books are shut down");
+        }
+        return worker;
+    }
+
+    private static OrderResult toResult(long assetId, Order order, List<OrderFill> fills) {
+        OrderStatus status = order.isResting() ? OrderStatus.RESTING
+                : order.getRemaining() == 0 ? OrderStatus.FILLED
+                : OrderStatus.CANCELLED;
+        return new OrderResult(order.getOrderId(), assetId, status, Quantity.toBigDecimal(order.getFilled()),
+                Quantity.toBigDecimal(order.isResting() ? order.getRemaining() : 0),
+                fills, null, null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (BookWorker worker : books.values()) {
+            worker.open = false;
+        }
+        for (BookWorker worker : books.values()) {
+            try {
+                worker.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private final class BookWorker implements Runnable {
+        private final long assetId;
+        private final OrderBook book;
+        private final BlockingQueue<Runnable> mailbox;
+        private final Thread thread;
+        private volatile boolean open = true;
+
+        // Last top of book published, touched only by the book thread
+        private long bidPrice;
+        private long bidQuantity;
+        private long askPrice;
+        private long askQuantity;
+
+        private BookWorker(long assetId) {
+            this.assetId = assetId;
+            this.book = new OrderBook(assetId);
+            this.mailbox = new ArrayBlockingQueue<>(mailboxCapacity);
+            this.thread = new Thread(this, "order-book-" + assetId);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private OrderResult submit(Order order) {
+            List<OrderFill> fills = new ArrayList<>();
+            book.submit(order, (buy, sell, price, quantity) -> settle(order, buy, sell, price, quantity, fills));
+            publishTopOfBook();
+            return toResult(assetId, order, fills);
+        }
+
+        private OrderResult cancel(long orderId) {
+            Order order = book.cancel(orderId);
+            if (order == null) {
+                return null;
+            }
+            publishTopOfBook();
+            return toResult(assetId, order, List.of());
+        }
+
+        private FillOutcome settle(Order incoming, Order buy, Order sell, long price, long quantity,
+                                   List<OrderFill> fills) {
+            try {
+                List<Trade> legs = tradeExecutionEngine.executeExclusive(new long[]{buy.getUserId(), sell.getUserId()},
+                        () -> portfolioService.settleFill(buy.getPortfolioId(), sell.getPortfolioId(), assetId, quantity, price));
+                // settleFill returns the buyer's leg first
+                Trade own = legs.get(incoming.getSide() == TradeType.BUY ? 0 : 1);
+                fills.add(new OrderFill(own.getTradeId(), incoming.getOrderId(), own.getTradeType(), own.getPrice(),
+                        own.getQuantity(), own.getTradeTimestamp()));
+                return FillOutcome.FILLED;
+            } catch (InsufficientFundsException e) {
+                return FillOutcome.BUYER_REJECTED;
+            } catch (InsufficientAssetException e) {
+                return FillOutcome.SELLER_REJECTED;
+            } catch (RuntimeException e) {
+                log.warn("Settling a fill of asset {} between orders {} and {} failed",
+                        assetId, buy.getOrderId(), sell.getOrderId(), e);
+                return FillOutcome.ABORT;
+            }
+        }
+
+        private void publishTopOfBook() {
+            long newBidPrice = book.getBestBid();
+            long newBidQuantity = book.getBestBidQuantity();
+            long newAskPrice = book.getBestAsk();
+            long newAskQuantity = book.getBestAskQuantity();
+            if (newBidPrice == bidPrice && newBidQuantity == bidQuantity
+                    && newAskPrice == askPrice && newAskQuantity == askQuantity) {
+                return;
+            }
+            bidPrice = newBidPrice;
+            bidQuantity = newBidQuantity;
+            askPrice = newAskPrice;
+            askQuantity = newAskQuantity;
+            eventBus.publish(new TopOfBookChanged(assetId, bidPrice, bidQuantity, askPrice, askQuantity));
+        }
+
+        private <T> T call(Supplier<T> task) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            Runnable work = () -> {
+                try {
+                    future.complete(task.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            };
+            if (!open || !mailbox.offer(work)) {
+                throw new RejectedExecutionException("Order book for asset " + assetId + " is not accepting work");
+            }
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void run() {
+            while (open || !mailbox.isEmpty()) {
+                Runnable task;
+                try {
+                    task = mailbox.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (task != null) {
+                    task.run();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.richard.gaming_trading_system.orderbook;
+
+import com.richard.gaming_trading_system.model.OrderType;
+import com.richard.gaming_trading_system.model.TradeType;
+
+/**
+ * An order in one asset's book. Price and quantity are fixed-point Money and Quantity units; a market
+ * order's price is ignored. The link fields belong to the {@link PriceLevel} queue the order rests in.
+ */
+public final class Order {
+
+    private final long orderId;
+    private final long portfolioId;
+    private final long userId;
+    private final TradeType side;
+    private final OrderType type;
+    private final long price;
+    private final long quantity;
+
+    long remaining;
+    boolean cancelled;
+    PriceLevel level;
+    Order prev;
+    Order next;
+
+    public Order(long orderId, long portfolioId, long userId, TradeType side, OrderType type, long price, long quantity) {
+        this.orderId = orderId;
+        this.portfolioId = portfolioId;
+        this.userId = userId;
+        this.side = side;
+        this.type = type;
+        this.price = price;
+        this.quantity = quantity;
+        this.remaining = quantity;
+    }
+
+    public long getOrderId() { return orderId; }
+
+    public long getPortfolioId() { return portfolioId; }
+
+    public long getUserId() { return userId; }
+
+    public TradeType getSide() { return side; }
+
+    public OrderType getType() { return type; }
+
+    public long getPrice() { return price; }
+
+    public long getQuantity() { return quantity; }
+
+    public long getRemaining() { return remaining; }
+
+    public long getFilled() { return quantity - remaining; }
+
+    public boolean isResting() { return level != null; }
+
+    /**
+     * Whether the unfilled remainder was taken off the book or never rested: cancelled by its owner,
+     * the unfilled part of a market order, or an order that could not settle.
+     */
+    public boolean isCancelled() { return cancelled; }
+}
@@ -0,0 +1,158 @@
+package com.richard.gaming_trading_system.orderbook;
+
+import com.richard.gaming_trading_system.dto.BookLevel;
+import com.richard.gaming_trading_system.dto.OrderBookSnapshot;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.OrderType;
+import com.richard.gaming_trading_system.model.Quantity;
+import com.richard.gaming_trading_system.model.TradeType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A central limit order book for one asset, matching by price then time. Not thread-safe: each book
+ * has a single writer, see {@link MatchingEngine}.
+ */
+public final class OrderBook {
+
+    private final long assetId;
+    private final BookSide bids = new BookSide(true);
+    private final BookSide asks = new BookSide(false);
+    private final Map<Long, Order> resting = new HashMap<>();
+
+    public OrderBook(long assetId) {
+        this.assetId = assetId;
+    }
+
+    public long getAssetId() {
+        return assetId;
+    }
+
+    /**
+     * Matches the order against the other side, best price first and oldest first within a price,
+     * settling each fill through the handler. Whatever is left of a limit order then rests on the
+     * book; what is left of a market order is cancelled. Fills happen at the resting order's price.
+     */
+    public Order submit(Order order, FillHandler handler) {
+        if (order.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Order quantity must be positive");
+        }
+        if (order.getType() == OrderType.LIMIT && order.getPrice() <= 0) {
+            throw new IllegalArgumentException("Limit price must be positive");
+        }
+        if (resting.containsKey(order.getOrderId())) {
+            throw new IllegalArgumentException("Duplicate order id: " + order.getOrderId());
+        }
+        boolean buy = order.getSide() == TradeType.BUY;
+        BookSide opposite = buy ? asks : bids;
+        FillOutcome restingRejected = buy ? FillOutcome.SELLER_REJECTED : FillOutcome.BUYER_REJECTED;
+
+        PriceLevel level;
+        while (order.remaining > 0 && (level = opposite.best()) != null && crosses(order, level.price)) {
+            Order match = level.head;
+            if (match.getPortfolioId() == order.getPortfolioId()) {
+                // Self-trade prevention: the older order gives way
+                cancelResting(opposite, match);
+                continue;
+            }
+            long quantity = Math.min(order.remaining, match.remaining);
+            FillOutcome outcome = buy
+                    ? handler.onFill(order, match, level.price, quantity)
+                    : handler.onFill(match, order, level.price, quantity);
+            if (outcome == FillOutcome.FILLED) {
+                order.remaining -= quantity;
+                level.fill(match, quantity);
+                if (match.remaining == 0) {
+                    resting.remove(match.getOrderId());
+                    opposite.remove(match);
+                }
+            } else if (outcome == restingRejected) {
+                cancelResting(opposite, match);
+            } else {
+                order.cancelled = true;
+                return order;
+            }
+        }
+
+        if (order.remaining > 0) {
+            if (order.getType() == OrderType.LIMIT) {
+                (buy ? bids : asks).add(order);
+                resting.put(order.getOrderId(), order);
+            } else {
+                order.cancelled = true;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Takes a resting order off the book.
+     *
+     * @return the cancelled order, or null if it is not resting here
+     */
+    public Order cancel(long orderId) {
+        Order order = resting.get(orderId);
+        if (order == null) {
+            return null;
+        }
+        cancelResting(order.getSide() == TradeType.BUY ? bids : asks, order);
+        return order;
+    }
+
+    private void cancelResting(BookSide side, Order order) {
+        resting.remove(order.getOrderId());
+        side.remove(order);
+        order.cancelled = true;
+    }
+
+    private static boolean crosses(Order order, long restingPrice) {
+        if (order.getType() == OrderType.MARKET) {
+            return true;
+        }
+        return order.getSide() == TradeType.BUY ? order.getPrice() >= restingPrice : order.getPrice() <= restingPrice;
+    }
+
+    public int getRestingOrderCount() {
+        return resting.size();
+    }
+
+    /** Best bid in Money units, or 0 when there are no bids. */
+    public long getBestBid() {
+        PriceLevel best = bids.best();
+        return best == null ? 0 : best.price;
+    }
+
+    public long getBestBidQuantity() {
+        PriceLevel best = bids.best();
+        return best == null ? 0 : best.totalQuantity;
+    }
+
+    /** Best ask in Money units, or 0 when there are no asks. */
+    public long getBestAsk() {
+        PriceLevel best = asks.best();
+        return best == null ? 0 : best.price;
+    }
+
+    public long getBestAskQuantity() {
+        PriceLevel best = asks.best();
+        return best == null ? 0 : best.totalQuantity;
+    }
+
+    public OrderBookSnapshot snapshot(int depth) {
+        return new OrderBookSnapshot(assetId, levels(bids, depth), levels(asks, depth));
+    }
+
+    private static List<BookLevel> levels(BookSide side, int depth) {
+        int count = Math.min(depth, side.depth());
+        List<BookLevel> levels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PriceLevel level = side.fromBest(i);
+            levels.add(new BookLevel(Money.toBigDecimal(level.price), Quantity.toBigDecimal(level.totalQuantity),
+                    level.orderCount));
+        }
+        return levels;
+    }
+}
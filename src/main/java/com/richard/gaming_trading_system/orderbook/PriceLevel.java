@@ -0,0 +1,59 @@
+package com.richard.gaming_trading_system.orderbook;
+
+/**
+ * The orders resting at one price, oldest first. The queue is intrusive: orders link to each other,
+ * so appending, taking the head and cancelling from the middle are all constant time.
+ */
+final class PriceLevel {
+
+    final long price;
+    Order head;
+    Order tail;
+    long totalQuantity;
+    int orderCount;
+
+    PriceLevel(long price) {
+        this.price = price;
+    }
+
+    void append(Order order) {
+        order.level = this;
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        totalQuantity += order.remaining;
+        orderCount++;
+    }
+
+    void remove(Order order) {
+        if (order.prev == null) {
+            head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+        if (order.next == null) {
+            tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+        totalQuantity -= order.remaining;
+        orderCount--;
+        order.level = null;
+        order.prev = null;
+        order.next = null;
+    }
+
+    void fill(Order order, long quantity) {
+        order.remaining -= quantity;
+        totalQuantity -= quantity;
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+}
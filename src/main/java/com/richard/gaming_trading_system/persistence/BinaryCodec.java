@@ -0,0 +1,73 @@
+package com.richard.gaming_trading_system.persistence;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+final class BinaryCodec {
+
+    static final long NULL_TIME = Long.MIN_VALUE;
+
+    private BinaryCodec() {}
+
+    static long unscaled(BigDecimal value) {
+        return value == null ? 0L : value.unscaledValue().longValueExact();
+    }
+
+    static byte scale(BigDecimal value) {
+        if (value == null) {
+            return 0;
+        }
+        int scale = value.scale();
+        if (scale < Byte.MIN_VALUE || scale > Byte.MAX_VALUE) {
+            throw new ArithmeticException("Scale out of range for journal encoding: " + scale);
+        }
+        return (byte) scale;
+    }
+
+    static BigDecimal decimal(long unscaled, int scale) {
+        return new BigDecimal(BigInteger.valueOf(unscaled), scale);
+    }
+
+    static long epochNanos(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        Instant instant = time.toInstant(ZoneOffset.UTC);
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    static LocalDateTime dateTime(long epochNanos) {
+        if (epochNanos == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string into a fixed field of {@code maxBytes} (excluding the prefix).
+     */
+    static void putString(ByteBuffer buffer, int offset, int maxBytes, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            throw new IllegalArgumentException("Value exceeds " + maxBytes + " bytes and cannot be journaled: " + value);
+        }
+        buffer.putShort(offset, value == null ? (short) -1 : (short) bytes.length);
+        buffer.put(offset + 2, bytes);
+    }
+
+    static String getString(ByteBuffer buffer, int offset) {
+        short length = buffer.getShort(offset);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,7 @@
+package com.richard.gaming_trading_system.persistence;
+
+public enum FsyncPolicy {
+    PER_TRADE,
+    GROUP_COMMIT,
+    OS
+}
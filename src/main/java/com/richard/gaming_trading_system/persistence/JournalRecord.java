@@ -0,0 +1,307 @@
+package com.richard.gaming_trading_system.persistence;
+
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.PortfolioAsset;
+import com.richard.gaming_trading_system.model.Trade;
+import com.richard.gaming_trading_system.model.TradeType;
+import com.richard.gaming_trading_system.model.User;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.CRC32;
+
+/**
+ * One fixed-size journal entry. Trade records carry the resulting user and holding state rather than
+ * the request, so replaying a record is idempotent and does not depend on the clock.
+ *
+ * <pre>
+ * 0   type (1)        4   crc32 of bytes 8..127 (4)
+ * 8   sequence (8)    16  timestamp, epoch nanos UTC (8)
+ * 24  body (104)
+ * </pre>
+ */
+public class JournalRecord {
+
+    public static final int SIZE = 128;
+
+    // Widths of the fixed string fields, in UTF-8 bytes
+    public static final int MAX_USERNAME_BYTES = 94;
+    public static final int MAX_PORTFOLIO_NAME_BYTES = 86;
+    public static final int MAX_SYMBOL_BYTES = 22;
+    public static final int MAX_ASSET_NAME_BYTES = 61;
+
+    private static final int TYPE = 0;
+    private static final int CRC = 4;
+    private static final int SEQUENCE = 8;
+    private static final int TIMESTAMP = 16;
+    private static final int BODY = 24;
+
+    public enum Type {
+        USER_CREATED(1),
+        PORTFOLIO_CREATED(2),
+        ASSET_CREATED(3),
+        TRADE(4),
+        GEMS_CHANGED(5);
+
+        private final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        static Type of(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    private Type type;
+    private long sequence;
+    private LocalDateTime timestamp;
+
+    private Long userId;
+    private Long portfolioId;
+    private Long assetId;
+    private Long tradeId;
+    private String username;
+    private String portfolioName;
+    private String symbol;
+    private String assetName;
+    private BigDecimal price;
+
+    private TradeType tradeType;
+    private BigDecimal quantity;
+    private Integer gemsAwarded;
+    private Integer userGems;
+    private Integer userTotalTrades;
+    private Integer userCurrentStreak;
+    private Integer userLongestStreak;
+    private LocalDateTime userLastTradeTime;
+    private BigDecimal holdingQuantity;
+    private BigDecimal holdingPrice;
+
+    /**
+     * Rejects a value that would not fit its fixed field, so callers can refuse it before storing
+     * anything that then cannot be journaled.
+     */
+    public static void checkFits(String field, String value, int maxBytes) {
+        if (value != null && value.getBytes(StandardCharsets.UTF_8).length > maxBytes) {
+            throw new IllegalArgumentException(field + " must be at most " + maxBytes + " bytes");
+        }
+    }
+
+    public static JournalRecord userCreated(User user) {
+        JournalRecord record = new JournalRecord();
+        record.type = Type.USER_CREATED;
+        record.timestamp = user.getCreatedAt();
+        record.userId = user.getUserId();
+        record.username = user.getUsername();
+        return record;
+    }
+
+    public static JournalRecord portfolioCreated(Portfolio portfolio) {
+        JournalRecord record = new JournalRecord();
+        record.type = Type.PORTFOLIO_CREATED;
+        record.timestamp = portfolio.getCreatedAt();
+        record.portfolioId = portfolio.getPortfolioId();
+        record.userId = portfolio.getUserId();
+        record.portfolioName = portfolio.getName();
+        return record;
+    }
+
+    public static JournalRecord assetCreated(Asset asset) {
+        JournalRecord record = new JournalRecord();
+        record.type = Type.ASSET_CREATED;
+        record.timestamp = asset.getLastUpdated();
+        record.assetId = asset.getAssetId();
+        record.symbol = asset.getSymbol();
+        record.assetName = asset.getName();
+        record.price = asset.getCurrentPrice();
+        return record;
+    }
+
+    /**
+     * A balance change outside a trade, such as a grant; carries the balance afterwards.
+     */
+    public static JournalRecord gemsChanged(User user) {
+        JournalRecord record = new JournalRecord();
+        record.type = Type.GEMS_CHANGED;
+        record.timestamp = LocalDateTime.now();
+        record.userId = user.getUserId();
+        record.userGems = user.getGemCount();
+        return record;
+    }
+
+    /**
+     * @param holding the portfolio's position in the traded asset after the trade, or null if it was closed
+     */
+    public static JournalRecord trade(Trade trade, Long portfolioId, User user, PortfolioAsset holding) {
+        JournalRecord record = new JournalRecord();
+        record.type = Type.TRADE;
+        record.timestamp = trade.getTradeTimestamp();
+        record.tradeId = trade.getTradeId();
+        record.userId = user.getUserId();
+        record.portfolioId = portfolioId;
+        record.assetId = trade.getAssetId();
+        record.tradeType = trade.getTradeType();
+        record.quantity = trade.getQuantity();
+        record.price = trade.getPrice();
+        record.gemsAwarded = trade.getGemsAwarded();
+        record.userGems = user.getGemCount();
+        record.userTotalTrades = user.getTotalTrades();
+        record.userCurrentStreak = user.getCurrentStreak();
+        record.userLongestStreak = user.getLongestStreak();
+        record.userLastTradeTime = user.getLastTradeTime();
+        record.holdingQuantity = holding == null ? BigDecimal.ZERO : holding.getQuantity();
+        record.holdingPrice = holding == null ? BigDecimal.ZERO : holding.getAveragePrice();
+        return record;
+    }
+
+    void writeTo(ByteBuffer buffer, int offset, long sequence) {
+        this.sequence = sequence;
+        for (int i = 0; i < SIZE; i += Long.BYTES) {
+            buffer.putLong(offset + i, 0L);
+        }
+        buffer.putLong(offset + SEQUENCE, sequence);
+        buffer.putLong(offset + TIMESTAMP, BinaryCodec.epochNanos(timestamp));
+        int body = offset + BODY;
+        switch (type) {
+            case USER_CREATED -> {
+                buffer.putLong(body, userId);
+                BinaryCodec.putString(buffer, body + 8, MAX_USERNAME_BYTES, username);
+            }
+            case PORTFOLIO_CREATED -> {
+                buffer.putLong(body, portfolioId);
+                buffer.putLong(body + 8, userId);
+                BinaryCodec.putString(buffer, body + 16, MAX_PORTFOLIO_NAME_BYTES, portfolioName);
+            }
+            case ASSET_CREATED -> {
+                buffer.putLong(body, assetId);
+                buffer.putLong(body + 8, BinaryCodec.unscaled(price));
+                buffer.put(body + 16, BinaryCodec.scale(price));
+                BinaryCodec.putString(buffer, body + 17, MAX_SYMBOL_BYTES, symbol);
+                BinaryCodec.putString(buffer, body + 41, MAX_ASSET_NAME_BYTES, assetName);
+            }
+            case TRADE -> {
+                buffer.putLong(body, tradeId);
+                buffer.putLong(body + 8, userId);
+                buffer.putLong(body + 16, portfolioId);
+                buffer.putLong(body + 24, assetId);
+                buffer.put(body + 32, (byte) tradeType.ordinal());
+                buffer.put(body + 33, BinaryCodec.scale(quantity));
+                buffer.put(body + 34, BinaryCodec.scale(price));
+                buffer.put(body + 35, BinaryCodec.scale(holdingQuantity));
+                buffer.put(body + 36, BinaryCodec.scale(holdingPrice));
+                buffer.putLong(body + 40, BinaryCodec.unscaled(quantity));
+                buffer.putLong(body + 48, BinaryCodec.unscaled(price));
+                buffer.putInt(body + 56, gemsAwarded);
+                buffer.putInt(body + 60, userGems);
+                buffer.putInt(body + 64, userTotalTrades);
+                buffer.putInt(body + 68, userCurrentStreak);
+                buffer.putInt(body + 72, userLongestStreak);
+                buffer.putLong(body + 80, BinaryCodec.unscaled(holdingQuantity));
+                buffer.putLong(body + 88, BinaryCodec.unscaled(holdingPrice));
+                buffer.putLong(body + 96, BinaryCodec.epochNanos(userLastTradeTime));
+            }
+            case GEMS_CHANGED -> {
+                buffer.putLong(body, userId);
+                buffer.putInt(body + 8, userGems);
+            }
+        }
+        buffer.putInt(offset + CRC, checksum(buffer, offset));
+        // The type byte is written last so a reader never sees a typed record with a partial body.
+        buffer.put(offset + TYPE, type.code);
+    }
+
+    /**
+     * Decodes the record at {@code offset}, or returns null if the slot is empty or torn.
+     */
+    static JournalRecord readFrom(ByteBuffer buffer, int offset) {
+        Type type = Type.of(buffer.get(offset + TYPE));
+        if (type == null || buffer.getInt(offset + CRC) != checksum(buffer, offset)) {
+            return null;
+        }
+        JournalRecord record = new JournalRecord();
+        record.type = type;
+        record.sequence = buffer.getLong(offset + SEQUENCE);
+        record.timestamp = BinaryCodec.dateTime(buffer.getLong(offset + TIMESTAMP));
+        int body = offset + BODY;
+        switch (type) {
+            case USER_CREATED -> {
+                record.userId = buffer.getLong(body);
+                record.username = BinaryCodec.getString(buffer, body + 8);
+            }
+            case PORTFOLIO_CREATED -> {
+                record.portfolioId = buffer.getLong(body);
+                record.userId = buffer.getLong(body + 8);
+                record.portfolioName = BinaryCodec.getString(buffer, body + 16);
+            }
+            case ASSET_CREATED -> {
+                record.assetId = buffer.getLong(body);
+                record.price = BinaryCodec.decimal(buffer.getLong(body + 8), buffer.get(body + 16));
+                record.symbol = BinaryCodec.getString(buffer, body + 17);
+                record.assetName = BinaryCodec.getString(buffer, body + 41);
+            }
+            case TRADE -> {
+                record.tradeId = buffer.getLong(body);
+                record.userId = buffer.getLong(body + 8);
+                record.portfolioId = buffer.getLong(body + 16);
+                record.assetId = buffer.getLong(body + 24);
+                record.tradeType = TradeType.values()[buffer.get(body + 32)];
+                record.quantity = BinaryCodec.decimal(buffer.getLong(body + 40), buffer.get(body + 33));
+                record.price = BinaryCodec.decimal(buffer.getLong(body + 48), buffer.get(body + 34));
+                record.gemsAwarded = buffer.getInt(body + 56);
+                record.userGems = buffer.getInt(body + 60);
+                record.userTotalTrades = buffer.getInt(body + 64);
+                record.userCurrentStreak = buffer.getInt(body + 68);
+                record.userLongestStreak = buffer.getInt(body + 72);
+                record.holdingQuantity = BinaryCodec.decimal(buffer.getLong(body + 80), buffer.get(body + 35));
+                record.holdingPrice = BinaryCodec.decimal(buffer.getLong(body + 88), buffer.get(body + 36));
+                record.userLastTradeTime = BinaryCodec.dateTime(buffer.getLong(body + 96));
+            }
+            case GEMS_CHANGED -> {
+                record.userId = buffer.getLong(body);
+                record.userGems = buffer.getInt(body + 8);
+            }
+        }
+        return record;
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + SEQUENCE, SIZE - SEQUENCE));
+        return (int) crc.getValue();
+    }
+
+    // Getters
+    public Type getType() { return type; }
+    public long getSequence() { return sequence; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public Long getUserId() { return userId; }
+    public Long getPortfolioId() { return portfolioId; }
+    public Long getAssetId() { return assetId; }
+    public Long getTradeId() { return tradeId; }
+    public void setTradeId(Long tradeId) { this.tradeId = tradeId; }
+    public String getUsername() { return username; }
+    public String getPortfolioName() { return portfolioName; }
+    public String getSymbol() { return symbol; }
+    public String getAssetName() { return assetName; }
+    public BigDecimal getPrice() { return price; }
+    public TradeType getTradeType() { return tradeType; }
+    public BigDecimal getQuantity() { return quantity; }
+    public Integer getGemsAwarded() { return gemsAwarded; }
+    public Integer getUserGems() { return userGems; }
+    public Integer getUserTotalTrades() { return userTotalTrades; }
+    public Integer getUserCurrentStreak() { return userCurrentStreak; }
+    public Integer getUserLongestStreak() { return userLongestStreak; }
+    public LocalDateTime getUserLastTradeTime() { return userLastTradeTime; }
+    public BigDecimal getHoldingQuantity() { return holdingQuantity; }
+    public BigDecimal getHoldingPrice() { return holdingPrice; }
+}
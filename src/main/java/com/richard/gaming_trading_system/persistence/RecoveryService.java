@@ -0,0 +1,151 @@
+package com.richard.gaming_trading_system.persistence;
+
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.PortfolioAsset;
+import com.richard.gaming_trading_system.model.Trade;
+import com.richard.gaming_trading_system.model.User;
+import com.richard.gaming_trading_system.repository.AssetRepository;
+import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import com.richard.gaming_trading_system.repository.TradeRepository;
+import com.richard.gaming_trading_system.repository.UserRepository;
+import com.richard.gaming_trading_system.service.RankingService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Rebuilds the in-memory repositories before the application starts serving: the latest snapshot is
+ * loaded first and only the journal records written after it are replayed.
+ */
+@Component
+public class RecoveryService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecoveryService.class);
+
+    private final TradeJournal tradeJournal;
+    private final SnapshotService snapshotService;
+    private final UserRepository userRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final AssetRepository assetRepository;
+    private final TradeRepository tradeRepository;
+    private final RankingService rankingService;
+
+    public RecoveryService(
+            TradeJournal tradeJournal,
+            SnapshotService snapshotService,
+            UserRepository userRepository,
+            PortfolioRepository portfolioRepository,
+            AssetRepository assetRepository,
+            TradeRepository tradeRepository,
+            RankingService rankingService) {
+        this.tradeJournal = tradeJournal;
+        this.snapshotService = snapshotService;
+        this.userRepository = userRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.assetRepository = assetRepository;
+        this.tradeRepository = tradeRepository;
+        this.rankingService = rankingService;
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        if (!tradeJournal.isEnabled() && !snapshotService.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long snapshotSequence = snapshotService.loadLatest();
+        long[] replayed = {0L};
+        tradeJournal.replay(snapshotSequence, record -> {
+            apply(record);
+            replayed[0]++;
+        });
+        rankingService.rebuild(userRepository.findAll());
+        log.info("Recovered from snapshot sequence {} and {} journal records in {} ms", snapshotSequence, replayed[0],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    void apply(JournalRecord record) {
+        switch (record.getType()) {
+            case USER_CREATED -> {
+                if (userRepository.findById(record.getUserId()).isEmpty()) {
+                    User user = new User(record.getUserId(), record.getUsername());
+                    user.setCreatedAt(record.getTimestamp());
+                    userRepository.save(user);
+                }
+            }
+            case PORTFOLIO_CREATED -> {
+                if (portfolioRepository.findById(record.getPortfolioId()).isEmpty()) {
+                    Portfolio portfolio = new Portfolio(record.getPortfolioId(), record.getUserId(), record.getPortfolioName());
+                    portfolio.setCreatedAt(record.getTimestamp());
+                    portfolioRepository.save(portfolio);
+                }
+            }
+            case ASSET_CREATED -> {
+                if (assetRepository.findById(record.getAssetId()).isEmpty()) {
+                    Asset asset = new Asset(record.getAssetId(), record.getSymbol(), record.getAssetName(), record.getPrice());
+                    asset.setLastUpdated(record.getTimestamp());
+                    assetRepository.save(asset);
+                }
+            }
+            case TRADE -> applyTrade(record);
+            case GEMS_CHANGED -> {
+                User user = userRepository.findById(record.getUserId()).orElse(null);
+                if (user == null) {
+                    log.warn("Skipping journal record {} for unknown user {}", record.getSequence(), record.getUserId());
+                } else {
+                    user.setGemCount(record.getUserGems());
+                    userRepository.save(user);
+                }
+            }
+        }
+    }
+
+    private void applyTrade(JournalRecord record) {
+        User user = userRepository.findById(record.getUserId()).orElse(null);
+        Portfolio portfolio = portfolioRepository.findById(record.getPortfolioId()).orElse(null);
+        if (user == null || portfolio == null) {
+            log.warn("Skipping journal record {} for unknown user {} or portfolio {}",
+                    record.getSequence(), record.getUserId(), record.getPortfolioId());
+            return;
+        }
+        user.setGemCount(record.getUserGems());
+        user.setTotalTrades(record.getUserTotalTrades());
+        user.setCurrentStreak(record.getUserCurrentStreak());
+        user.setLongestStreak(record.getUserLongestStreak());
+        user.setLastTradeTime(record.getUserLastTradeTime());
+        userRepository.save(user);
+
+        applyHolding(portfolio, record.getAssetId(), record.getHoldingQuantity(), record.getHoldingPrice());
+        portfolioRepository.save(portfolio);
+
+        Trade trade = new Trade(record.getTradeId(), record.getUserId(), record.getAssetId(), record.getTradeType(),
+                record.getQuantity(), record.getPrice());
+        trade.setGemsAwarded(record.getGemsAwarded());
+        trade.setTradeTimestamp(record.getTimestamp());
+        trade.setPortfolio(portfolio);
+        tradeRepository.save(trade);
+    }
+
+    private void applyHolding(Portfolio portfolio, Long assetId, BigDecimal quantity, BigDecimal price) {
+        PortfolioAsset holding = portfolio.getHolding(assetId);
+        if (quantity.signum() == 0) {
+            if (holding != null) {
+                portfolio.removeHolding(assetId);
+            }
+            return;
+        }
+        if (holding == null) {
+            holding = new PortfolioAsset(portfolio.getPortfolioId(), assetId, quantity, price);
+            holding.setAsset(assetRepository.findById(assetId).orElse(null));
+            portfolio.putHolding(holding);
+        } else {
+            holding.setQuantity(quantity);
+            holding.setPrice(price);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.richard.gaming_trading_system.persistence;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.CRC32;
+
+/**
+ * Buffered binary reader matching {@link SnapshotOutput}. The trailing CRC is excluded from the data
+ * stream and checked by {@link #verify()}.
+ */
+class SnapshotInput implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final long dataLength;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private final CRC32 crc = new CRC32();
+    private long consumed;
+
+    SnapshotInput(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.dataLength = channel.size() - Long.BYTES;
+        if (dataLength < 0) {
+            throw new EOFException("Snapshot is truncated");
+        }
+        buffer.limit(0);
+    }
+
+    int getByte() throws IOException {
+        ensure(1);
+        return buffer.get();
+    }
+
+    int getInt() throws IOException {
+        ensure(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    long getLong() throws IOException {
+        ensure(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    LocalDateTime getTime() throws IOException {
+        return BinaryCodec.dateTime(getLong());
+    }
+
+    BigDecimal getDecimal() throws IOException {
+        long unscaled = getLong();
+        return BinaryCodec.decimal(unscaled, getByte());
+    }
+
+    String getString() throws IOException {
+        int length = getInt();
+        if (length < 0) {
+            return null;
+        }
+        ensure(length);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks that every data byte was read and that the trailing CRC matches.
+     */
+    void verify() throws IOException {
+        if (buffer.hasRemaining() || consumed != dataLength) {
+            throw new IOException("Snapshot has trailing data");
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES);
+        while (trailer.hasRemaining()) {
+            if (channel.read(trailer, dataLength + trailer.position()) < 0) {
+                throw new EOFException("Snapshot checksum is missing");
+            }
+        }
+        if (trailer.getLong(0) != crc.getValue()) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        long toRead = Math.min(buffer.remaining(), dataLength - consumed);
+        buffer.limit(buffer.position() + (int) toRead);
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            int read = channel.read(buffer, consumed);
+            if (read < 0) {
+                break;
+            }
+            crc.update(buffer.duplicate().position(start).limit(start + read));
+            consumed += read;
+        }
+        buffer.flip();
+        if (buffer.remaining() < bytes) {
+            throw new EOFException("Snapshot is truncated");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,391 @@
+package com.richard.gaming_trading_system.persistence;
+
+import com.richard.gaming_trading_system.engine.TradeExecutionEngine;
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.PortfolioAsset;
+import com.richard.gaming_trading_system.model.Trade;
+import com.richard.gaming_trading_system.model.TradeType;
+import com.richard.gaming_trading_system.model.User;
+import com.richard.gaming_trading_system.repository.AssetRepository;
+import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import com.richard.gaming_trading_system.repository.TradeRepository;
+import com.richard.gaming_trading_system.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Periodically writes a binary snapshot of all repositories and loads the newest one at startup.
+ *
+ * <p>Snapshots are fuzzy: the journal sequence is read first, then each trade shard copies the users and
+ * portfolios it owns between two of its own trades, so trading only pauses per shard for the copy. Any
+ * journal record after that sequence may or may not be reflected in the copy, which is harmless because
+ * journal records carry absolute state and replaying them is idempotent.
+ */
+@Component
+public class SnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    private static final int MAGIC = 0x534E4150;
+    private static final int VERSION = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int retain;
+    private final TradeJournal tradeJournal;
+    private final TradeExecutionEngine tradeExecutionEngine;
+    private final UserRepository userRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final AssetRepository assetRepository;
+    private final TradeRepository tradeRepository;
+
+    public SnapshotService(
+            @Value("${trading.snapshot.enabled:false}") boolean enabled,
+            @Value("${trading.snapshot.dir:data/snapshots}") String directory,
+            @Value("${trading.snapshot.retain:2}") int retain,
+            TradeJournal tradeJournal,
+            TradeExecutionEngine tradeExecutionEngine,
+            UserRepository userRepository,
+            PortfolioRepository portfolioRepository,
+            AssetRepository assetRepository,
+            TradeRepository tradeRepository) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.retain = Math.max(retain, 1);
+        this.tradeJournal = tradeJournal;
+        this.tradeExecutionEngine = tradeExecutionEngine;
+        this.userRepository = userRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.assetRepository = assetRepository;
+        this.tradeRepository = tradeRepository;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${trading.snapshot.interval-ms:300000}",
+            initialDelayString = "${trading.snapshot.interval-ms:300000}")
+    public void scheduledSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Snapshot failed", e);
+        }
+    }
+
+    /**
+     * Writes a snapshot and returns the journal sequence it covers.
+     */
+    public synchronized long writeSnapshot() throws IOException {
+        long start = System.nanoTime();
+        long sequence = tradeJournal.getLastSequence();
+        List<User> users = new ArrayList<>();
+        List<Portfolio> portfolios = new ArrayList<>();
+        copyShardState(users, portfolios);
+        List<Asset> assets = assetRepository.findAll().stream().map(SnapshotService::copy).toList();
+
+        Files.createDirectories(directory);
+        Path target = directory.resolve(PREFIX + String.format("%020d", sequence) + SUFFIX);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long[] tradeCount = {0L};
+        try (SnapshotOutput out = new SnapshotOutput(FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(sequence);
+            out.putTime(LocalDateTime.now());
+
+            out.putInt(users.size());
+            for (User user : users) {
+                writeUser(out, user);
+            }
+            out.putInt(assets.size());
+            for (Asset asset : assets) {
+                writeAsset(out, asset);
+            }
+            out.putInt(portfolios.size());
+            for (Portfolio portfolio : portfolios) {
+                writePortfolio(out, portfolio);
+            }
+            // Trades are immutable once saved, so they are streamed straight from the repository.
+            IOException[] failure = new IOException[1];
+            tradeRepository.forEach(trade -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    out.putByte(1);
+                    writeTrade(out, trade);
+                    tradeCount[0]++;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            out.putByte(0);
+            out.finish();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        pruneOldSnapshots();
+        log.info("Wrote snapshot {} ({} users, {} portfolios, {} assets, {} trades) in {} ms", target.getFileName(),
+                users.size(), portfolios.size(), assets.size(), tradeCount[0], (System.nanoTime() - start) / 1_000_000);
+        return sequence;
+    }
+
+    /**
+     * Loads the newest readable snapshot into the repositories and returns the journal sequence it covers,
+     * or 0 if there is none.
+     */
+    public long loadLatest() throws IOException {
+        if (!enabled || !Files.isDirectory(directory)) {
+            return 0L;
+        }
+        for (Path snapshot : listSnapshots()) {
+            try {
+                return load(snapshot);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable snapshot {}: {}", snapshot.getFileName(), e.getMessage());
+            }
+        }
+        return 0L;
+    }
+
+    private long load(Path snapshot) throws IOException {
+        long start = System.nanoTime();
+        List<User> users = new ArrayList<>();
+        List<Asset> assets = new ArrayList<>();
+        List<Portfolio> portfolios = new ArrayList<>();
+        List<Trade> trades = new ArrayList<>();
+        long sequence;
+        // Decode and verify the whole file before touching the repositories.
+        try (SnapshotInput in = new SnapshotInput(FileChannel.open(snapshot, StandardOpenOption.READ))) {
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException("Not a snapshot file");
+            }
+            sequence = in.getLong();
+            in.getTime();
+            for (int i = in.getInt(); i > 0; i--) {
+                users.add(readUser(in));
+            }
+            for (int i = in.getInt(); i > 0; i--) {
+                assets.add(readAsset(in));
+            }
+            for (int i = in.getInt(); i > 0; i--) {
+                portfolios.add(readPortfolio(in));
+            }
+            while (in.getByte() == 1) {
+                trades.add(readTrade(in));
+            }
+            in.verify();
+        }
+
+        users.forEach(userRepository::save);
+        for (Asset asset : assets) {
+            assetRepository.save(asset);
+        }
+        for (Portfolio portfolio : portfolios) {
+            for (PortfolioAsset holding : portfolio.getAssets()) {
+                holding.setAsset(assetRepository.findById(holding.getAssetId()).orElse(null));
+            }
+            portfolioRepository.save(portfolio);
+        }
+        for (Trade trade : trades) {
+            if (trade.getPortfolio() != null) {
+                trade.setPortfolio(portfolioRepository.findById(trade.getPortfolio().getPortfolioId()).orElse(null));
+            }
+            tradeRepository.save(trade);
+        }
+        log.info("Loaded snapshot {} at sequence {} ({} users, {} trades) in {} ms", snapshot.getFileName(), sequence,
+                users.size(), trades.size(), (System.nanoTime() - start) / 1_000_000);
+        return sequence;
+    }
+
+    private void copyShardState(List<User> users, List<Portfolio> portfolios) {
+        int shards = tradeExecutionEngine.getShardCount();
+        List<List<User>> usersByShard = new ArrayList<>(shards);
+        List<List<Portfolio>> portfoliosByShard = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            usersByShard.add(new ArrayList<>());
+            portfoliosByShard.add(new ArrayList<>());
+        }
+        for (User user : userRepository.findAll()) {
+            usersByShard.get(tradeExecutionEngine.shardOf(user.getUserId())).add(user);
+        }
+        for (Portfolio portfolio : portfolioRepository.findAll()) {
+            portfoliosByShard.get(tradeExecutionEngine.shardOf(portfolio.getUserId())).add(portfolio);
+        }
+
+        List<CompletableFuture<Void>> copies = tradeExecutionEngine.submitToAll(shard -> {
+            List<User> userCopies = usersByShard.get(shard).stream().map(SnapshotService::copy).toList();
+            List<Portfolio> portfolioCopies = portfoliosByShard.get(shard).stream().map(SnapshotService::copy).toList();
+            synchronized (users) {
+                users.addAll(userCopies);
+                portfolios.addAll(portfolioCopies);
+            }
+            return null;
+        });
+        CompletableFuture.allOf(copies.toArray(new CompletableFuture[0])).join();
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(snapshots::add);
+        }
+        snapshots.sort(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed());
+        return snapshots;
+    }
+
+    private void pruneOldSnapshots() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        for (int i = retain; i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    private static User copy(User user) {
+        User copy = new User(user.getUserId(), user.getUsername());
+        copy.setGemCount(user.getGemCount());
+        copy.setTotalTrades(user.getTotalTrades());
+        copy.setCurrentStreak(user.getCurrentStreak());
+        copy.setLongestStreak(user.getLongestStreak());
+        copy.setLastTradeTime(user.getLastTradeTime());
+        copy.setCreatedAt(user.getCreatedAt());
+        return copy;
+    }
+
+    private static Asset copy(Asset asset) {
+        Asset copy = new Asset(asset.getAssetId(), asset.getSymbol(), asset.getName(), asset.getCurrentPrice());
+        copy.setLastUpdated(asset.getLastUpdated());
+        return copy;
+    }
+
+    private static Portfolio copy(Portfolio portfolio) {
+        Portfolio copy = new Portfolio(portfolio.getPortfolioId(), portfolio.getUserId(), portfolio.getName());
+        copy.setCreatedAt(portfolio.getCreatedAt());
+        for (PortfolioAsset holding : portfolio.getAssets()) {
+            PortfolioAsset holdingCopy = new PortfolioAsset(portfolio.getPortfolioId(), holding.getAssetId(),
+                    holding.getQuantity(), holding.getAveragePrice());
+            holdingCopy.setLastTraded(holding.getLastTraded());
+            copy.getAssets().add(holdingCopy);
+        }
+        return copy;
+    }
+
+    private static void writeUser(SnapshotOutput out, User user) throws IOException {
+        out.putLong(user.getUserId());
+        out.putString(user.getUsername());
+        out.putInt(user.getGemCount());
+        out.putInt(user.getTotalTrades());
+        out.putInt(user.getCurrentStreak());
+        out.putInt(user.getLongestStreak());
+        out.putTime(user.getLastTradeTime());
+        out.putTime(user.getCreatedAt());
+    }
+
+    private static User readUser(SnapshotInput in) throws IOException {
+        User user = new User(in.getLong(), in.getString());
+        user.setGemCount(in.getInt());
+        user.setTotalTrades(in.getInt());
+        user.setCurrentStreak(in.getInt());
+        user.setLongestStreak(in.getInt());
+        user.setLastTradeTime(in.getTime());
+        user.setCreatedAt(in.getTime());
+        return user;
+    }
+
+    private static void writeAsset(SnapshotOutput out, Asset asset) throws IOException {
+        out.putLong(asset.getAssetId());
+        out.putString(asset.getSymbol());
+        out.putString(asset.getName());
+        out.putDecimal(asset.getCurrentPrice());
+        out.putTime(asset.getLastUpdated());
+    }
+
+    private static Asset readAsset(SnapshotInput in) throws IOException {
+        Asset asset = new Asset(in.getLong(), in.getString(), in.getString(), in.getDecimal());
+        asset.setLastUpdated(in.getTime());
+        return asset;
+    }
+
+    private static void writePortfolio(SnapshotOutput out, Portfolio portfolio) throws IOException {
+        out.putLong(portfolio.getPortfolioId());
+        out.putLong(portfolio.getUserId());
+        out.putString(portfolio.getName());
+        out.putTime(portfolio.getCreatedAt());
+        out.putInt(portfolio.getAssets().size());
+        for (PortfolioAsset holding : portfolio.getAssets()) {
+            out.putLong(holding.getAssetId());
+            out.putDecimal(holding.getQuantity());
+            out.putDecimal(holding.getAveragePrice());
+            out.putTime(holding.getLastTraded());
+        }
+    }
+
+    private static Portfolio readPortfolio(SnapshotInput in) throws IOException {
+        Portfolio portfolio = new Portfolio(in.getLong(), in.getLong(), in.getString());
+        portfolio.setCreatedAt(in.getTime());
+        for (int i = in.getInt(); i > 0; i--) {
+            PortfolioAsset holding = new PortfolioAsset(portfolio.getPortfolioId(), in.getLong(),
+                    in.getDecimal(), in.getDecimal());
+            holding.setLastTraded(in.getTime());
+            portfolio.getAssets().add(holding);
+        }
+        return portfolio;
+    }
+
+    private static void writeTrade(SnapshotOutput out, Trade trade) throws IOException {
+        out.putLong(trade.getTradeId());
+        out.putLong(trade.getUserId());
+        out.putLong(trade.getPortfolio() == null ? -1L : trade.getPortfolio().getPortfolioId());
+        out.putLong(trade.getAssetId());
+        out.putByte(trade.getTradeType().ordinal());
+        out.putDecimal(trade.getQuantity());
+        out.putDecimal(trade.getPrice());
+        out.putInt(trade.getGemsAwarded());
+        out.putTime(trade.getTradeTimestamp());
+    }
+
+    private static Trade readTrade(SnapshotInput in) throws IOException {
+        long tradeId = in.getLong();
+        long userId = in.getLong();
+        long portfolioId = in.getLong();
+        long assetId = in.getLong();
+        Trade trade = new Trade(tradeId, userId, assetId,
+                TradeType.values()[in.getByte()],
+                in.getDecimal(), in.getDecimal());
+        trade.setGemsAwarded(in.getInt());
+        trade.setTradeTimestamp(in.getTime());
+        if (portfolioId >= 0) {
+            // Resolved against the loaded portfolios once all sections are read.
+            trade.setPortfolio(new Portfolio(portfolioId, userId, null));
+        }
+        return trade;
+    }
+}
@@ -0,0 +1,248 @@
+package com.richard.gaming_trading_system.persistence;
+
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.PortfolioAsset;
+import com.richard.gaming_trading_system.model.Trade;
+import com.richard.gaming_trading_system.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Append-only journal of {@link JournalRecord}s written through a memory-mapped window of the journal
+ * file. Records are fixed-size and numbered from 1, so record {@code n} lives at offset
+ * {@code (n - 1) * JournalRecord.SIZE} and a replay can start at any sequence without scanning.
+ */
+@Component
+public class TradeJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(TradeJournal.class);
+
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final int RECORDS_PER_WINDOW = WINDOW_SIZE / JournalRecord.SIZE;
+
+    private final boolean enabled;
+    private final Path path;
+    private final FsyncPolicy fsyncPolicy;
+    private final long groupCommitIntervalMs;
+
+    private FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowStartSequence;
+    private long lastSequence;
+    private boolean dirty;
+    private ScheduledExecutorService groupCommitter;
+
+    public TradeJournal(
+            @Value("${trading.journal.enabled:false}") boolean enabled,
+            @Value("${trading.journal.path:data/trade.journal}") String path,
+            @Value("${trading.journal.fsync:GROUP_COMMIT}") FsyncPolicy fsyncPolicy,
+            @Value("${trading.journal.group-commit-interval-ms:10}") long groupCommitIntervalMs) {
+        this.enabled = enabled;
+        this.path = Paths.get(path);
+        this.fsyncPolicy = fsyncPolicy;
+        this.groupCommitIntervalMs = groupCommitIntervalMs;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        lastSequence = findLastSequence();
+        mapWindowFor(lastSequence + 1);
+        if (fsyncPolicy == FsyncPolicy.GROUP_COMMIT) {
+            groupCommitter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "trade-journal-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            groupCommitter.scheduleWithFixedDelay(this::flush, groupCommitIntervalMs, groupCommitIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+        log.info("Opened trade journal {} at sequence {} (fsync {})", path, lastSequence, fsyncPolicy);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long appendUserCreated(User user) {
+        return append(JournalRecord.userCreated(user));
+    }
+
+    public long appendPortfolioCreated(Portfolio portfolio) {
+        return append(JournalRecord.portfolioCreated(portfolio));
+    }
+
+    public long appendAssetCreated(Asset asset) {
+        return append(JournalRecord.assetCreated(asset));
+    }
+
+    public long appendGemsChanged(User user) {
+        return append(JournalRecord.gemsChanged(user));
+    }
+
+    public long appendTrade(Trade trade, Long portfolioId, User user, PortfolioAsset holding) {
+        return append(JournalRecord.trade(trade, portfolioId, user, holding));
+    }
+
+    /**
+     * Appends the records under one lock, so they take consecutive sequences with nothing in between.
+     *
+     * @return the sequence of the last record
+     */
+    public synchronized long appendAll(List<JournalRecord> records) {
+        long sequence = 0L;
+        for (JournalRecord record : records) {
+            sequence = append(record);
+        }
+        return sequence;
+    }
+
+    private synchronized long append(JournalRecord record) {
+        if (!enabled) {
+            return 0L;
+        }
+        long sequence = lastSequence + 1;
+        if (sequence >= windowStartSequence + RECORDS_PER_WINDOW) {
+            window.force();
+            mapWindowFor(sequence);
+        }
+        int offset = (int) (sequence - windowStartSequence) * JournalRecord.SIZE;
+        record.writeTo(window, offset, sequence);
+        lastSequence = sequence;
+        if (fsyncPolicy == FsyncPolicy.PER_TRADE) {
+            window.force(offset, JournalRecord.SIZE);
+        } else {
+            dirty = true;
+        }
+        return sequence;
+    }
+
+    public synchronized void flush() {
+        if (enabled && dirty && window != null) {
+            window.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Streams every valid record with a sequence greater than {@code afterSequence}, in order.
+     */
+    public void replay(long afterSequence, Consumer<JournalRecord> consumer) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long end = getLastSequence();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(JournalRecord.SIZE * 8192);
+        long sequence = Math.max(afterSequence, 0L) + 1;
+        while (sequence <= end) {
+            int records = readRecords(buffer, sequence, end);
+            if (records == 0) {
+                return;
+            }
+            for (int i = 0; i < records; i++) {
+                JournalRecord record = JournalRecord.readFrom(buffer, i * JournalRecord.SIZE);
+                if (record == null) {
+                    return;
+                }
+                consumer.accept(record);
+            }
+            sequence += records;
+        }
+    }
+
+    private long findLastSequence() throws IOException {
+        long last = 0L;
+        long fileRecords = channel.size() / JournalRecord.SIZE;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(JournalRecord.SIZE * 8192);
+        long sequence = 1;
+        while (sequence <= fileRecords) {
+            int records = readRecords(buffer, sequence, fileRecords);
+            if (records == 0) {
+                break;
+            }
+            for (int i = 0; i < records; i++) {
+                JournalRecord record = JournalRecord.readFrom(buffer, i * JournalRecord.SIZE);
+                if (record == null || record.getSequence() != sequence + i) {
+                    return last;
+                }
+                last = record.getSequence();
+            }
+            sequence += records;
+        }
+        return last;
+    }
+
+    private int readRecords(ByteBuffer buffer, long firstSequence, long lastSequence) throws IOException {
+        buffer.clear();
+        long position = (firstSequence - 1) * JournalRecord.SIZE;
+        buffer.limit((int) Math.min(buffer.capacity(), (lastSequence - firstSequence + 1) * JournalRecord.SIZE));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.position() / JournalRecord.SIZE;
+    }
+
+    private void mapWindowFor(long sequence) {
+        long windowIndex = (sequence - 1) / RECORDS_PER_WINDOW;
+        windowStartSequence = windowIndex * RECORDS_PER_WINDOW + 1;
+        try {
+            window = channel.map(FileChannel.MapMode.READ_WRITE, windowIndex * WINDOW_SIZE, WINDOW_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to map trade journal window", e);
+        }
+        // Clear a torn tail left by a crash so it is never mistaken for a valid record later.
+        int from = (int) (sequence - windowStartSequence) * JournalRecord.SIZE;
+        if (from < WINDOW_SIZE && window.get(from) != 0) {
+            for (int i = from; i < WINDOW_SIZE && window.get(i) != 0; i += JournalRecord.SIZE) {
+                window.put(i, (byte) 0);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (groupCommitter != null) {
+            groupCommitter.shutdown();
+        }
+        if (channel != null) {
+            if (window != null) {
+                window.force();
+            }
+            channel.close();
+            channel = null;
+            window = null;
+        }
+    }
+}
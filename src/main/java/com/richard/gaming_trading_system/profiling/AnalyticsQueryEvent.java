@@ -0,0 +1,41 @@
+package com.richard.gaming_trading_system.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One query served by {@code PortfolioAnalyticsService}.
+ */
+@Name("trading.AnalyticsQuery")
+@Label("Analytics Query")
+@Category("Trading")
+@Description("An analytics query and the size of its result")
+@StackTrace(false)
+@Threshold("0 ms")
+public class AnalyticsQueryEvent extends jdk.jfr.Event {
+
+    @Label("Query")
+    String query;
+
+    @Label("User Id")
+    @Description("The user the query is about, or zero for market-wide queries")
+    long userId;
+
+    @Label("Users Touched")
+    int usersTouched;
+
+    @Label("Rows")
+    int rows;
+
+    public void setQuery(String query) { this.query = query; }
+
+    public void setUserId(long userId) { this.userId = userId; }
+
+    public void setUsersTouched(int usersTouched) { this.usersTouched = usersTouched; }
+
+    public void setRows(int rows) { this.rows = rows; }
+}
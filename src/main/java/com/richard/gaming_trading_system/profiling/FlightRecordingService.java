@@ -0,0 +1,156 @@
+package com.richard.gaming_trading_system.profiling;
+
+import com.richard.gaming_trading_system.dto.FlightRecordingInfo;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Starts, dumps and stops one on-demand flight recording. The recording uses a built-in JFR
+ * configuration, so GC, lock and allocation events land next to the trading events, and each trading
+ * event gets its configured threshold. Trading events are only written while a recording enables them;
+ * otherwise {@code commit()} checks a disabled flag and the JIT removes the event entirely.
+ */
+@Component
+public class FlightRecordingService {
+
+    static final String RECORDING_NAME = "trading-on-demand";
+
+    private final String settings;
+    private final Duration maxAge;
+    private final long tradeThresholdMs;
+    private final long rankUpdateThresholdMs;
+    private final long priceTickThresholdMs;
+    private final long analyticsThresholdMs;
+    private Recording recording;
+
+    public FlightRecordingService(
+            @Value("${trading.jfr.settings:profile}") String settings,
+            @Value("${trading.jfr.max-age-seconds:600}") long maxAgeSeconds,
+            @Value("${trading.jfr.threshold.trade-ms:1}") long tradeThresholdMs,
+            @Value("${trading.jfr.threshold.rank-update-ms:1}") long rankUpdateThresholdMs,
+            @Value("${trading.jfr.threshold.price-tick-ms:0}") long priceTickThresholdMs,
+            @Value("${trading.jfr.threshold.analytics-ms:0}") long analyticsThresholdMs) {
+        this.settings = settings;
+        this.maxAge = Duration.ofSeconds(maxAgeSeconds);
+        this.tradeThresholdMs = tradeThresholdMs;
+        this.rankUpdateThresholdMs = rankUpdateThresholdMs;
+        this.priceTickThresholdMs = priceTickThresholdMs;
+        this.analyticsThresholdMs = analyticsThresholdMs;
+    }
+
+    /**
+     * Starts a recording, or returns the one already running. A positive duration stops it
+     * automatically; its data can still be dumped until the next start or stop.
+     */
+    public synchronized FlightRecordingInfo start(long durationSeconds) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return toInfo(recording);
+        }
+        closeRecording();
+        Recording next = new Recording(loadConfiguration());
+        next.setName(RECORDING_NAME);
+        next.setToDisk(true);
+        next.setMaxAge(maxAge);
+        if (durationSeconds > 0) {
+            next.setDuration(Duration.ofSeconds(durationSeconds));
+        }
+        enable(next, TradeEvent.class, tradeThresholdMs);
+        enable(next, RankUpdateEvent.class, rankUpdateThresholdMs);
+        enable(next, PriceTickEvent.class, priceTickThresholdMs);
+        enable(next, AnalyticsQueryEvent.class, analyticsThresholdMs);
+        next.start();
+        recording = next;
+        return toInfo(next);
+    }
+
+    /**
+     * The recording's data so far as a {@code .jfr} file, or empty if no recording was started.
+     */
+    public synchronized Optional<byte[]> dump() {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        Path file = null;
+        try {
+            file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+            recording.dump(file);
+            return Optional.of(Files.readAllBytes(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to dump flight recording", e);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Stops and discards the recording, or returns empty if none was started.
+     */
+    public synchronized Optional<FlightRecordingInfo> stop() {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        FlightRecordingInfo info = toInfo(recording);
+        closeRecording();
+        return Optional.of(info);
+    }
+
+    public synchronized Optional<FlightRecordingInfo> getStatus() {
+        return Optional.ofNullable(recording).map(FlightRecordingService::toInfo);
+    }
+
+    private Configuration loadConfiguration() {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Unable to load JFR configuration: " + settings, e);
+        }
+    }
+
+    // A negative threshold leaves the event out of the recording
+    private static void enable(Recording recording, Class<? extends Event> eventType, long thresholdMs) {
+        if (thresholdMs < 0) {
+            recording.disable(eventType);
+        } else {
+            recording.enable(eventType).withThreshold(Duration.ofMillis(thresholdMs));
+        }
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // A leftover temp file is harmless
+        }
+    }
+
+    private static FlightRecordingInfo toInfo(Recording recording) {
+        Duration duration = recording.getDuration();
+        return new FlightRecordingInfo(recording.getId(), recording.getName(), recording.getState().name(),
+                recording.getStartTime(), duration == null ? null : duration.getSeconds());
+    }
+}
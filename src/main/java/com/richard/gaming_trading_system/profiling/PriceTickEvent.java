@@ -0,0 +1,41 @@
+package com.richard.gaming_trading_system.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One scheduled price tick from {@code AssetPriceService.updateAssetPrices}.
+ */
+@Name("trading.PriceTick")
+@Label("Price Tick")
+@Category("Trading")
+@Description("Prices moved for every asset and portfolios marked to market")
+@StackTrace(false)
+@Threshold("0 ms")
+public class PriceTickEvent extends jdk.jfr.Event {
+
+    @Label("Snapshot Version")
+    long version;
+
+    @Label("Assets")
+    int assets;
+
+    @Label("Assets Changed")
+    int assetsChanged;
+
+    @Label("Users Touched")
+    @Description("Portfolio holdings revalued because their asset's price changed")
+    int usersTouched;
+
+    public void setVersion(long version) { this.version = version; }
+
+    public void setAssets(int assets) { this.assets = assets; }
+
+    public void setAssetsChanged(int assetsChanged) { this.assetsChanged = assetsChanged; }
+
+    public void setUsersTouched(int usersTouched) { this.usersTouched = usersTouched; }
+}
@@ -0,0 +1,36 @@
+package com.richard.gaming_trading_system.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One leaderboard index update from {@code RankingService.updateUserRank}.
+ */
+@Name("trading.RankUpdate")
+@Label("Rank Update")
+@Category("Trading")
+@Description("A user's gem count written to the leaderboard index")
+@StackTrace(false)
+@Threshold("1 ms")
+public class RankUpdateEvent extends jdk.jfr.Event {
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Gem Count")
+    int gemCount;
+
+    @Label("Users Touched")
+    @Description("The user plus every user whose leaderboard position shifted")
+    int usersTouched;
+
+    public void setUserId(long userId) { this.userId = userId; }
+
+    public void setGemCount(int gemCount) { this.gemCount = gemCount; }
+
+    public void setUsersTouched(int usersTouched) { this.usersTouched = usersTouched; }
+}
@@ -0,0 +1,51 @@
+package com.richard.gaming_trading_system.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One call to {@code PortfolioService.executeTrade}, executed or rejected.
+ */
+@Name("trading.Trade")
+@Label("Trade")
+@Category("Trading")
+@Description("A trade from portfolio lookup to recording, including rejected trades")
+@StackTrace(false)
+@Threshold("1 ms")
+public class TradeEvent extends jdk.jfr.Event {
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Portfolio Id")
+    long portfolioId;
+
+    @Label("Asset Id")
+    long assetId;
+
+    @Label("Trade Type")
+    String tradeType;
+
+    @Label("Users Touched")
+    int usersTouched;
+
+    @Label("Rejection")
+    @Description("Simple name of the exception that rejected the trade, if any")
+    String rejection;
+
+    public void setUserId(long userId) { this.userId = userId; }
+
+    public void setPortfolioId(long portfolioId) { this.portfolioId = portfolioId; }
+
+    public void setAssetId(long assetId) { this.assetId = assetId; }
+
+    public void setTradeType(String tradeType) { this.tradeType = tradeType; }
+
+    public void setUsersTouched(int usersTouched) { this.usersTouched = usersTouched; }
+
+    public void setRejection(String rejection) { this.rejection = rejection; }
+}
@@ -1,11 +1,13 @@
 package com.richard.gaming_trading_system.repository;
 
+import com.richard.gaming_trading_system.exception.AssetAlreadyExistsException;
 import com.richard.gaming_trading_system.model.Asset;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -14,27 +16,57 @@ import java.util.concurrent.atomic.AtomicLong;
 public class AssetRepository {
 
     private final Map<Long, Asset> assets = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsBySymbol = new ConcurrentHashMap<>();
+    private final Map<Long, String> indexedSymbols = new ConcurrentHashMap<>();
     private final AtomicLong idGenerator = new AtomicLong(1);
 
     public Asset save(Asset asset) {
         if (asset.getAssetId() == null) {
             asset.setAssetId(idGenerator.getAndIncrement());
+        } else {
+            idGenerator.accumulateAndGet(asset.getAssetId() + 1, Math::max);
         }
-        assets.put(asset.getAssetId(), asset);
+        Long id = asset.getAssetId();
+        assets.compute(id, (key, previous) -> {
+            indexSymbol(id, asset.getSymbol());
+            return asset;
+        });
         return asset;
     }
 
+    private void indexSymbol(Long id, String symbol) {
+        String indexed = indexedSymbols.get(id);
+        if (Objects.equals(indexed, symbol)) {
+            return;
+        }
+        if (symbol != null) {
+            Long owner = idsBySymbol.putIfAbsent(symbol, id);
+            if (owner != null && !owner.equals(id)) {
+                throw new AssetAlreadyExistsException("Asset already exists with symbol: " + symbol);
+            }
+            indexedSymbols.put(id, symbol);
+        } else {
+            indexedSymbols.remove(id);
+        }
+        if (indexed != null) {
+            idsBySymbol.remove(indexed, id);
+        }
+    }
+
     public Optional<Asset> findById(Long id) {
         return Optional.ofNullable(assets.get(id));
     }
 
     public Optional<Asset> findBySymbol(String symbol) {
-        return assets.values().stream()
-                .filter(asset -> asset.getSymbol().equals(symbol))
-                .findFirst();
+        Long id = symbol == null ? null : idsBySymbol.get(symbol);
+        return id == null ? Optional.empty() : findById(id);
     }
 
     public List<Asset> findAll() {
         return new ArrayList<>(assets.values());
     }
+
+    public int count() {
+        return assets.size();
+    }
 }
@@ -0,0 +1,350 @@
+package com.richard.gaming_trading_system.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Order-statistic index over users ordered by gem count (descending), ties broken by user id.
+ * Backed by a size-augmented treap so updates, rank lookups and positional reads are O(log N).
+ * Ranks use competition ranking: users with equal gems share a rank and the next rank skips.
+ */
+@Component
+public class LeaderboardIndex {
+
+    private Map<Long, Integer> gemsByUser = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SplittableRandom priorities = new SplittableRandom();
+    private Node root;
+    private volatile long version;
+
+    public void update(long userId, int gemCount) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = gemsByUser.put(userId, gemCount);
+            if (previous != null) {
+                if (previous == gemCount) {
+                    return;
+                }
+                root = delete(root, previous, userId);
+            }
+            root = insert(root, new Node(userId, gemCount, priorities.nextInt()));
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = gemsByUser.remove(userId);
+            if (previous != null) {
+                root = delete(root, previous, userId);
+                version++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            gemsByUser.clear();
+            root = null;
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index with the given gem counts. The new index is built before the write lock
+     * is taken, so readers see either the old leaderboard or the new one, never an empty or partial one.
+     */
+    public void replaceAll(Map<Long, Integer> gemCounts) {
+        Map<Long, Integer> rebuilt = new HashMap<>(gemCounts);
+        SplittableRandom buildPriorities = new SplittableRandom();
+        Node rebuiltRoot = null;
+        for (Map.Entry<Long, Integer> entry : rebuilt.entrySet()) {
+            rebuiltRoot = insert(rebuiltRoot, new Node(entry.getKey(), entry.getValue(), buildPriorities.nextInt()));
+        }
+        lock.writeLock().lock();
+        try {
+            gemsByUser = rebuilt;
+            root = rebuiltRoot;
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Incremented on every change, so readers can tell cheaply whether the ordering may have moved.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long userId) {
+        lock.readLock().lock();
+        try {
+            return gemsByUser.containsKey(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the competition rank of the user, or 0 if the user is not indexed.
+     */
+    public int rankOf(long userId) {
+        lock.readLock().lock();
+        try {
+            Integer gems = gemsByUser.get(userId);
+            return gems == null ? 0 : countGreater(gems) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the zero-based position of the user in leaderboard order, or -1 if not indexed.
+     */
+    public int positionOf(long userId) {
+        lock.readLock().lock();
+        try {
+            Integer gems = gemsByUser.get(userId);
+            return gems == null ? -1 : countBefore(gems, userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries starting at the zero-based {@code offset}, in leaderboard order.
+     */
+    public List<Entry> range(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int total = size(root);
+            if (offset < 0) {
+                offset = 0;
+            }
+            if (limit <= 0 || offset >= total) {
+                return List.of();
+            }
+            List<Entry> entries = new ArrayList<>(Math.min(limit, total - offset));
+
+            // Descend to the node at position offset, keeping the ancestors still to be visited.
+            Node[] stack = new Node[64];
+            int depth = 0;
+            Node node = root;
+            int remaining = offset;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (remaining < leftSize) {
+                    stack = push(stack, depth++, node);
+                    node = node.left;
+                } else if (remaining == leftSize) {
+                    stack = push(stack, depth++, node);
+                    break;
+                } else {
+                    remaining -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+
+            int position = offset;
+            int rank = 0;
+            int previousGems = 0;
+            while (depth > 0 && entries.size() < limit) {
+                Node current = stack[--depth];
+                if (entries.isEmpty()) {
+                    rank = countGreater(current.gems) + 1;
+                } else if (current.gems != previousGems) {
+                    rank = position + 1;
+                }
+                entries.add(new Entry(current.userId, current.gems, rank, position + 1));
+                previousGems = current.gems;
+                position++;
+                for (Node next = current.right; next != null; next = next.left) {
+                    stack = push(stack, depth++, next);
+                }
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Node[] push(Node[] stack, int depth, Node node) {
+        if (depth == stack.length) {
+            Node[] grown = new Node[stack.length * 2];
+            System.arraycopy(stack, 0, grown, 0, stack.length);
+            stack = grown;
+        }
+        stack[depth] = node;
+        return stack;
+    }
+
+    private int countGreater(int gems) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.gems > gems) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private int countBefore(int gems, long userId) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (precedes(node.gems, node.userId, gems, userId)) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private static boolean precedes(int gemsA, long userA, int gemsB, long userB) {
+        return gemsA > gemsB || (gemsA == gemsB && userA < userB);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (precedes(added.gems, added.userId, node.gems, node.userId)) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.updateSize();
+        return node;
+    }
+
+    private static Node delete(Node node, int gems, long userId) {
+        if (node == null) {
+            return null;
+        }
+        if (node.userId == userId) {
+            return merge(node.left, node.right);
+        }
+        if (precedes(gems, userId, node.gems, node.userId)) {
+            node.left = delete(node.left, gems, userId);
+        } else {
+            node.right = delete(node.right, gems, userId);
+        }
+        node.updateSize();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.updateSize();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.updateSize();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.updateSize();
+        pivot.updateSize();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.updateSize();
+        pivot.updateSize();
+        return pivot;
+    }
+
+    private static final class Node {
+        private final long userId;
+        private final int gems;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long userId, int gems, int priority) {
+            this.userId = userId;
+            this.gems = gems;
+            this.priority = priority;
+        }
+
+        private void updateSize() {
+            size = 1 + LeaderboardIndex.size(left) + LeaderboardIndex.size(right);
+        }
+    }
+
+    public static final class Entry {
+        private final long userId;
+        private final int gemCount;
+        private final int rank;
+        private final int position;
+
+        public Entry(long userId, int gemCount, int rank, int position) {
+            this.userId = userId;
+            this.gemCount = gemCount;
+            this.rank = rank;
+            this.position = position;
+        }
+
+        public long getUserId() { return userId; }
+        public int getGemCount() { return gemCount; }
+        public int getRank() { return rank; }
+        public int getPosition() { return position; }
+    }
+}
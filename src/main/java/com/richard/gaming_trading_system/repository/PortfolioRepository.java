@@ -6,34 +6,98 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class PortfolioRepository {
     private final Map<Long, Portfolio> portfolios = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> idsByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Long> indexedOwners = new ConcurrentHashMap<>();
     private final AtomicLong idGenerator = new AtomicLong(1);
+    private final PortfolioValuation valuation = new PortfolioValuation();
 
     public Portfolio save(Portfolio portfolio) {
         if (portfolio.getPortfolioId() == null) {
             portfolio.setPortfolioId(idGenerator.getAndIncrement());
+        } else {
+            idGenerator.accumulateAndGet(portfolio.getPortfolioId() + 1, Math::max);
         }
-        portfolios.put(portfolio.getPortfolioId(), portfolio);
+        Long id = portfolio.getPortfolioId();
+        portfolios.compute(id, (key, previous) -> {
+            indexOwner(id, portfolio.getUserId());
+            valuation.update(portfolio);
+            return portfolio;
+        });
         return portfolio;
     }
 
+    /**
+     * Saves a portfolio after a trade that changed only its holding of {@code assetId}, revaluing just
+     * that position.
+     */
+    public Portfolio saveTraded(Portfolio portfolio, Long assetId) {
+        Long id = portfolio.getPortfolioId();
+        portfolios.compute(id, (key, previous) -> {
+            indexOwner(id, portfolio.getUserId());
+            valuation.updatePosition(id, assetId, portfolio.getHolding(assetId));
+            return portfolio;
+        });
+        return portfolio;
+    }
+
+    private void indexOwner(Long id, Long userId) {
+        Long indexed = indexedOwners.get(id);
+        if (Objects.equals(indexed, userId)) {
+            return;
+        }
+        if (userId != null) {
+            // Add and remove both run under the owner's bin lock, so an emptied set is never reused.
+            idsByUser.compute(userId, (key, ids) -> {
+                Set<Long> owned = ids == null ? new ConcurrentSkipListSet<>() : ids;
+                owned.add(id);
+                return owned;
+            });
+            indexedOwners.put(id, userId);
+        } else {
+            indexedOwners.remove(id);
+        }
+        if (indexed != null) {
+            idsByUser.computeIfPresent(indexed, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
     public Optional<Portfolio> findById(Long id) {
         return Optional.ofNullable(portfolios.get(id));
     }
 
     public List<Portfolio> findByUserId(Long userId) {
-        return portfolios.values().stream()
-                .filter(portfolio -> portfolio.getUserId().equals(userId))
-                .toList();
+        Set<Long> ids = userId == null ? null : idsByUser.get(userId);
+        if (ids == null) {
+            return List.of();
+        }
+        List<Portfolio> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Portfolio portfolio = portfolios.get(id);
+            if (portfolio != null) {
+                result.add(portfolio);
+            }
+        }
+        return result;
     }
 
     public List<Portfolio> findAll() {
         return new ArrayList<>(portfolios.values());
     }
+
+    public PortfolioValuation getValuation() {
+        return valuation;
+    }
 }
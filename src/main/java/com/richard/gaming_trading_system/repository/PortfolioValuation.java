@@ -0,0 +1,138 @@
+package com.richard.gaming_trading_system.repository;
+
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.PortfolioAsset;
+import com.richard.gaming_trading_system.model.Quantity;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Market value of every portfolio in {@link Money} units, kept current incrementally. A reverse index
+ * maps each asset to the portfolios holding it, so a price move adds {@code (new - old) * quantity} to
+ * just those portfolios, and a trade only adjusts the one position it changed. Each asset's mark
+ * price and holders change under that asset's lock, so a value always equals the sum of quantity times
+ * the mark it was last adjusted to, up to the half-up rounding of each adjustment.
+ */
+public class PortfolioValuation {
+
+    private final Map<Long, PortfolioMark> portfolios = new ConcurrentHashMap<>();
+    private final Map<Long, AssetMark> assets = new ConcurrentHashMap<>();
+
+    /**
+     * Brings the index in line with all of the portfolio's holdings; called when a portfolio is saved
+     * outside a trade.
+     */
+    void update(Portfolio portfolio) {
+        PortfolioMark mark = portfolios.computeIfAbsent(portfolio.getPortfolioId(), id -> new PortfolioMark());
+        Map<Long, Long> current = new HashMap<>();
+        Map<Long, Long> initialPrices = new HashMap<>();
+        for (PortfolioAsset holding : portfolio.getAssets()) {
+            Long assetId = holding.getAssetId() != null ? holding.getAssetId() : holding.getAsset().getAssetId();
+            current.merge(assetId, holding.getFixedQuantity(), Quantity::add);
+            initialPrices.putIfAbsent(assetId, initialPrice(holding));
+        }
+        synchronized (mark) {
+            Set<Long> touched = new HashSet<>(mark.quantities.keySet());
+            touched.addAll(current.keySet());
+            for (Long assetId : touched) {
+                adjust(mark, assetId, current.getOrDefault(assetId, 0L), initialPrices.getOrDefault(assetId, 0L));
+            }
+        }
+    }
+
+    /**
+     * Moves one position to the holding's quantity, or closes it when the holding is null; called when a
+     * trade saves the portfolio, so a trade costs O(1) whatever the portfolio holds.
+     */
+    void updatePosition(long portfolioId, long assetId, PortfolioAsset holding) {
+        PortfolioMark mark = portfolios.computeIfAbsent(portfolioId, id -> new PortfolioMark());
+        synchronized (mark) {
+            adjust(mark, assetId, holding == null ? 0L : holding.getFixedQuantity(),
+                    holding == null ? 0L : initialPrice(holding));
+        }
+    }
+
+    private void adjust(PortfolioMark mark, long assetId, long after, long initialPrice) {
+        long before = mark.quantities.getOrDefault(assetId, 0L);
+        if (before == after) {
+            return;
+        }
+        AssetMark asset = assets.computeIfAbsent(assetId, id -> new AssetMark(initialPrice));
+        synchronized (asset) {
+            mark.value.addAndGet(Money.multiply(Quantity.subtract(after, before), asset.price));
+            if (after == 0) {
+                asset.holders.remove(mark);
+                mark.quantities.remove(assetId);
+            } else {
+                asset.holders.put(mark, after);
+                mark.quantities.put(assetId, after);
+            }
+        }
+    }
+
+    private static long initialPrice(PortfolioAsset holding) {
+        return holding.getAsset() != null && holding.getAsset().getCurrentPrice() != null
+                ? Money.of(holding.getAsset().getCurrentPrice())
+                : holding.getFixedAveragePrice();
+    }
+
+    /**
+     * Revalues the holders of one asset at its new price, in {@link Money} units. Costs O(holders of
+     * the asset) and allocates nothing.
+     */
+    public void markPrice(long assetId, long price) {
+        AssetMark asset = assets.computeIfAbsent(assetId, id -> new AssetMark(price));
+        synchronized (asset) {
+            long delta = Money.subtract(price, asset.price);
+            if (delta != 0) {
+                for (Map.Entry<PortfolioMark, Long> holder : asset.holders.entrySet()) {
+                    holder.getKey().value.addAndGet(Money.multiply(holder.getValue(), delta));
+                }
+            }
+            asset.price = price;
+        }
+    }
+
+    /**
+     * Market value of the portfolio, or zero if it has never been saved.
+     */
+    public BigDecimal getValue(Long portfolioId) {
+        return Money.toBigDecimal(getFixedValue(portfolioId));
+    }
+
+    public long getFixedValue(Long portfolioId) {
+        PortfolioMark mark = portfolios.get(portfolioId);
+        return mark == null ? 0L : mark.value.get();
+    }
+
+    public int getHolderCount(long assetId) {
+        AssetMark asset = assets.get(assetId);
+        if (asset == null) {
+            return 0;
+        }
+        synchronized (asset) {
+            return asset.holders.size();
+        }
+    }
+
+    private static final class PortfolioMark {
+        private final AtomicLong value = new AtomicLong();
+        private final Map<Long, Long> quantities = new HashMap<>();
+    }
+
+    private static final class AssetMark {
+        private long price;
+        private final Map<PortfolioMark, Long> holders = new HashMap<>();
+
+        private AssetMark(long price) {
+            this.price = price;
+        }
+    }
+}
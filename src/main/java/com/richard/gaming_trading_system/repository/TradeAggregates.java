@@ -0,0 +1,90 @@
+package com.richard.gaming_trading_system.repository;
+
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.Quantity;
+import com.richard.gaming_trading_system.model.Trade;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running per-asset and per-user trade totals, updated from each executed trade (and as trades are
+ * restored) so analytics reads never scan the trade history. Counters are striped adders, so
+ * concurrent trades on different shards do not contend on a single cache line; reads sum the stripes
+ * and are O(assets) or O(users).
+ */
+public class TradeAggregates {
+
+    private final Map<Long, AssetTotals> byAsset = new ConcurrentHashMap<>();
+    private final Map<Long, UserTotals> byUser = new ConcurrentHashMap<>();
+
+    public void record(Trade trade) {
+        apply(trade.getAssetId(), trade.getUserId(), trade.getFixedQuantity(), trade.getFixedTotalAmount(), 1);
+    }
+
+    /**
+     * Records one trade of {@code quantity} worth {@code notional}, in fixed-point units.
+     */
+    public void record(long assetId, long userId, long quantity, long notional) {
+        apply(assetId, userId, quantity, notional, 1);
+    }
+
+    public void remove(Trade trade) {
+        apply(trade.getAssetId(), trade.getUserId(), trade.getFixedQuantity(), trade.getFixedTotalAmount(), -1);
+    }
+
+    private void apply(Long assetId, Long userId, long quantity, long notional, int sign) {
+        AssetTotals asset = byAsset.computeIfAbsent(assetId, key -> new AssetTotals());
+        asset.trades.add(sign);
+        // Volume keeps the whole-unit quantity of each trade, as the report always has.
+        asset.volume.add(sign * Quantity.toWholeUnits(quantity));
+
+        UserTotals user = byUser.computeIfAbsent(userId, key -> new UserTotals());
+        user.trades.add(sign);
+        user.notional.add(sign * notional);
+    }
+
+    public Map<Long, Long> getTradeCountByAsset() {
+        Map<Long, Long> counts = new HashMap<>(byAsset.size() * 2);
+        byAsset.forEach((assetId, totals) -> {
+            long count = totals.trades.sum();
+            if (count > 0) {
+                counts.put(assetId, count);
+            }
+        });
+        return counts;
+    }
+
+    public Map<Long, Long> getVolumeByAsset() {
+        Map<Long, Long> volumes = new HashMap<>(byAsset.size() * 2);
+        byAsset.forEach((assetId, totals) -> {
+            if (totals.trades.sum() > 0) {
+                volumes.put(assetId, totals.volume.sum());
+            }
+        });
+        return volumes;
+    }
+
+    public Map<Long, Double> getAverageTradeSizeByUser() {
+        Map<Long, Double> averages = new HashMap<>(byUser.size() * 2);
+        byUser.forEach((userId, totals) -> {
+            long count = totals.trades.sum();
+            if (count > 0) {
+                averages.put(userId, Money.toDouble(totals.notional.sum()) / count);
+            }
+        });
+        return averages;
+    }
+
+    private static final class AssetTotals {
+        private final LongAdder trades = new LongAdder();
+        private final LongAdder volume = new LongAdder();
+    }
+
+    private static final class UserTotals {
+        private final LongAdder trades = new LongAdder();
+        private final LongAdder notional = new LongAdder(); // Money units
+    }
+}
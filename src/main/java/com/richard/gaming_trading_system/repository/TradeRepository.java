@@ -3,38 +3,132 @@ package com.richard.gaming_trading_system.repository;
 import com.richard.gaming_trading_system.model.Trade;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Component
 public class TradeRepository {
     private final Map<Long, Trade> trades = new ConcurrentHashMap<>();
+    private final Map<Long, ConcurrentNavigableMap<TradeKey, Trade>> tradesByUser = new ConcurrentHashMap<>();
+    private final TradeAggregates aggregates = new TradeAggregates();
     private final AtomicLong idGenerator = new AtomicLong(1);
 
     public Trade save(Trade trade) {
         if (trade.getTradeId() == null) {
             trade.setTradeId(idGenerator.getAndIncrement());
+        } else {
+            idGenerator.accumulateAndGet(trade.getTradeId() + 1, Math::max);
         }
+        Trade previous = trades.put(trade.getTradeId(), trade);
+        if (previous == trade) {
+            return trade;
+        }
+        if (previous != null) {
+            ConcurrentNavigableMap<TradeKey, Trade> previousIndex = tradesByUser.get(previous.getUserId());
+            if (previousIndex != null) {
+                previousIndex.remove(TradeKey.of(previous), previous);
+            }
+            aggregates.remove(previous);
+        }
+        aggregates.record(trade);
+        index(trade);
+        return trade;
+    }
+
+    /**
+     * Saves a newly executed trade, leaving the aggregates to its {@code TradeExecuted} event.
+     */
+    public Trade saveExecuted(Trade trade) {
+        trade.setTradeId(idGenerator.getAndIncrement());
         trades.put(trade.getTradeId(), trade);
+        index(trade);
         return trade;
     }
 
+    private void index(Trade trade) {
+        tradesByUser.computeIfAbsent(trade.getUserId(), key -> new ConcurrentSkipListMap<>())
+                .put(TradeKey.of(trade), trade);
+    }
+
     public Optional<Trade> findById(Long id) {
         return Optional.ofNullable(trades.get(id));
     }
 
+    /**
+     * Returns the user's trades, newest first.
+     */
     public List<Trade> findByUserId(Long userId) {
-        return trades.values().stream()
-                .filter(trade -> trade.getUserId().equals(userId))
-                .sorted((t1, t2) -> t2.getTradeTimestamp().compareTo(t1.getTradeTimestamp()))
-                .toList();
+        return findByUserIdBetween(userId, null, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to {@code limit} of the user's trades with {@code from <= timestamp < to}, newest first.
+     * Either bound may be null to leave that side open.
+     */
+    public List<Trade> findByUserIdBetween(Long userId, LocalDateTime from, LocalDateTime to, int limit) {
+        ConcurrentNavigableMap<TradeKey, Trade> userTrades = userId == null ? null : tradesByUser.get(userId);
+        if (userTrades == null || limit <= 0) {
+            return List.of();
+        }
+        NavigableMap<TradeKey, Trade> range = userTrades;
+        if (from != null && to != null) {
+            if (!from.isBefore(to)) {
+                return List.of();
+            }
+            range = userTrades.subMap(TradeKey.lowest(from), true, TradeKey.lowest(to), false);
+        } else if (from != null) {
+            range = userTrades.tailMap(TradeKey.lowest(from), true);
+        } else if (to != null) {
+            range = userTrades.headMap(TradeKey.lowest(to), false);
+        }
+        List<Trade> result = new ArrayList<>(Math.min(limit, 64));
+        for (Trade trade : range.descendingMap().values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(trade);
+        }
+        return result;
+    }
+
+    public TradeAggregates getAggregates() {
+        return aggregates;
     }
 
     public List<Trade> findAll() {
         return new ArrayList<>(trades.values());
     }
+
+    public void forEach(Consumer<Trade> action) {
+        trades.values().forEach(action);
+    }
+
+    /**
+     * Orders a user's trades by time, with the trade id breaking ties between trades in the same instant.
+     */
+    private record TradeKey(LocalDateTime timestamp, long tradeId) implements Comparable<TradeKey> {
+
+        static TradeKey of(Trade trade) {
+            return new TradeKey(trade.getTradeTimestamp(), trade.getTradeId());
+        }
+
+        static TradeKey lowest(LocalDateTime timestamp) {
+            return new TradeKey(timestamp, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(TradeKey other) {
+            int byTime = timestamp.compareTo(other.timestamp);
+            return byTime != 0 ? byTime : Long.compare(tradeId, other.tradeId);
+        }
+    }
 }
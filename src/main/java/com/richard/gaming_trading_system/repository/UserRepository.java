@@ -1,11 +1,13 @@
 package com.richard.gaming_trading_system.repository;
 
+import com.richard.gaming_trading_system.exception.UserAlreadyExistsException;
 import com.richard.gaming_trading_system.model.User;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -14,24 +16,52 @@ import java.util.concurrent.atomic.AtomicLong;
 public class UserRepository {
 
     private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByUsername = new ConcurrentHashMap<>();
+    private final Map<Long, String> indexedUsernames = new ConcurrentHashMap<>();
     private final AtomicLong idGenerator = new AtomicLong(1);
 
     public User save(User user) {
         if (user.getUserId() == null) {
             user.setUserId(idGenerator.getAndIncrement());
+        } else {
+            idGenerator.accumulateAndGet(user.getUserId() + 1, Math::max);
         }
-        users.put(user.getUserId(), user);
+        Long id = user.getUserId();
+        // The index is updated inside compute so concurrent saves of the same user are serialized;
+        // a username clash throws before the user is stored.
+        users.compute(id, (key, previous) -> {
+            indexUsername(id, user.getUsername());
+            return user;
+        });
         return user;
     }
 
+    private void indexUsername(Long id, String username) {
+        String indexed = indexedUsernames.get(id);
+        if (Objects.equals(indexed, username)) {
+            return;
+        }
+        if (username != null) {
+            Long owner = idsByUsername.putIfAbsent(username, id);
+            if (owner != null && !owner.equals(id)) {
+                throw new UserAlreadyExistsException("Username already taken: " + username);
+            }
+            indexedUsernames.put(id, username);
+        } else {
+            indexedUsernames.remove(id);
+        }
+        if (indexed != null) {
+            idsByUsername.remove(indexed, id);
+        }
+    }
+
     public Optional<User> findById(Long id) {
         return Optional.ofNullable(users.get(id));
     }
 
     public Optional<User> findByUsername(String username) {
-        return users.values().stream()
-                .filter(user -> user.getUsername().equals(username))
-                .findFirst();
+        Long id = username == null ? null : idsByUsername.get(username);
+        return id == null ? Optional.empty() : findById(id);
     }
 
     public List<User> findAll() {
@@ -45,7 +75,6 @@ public class UserRepository {
     }
 
     public boolean existsByUsername(String username) {
-        return users.values().stream()
-                .anyMatch(user -> user.getUsername().equals(username));
+        return username != null && idsByUsername.containsKey(username);
     }
 }
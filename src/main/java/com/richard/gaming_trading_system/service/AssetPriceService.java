@@ -1,50 +1,62 @@
 package com.richard.gaming_trading_system.service;
 
-import com.richard.gaming_trading_system.model.Asset;
-import com.richard.gaming_trading_system.repository.AssetRepository;
+import com.richard.gaming_trading_system.events.EventBus;
+import com.richard.gaming_trading_system.events.PriceTicked;
+import com.richard.gaming_trading_system.marketdata.PriceSnapshot;
+import com.richard.gaming_trading_system.marketdata.PriceTickEngine;
+import com.richard.gaming_trading_system.profiling.PriceTickEvent;
+import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import com.richard.gaming_trading_system.repository.PortfolioValuation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.List;
-import java.util.Random;
-
 @Service
 public class AssetPriceService {
 
     @Autowired
-    private AssetRepository assetRepository;
+    private PriceTickEngine priceTickEngine;
 
-    private final Random random = new Random();
-    private static final BigDecimal MAX_PRICE_CHANGE_PERCENT = new BigDecimal("0.05"); // 5% max change
-    private static final int PRICE_SCALE = 2;
+    @Autowired
+    private EventBus eventBus;
 
-    @Scheduled(fixedRate = 60000) // Update prices every minute
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    // Sub-second rates are allowed, e.g. asset.price.update.interval=250
+    @Scheduled(fixedRateString = "${asset.price.update.interval:60000}")
     public void updateAssetPrices() {
-        List<Asset> assets = assetRepository.findAll();
-        for (Asset asset : assets) {
-            updateAssetPrice(asset);
+        PriceTickEvent event = new PriceTickEvent();
+        event.begin();
+        PriceSnapshot previous = priceTickEngine.getSnapshot();
+        PriceSnapshot snapshot = priceTickEngine.tick();
+        eventBus.publish(new PriceTicked(snapshot));
+        event.end();
+        if (event.shouldCommit()) {
+            describeTick(event, previous, snapshot);
+            event.commit();
         }
     }
 
-    void updateAssetPrice(Asset asset) {
-        BigDecimal currentPrice = asset.getCurrentPrice();
-        BigDecimal changePercent = generateRandomPriceChange();
-        BigDecimal priceChange = currentPrice.multiply(changePercent);
-        
-        // Ensure price doesn't go below 0.01
-        BigDecimal newPrice = currentPrice.add(priceChange).max(new BigDecimal("0.01"));
-        newPrice = newPrice.setScale(PRICE_SCALE, RoundingMode.HALF_UP);
-        
-        asset.setCurrentPrice(newPrice);
-        assetRepository.save(asset);
+    private void describeTick(PriceTickEvent event, PriceSnapshot previous, PriceSnapshot snapshot) {
+        PortfolioValuation valuation = portfolioRepository.getValuation();
+        int changed = 0;
+        int holders = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            long assetId = snapshot.assetIdAt(i);
+            int index = previous == null ? -1 : previous.indexOf(assetId);
+            if (index < 0 || previous.priceAt(index) != snapshot.priceAt(i)) {
+                changed++;
+                holders += valuation.getHolderCount(assetId);
+            }
+        }
+        event.setVersion(snapshot.getVersion());
+        event.setAssets(snapshot.size());
+        event.setAssetsChanged(changed);
+        event.setUsersTouched(holders);
     }
 
-    BigDecimal generateRandomPriceChange() {
-        // Generate a random percentage between -5% and +5%
-        double randomValue = random.nextDouble() * 2 - 1; // Value between -1 and 1
-        return MAX_PRICE_CHANGE_PERCENT.multiply(BigDecimal.valueOf(randomValue));
+    public PriceSnapshot getPriceSnapshot() {
+        return priceTickEngine.getSnapshot();
     }
-} 
\ No newline at end of file
+}
@@ -1,26 +1,49 @@
 package com.richard.gaming_trading_system.service;
 
+import com.richard.gaming_trading_system.dto.Candle;
 import com.richard.gaming_trading_system.dto.CreateAssetRequest;
+import com.richard.gaming_trading_system.dto.PricePoint;
 import com.richard.gaming_trading_system.exception.AssetNotFoundException;
+import com.richard.gaming_trading_system.marketdata.CandleResolution;
+import com.richard.gaming_trading_system.marketdata.CandleStore;
+import com.richard.gaming_trading_system.marketdata.PriceHistoryStore;
 import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.persistence.JournalRecord;
+import com.richard.gaming_trading_system.persistence.TradeJournal;
 import com.richard.gaming_trading_system.repository.AssetRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 public class AssetService {
 
+    static final int MAX_HISTORY_POINTS = 10000;
+
     @Autowired
     private AssetRepository assetRepository;
 
+    @Autowired
+    private TradeJournal tradeJournal;
+
+    @Autowired
+    private CandleStore candleStore;
+
+    @Autowired
+    private PriceHistoryStore priceHistoryStore;
+
     public Asset createAsset(CreateAssetRequest request) {
+        JournalRecord.checkFits("symbol", request.getSymbol(), JournalRecord.MAX_SYMBOL_BYTES);
+        JournalRecord.checkFits("name", request.getName(), JournalRecord.MAX_ASSET_NAME_BYTES);
         Asset asset = new Asset();
         asset.setSymbol(request.getSymbol());
         asset.setName(request.getName());
         asset.setCurrentPrice(request.getInitialPrice());
-        return assetRepository.save(asset);
+        asset = assetRepository.save(asset);
+        tradeJournal.appendAssetCreated(asset);
+        return asset;
     }
 
     public Asset getAssetById(Long assetId) {
@@ -33,6 +56,16 @@ public class AssetService {
                 .orElseThrow(() -> new AssetNotFoundException("Asset not found with symbol: " + symbol));
     }
 
+    public List<Candle> getCandles(Long assetId, String resolution, int limit) {
+        getAssetById(assetId);
+        return candleStore.getCandles(assetId, CandleResolution.fromCode(resolution), limit);
+    }
+
+    public List<PricePoint> getPriceHistory(Long assetId, LocalDateTime from, LocalDateTime to, int limit) {
+        getAssetById(assetId);
+        return priceHistoryStore.getHistory(assetId, from, to, Math.min(limit, MAX_HISTORY_POINTS));
+    }
+
     public List<Asset> getAllAssets() {
         return assetRepository.findAll();
     }
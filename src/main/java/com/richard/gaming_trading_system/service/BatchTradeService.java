@@ -0,0 +1,242 @@
+package com.richard.gaming_trading_system.service;
+
+import com.richard.gaming_trading_system.dto.BatchTradeResponse;
+import com.richard.gaming_trading_system.dto.TradeErrorCode;
+import com.richard.gaming_trading_system.dto.TradeRequest;
+import com.richard.gaming_trading_system.dto.TradeResult;
+import com.richard.gaming_trading_system.engine.TradeExecutionEngine;
+import com.richard.gaming_trading_system.exception.BatchTradeFailedException;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.PortfolioAsset;
+import com.richard.gaming_trading_system.model.Quantity;
+import com.richard.gaming_trading_system.model.Trade;
+import com.richard.gaming_trading_system.model.TradeType;
+import com.richard.gaming_trading_system.repository.AssetRepository;
+import com.richard.gaming_trading_system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executes many trades from one request. Trades are grouped by portfolio and each group runs as one
+ * task on its owner's trade shard, in request order. In all-or-nothing mode the whole batch is first
+ * checked against the current balances and holdings, with the shards of every owner paused, and only
+ * runs if no trade would be rejected. It then runs as one unit, so a trade that still fails rolls back
+ * the trades before it.
+ */
+@Service
+public class BatchTradeService {
+
+    private final PortfolioService portfolioService;
+    private final UserRepository userRepository;
+    private final AssetRepository assetRepository;
+    private final TradeExecutionEngine tradeExecutionEngine;
+    private final int maxBatchSize;
+
+    public BatchTradeService(
+            PortfolioService portfolioService,
+            UserRepository userRepository,
+            AssetRepository assetRepository,
+            TradeExecutionEngine tradeExecutionEngine,
+            @Value("${trading.batch.max-size:1000}") int maxBatchSize) {
+        this.portfolioService = portfolioService;
+        this.userRepository = userRepository;
+        this.assetRepository = assetRepository;
+        this.tradeExecutionEngine = tradeExecutionEngine;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public BatchTradeResponse executeBatch(List<TradeRequest> requests, boolean atomic) {
+        TradeResult[] results = new TradeResult[requests.size()];
+        Map<Long, Portfolio> portfolios = new HashMap<>();
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            TradeRequest request = requests.get(i);
+            String problem = validate(request);
+            if (problem != null) {
+                results[i] = TradeResult.rejected(i, TradeErrorCode.INVALID_REQUEST, problem);
+                continue;
+            }
+            Long portfolioId = request.getPortfolioId();
+            try {
+                portfolios.computeIfAbsent(portfolioId, portfolioService::getPortfolioById);
+            } catch (RuntimeException e) {
+                results[i] = TradeResult.rejected(i, TradeErrorCode.of(e), e.getMessage());
+                continue;
+            }
+            groups.computeIfAbsent(portfolioId, id -> new ArrayList<>()).add(i);
+        }
+
+        if (!atomic) {
+            executeGroups(requests, portfolios, groups, results);
+        } else if (isClean(results)) {
+            long[] userIds = portfolios.values().stream().mapToLong(Portfolio::getUserId).distinct().toArray();
+            tradeExecutionEngine.executeExclusive(userIds, () -> {
+                executeAll(requests, portfolios, results);
+                return null;
+            });
+        } else {
+            markNotExecuted(results);
+        }
+        return toResponse(atomic, results);
+    }
+
+    private static String validate(TradeRequest request) {
+        if (request == null) {
+            return "Trade is missing";
+        }
+        if (request.getPortfolioId() == null || request.getAssetId() == null || request.getTradeType() == null) {
+            return "portfolioId, assetId and tradeType are required";
+        }
+        if (request.getQuantity() == null || request.getQuantity().signum() <= 0) {
+            return "quantity must be positive";
+        }
+        if (request.getPrice() == null || request.getPrice().signum() <= 0) {
+            return "price must be positive";
+        }
+        return null;
+    }
+
+    private void executeGroups(List<TradeRequest> requests, Map<Long, Portfolio> portfolios,
+                               Map<Long, List<Integer>> groups, TradeResult[] results) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(groups.size());
+        for (Map.Entry<Long, List<Integer>> group : groups.entrySet()) {
+            List<Integer> indexes = group.getValue();
+            try {
+                futures.add(tradeExecutionEngine.submit(portfolios.get(group.getKey()).getUserId(), () -> {
+                    for (int i : indexes) {
+                        results[i] = execute(i, requests.get(i));
+                    }
+                    return null;
+                }));
+            } catch (RejectedExecutionException e) {
+                for (int i : indexes) {
+                    results[i] = TradeResult.rejected(i, TradeErrorCode.UNAVAILABLE, e.getMessage());
+                }
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * Runs with every owner's shard paused: checks the whole batch, then executes it in request order
+     * as one unit, keeping none of it if any trade fails.
+     */
+    private void executeAll(List<TradeRequest> requests, Map<Long, Portfolio> portfolios, TradeResult[] results) {
+        findRejections(requests, portfolios, results);
+        if (!isClean(results)) {
+            markNotExecuted(results);
+            return;
+        }
+        try {
+            List<Trade> trades = portfolioService.executeAll(requests);
+            for (int i = 0; i < results.length; i++) {
+                results[i] = TradeResult.executed(i, trades.get(i));
+            }
+        } catch (BatchTradeFailedException e) {
+            results[e.getIndex()] = TradeResult.rejected(e.getIndex(), TradeErrorCode.of(e.getCause()),
+                    e.getCause().getMessage());
+            markNotExecuted(results);
+        }
+    }
+
+    private TradeResult execute(int index, TradeRequest request) {
+        try {
+            Trade trade = portfolioService.executeTrade(request.getPortfolioId(), request.getAssetId(),
+                    request.getQuantity(), request.getPrice(), request.getTradeType());
+            return TradeResult.executed(index, trade);
+        } catch (RuntimeException e) {
+            return TradeResult.rejected(index, TradeErrorCode.of(e), e.getMessage());
+        }
+    }
+
+    /**
+     * Replays the batch against running totals of each user's gems and each holding, recording every
+     * trade that would be rejected. Trade awards are left out, so the check never passes a trade that
+     * would fail, though it can reject one that only the batch's own awards would have paid for.
+     */
+    private void findRejections(List<TradeRequest> requests, Map<Long, Portfolio> portfolios, TradeResult[] results) {
+        Map<Long, Long> balances = new HashMap<>();
+        Map<Long, Map<Long, Long>> holdings = new HashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            TradeRequest request = requests.get(i);
+            Portfolio portfolio = portfolios.get(request.getPortfolioId());
+            try {
+                long quantity = Quantity.of(request.getQuantity());
+                long amount = Math.toIntExact(Money.toWholeUnits(Money.multiply(quantity, Money.of(request.getPrice()))));
+                Long balance = balances.computeIfAbsent(portfolio.getUserId(),
+                        id -> userRepository.findById(id).map(user -> (long) user.getGemCount()).orElse(null));
+                if (balance == null) {
+                    results[i] = TradeResult.rejected(i, TradeErrorCode.USER_NOT_FOUND, "User not found");
+                    continue;
+                }
+                Map<Long, Long> held = holdings.computeIfAbsent(portfolio.getPortfolioId(), id -> new HashMap<>());
+                long current = held.computeIfAbsent(request.getAssetId(), id -> heldQuantity(portfolio, id));
+                if (request.getTradeType() == TradeType.BUY) {
+                    if (assetRepository.findById(request.getAssetId()).isEmpty()) {
+                        results[i] = TradeResult.rejected(i, TradeErrorCode.ASSET_NOT_FOUND,
+                                "Asset not found: " + request.getAssetId());
+                    } else if (balance < amount) {
+                        results[i] = TradeResult.rejected(i, TradeErrorCode.INSUFFICIENT_FUNDS,
+                                String.format("Insufficient funds. Required: %d gems, Available: %d gems", amount, balance));
+                    } else {
+                        balances.put(portfolio.getUserId(), balance - amount);
+                        held.put(request.getAssetId(), Quantity.add(current, quantity));
+                    }
+                } else if (current == 0) {
+                    results[i] = TradeResult.rejected(i, TradeErrorCode.ASSET_NOT_FOUND,
+                            "Asset not found in portfolio: " + request.getAssetId());
+                } else if (current < quantity) {
+                    results[i] = TradeResult.rejected(i, TradeErrorCode.INSUFFICIENT_ASSET,
+                            "Insufficient asset quantity in portfolio");
+                } else {
+                    balances.put(portfolio.getUserId(), balance + amount);
+                    held.put(request.getAssetId(), Quantity.subtract(current, quantity));
+                }
+            } catch (RuntimeException e) {
+                results[i] = TradeResult.rejected(i, TradeErrorCode.of(e), e.getMessage());
+            }
+        }
+    }
+
+    private static long heldQuantity(Portfolio portfolio, Long assetId) {
+        PortfolioAsset holding = portfolio.getHolding(assetId);
+        return holding == null ? 0L : holding.getFixedQuantity();
+    }
+
+    private static boolean isClean(TradeResult[] results) {
+        return Arrays.stream(results).allMatch(result -> result == null);
+    }
+
+    private static void markNotExecuted(TradeResult[] results) {
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = TradeResult.rejected(i, TradeErrorCode.NOT_EXECUTED,
+                        "Not executed: another trade in the batch was rejected");
+            }
+        }
+    }
+
+    private static BatchTradeResponse toResponse(boolean atomic, TradeResult[] results) {
+        int executed = 0;
+        for (TradeResult result : results) {
+            if (result.getExecuted()) {
+                executed++;
+            }
+        }
+        return new BatchTradeResponse(atomic, executed, results.length - executed, Arrays.asList(results));
+    }
+}
@@ -1,7 +1,11 @@
 package com.richard.gaming_trading_system.service;
 
+import com.richard.gaming_trading_system.analytics.HeavyHitterTracker;
+import com.richard.gaming_trading_system.dto.MostTradedAssets;
 import com.richard.gaming_trading_system.model.*;
+import com.richard.gaming_trading_system.profiling.AnalyticsQueryEvent;
 import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import com.richard.gaming_trading_system.repository.PortfolioValuation;
 import com.richard.gaming_trading_system.repository.TradeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -21,66 +25,97 @@ public class PortfolioAnalyticsService {
     @Autowired
     private TradeRepository tradeRepository;
 
+    @Autowired
+    private HeavyHitterTracker heavyHitterTracker;
+
     public Map<Long, Integer> getMostTradedAssets() {
-        List<Trade> allTrades = tradeRepository.findAll();
-        return allTrades.stream()
-                .collect(Collectors.groupingBy(
-                        Trade::getAssetId,
-                        Collectors.collectingAndThen(Collectors.counting(), Long::intValue)
-                ))
-                .entrySet().stream()
-                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+        AnalyticsQueryEvent event = begin();
+        Map<Long, Integer> result = tradeRepository.getAggregates().getTradeCountByAsset().entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
-                        Map.Entry::getValue,
+                        entry -> entry.getValue().intValue(),
                         (e1, e2) -> e1,
                         LinkedHashMap::new
                 ));
+        commit(event, "most_traded", 0L, 0, result.size());
+        return result;
+    }
+
+    public MostTradedAssets getMostTradedAssets(int k, String window) {
+        AnalyticsQueryEvent event = begin();
+        MostTradedAssets result = heavyHitterTracker.getTopK(window, k);
+        commit(event, "most_traded_window", 0L, 0, result.getAssets() == null ? 0 : result.getAssets().size());
+        return result;
     }
 
     public Map<Long, BigDecimal> getHighestPortfolioValues() {
-        return portfolioRepository.findAll().stream()
+        AnalyticsQueryEvent event = begin();
+        PortfolioValuation valuation = portfolioRepository.getValuation();
+        Map<Long, BigDecimal> result = portfolioRepository.findAll().stream()
                 .collect(Collectors.toMap(
                         Portfolio::getUserId,
-                        Portfolio::getTotalValue,
+                        portfolio -> valuation.getValue(portfolio.getPortfolioId()),
                         (p1, p2) -> p1,
                         () -> new TreeMap<>(Collections.reverseOrder())
                 ));
+        commit(event, "highest_portfolios", 0L, result.size(), result.size());
+        return result;
     }
 
     public Map<Long, BigDecimal> getPortfolioPerformance(Long userId, LocalDateTime startTime) {
-        List<Trade> userTrades = tradeRepository.findByUserId(userId).stream()
-                .filter(trade -> trade.getTradeTimestamp().isAfter(startTime))
-                .collect(Collectors.toList());
+        AnalyticsQueryEvent event = begin();
+        // Strictly after startTime; LocalDateTime has nanosecond resolution.
+        List<Trade> userTrades = tradeRepository.findByUserIdBetween(
+                userId, startTime.plusNanos(1), null, Integer.MAX_VALUE);
 
-        Map<Long, BigDecimal> assetPerformance = new HashMap<>();
+        Map<Long, Long> assetPerformance = new HashMap<>();
         for (Trade trade : userTrades) {
-            BigDecimal currentValue = trade.getQuantity().multiply(trade.getPrice());
-            assetPerformance.merge(trade.getAssetId(), currentValue, BigDecimal::add);
+            assetPerformance.merge(trade.getAssetId(), trade.getFixedTotalAmount(), Money::add);
         }
 
-        return assetPerformance;
+        Map<Long, BigDecimal> result = new HashMap<>(assetPerformance.size() * 2);
+        assetPerformance.forEach((assetId, value) -> result.put(assetId, Money.toBigDecimal(value)));
+        commit(event, "portfolio_performance", userId, 1, result.size());
+        return result;
     }
 
     public Map<Long, Integer> getTradingVolumeByAsset() {
-        return tradeRepository.findAll().stream()
-                .collect(Collectors.groupingBy(
-                        Trade::getAssetId,
-                        Collectors.collectingAndThen(
-                                Collectors.summingInt(trade -> trade.getQuantity().intValue()),
-                                Integer::valueOf
-                        )
+        AnalyticsQueryEvent event = begin();
+        Map<Long, Integer> result = tradeRepository.getAggregates().getVolumeByAsset().entrySet().stream()
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        entry -> (int) Math.min(entry.getValue(), Integer.MAX_VALUE)
                 ));
+        commit(event, "trading_volume", 0L, 0, result.size());
+        return result;
     }
 
     public Map<Long, BigDecimal> getAverageTradeSizeByUser() {
-        return tradeRepository.findAll().stream()
-                .collect(Collectors.groupingBy(
-                        Trade::getUserId,
-                        Collectors.collectingAndThen(
-                                Collectors.averagingDouble(trade -> trade.getTotalAmount().doubleValue()),
-                                avg -> BigDecimal.valueOf(avg).setScale(2, RoundingMode.HALF_UP)
-                        )
+        AnalyticsQueryEvent event = begin();
+        Map<Long, BigDecimal> result = tradeRepository.getAggregates().getAverageTradeSizeByUser().entrySet().stream()
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        entry -> BigDecimal.valueOf(entry.getValue()).setScale(2, RoundingMode.HALF_UP)
                 ));
+        commit(event, "average_trade_size", 0L, result.size(), result.size());
+        return result;
+    }
+
+    private static AnalyticsQueryEvent begin() {
+        AnalyticsQueryEvent event = new AnalyticsQueryEvent();
+        event.begin();
+        return event;
+    }
+
+    private static void commit(AnalyticsQueryEvent event, String query, long userId, int usersTouched, int rows) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setQuery(query);
+            event.setUserId(userId);
+            event.setUsersTouched(usersTouched);
+            event.setRows(rows);
+            event.commit();
+        }
     }
-} 
\ No newline at end of file
+}
@@ -1,44 +1,67 @@
 package com.richard.gaming_trading_system.service;
 
 import com.richard.gaming_trading_system.dto.CreatePortfolioRequest;
+import com.richard.gaming_trading_system.dto.TradeRequest;
+import com.richard.gaming_trading_system.events.EventBus;
+import com.richard.gaming_trading_system.events.GemsChanged;
+import com.richard.gaming_trading_system.events.TradeExecuted;
 import com.richard.gaming_trading_system.exception.AssetNotFoundException;
+import com.richard.gaming_trading_system.exception.BatchTradeFailedException;
 import com.richard.gaming_trading_system.exception.InsufficientAssetException;
 import com.richard.gaming_trading_system.exception.InsufficientFundsException;
 import com.richard.gaming_trading_system.exception.PortfolioNotFoundException;
 import com.richard.gaming_trading_system.exception.UserNotFoundException;
+import com.richard.gaming_trading_system.metrics.TradeMetrics;
+import com.richard.gaming_trading_system.metrics.TradeStage;
 import com.richard.gaming_trading_system.model.*;
+import com.richard.gaming_trading_system.persistence.JournalRecord;
+import com.richard.gaming_trading_system.persistence.TradeJournal;
+import com.richard.gaming_trading_system.profiling.TradeEvent;
 import com.richard.gaming_trading_system.repository.AssetRepository;
 import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import com.richard.gaming_trading_system.repository.TradeRepository;
 import com.richard.gaming_trading_system.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 @Service
 public class PortfolioService {
 
+    static final int MAX_TRADE_HISTORY = 1000;
+
     private final PortfolioRepository portfolioRepository;
     private final UserRepository userRepository;
     private final AssetRepository assetRepository;
-    private final UserService userService;
+    private final TradeRepository tradeRepository;
+    private final TradeJournal tradeJournal;
+    private final EventBus eventBus;
+    private final TradeMetrics tradeMetrics;
 
     @Autowired
     public PortfolioService(
             PortfolioRepository portfolioRepository,
             UserRepository userRepository,
             AssetRepository assetRepository,
-            UserService userService) {
+            TradeRepository tradeRepository,
+            TradeJournal tradeJournal,
+            EventBus eventBus,
+            TradeMetrics tradeMetrics) {
         this.portfolioRepository = portfolioRepository;
         this.userRepository = userRepository;
         this.assetRepository = assetRepository;
-        this.userService = userService;
+        this.tradeRepository = tradeRepository;
+        this.tradeJournal = tradeJournal;
+        this.eventBus = eventBus;
+        this.tradeMetrics = tradeMetrics;
     }
 
     public Portfolio createPortfolio(CreatePortfolioRequest request) {
+        JournalRecord.checkFits("name", request.getName(), JournalRecord.MAX_PORTFOLIO_NAME_BYTES);
         // Verify user exists
         if (!userRepository.findById(request.getUserId()).isPresent()) {
             throw new UserNotFoundException("User not found: " + request.getUserId());
@@ -48,7 +71,9 @@ public class PortfolioService {
         portfolio.setUserId(request.getUserId());
         portfolio.setName(request.getName() != null ? request.getName() : "Default Portfolio");
 
-        return portfolioRepository.save(portfolio);
+        portfolio = portfolioRepository.save(portfolio);
+        tradeJournal.appendPortfolioCreated(portfolio);
+        return portfolio;
     }
 
     public Portfolio getPortfolioById(Long portfolioId) {
@@ -60,99 +85,301 @@ public class PortfolioService {
         return portfolioRepository.findByUserId(userId);
     }
 
+    public List<Trade> getTradeHistory(Long userId, LocalDateTime from, LocalDateTime to, int limit) {
+        return tradeRepository.findByUserIdBetween(userId, from, to, Math.min(limit, MAX_TRADE_HISTORY));
+    }
+
     public Portfolio addAssetToPortfolio(Long portfolioId, Long assetId, BigDecimal quantity, BigDecimal price) {
         Portfolio portfolio = getPortfolioById(portfolioId);
-        Asset asset = assetRepository.findById(assetId)
+        addHolding(portfolio, findAsset(assetId), Quantity.of(quantity), Money.of(price));
+        return portfolioRepository.save(portfolio);
+    }
+
+    public Portfolio removeAssetFromPortfolio(Long portfolioId, Long assetId, BigDecimal quantity) {
+        Portfolio portfolio = getPortfolioById(portfolioId);
+        removeHolding(portfolio, assetId, Quantity.of(quantity));
+        return portfolioRepository.save(portfolio);
+    }
+
+    private Asset findAsset(Long assetId) {
+        return assetRepository.findById(assetId)
                 .orElseThrow(() -> new AssetNotFoundException("Asset not found: " + assetId));
+    }
 
-        Optional<PortfolioAsset> existingAsset = portfolio.getAssets().stream()
-                .filter(pa -> pa.getAsset().getAssetId().equals(assetId))
-                .findFirst();
+    private static void addHolding(Portfolio portfolio, Asset asset, long quantity, long price) {
+        PortfolioAsset existingAsset = portfolio.getHolding(asset.getAssetId());
 
-        if (existingAsset.isPresent()) {
-            PortfolioAsset portfolioAsset = existingAsset.get();
-            portfolioAsset.setQuantity(portfolioAsset.getQuantity().add(quantity));
-            portfolioAsset.setPrice(price);
+        if (existingAsset != null) {
+            existingAsset.setFixedQuantity(Quantity.add(existingAsset.getFixedQuantity(), quantity));
+            existingAsset.setFixedPrice(price);
         } else {
             PortfolioAsset portfolioAsset = new PortfolioAsset();
+            portfolioAsset.setPortfolioId(portfolio.getPortfolioId());
+            portfolioAsset.setAssetId(asset.getAssetId());
             portfolioAsset.setAsset(asset);
-            portfolioAsset.setQuantity(quantity);
-            portfolioAsset.setPrice(price);
-            portfolio.getAssets().add(portfolioAsset);
+            portfolioAsset.setFixedQuantity(quantity);
+            portfolioAsset.setFixedPrice(price);
+            portfolio.putHolding(portfolioAsset);
         }
-
-        return portfolioRepository.save(portfolio);
     }
 
-    public Portfolio removeAssetFromPortfolio(Long portfolioId, Long assetId, BigDecimal quantity) {
-        Portfolio portfolio = getPortfolioById(portfolioId);
-        
-        PortfolioAsset portfolioAsset = portfolio.getAssets().stream()
-                .filter(pa -> pa.getAsset().getAssetId().equals(assetId))
-                .findFirst()
-                .orElseThrow(() -> new AssetNotFoundException("Asset not found in portfolio: " + assetId));
+    private static void removeHolding(Portfolio portfolio, Long assetId, long quantity) {
+        PortfolioAsset portfolioAsset = portfolio.getHolding(assetId);
+        if (portfolioAsset == null) {
+            throw new AssetNotFoundException("Asset not found in portfolio: " + assetId);
+        }
 
-        if (portfolioAsset.getQuantity().compareTo(quantity) < 0) {
+        if (portfolioAsset.getFixedQuantity() < quantity) {
             throw new InsufficientAssetException("Insufficient asset quantity in portfolio");
         }
 
-        portfolioAsset.setQuantity(portfolioAsset.getQuantity().subtract(quantity));
+        portfolioAsset.setFixedQuantity(Quantity.subtract(portfolioAsset.getFixedQuantity(), quantity));
         
-        if (portfolioAsset.getQuantity().compareTo(BigDecimal.ZERO) == 0) {
-            portfolio.getAssets().remove(portfolioAsset);
+        if (portfolioAsset.getFixedQuantity() == 0) {
+            portfolio.removeHolding(assetId);
         }
-
-        return portfolioRepository.save(portfolio);
     }
 
     public Trade executeTrade(Long portfolioId, Long assetId, BigDecimal quantity, BigDecimal price, TradeType tradeType) {
-        Portfolio portfolio = getPortfolioById(portfolioId);
-        User user = userRepository.findById(portfolio.getUserId())
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        TradeEvent event = new TradeEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            Trade trade = executeTrade(portfolioId, assetId, quantity, price, tradeType, start);
+            tradeMetrics.record(TradeStage.TOTAL, System.nanoTime() - start);
+            event.setUserId(trade.getUserId());
+            event.setUsersTouched(1);
+            return trade;
+        } catch (RuntimeException e) {
+            tradeMetrics.tradeRejected(e);
+            event.setRejection(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setPortfolioId(portfolioId);
+                event.setAssetId(assetId);
+                event.setTradeType(tradeType.name());
+                event.commit();
+            }
+        }
+    }
 
-        // Calculate total cost of the trade
-        BigDecimal totalCost = quantity.multiply(price);
+    /**
+     * Settles one order book fill as a BUY for the buyer and a SELL for the seller at the matched
+     * price, as one unit: both legs are applied before either is saved, a leg that fails rolls back
+     * the other, and the two trades are journaled in a single append. A seller who holds none of the
+     * asset is rejected as holding too little. Callers must hold both users' shards, see
+     * {@code TradeExecutionEngine.executeExclusive}.
+     *
+     * @return the buyer's trade, then the seller's
+     */
+    public List<Trade> settleFill(Long buyPortfolioId, Long sellPortfolioId, Long assetId, long quantity, long price) {
+        long start = System.nanoTime();
+        try {
+            List<Trade> trades = settleFill(buyPortfolioId, sellPortfolioId, assetId, quantity, price, start);
+            tradeMetrics.recordUnit(System.nanoTime() - start, trades.size());
+            return trades;
+        } catch (RuntimeException e) {
+            tradeMetrics.tradeRejected(e);
+            throw e;
+        }
+    }
 
-        // For BUY trades, check if user has enough gems
-        if (tradeType == TradeType.BUY) {
-            if (user.getGemCount() < totalCost.intValue()) {
-                throw new InsufficientFundsException(
-                    String.format("Insufficient funds. Required: %d gems, Available: %d gems",
-                        totalCost.intValue(), user.getGemCount())
-                );
+    private List<Trade> settleFill(Long buyPortfolioId, Long sellPortfolioId, Long assetId, long quantity, long price,
+                                   long start) {
+        TradeContext buy = loadContext(buyPortfolioId, assetId, TradeType.BUY);
+        TradeContext sell = loadContext(sellPortfolioId, assetId, TradeType.SELL);
+        long stageEnd = stage(TradeStage.USER_LOOKUP, start);
+
+        Trade buyTrade;
+        Trade sellTrade;
+        try {
+            buy.checkpoint(assetId);
+            buyTrade = applyTrade(buy, assetId, quantity, price, TradeType.BUY, stageEnd);
+            sell.checkpoint(assetId);
+            sellTrade = applyTrade(sell, assetId, quantity, price, TradeType.SELL, System.nanoTime());
+        } catch (RuntimeException e) {
+            // Newest first, so a user on both sides ends up as before the buy
+            sell.rollback();
+            buy.rollback();
+            if (e instanceof AssetNotFoundException && sell.getPortfolio().getHolding(assetId) == null) {
+                throw new InsufficientAssetException("Insufficient asset quantity in portfolio");
             }
-            // Deduct gems for the purchase using UserService
-            userService.updateUserGems(user.getUserId(), -totalCost.intValue());
+            throw e;
         }
 
+        stageEnd = System.nanoTime();
+        PortfolioAsset buyHolding = store(buy, buyTrade);
+        PortfolioAsset sellHolding = store(sell, sellTrade);
+        tradeJournal.appendAll(List.of(
+            JournalRecord.trade(buyTrade, buyPortfolioId, buy.getUser(), buyHolding),
+            JournalRecord.trade(sellTrade, sellPortfolioId, sell.getUser(), sellHolding)));
+        publish(buy, buyTrade);
+        publish(sell, sellTrade);
+        stage(TradeStage.RECORD, stageEnd);
+        return List.of(buyTrade, sellTrade);
+    }
+
+    /**
+     * Executes trades in order as one unit. Each is applied to the state left by the ones before it,
+     * and if any fails every applied trade is rolled back before anything is saved. Otherwise all are
+     * saved, journaled in a single append and published. Callers must hold the shards of every owner,
+     * see {@code TradeExecutionEngine.executeExclusive}.
+     *
+     * @return the trades, in request order
+     * @throws BatchTradeFailedException naming the trade that failed, with its rejection as the cause
+     */
+    public List<Trade> executeAll(List<TradeRequest> requests) {
+        long start = System.nanoTime();
+        List<TradeContext> contexts = new ArrayList<>(requests.size());
+        List<Trade> trades = new ArrayList<>(requests.size());
+        List<JournalRecord> records = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            TradeRequest request = requests.get(i);
+            try {
+                TradeContext context = loadContext(request.getPortfolioId(), request.getAssetId(), request.getTradeType());
+                context.checkpoint(request.getAssetId());
+                contexts.add(context);
+                Trade trade = applyTrade(context, request.getAssetId(), Quantity.of(request.getQuantity()),
+                        Money.of(request.getPrice()), request.getTradeType(), System.nanoTime());
+                trades.add(trade);
+                // Taken now, so each record holds the balance and holding as of its own trade
+                records.add(JournalRecord.trade(trade, request.getPortfolioId(), context.getUser(),
+                        context.getPortfolio().getHolding(request.getAssetId())));
+            } catch (RuntimeException e) {
+                // Newest first, so a user or holding traded more than once ends up as before the first
+                for (int j = contexts.size() - 1; j >= 0; j--) {
+                    contexts.get(j).rollback();
+                }
+                tradeMetrics.tradeRejected(e);
+                throw new BatchTradeFailedException(i, e);
+            }
+        }
+
+        long stageEnd = System.nanoTime();
+        for (int i = 0; i < trades.size(); i++) {
+            store(contexts.get(i), trades.get(i));
+            records.get(i).setTradeId(trades.get(i).getTradeId());
+        }
+        tradeJournal.appendAll(records);
+        for (int i = 0; i < trades.size(); i++) {
+            publish(contexts.get(i), trades.get(i));
+        }
+        stage(TradeStage.RECORD, stageEnd);
+        tradeMetrics.recordUnit(System.nanoTime() - start, trades.size());
+        return trades;
+    }
+
+    /**
+     * Runs one trade as a unit of work: the portfolio, user and asset are loaded once, every mutation
+     * is applied to that state, and the user, portfolio and trade are each saved once at the end.
+     */
+    private Trade executeTrade(Long portfolioId, Long assetId, BigDecimal quantity, BigDecimal price,
+                               TradeType tradeType, long start) {
+        TradeContext context = loadContext(portfolioId, assetId, tradeType);
+        long stageEnd = stage(TradeStage.USER_LOOKUP, start);
+
+        // Convert once at the boundary; the rest of the trade is fixed-point
+        Trade trade = applyTrade(context, assetId, Quantity.of(quantity), Money.of(price), tradeType, stageEnd);
+
+        stageEnd = System.nanoTime();
+        commit(context, trade);
+        stage(TradeStage.RECORD, stageEnd);
+        return trade;
+    }
+
+    /**
+     * Checks and applies one trade to the context's user and portfolio, without saving anything.
+     */
+    private Trade applyTrade(TradeContext context, Long assetId, long fixedQuantity, long fixedPrice,
+                             TradeType tradeType, long stageEnd) {
+        User user = context.getUser();
+
+        // Calculate total cost of the trade, in whole gems
+        int totalCost = Math.toIntExact(Money.toWholeUnits(Money.multiply(fixedQuantity, fixedPrice)));
+
         // Execute trade based on type
         if (tradeType == TradeType.BUY) {
-            portfolio = addAssetToPortfolio(portfolioId, assetId, quantity, price);
+            // For BUY trades, check if user has enough gems
+            if (user.getGemCount() < totalCost) {
+                throw new InsufficientFundsException(
+                    String.format("Insufficient funds. Required: %d gems, Available: %d gems",
+                        totalCost, user.getGemCount())
+                );
+            }
+            context.addGems(-totalCost);
+            stageEnd = stage(TradeStage.GEM_TRANSFER, stageEnd);
+            addHolding(context.getPortfolio(), context.getAsset(), fixedQuantity, fixedPrice);
+            stageEnd = stage(TradeStage.PORTFOLIO_UPDATE, stageEnd);
         } else {
-            portfolio = removeAssetFromPortfolio(portfolioId, assetId, quantity);
-            // Add gems for the sale using UserService
-            userService.updateUserGems(user.getUserId(), totalCost.intValue());
+            removeHolding(context.getPortfolio(), assetId, fixedQuantity);
+            stageEnd = stage(TradeStage.PORTFOLIO_UPDATE, stageEnd);
+            context.addGems(totalCost);
+            stageEnd = stage(TradeStage.GEM_TRANSFER, stageEnd);
         }
 
         // Create trade record
         Trade trade = new Trade();
-        trade.setPortfolio(portfolio);
+        trade.setPortfolio(context.getPortfolio());
         trade.setAssetId(assetId);
-        trade.setQuantity(quantity);
-        trade.setPrice(price);
+        trade.setFixedQuantity(fixedQuantity);
+        trade.setFixedPrice(fixedPrice);
         trade.setTradeType(tradeType);
         trade.setTimestamp(LocalDateTime.now());
         trade.setUserId(user.getUserId());
 
         // Update user stats and award gems
-        userService.incrementTradeCount(user.getUserId());
-        awardGemsForTrade(user);
-
-        userRepository.save(user);
+        user.incrementTrades();
+        int gemsAwarded = awardGemsForTrade(user);
+        context.addGems(gemsAwarded);
+        trade.setGemsAwarded(gemsAwarded);
+        context.applyGems();
+        stage(TradeStage.STREAK_UPDATE, stageEnd);
         return trade;
     }
 
-    private void awardGemsForTrade(User user) {
+    private TradeContext loadContext(Long portfolioId, Long assetId, TradeType tradeType) {
+        Portfolio portfolio = getPortfolioById(portfolioId);
+        User user = userRepository.findById(portfolio.getUserId())
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        Asset asset = tradeType == TradeType.BUY ? findAsset(assetId) : null;
+        return new TradeContext(portfolio, user, asset);
+    }
+
+    private void commit(TradeContext context, Trade trade) {
+        PortfolioAsset holding = store(context, trade);
+        tradeJournal.appendTrade(trade, context.getPortfolio().getPortfolioId(), context.getUser(), holding);
+        publish(context, trade);
+    }
+
+    /**
+     * Saves an applied trade's user, portfolio and trade record.
+     *
+     * @return the portfolio's holding of the traded asset afterwards, or null if it was closed
+     */
+    private PortfolioAsset store(TradeContext context, Trade trade) {
+        userRepository.save(context.getUser());
+        portfolioRepository.saveTraded(context.getPortfolio(), trade.getAssetId());
+        tradeRepository.saveExecuted(trade);
+        return context.getPortfolio().getHolding(trade.getAssetId());
+    }
+
+    private void publish(TradeContext context, Trade trade) {
+        User user = context.getUser();
+        eventBus.publish(new GemsChanged(user.getUserId(), user.getGemCount()));
+        eventBus.publish(new TradeExecuted(user.getUserId(), context.getPortfolio().getPortfolioId(),
+                trade.getAssetId(), trade.getTradeType(), trade.getFixedPrice(), trade.getFixedQuantity(),
+                trade.getTradeTimestamp()));
+    }
+
+    private long stage(TradeStage stage, long stageStart) {
+        long now = System.nanoTime();
+        tradeMetrics.record(stage, now - stageStart);
+        return now;
+    }
+
+    private int awardGemsForTrade(User user) {
         // Base gem for trade
         int gemsToAward = 1;
 
@@ -171,7 +398,6 @@ public class PortfolioService {
             gemsToAward += 5;  // 5 trades milestone
         }
 
-        // Award gems using UserService
-        userService.updateUserGems(user.getUserId(), gemsToAward);
+        return gemsToAward;
     }
 }
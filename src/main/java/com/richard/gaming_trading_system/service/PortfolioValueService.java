@@ -1,11 +1,13 @@
 package com.richard.gaming_trading_system.service;
 
 import com.richard.gaming_trading_system.exception.PortfolioNotFoundException;
+import com.richard.gaming_trading_system.model.Money;
 import com.richard.gaming_trading_system.model.Portfolio;
 import com.richard.gaming_trading_system.repository.PortfolioRepository;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Service
 public class PortfolioValueService {
@@ -17,8 +19,17 @@ public class PortfolioValueService {
     }
 
     public BigDecimal getPortfolioValue(Long portfolioId) {
-        Portfolio portfolio = portfolioRepository.findById(portfolioId)
+        portfolioRepository.findById(portfolioId)
                 .orElseThrow(() -> new PortfolioNotFoundException("Portfolio not found: " + portfolioId));
-        return portfolio.getTotalValue();
+        return portfolioRepository.getValuation().getValue(portfolioId);
+    }
+
+    public BigDecimal getUserPortfolioValue(Long userId) {
+        long total = 0L;
+        List<Portfolio> portfolios = portfolioRepository.findByUserId(userId);
+        for (Portfolio portfolio : portfolios) {
+            total = Money.add(total, portfolioRepository.getValuation().getFixedValue(portfolio.getPortfolioId()));
+        }
+        return Money.toBigDecimal(total);
     }
 } 
\ No newline at end of file
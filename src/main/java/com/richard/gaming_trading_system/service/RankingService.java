@@ -1,48 +1,126 @@
 package com.richard.gaming_trading_system.service;
 
+import com.richard.gaming_trading_system.dto.LeaderboardEntry;
+import com.richard.gaming_trading_system.dto.LeaderboardPage;
+import com.richard.gaming_trading_system.exception.UserNotFoundException;
+import com.richard.gaming_trading_system.metrics.TradeMetrics;
+import com.richard.gaming_trading_system.metrics.TradeStage;
 import com.richard.gaming_trading_system.model.User;
+import com.richard.gaming_trading_system.profiling.RankUpdateEvent;
+import com.richard.gaming_trading_system.repository.LeaderboardIndex;
 import com.richard.gaming_trading_system.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class RankingService {
 
+    static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LeaderboardIndex leaderboardIndex;
+
+    @Autowired
+    private TradeMetrics tradeMetrics;
+
     public void updateUserRank(User user) {
-        List<User> allUsers = userRepository.findAll();
-        Map<Integer, List<User>> usersByGemCount = allUsers.stream()
-                .collect(Collectors.groupingBy(User::getGemCount));
-
-        int rank = 1;
-        for (int gemCount : usersByGemCount.keySet().stream()
-                .sorted((a, b) -> b - a)
-                .collect(Collectors.toList())) {
-            List<User> usersWithSameGems = usersByGemCount.get(gemCount);
-            for (User u : usersWithSameGems) {
-                u.setRank(rank);
-                userRepository.save(u);
-            }
-            rank += usersWithSameGems.size();
+        updateUserRank(user.getUserId(), user.getGemCount());
+    }
+
+    public void updateUserRank(long userId, int gemCount) {
+        RankUpdateEvent event = new RankUpdateEvent();
+        int before = event.isEnabled() ? leaderboardIndex.positionOf(userId) : -1;
+        event.begin();
+        long start = System.nanoTime();
+        leaderboardIndex.update(userId, gemCount);
+        tradeMetrics.record(TradeStage.RANK_UPDATE, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setUserId(userId);
+            event.setGemCount(gemCount);
+            event.setUsersTouched(usersTouched(before, leaderboardIndex.positionOf(userId)));
+            event.commit();
         }
     }
 
-    public List<User> getTopUsers(int limit) {
-        return userRepository.findAll().stream()
-                .sorted((a, b) -> b.getGemCount().compareTo(a.getGemCount()))
-                .limit(limit)
-                .collect(Collectors.toList());
+    // The user plus everyone between its old and new position; a new entry shifts everyone below it
+    private int usersTouched(int before, int after) {
+        if (after < 0) {
+            return 1;
+        }
+        if (before < 0) {
+            return leaderboardIndex.size() - after;
+        }
+        return Math.abs(after - before) + 1;
+    }
+
+    public void rebuild(Collection<User> users) {
+        Map<Long, Integer> gemCounts = new HashMap<>();
+        for (User user : users) {
+            gemCounts.put(user.getUserId(), user.getGemCount());
+        }
+        leaderboardIndex.replaceAll(gemCounts);
     }
 
-    public List<User> getLeaderboard() {
-        return userRepository.findAll().stream()
-                .sorted((a, b) -> b.getGemCount().compareTo(a.getGemCount()))
-                .collect(Collectors.toList());
+    public long getLeaderboardVersion() {
+        return leaderboardIndex.getVersion();
+    }
+
+    public int getUserRank(Long userId) {
+        return leaderboardIndex.rankOf(userId);
+    }
+
+    public List<LeaderboardEntry> getTopUsers(int limit) {
+        return toEntries(leaderboardIndex.range(0, limit));
+    }
+
+    public List<LeaderboardEntry> getLeaderboard() {
+        return toEntries(leaderboardIndex.range(0, leaderboardIndex.size()));
+    }
+
+    public LeaderboardPage getLeaderboardPage(int after, int size) {
+        int offset = Math.max(after, 0);
+        List<LeaderboardIndex.Entry> entries = leaderboardIndex.range(offset, clampPageSize(size));
+        int total = leaderboardIndex.size();
+        Integer nextCursor = null;
+        if (!entries.isEmpty() && entries.get(entries.size() - 1).getPosition() < total) {
+            nextCursor = entries.get(entries.size() - 1).getPosition();
+        }
+        return new LeaderboardPage(toEntries(entries), nextCursor, total);
+    }
+
+    public List<LeaderboardEntry> getLeaderboardAround(Long userId, int radius) {
+        int position = leaderboardIndex.positionOf(userId);
+        if (position < 0) {
+            throw new UserNotFoundException("User not found on leaderboard: " + userId);
+        }
+        int span = Math.min(Math.max(radius, 0), MAX_PAGE_SIZE / 2);
+        int from = Math.max(position - span, 0);
+        return toEntries(leaderboardIndex.range(from, position - from + span + 1));
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    private List<LeaderboardEntry> toEntries(List<LeaderboardIndex.Entry> entries) {
+        List<LeaderboardEntry> result = new ArrayList<>(entries.size());
+        for (LeaderboardIndex.Entry entry : entries) {
+            String username = userRepository.findById(entry.getUserId())
+                    .map(User::getUsername)
+                    .orElse(null);
+            result.add(new LeaderboardEntry(entry.getUserId(), username, entry.getGemCount(),
+                    entry.getRank(), entry.getPosition()));
+        }
+        return result;
     }
-} 
\ No newline at end of file
+}
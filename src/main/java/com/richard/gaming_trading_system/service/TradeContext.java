@@ -0,0 +1,112 @@
+package com.richard.gaming_trading_system.service;
+
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.PortfolioAsset;
+import com.richard.gaming_trading_system.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * The state one trade works on, loaded once by {@link PortfolioService}. The trade's cost or proceeds
+ * and its awards are summed here and applied to the user in a single write, so readers never see a
+ * balance between two of the trade's gem movements. A trade that is one leg of a larger unit takes a
+ * {@link #checkpoint} first, so it can be rolled back if another leg fails before anything is saved.
+ */
+final class TradeContext {
+
+    private final Portfolio portfolio;
+    private final User user;
+    private final Asset asset;
+    private int gemDelta;
+
+    // State before the trade, set by checkpoint()
+    private boolean checkpointed;
+    private Long assetId;
+    private PortfolioAsset holding;
+    private long holdingQuantity;
+    private long holdingPrice;
+    private int gemCount;
+    private Integer totalTrades;
+    private Integer currentStreak;
+    private Integer longestStreak;
+    private LocalDateTime lastTradeTime;
+
+    TradeContext(Portfolio portfolio, User user, Asset asset) {
+        this.portfolio = portfolio;
+        this.user = user;
+        this.asset = asset;
+    }
+
+    Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    User getUser() {
+        return user;
+    }
+
+    /**
+     * The traded asset, or null for a sell, which only needs the existing holding.
+     */
+    Asset getAsset() {
+        return asset;
+    }
+
+    void addGems(int gems) {
+        gemDelta = Math.addExact(gemDelta, gems);
+    }
+
+    /**
+     * Writes the summed gem movements to the user and returns the new balance.
+     */
+    int applyGems() {
+        user.setGemCount(Math.addExact(user.getGemCount(), gemDelta));
+        gemDelta = 0;
+        return user.getGemCount();
+    }
+
+    /**
+     * Remembers the user's balance and stats and the portfolio's holding of {@code assetId}, as they
+     * are before the trade touches them.
+     */
+    void checkpoint(Long assetId) {
+        this.checkpointed = true;
+        this.assetId = assetId;
+        this.holding = portfolio.getHolding(assetId);
+        if (holding != null) {
+            holdingQuantity = holding.getFixedQuantity();
+            holdingPrice = holding.getFixedAveragePrice();
+        }
+        gemCount = user.getGemCount();
+        totalTrades = user.getTotalTrades();
+        currentStreak = user.getCurrentStreak();
+        longestStreak = user.getLongestStreak();
+        lastTradeTime = user.getLastTradeTime();
+    }
+
+    /**
+     * Puts back everything {@link #checkpoint} remembered; does nothing without a checkpoint.
+     */
+    void rollback() {
+        if (!checkpointed) {
+            return;
+        }
+        if (holding == null) {
+            portfolio.removeHolding(assetId);
+        } else {
+            holding.setFixedQuantity(holdingQuantity);
+            holding.setFixedAveragePrice(holdingPrice);
+            if (portfolio.getHolding(assetId) != holding) {
+                portfolio.putHolding(holding);
+            }
+        }
+        user.setGemCount(gemCount);
+        user.setTotalTrades(totalTrades);
+        user.setCurrentStreak(currentStreak);
+        user.setLongestStreak(longestStreak);
+        user.setLastTradeTime(lastTradeTime);
+        gemDelta = 0;
+        checkpointed = false;
+    }
+}
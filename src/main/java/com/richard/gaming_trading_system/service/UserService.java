@@ -2,8 +2,12 @@ package com.richard.gaming_trading_system.service;
 
 import com.richard.gaming_trading_system.dto.CreateUserRequest;
 import com.richard.gaming_trading_system.dto.UserStatsResponse;
+import com.richard.gaming_trading_system.events.EventBus;
+import com.richard.gaming_trading_system.events.GemsChanged;
 import com.richard.gaming_trading_system.exception.UserNotFoundException;
 import com.richard.gaming_trading_system.model.User;
+import com.richard.gaming_trading_system.persistence.JournalRecord;
+import com.richard.gaming_trading_system.persistence.TradeJournal;
 import com.richard.gaming_trading_system.repository.UserRepository;
 import org.springframework.stereotype.Service;
 
@@ -16,20 +20,28 @@ public class UserService {
     private final UserRepository userRepository;
     private final RankingService rankingService;
     private final PortfolioValueService portfolioValueService;
+    private final TradeJournal tradeJournal;
+    private final EventBus eventBus;
 
     public UserService(
             UserRepository userRepository,
             RankingService rankingService,
-            PortfolioValueService portfolioValueService) {
+            PortfolioValueService portfolioValueService,
+            TradeJournal tradeJournal,
+            EventBus eventBus) {
         this.userRepository = userRepository;
         this.rankingService = rankingService;
         this.portfolioValueService = portfolioValueService;
+        this.tradeJournal = tradeJournal;
+        this.eventBus = eventBus;
     }
 
     public User createUser(String username) {
+        JournalRecord.checkFits("username", username, JournalRecord.MAX_USERNAME_BYTES);
         User user = new User();
         user.setUsername(username);
         user = userRepository.save(user);
+        tradeJournal.appendUserCreated(user);
         rankingService.updateUserRank(user);
         return user;
     }
@@ -46,22 +58,27 @@ public class UserService {
 
     public UserStatsResponse getUserStats(Long userId) {
         User user = getUserById(userId);
-        BigDecimal portfolioValue = portfolioValueService.getPortfolioValue(userId);
+        BigDecimal portfolioValue = portfolioValueService.getUserPortfolioValue(userId);
         return new UserStatsResponse(
                 user.getUserId(),
                 user.getUsername(),
                 user.getGemCount(),
-                user.getRank(),
+                rankingService.getUserRank(user.getUserId()),
                 user.getTotalTrades(),
                 portfolioValue
         );
     }
 
+    /**
+     * Grants or takes gems outside a trade. The new balance is journaled, so it survives a restart.
+     */
     public User updateUserGems(Long userId, int gems) {
         User user = getUserById(userId);
         user.addGems(gems);
         user = userRepository.save(user);
-        rankingService.updateUserRank(user);
+        tradeJournal.appendGemsChanged(user);
+        // Re-ranked off the calling thread; the leaderboard catches up within one bus batch
+        eventBus.publish(new GemsChanged(user.getUserId(), user.getGemCount()));
         return user;
     }
 
@@ -0,0 +1,228 @@
+package com.richard.gaming_trading_system.simulation;
+
+import com.richard.gaming_trading_system.dto.CreateAssetRequest;
+import com.richard.gaming_trading_system.dto.CreatePortfolioRequest;
+import com.richard.gaming_trading_system.engine.TradeExecutionEngine;
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.TradeType;
+import com.richard.gaming_trading_system.model.User;
+import com.richard.gaming_trading_system.service.AssetService;
+import com.richard.gaming_trading_system.service.PortfolioAnalyticsService;
+import com.richard.gaming_trading_system.service.PortfolioService;
+import com.richard.gaming_trading_system.service.RankingService;
+import com.richard.gaming_trading_system.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Offline load generator, active under the {@code simulate} profile. It seeds users, portfolios and
+ * assets through the services, then drives an open-loop workload: requests arrive as a Poisson process
+ * at the target rate whether or not earlier ones have finished, and are handed to a fixed pool of
+ * clients. Latency is measured from each request's scheduled arrival, so a stall shows up in every
+ * request queued behind it instead of silently lowering the offered load.
+ */
+@Component
+@Profile("simulate")
+public class LoadSimulator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadSimulator.class);
+
+    static final int STARTING_GEMS = 1_000_000;
+    private static final BigDecimal INITIAL_PRICE = BigDecimal.TEN;
+
+    private final UserService userService;
+    private final PortfolioService portfolioService;
+    private final AssetService assetService;
+    private final RankingService rankingService;
+    private final PortfolioAnalyticsService analyticsService;
+    private final TradeExecutionEngine tradeExecutionEngine;
+    private final ApplicationContext context;
+    private final int userCount;
+    private final int assetCount;
+    private final int hotAssets;
+    private final double hotFraction;
+    private final double rate;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final int clients;
+    private final WorkloadMix mix;
+    private final boolean exitWhenDone;
+
+    private long[] userIds;
+    private long[] portfolioIds;
+    private Asset[] assets;
+
+    public LoadSimulator(
+            UserService userService,
+            PortfolioService portfolioService,
+            AssetService assetService,
+            RankingService rankingService,
+            PortfolioAnalyticsService analyticsService,
+            TradeExecutionEngine tradeExecutionEngine,
+            ApplicationContext context,
+            @Value("${trading.simulation.users:10000}") int userCount,
+            @Value("${trading.simulation.assets:100}") int assetCount,
+            @Value("${trading.simulation.hot-assets:5}") int hotAssets,
+            @Value("${trading.simulation.hot-fraction:0.8}") double hotFraction,
+            @Value("${trading.simulation.rate:2000}") double rate,
+            @Value("${trading.simulation.duration-seconds:60}") int durationSeconds,
+            @Value("${trading.simulation.warmup-seconds:10}") int warmupSeconds,
+            @Value("${trading.simulation.clients:32}") int clients,
+            @Value("${trading.simulation.mix:trade:80,leaderboard:15,analytics:5}") String mix,
+            @Value("${trading.simulation.exit:true}") boolean exitWhenDone) {
+        this.userService = userService;
+        this.portfolioService = portfolioService;
+        this.assetService = assetService;
+        this.rankingService = rankingService;
+        this.analyticsService = analyticsService;
+        this.tradeExecutionEngine = tradeExecutionEngine;
+        this.context = context;
+        this.userCount = Math.max(userCount, 1);
+        this.assetCount = Math.max(assetCount, 1);
+        this.hotAssets = Math.min(Math.max(hotAssets, 1), this.assetCount);
+        this.hotFraction = hotFraction;
+        this.rate = rate;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.clients = Math.max(clients, 1);
+        this.mix = WorkloadMix.parse(mix);
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        long seedStart = System.nanoTime();
+        seed();
+        log.info("Seeded {} users with portfolios and {} assets in {} ms", userCount, assetCount,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+        log.info("Driving {} requests/s for {} s after {} s of warmup with {} clients", rate,
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos), clients);
+        SimulationReport report = drive();
+        log.info("Simulation results (response time from scheduled arrival):\n{}", report.format());
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    void seed() {
+        assets = new Asset[assetCount];
+        for (int i = 0; i < assetCount; i++) {
+            assets[i] = assetService.createAsset(new CreateAssetRequest("SIM" + i, "Simulated asset " + i, INITIAL_PRICE));
+        }
+        userIds = new long[userCount];
+        portfolioIds = new long[userCount];
+        for (int i = 0; i < userCount; i++) {
+            User user = userService.createUser("sim-user-" + i);
+            userService.updateUserGems(user.getUserId(), STARTING_GEMS);
+            Portfolio portfolio = portfolioService.createPortfolio(new CreatePortfolioRequest(user.getUserId(), "Simulation"));
+            userIds[i] = user.getUserId();
+            portfolioIds[i] = portfolio.getPortfolioId();
+        }
+    }
+
+    /**
+     * Issues requests for the warmup plus the measured duration, waits for the stragglers and returns
+     * the measured window's results. Requests scheduled during warmup run but are not recorded.
+     */
+    SimulationReport drive() throws InterruptedException {
+        SimulationReport report = new SimulationReport();
+        AtomicInteger clientIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(clients, task -> {
+            Thread thread = new Thread(task, "sim-client-" + clientIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double meanGapNanos = 1e9 / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long intended = start;
+        try {
+            while (true) {
+                intended += (long) (-Math.log(1.0 - random.nextDouble()) * meanGapNanos);
+                if (intended >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                SimulatedOperation operation = mix.pick(random.nextDouble());
+                long scheduledAt = intended;
+                boolean measured = scheduledAt >= measureFrom;
+                pool.execute(() -> issue(operation, scheduledAt, measured ? report : null));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        if (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+            log.warn("Simulation clients still busy a minute after the last request was scheduled");
+            pool.shutdownNow();
+        }
+        report.setMeasuredNanos(durationNanos);
+        return report;
+    }
+
+    private void issue(SimulatedOperation operation, long intendedNanos, SimulationReport report) {
+        long startNanos = System.nanoTime();
+        boolean failed = false;
+        try {
+            execute(operation, ThreadLocalRandom.current());
+        } catch (RuntimeException e) {
+            failed = true;
+        }
+        if (report != null) {
+            report.record(operation, intendedNanos, startNanos, System.nanoTime(), failed);
+        }
+    }
+
+    private void execute(SimulatedOperation operation, ThreadLocalRandom random) {
+        switch (operation) {
+            case TRADE -> trade(random);
+            case LEADERBOARD -> rankingService.getTopUsers(10);
+            case ANALYTICS -> {
+                analyticsService.getMostTradedAssets(10, "1h");
+                analyticsService.getHighestPortfolioValues();
+                analyticsService.getTradingVolumeByAsset();
+            }
+        }
+    }
+
+    /**
+     * Buys one unit, or sells one of a held asset half the time, on the user's trade shard as the API
+     * does. Most trades go to the hot assets.
+     */
+    private void trade(ThreadLocalRandom random) {
+        int user = random.nextInt(userIds.length);
+        Asset asset = assets[random.nextDouble() < hotFraction
+                ? random.nextInt(hotAssets)
+                : random.nextInt(assets.length)];
+        long portfolioId = portfolioIds[user];
+        boolean preferSell = random.nextBoolean();
+        tradeExecutionEngine.execute(userIds[user], () -> {
+            Portfolio portfolio = portfolioService.getPortfolioById(portfolioId);
+            TradeType type = preferSell && portfolio.getHolding(asset.getAssetId()) != null
+                    ? TradeType.SELL
+                    : TradeType.BUY;
+            return portfolioService.executeTrade(portfolioId, asset.getAssetId(), BigDecimal.ONE,
+                    asset.getCurrentPrice(), type);
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.richard.gaming_trading_system.simulation;
+
+/**
+ * Kinds of request the load simulator issues.
+ */
+enum SimulatedOperation {
+    /** A BUY or SELL of one unit, mostly against the hot assets. */
+    TRADE,
+    /** A leaderboard poll: the top ten users. */
+    LEADERBOARD,
+    /** An analytics dashboard: windowed most-traded, highest portfolios and volume by asset. */
+    ANALYTICS
+}
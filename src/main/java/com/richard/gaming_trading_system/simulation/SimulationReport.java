@@ -0,0 +1,82 @@
+package com.richard.gaming_trading_system.simulation;
+
+import com.richard.gaming_trading_system.metrics.LatencyHistogram;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation results of a simulation run. Response time is measured from the moment the request was
+ * scheduled to be sent, so time spent waiting for a free client counts against the system, which is
+ * what corrects for coordinated omission. Service time runs from when a client actually started the
+ * request and is reported alongside for contrast.
+ */
+final class SimulationReport {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<SimulatedOperation, LatencyHistogram> responseTimes = new EnumMap<>(SimulatedOperation.class);
+    private final Map<SimulatedOperation, LatencyHistogram> serviceTimes = new EnumMap<>(SimulatedOperation.class);
+    private final Map<SimulatedOperation, LongAdder> errors = new EnumMap<>(SimulatedOperation.class);
+    private volatile long measuredNanos;
+
+    SimulationReport() {
+        for (SimulatedOperation operation : SimulatedOperation.values()) {
+            responseTimes.put(operation, new LatencyHistogram());
+            serviceTimes.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(SimulatedOperation operation, long intendedNanos, long startNanos, long endNanos, boolean failed) {
+        responseTimes.get(operation).record(endNanos - intendedNanos);
+        serviceTimes.get(operation).record(endNanos - startNanos);
+        if (failed) {
+            errors.get(operation).increment();
+        }
+    }
+
+    void setMeasuredNanos(long measuredNanos) {
+        this.measuredNanos = measuredNanos;
+    }
+
+    LatencyHistogram.Snapshot getResponseTimes(SimulatedOperation operation) {
+        return responseTimes.get(operation).snapshot();
+    }
+
+    LatencyHistogram.Snapshot getServiceTimes(SimulatedOperation operation) {
+        return serviceTimes.get(operation).snapshot();
+    }
+
+    long getErrors(SimulatedOperation operation) {
+        return errors.get(operation).sum();
+    }
+
+    String format() {
+        StringBuilder out = new StringBuilder();
+        double seconds = Math.max(measuredNanos, 1L) / 1e9;
+        out.append(String.format(Locale.ROOT, "%-12s %9s %8s %7s %9s %9s %9s %9s %9s %11s%n",
+                "operation", "count", "ops/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "svc p99 ms"));
+        for (SimulatedOperation operation : SimulatedOperation.values()) {
+            LatencyHistogram.Snapshot response = getResponseTimes(operation);
+            if (response.getCount() == 0) {
+                continue;
+            }
+            out.append(String.format(Locale.ROOT, "%-12s %9d %8.1f %7d",
+                    operation.name().toLowerCase(Locale.ROOT), response.getCount(), response.getCount() / seconds,
+                    getErrors(operation)));
+            for (double quantile : QUANTILES) {
+                out.append(String.format(Locale.ROOT, " %9.3f", millis(response.getValueAtQuantile(quantile))));
+            }
+            out.append(String.format(Locale.ROOT, " %9.3f %11.3f%n", millis(response.getMax()),
+                    millis(getServiceTimes(operation).getValueAtQuantile(0.99))));
+        }
+        return out.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,61 @@
+package com.richard.gaming_trading_system.simulation;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Relative weights of each {@link SimulatedOperation}, parsed from e.g. {@code trade:80,leaderboard:15}.
+ * Operations that are not listed are never issued.
+ */
+final class WorkloadMix {
+
+    private final SimulatedOperation[] operations;
+    private final double[] cumulative;
+
+    private WorkloadMix(Map<SimulatedOperation, Double> weights) {
+        operations = weights.keySet().toArray(new SimulatedOperation[0]);
+        cumulative = new double[operations.length];
+        double sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    static WorkloadMix parse(String spec) {
+        Map<SimulatedOperation, Double> weights = new EnumMap<>(SimulatedOperation.class);
+        for (String part : spec.split(",")) {
+            String[] entry = part.trim().split(":");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got '" + part.trim() + "'");
+            }
+            double weight = Double.parseDouble(entry[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + entry[0].trim());
+            }
+            if (weight > 0) {
+                weights.merge(SimulatedOperation.valueOf(entry[0].trim().toUpperCase(Locale.ROOT)), weight, Double::sum);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Workload mix has no operations: " + spec);
+        }
+        return new WorkloadMix(weights);
+    }
+
+    /**
+     * Picks an operation for a uniform random number in [0, 1).
+     */
+    SimulatedOperation pick(double random) {
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (random < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
@@ -0,0 +1,12 @@
+package com.richard.gaming_trading_system.stream;
+
+import java.io.IOException;
+
+/**
+ * Where a subscriber's events are written; an SSE connection in production.
+ */
+@FunctionalInterface
+interface EventSink {
+
+    void send(String event, String data) throws IOException;
+}
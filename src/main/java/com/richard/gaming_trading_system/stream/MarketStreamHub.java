@@ -0,0 +1,278 @@
+package com.richard.gaming_trading_system.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.richard.gaming_trading_system.dto.LeaderboardEntry;
+import com.richard.gaming_trading_system.dto.PriceUpdate;
+import com.richard.gaming_trading_system.dto.TopOfBook;
+import com.richard.gaming_trading_system.events.TopOfBookChanged;
+import com.richard.gaming_trading_system.marketdata.PriceSnapshot;
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.Quantity;
+import com.richard.gaming_trading_system.repository.AssetRepository;
+import com.richard.gaming_trading_system.service.RankingService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes price ticks, top of book and leaderboard changes to streaming clients. Each tick's changed
+ * prices are serialized once into a {@link PriceFrame} that every subscriber shares, and each book
+ * change once per asset; subscribers conflate per symbol while a send is in flight, and sends run on a
+ * small pool so a slow client only delays itself.
+ * The leaderboard is checked on a fixed delay and pushed only when the top list actually changes.
+ */
+@Component
+public class MarketStreamHub {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketStreamHub.class);
+
+    private final AssetRepository assetRepository;
+    private final RankingService rankingService;
+    private final ObjectMapper objectMapper;
+    private final int leaderboardSize;
+    private final long timeoutMillis;
+    private final ExecutorService senders;
+    private final List<StreamSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Map<String, String> lastBooks = new LinkedHashMap<>();
+    private PriceSnapshot lastSnapshot;
+    private long lastLeaderboardVersion = -1L;
+    private volatile String lastLeaderboard;
+
+    @Autowired
+    public MarketStreamHub(
+            AssetRepository assetRepository,
+            RankingService rankingService,
+            ObjectMapper objectMapper,
+            @Value("${trading.stream.sender-threads:4}") int senderThreads,
+            @Value("${trading.stream.leaderboard-size:10}") int leaderboardSize,
+            @Value("${trading.stream.timeout-ms:1800000}") long timeoutMillis) {
+        this(assetRepository, rankingService, objectMapper, leaderboardSize, timeoutMillis,
+                Executors.newFixedThreadPool(Math.max(senderThreads, 1), senderThreadFactory()));
+    }
+
+    MarketStreamHub(AssetRepository assetRepository, RankingService rankingService, ObjectMapper objectMapper,
+                    int leaderboardSize, long timeoutMillis, ExecutorService senders) {
+        this.assetRepository = assetRepository;
+        this.rankingService = rankingService;
+        this.objectMapper = objectMapper;
+        this.leaderboardSize = Math.max(leaderboardSize, 1);
+        this.timeoutMillis = timeoutMillis;
+        this.senders = senders;
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, "market-stream-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Opens an SSE stream. {@code symbols} is a comma-separated filter; null or blank means every asset.
+     */
+    public SseEmitter subscribe(String symbols, boolean leaderboard) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        StreamSubscriber subscriber = subscribe(parseSymbols(symbols), leaderboard,
+                (event, data) -> emitter.send(SseEmitter.event().name(event).data(data)));
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    synchronized StreamSubscriber subscribe(Set<String> symbols, boolean leaderboard, EventSink sink) {
+        StreamSubscriber subscriber = new StreamSubscriber(symbols, leaderboard, sink);
+        subscribers.add(subscriber);
+        // Start every client from current prices and standings rather than waiting for the next change.
+        PriceFrame current = currentPrices(symbols);
+        if (current.size() > 0 && subscriber.offerPrices(current)) {
+            schedule(subscriber);
+        }
+        for (Map.Entry<String, String> book : lastBooks.entrySet()) {
+            if (subscriber.offerBook(book.getKey(), book.getValue())) {
+                schedule(subscriber);
+            }
+        }
+        String top = lastLeaderboard;
+        if (leaderboard && top == null) {
+            lastLeaderboardVersion = rankingService.getLeaderboardVersion();
+            top = serialize(topEntries());
+            lastLeaderboard = top;
+        }
+        if (top != null && subscriber.offerLeaderboard(top)) {
+            schedule(subscriber);
+        }
+        return subscriber;
+    }
+
+    void unsubscribe(StreamSubscriber subscriber) {
+        subscriber.close();
+        subscribers.remove(subscriber);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Fans out the prices that changed since the previous published snapshot.
+     */
+    public synchronized void publishPrices(PriceSnapshot snapshot) {
+        PriceSnapshot previous = lastSnapshot;
+        lastSnapshot = snapshot;
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(snapshot.getTickMillis()), ZoneOffset.UTC);
+        List<String> symbols = new ArrayList<>();
+        List<String> payloads = new ArrayList<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            long assetId = snapshot.assetIdAt(i);
+            long price = snapshot.priceAt(i);
+            if (previous != null && previousPrice(previous, i, assetId) == price) {
+                continue;
+            }
+            assetRepository.findById(assetId).ifPresent(asset -> {
+                symbols.add(asset.getSymbol());
+                payloads.add(serialize(new PriceUpdate(assetId, asset.getSymbol(), snapshot.getPrice(assetId), timestamp)));
+            });
+        }
+        if (!symbols.isEmpty()) {
+            fanOut(new PriceFrame(symbols.toArray(new String[0]), payloads.toArray(new String[0])));
+        }
+    }
+
+    private static long previousPrice(PriceSnapshot previous, int index, long assetId) {
+        if (index < previous.size() && previous.assetIdAt(index) == assetId) {
+            return previous.priceAt(index);
+        }
+        int found = previous.indexOf(assetId);
+        return found >= 0 ? previous.priceAt(found) : -1L;
+    }
+
+    private void fanOut(PriceFrame frame) {
+        for (StreamSubscriber subscriber : subscribers) {
+            if (subscriber.offerPrices(frame)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Fans out one asset's new best bid and ask to the clients following its symbol.
+     */
+    public synchronized void publishBook(TopOfBookChanged change) {
+        Asset asset = assetRepository.findById(change.getAssetId()).orElse(null);
+        if (asset == null) {
+            return;
+        }
+        String payload = serialize(new TopOfBook(asset.getAssetId(), asset.getSymbol(),
+                Money.toBigDecimal(change.getBidPrice()), Quantity.toBigDecimal(change.getBidQuantity()),
+                Money.toBigDecimal(change.getAskPrice()), Quantity.toBigDecimal(change.getAskQuantity())));
+        lastBooks.put(asset.getSymbol(), payload);
+        for (StreamSubscriber subscriber : subscribers) {
+            if (subscriber.offerBook(asset.getSymbol(), payload)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trading.stream.leaderboard-interval-ms:1000}")
+    public synchronized void publishLeaderboard() {
+        long version = rankingService.getLeaderboardVersion();
+        if (version == lastLeaderboardVersion || subscribers.stream().noneMatch(StreamSubscriber::wantsLeaderboard)) {
+            return;
+        }
+        lastLeaderboardVersion = version;
+        String top = serialize(topEntries());
+        if (top.equals(lastLeaderboard)) {
+            return; // gems moved, but not the top of the board
+        }
+        lastLeaderboard = top;
+        for (StreamSubscriber subscriber : subscribers) {
+            if (subscriber.offerLeaderboard(top)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private List<LeaderboardEntry> topEntries() {
+        return rankingService.getLeaderboardPage(0, leaderboardSize).getEntries();
+    }
+
+    private PriceFrame currentPrices(Set<String> symbols) {
+        List<String> matched = new ArrayList<>();
+        List<String> payloads = new ArrayList<>();
+        for (Asset asset : assetRepository.findAll()) {
+            if (symbols == null || symbols.contains(asset.getSymbol())) {
+                matched.add(asset.getSymbol());
+                payloads.add(serialize(new PriceUpdate(asset.getAssetId(), asset.getSymbol(),
+                        asset.getCurrentPrice(), asset.getLastUpdated())));
+            }
+        }
+        return new PriceFrame(matched.toArray(new String[0]), payloads.toArray(new String[0]));
+    }
+
+    private void schedule(StreamSubscriber subscriber) {
+        senders.execute(() -> {
+            try {
+                subscriber.drain();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Dropping stream subscriber: {}", e.getMessage());
+                unsubscribe(subscriber);
+            }
+        });
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Set<String> parseSymbols(String symbols) {
+        if (symbols == null || symbols.isBlank()) {
+            return null;
+        }
+        Set<String> parsed = new HashSet<>();
+        Arrays.stream(symbols.split(",")).map(String::trim).filter(s -> !s.isEmpty()).forEach(parsed::add);
+        return parsed.isEmpty() ? null : parsed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (StreamSubscriber subscriber : subscribers) {
+            unsubscribe(subscriber);
+        }
+        senders.shutdownNow();
+    }
+}
@@ -0,0 +1,48 @@
+package com.richard.gaming_trading_system.stream;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The price changes of one tick, each serialized once. Every subscriber copies references to these
+ * strings rather than serializing its own; {@link #json()} is the whole tick as one JSON array, shared
+ * by every unfiltered subscriber that is keeping up.
+ */
+final class PriceFrame {
+
+    private final String[] symbols;
+    private final String[] payloads;
+    private final Map<String, Integer> indexBySymbol;
+    private final String json;
+
+    PriceFrame(String[] symbols, String[] payloads) {
+        this.symbols = symbols;
+        this.payloads = payloads;
+        this.indexBySymbol = new HashMap<>(symbols.length * 2);
+        for (int i = 0; i < symbols.length; i++) {
+            indexBySymbol.put(symbols[i], i);
+        }
+        this.json = "[" + String.join(",", payloads) + "]";
+    }
+
+    int size() {
+        return symbols.length;
+    }
+
+    String symbolAt(int index) {
+        return symbols[index];
+    }
+
+    String payloadAt(int index) {
+        return payloads[index];
+    }
+
+    int indexOf(String symbol) {
+        Integer index = indexBySymbol.get(symbol);
+        return index != null ? index : -1;
+    }
+
+    String json() {
+        return json;
+    }
+}
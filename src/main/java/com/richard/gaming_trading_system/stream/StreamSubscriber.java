@@ -0,0 +1,175 @@
+package com.richard.gaming_trading_system.stream;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One connected client. Updates are conflated while a send is in flight: prices and top of book keep
+ * only the latest payload per symbol and the leaderboard keeps only its latest top list, so a slow
+ * client's backlog is bounded by the number of symbols rather than the number of ticks or orders. At most one drain per subscriber
+ * runs at a time.
+ */
+final class StreamSubscriber {
+
+    static final String PRICES_EVENT = "prices";
+    static final String LEADERBOARD_EVENT = "leaderboard";
+    static final String BOOK_EVENT = "book";
+
+    private final Set<String> symbols;
+    private final boolean leaderboard;
+    private final EventSink sink;
+    private final Map<String, String> pendingPrices = new LinkedHashMap<>();
+    private final Map<String, String> pendingBooks = new LinkedHashMap<>();
+    private PriceFrame pendingFrame;
+    private String pendingLeaderboard;
+    private boolean draining;
+    private volatile boolean closed;
+
+    StreamSubscriber(Set<String> symbols, boolean leaderboard, EventSink sink) {
+        this.symbols = symbols;
+        this.leaderboard = leaderboard;
+        this.sink = sink;
+    }
+
+    boolean wantsLeaderboard() {
+        return leaderboard;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    /**
+     * Queues this tick's prices for the subscribed symbols. Returns true if the caller must schedule
+     * {@link #drain()}.
+     */
+    synchronized boolean offerPrices(PriceFrame frame) {
+        if (closed) {
+            return false;
+        }
+        if (symbols == null && pendingFrame == null && pendingPrices.isEmpty()) {
+            pendingFrame = frame;
+        } else {
+            if (pendingFrame != null) {
+                mergeAll(pendingFrame);
+                pendingFrame = null;
+            }
+            if (symbols == null) {
+                mergeAll(frame);
+            } else if (symbols.size() < frame.size()) {
+                for (String symbol : symbols) {
+                    int index = frame.indexOf(symbol);
+                    if (index >= 0) {
+                        pendingPrices.put(symbol, frame.payloadAt(index));
+                    }
+                }
+            } else {
+                for (int i = 0; i < frame.size(); i++) {
+                    if (symbols.contains(frame.symbolAt(i))) {
+                        pendingPrices.put(frame.symbolAt(i), frame.payloadAt(i));
+                    }
+                }
+            }
+        }
+        return claimDrain();
+    }
+
+    private void mergeAll(PriceFrame frame) {
+        for (int i = 0; i < frame.size(); i++) {
+            pendingPrices.put(frame.symbolAt(i), frame.payloadAt(i));
+        }
+    }
+
+    /**
+     * Queues one asset's best bid and ask, if this client follows the symbol. Returns true if the caller
+     * must schedule {@link #drain()}.
+     */
+    synchronized boolean offerBook(String symbol, String payload) {
+        if (closed || (symbols != null && !symbols.contains(symbol))) {
+            return false;
+        }
+        pendingBooks.put(symbol, payload);
+        return claimDrain();
+    }
+
+    synchronized boolean offerLeaderboard(String payload) {
+        if (closed || !leaderboard) {
+            return false;
+        }
+        pendingLeaderboard = payload;
+        return claimDrain();
+    }
+
+    private boolean claimDrain() {
+        if (draining || (pendingFrame == null && pendingPrices.isEmpty() && pendingBooks.isEmpty()
+                && pendingLeaderboard == null)) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+
+    /**
+     * Sends everything pending until nothing is left. Throws if the client has gone away.
+     */
+    void drain() throws IOException {
+        try {
+            while (!closed) {
+                String prices;
+                String books;
+                String top;
+                synchronized (this) {
+                    prices = takePrices();
+                    books = takeBooks();
+                    top = pendingLeaderboard;
+                    pendingLeaderboard = null;
+                    if (prices == null && books == null && top == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (prices != null) {
+                    sink.send(PRICES_EVENT, prices);
+                }
+                if (books != null) {
+                    sink.send(BOOK_EVENT, books);
+                }
+                if (top != null) {
+                    sink.send(LEADERBOARD_EVENT, top);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            closed = true;
+            throw e;
+        }
+    }
+
+    private String takePrices() {
+        if (pendingFrame != null) {
+            String json = pendingFrame.json();
+            pendingFrame = null;
+            return json;
+        }
+        if (pendingPrices.isEmpty()) {
+            return null;
+        }
+        String json = "[" + String.join(",", pendingPrices.values()) + "]";
+        pendingPrices.clear();
+        return json;
+    }
+
+    private String takeBooks() {
+        if (pendingBooks.isEmpty()) {
+            return null;
+        }
+        String json = "[" + String.join(",", pendingBooks.values()) + "]";
+        pendingBooks.clear();
+        return json;
+    }
+}
@@ -0,0 +1,103 @@
+package com.richard.gaming_trading_system.analytics;
+
+import com.richard.gaming_trading_system.dto.HeavyHitter;
+import com.richard.gaming_trading_system.dto.MostTradedAssets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHitterTrackerTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private final AtomicLong now = new AtomicLong(1_000 * MINUTE);
+    private HeavyHitterTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new HeavyHitterTracker(0.1, "1h,1d", 12, 0, now::get);
+    }
+
+    private void trade(long assetId, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.recordTrade(assetId);
+        }
+    }
+
+    @Test
+    void getTopK_IsExactWhileCountersSuffice() {
+        trade(1L, 5);
+        trade(2L, 9);
+        trade(3L, 2);
+
+        MostTradedAssets result = tracker.getTopK("1h", 2);
+
+        assertEquals(16L, result.getWindowTrades());
+        assertEquals(0L, result.getMaxError());
+        assertEquals(List.of(2L, 1L), result.getAssets().stream().map(HeavyHitter::getAssetId).toList());
+        assertEquals(9L, result.getAssets().get(0).getEstimatedTrades());
+        assertEquals(0L, result.getAssets().get(0).getMaxOvercount());
+    }
+
+    @Test
+    void getTopK_StaysWithinErrorBoundWhenCountersOverflow() {
+        Random random = new Random(7);
+        long[] exact = new long[1000];
+        for (int i = 0; i < 20_000; i++) {
+            // Three heavy assets plus a long tail of rarely traded ones.
+            long assetId = i % 4 != 3 ? i % 4 : 3 + random.nextInt(997);
+            exact[(int) assetId]++;
+            tracker.recordTrade(assetId);
+        }
+
+        MostTradedAssets result = tracker.getTopK("1h", 3);
+
+        assertEquals(10, tracker.getCounters());
+        assertTrue(result.getMaxError() <= 0.1 * result.getWindowTrades());
+        assertEquals(List.of(0L, 1L, 2L), result.getAssets().stream().map(HeavyHitter::getAssetId).sorted().toList());
+        for (HeavyHitter hitter : result.getAssets()) {
+            long trueCount = exact[hitter.getAssetId().intValue()];
+            assertTrue(hitter.getEstimatedTrades() >= trueCount);
+            assertTrue(hitter.getEstimatedTrades() - hitter.getMaxOvercount() <= trueCount);
+        }
+    }
+
+    @Test
+    void getTopK_ForgetsTradesThatLeftTheWindow() {
+        trade(1L, 10);
+        now.addAndGet(30 * MINUTE);
+        trade(2L, 3);
+        now.addAndGet(45 * MINUTE);
+
+        MostTradedAssets hour = tracker.getTopK("1h", 5);
+        assertEquals(List.of(2L), hour.getAssets().stream().map(HeavyHitter::getAssetId).toList());
+
+        MostTradedAssets day = tracker.getTopK("1d", 5);
+        assertEquals(List.of(1L, 2L), day.getAssets().stream().map(HeavyHitter::getAssetId).toList());
+    }
+
+    @Test
+    void getTopK_ServesCachedSnapshotWithinRefreshInterval() {
+        tracker = new HeavyHitterTracker(0.1, "1h", 12, MINUTE, now::get);
+        trade(1L, 1);
+        assertEquals(1L, tracker.getTopK("1h", 5).getWindowTrades());
+
+        trade(1L, 1);
+        assertEquals(1L, tracker.getTopK("1h", 5).getWindowTrades());
+
+        now.addAndGet(MINUTE);
+        assertEquals(2L, tracker.getTopK("1h", 5).getWindowTrades());
+    }
+
+    @Test
+    void getTopK_RejectsUnknownWindow() {
+        assertThrows(IllegalArgumentException.class, () -> tracker.getTopK("2h", 5));
+        assertThrows(IllegalArgumentException.class, () -> HeavyHitterTracker.parseMillis("1w"));
+        assertEquals(86_400_000L, HeavyHitterTracker.parseMillis("1d"));
+    }
+}
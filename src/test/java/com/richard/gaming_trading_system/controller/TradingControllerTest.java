@@ -1,13 +1,26 @@
 package com.richard.gaming_trading_system.controller;
 
+import com.richard.gaming_trading_system.dto.BatchTradeResponse;
 import com.richard.gaming_trading_system.dto.CreatePortfolioRequest;
+import com.richard.gaming_trading_system.dto.LeaderboardEntry;
+import com.richard.gaming_trading_system.dto.LeaderboardPage;
 import com.richard.gaming_trading_system.dto.TradeRequest;
 import com.richard.gaming_trading_system.dto.UserStatsResponse;
+import com.richard.gaming_trading_system.engine.TradeExecutionEngine;
+import com.richard.gaming_trading_system.events.EventBus;
+import com.richard.gaming_trading_system.exception.IdempotencyCacheFullException;
+import com.richard.gaming_trading_system.exception.IdempotencyKeyReusedException;
+import com.richard.gaming_trading_system.idempotency.IdempotencyCache;
+import com.richard.gaming_trading_system.metrics.MetricsExporter;
 import com.richard.gaming_trading_system.model.*;
+import com.richard.gaming_trading_system.orderbook.MatchingEngine;
+import com.richard.gaming_trading_system.profiling.FlightRecordingService;
+import com.richard.gaming_trading_system.service.BatchTradeService;
 import com.richard.gaming_trading_system.service.PortfolioAnalyticsService;
 import com.richard.gaming_trading_system.service.PortfolioService;
 import com.richard.gaming_trading_system.service.RankingService;
 import com.richard.gaming_trading_system.service.UserService;
+import com.richard.gaming_trading_system.stream.MarketStreamHub;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -18,6 +31,7 @@ import org.springframework.http.ResponseEntity;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,6 +50,30 @@ class TradingControllerTest {
     @Mock
     private PortfolioAnalyticsService portfolioAnalyticsService;
 
+    @Mock
+    private TradeExecutionEngine tradeExecutionEngine;
+
+    @Mock
+    private MarketStreamHub marketStreamHub;
+
+    @Mock
+    private MetricsExporter metricsExporter;
+
+    @Mock
+    private FlightRecordingService flightRecordingService;
+
+    @Mock
+    private EventBus eventBus;
+
+    @Mock
+    private BatchTradeService batchTradeService;
+
+    @Mock
+    private IdempotencyCache idempotencyCache;
+
+    @Mock
+    private MatchingEngine matchingEngine;
+
     @InjectMocks
     private TradingController tradingController;
 
@@ -106,8 +144,12 @@ class TradingControllerTest {
         when(portfolioService.getPortfolioById(anyLong())).thenReturn(portfolio);
         when(portfolioService.getPortfoliosByUserId(anyLong())).thenReturn(Collections.singletonList(portfolio));
         when(portfolioService.executeTrade(anyLong(), anyLong(), any(), any(), any())).thenReturn(trade);
-        when(rankingService.getLeaderboard()).thenReturn(Collections.singletonList(user));
-        when(rankingService.getTopUsers(anyInt())).thenReturn(Collections.singletonList(user));
+        when(tradeExecutionEngine.execute(anyLong(), any())).thenAnswer(i -> ((Supplier<?>) i.getArgument(1)).get());
+        LeaderboardEntry topEntry = new LeaderboardEntry(1L, "testUser", 100, 1, 1);
+        when(rankingService.getLeaderboard()).thenReturn(Collections.singletonList(topEntry));
+        when(rankingService.getTopUsers(anyInt())).thenReturn(Collections.singletonList(topEntry));
+        when(rankingService.getLeaderboardPage(anyInt(), anyInt())).thenReturn(new LeaderboardPage(
+            Collections.singletonList(new LeaderboardEntry(1L, "testUser", 100, 1, 1)), null, 1));
 
         // Mock analytics service responses
         when(portfolioAnalyticsService.getMostTradedAssets()).thenReturn(mostTradedAssets);
@@ -172,6 +214,15 @@ class TradingControllerTest {
         verify(userService).createUser("testUser");
     }
 
+    @Test
+    void createUser_BadRequestWhenUsernameCannotBeJournaled() {
+        when(userService.createUser("x")).thenThrow(new IllegalArgumentException("username must be at most 94 bytes"));
+
+        ResponseEntity<User> response = tradingController.createUser("x");
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+
     @Test
     void getUserStats() {
         ResponseEntity<UserStatsResponse> response = tradingController.getUserStats(1L);
@@ -203,10 +254,11 @@ class TradingControllerTest {
         request.setPrice(new BigDecimal("10.00"));
         request.setTradeType(TradeType.BUY);
         
-        ResponseEntity<Trade> response = tradingController.executeTrade(request);
+        ResponseEntity<Trade> response = tradingController.executeTrade(request, null);
         
         assertTrue(response.getStatusCode().is2xxSuccessful());
         assertEquals(trade, response.getBody());
+        verify(tradeExecutionEngine).execute(eq(portfolio.getUserId()), any());
         verify(portfolioService).executeTrade(
             request.getPortfolioId(),
             request.getAssetId(),
@@ -215,4 +267,103 @@ class TradingControllerTest {
             request.getTradeType()
         );
     }
-} 
\ No newline at end of file
+
+    @Test
+    void executeTrade_WithIdempotencyKeyGoesThroughCache() {
+        TradeRequest request = new TradeRequest();
+        request.setPortfolioId(1L);
+        when(idempotencyCache.execute(eq("retry-1"), eq(request), any())).thenReturn(trade);
+
+        ResponseEntity<Trade> response = tradingController.executeTrade(request, "retry-1");
+
+        assertEquals(trade, response.getBody());
+        verify(portfolioService, never()).executeTrade(anyLong(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void executeTrade_RejectsReusedOrBlankIdempotencyKey() {
+        TradeRequest request = new TradeRequest();
+        when(idempotencyCache.execute(eq("retry-1"), eq(request), any()))
+            .thenThrow(new IdempotencyKeyReusedException("reused"));
+
+        assertEquals(422, tradingController.executeTrade(request, "retry-1").getStatusCode().value());
+        assertEquals(400, tradingController.executeTrade(request, " ").getStatusCode().value());
+    }
+
+    @Test
+    void executeTrade_ServiceUnavailableWhenIdempotencyCacheIsFull() {
+        TradeRequest request = new TradeRequest();
+        when(idempotencyCache.execute(eq("retry-1"), eq(request), any()))
+            .thenThrow(new IdempotencyCacheFullException("full"));
+        when(idempotencyCache.getRetryAfterSeconds()).thenReturn(1L);
+
+        ResponseEntity<Trade> response = tradingController.executeTrade(request, "retry-1");
+
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+    }
+
+    @Test
+    void cancelOrder_NotFoundWhenNotResting() {
+        when(matchingEngine.cancelOrder(1L, 5L)).thenReturn(Optional.empty());
+
+        assertEquals(404, tradingController.cancelOrder(1L, 5L).getStatusCode().value());
+    }
+
+    @Test
+    void getLeaderboardPage() {
+        ResponseEntity<LeaderboardPage> response = tradingController.getLeaderboard(0, 50);
+
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getEntries().size());
+        verify(rankingService).getLeaderboardPage(0, 50);
+    }
+
+    @Test
+    void getMetrics() {
+        when(metricsExporter.scrape()).thenReturn("trading_trades_total 3\n");
+
+        ResponseEntity<String> response = tradingController.getMetrics();
+
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        assertEquals("trading_trades_total 3\n", response.getBody());
+    }
+
+    @Test
+    void dumpRecording_NotFoundBeforeStart() {
+        when(flightRecordingService.dump()).thenReturn(Optional.empty());
+
+        assertEquals(404, tradingController.dumpRecording().getStatusCode().value());
+    }
+
+    @Test
+    void dumpRecording_ReturnsJfrAttachment() {
+        byte[] data = {1, 2, 3};
+        when(flightRecordingService.dump()).thenReturn(Optional.of(data));
+
+        ResponseEntity<byte[]> response = tradingController.dumpRecording();
+
+        assertArrayEquals(data, response.getBody());
+        assertTrue(response.getHeaders().getContentDisposition().isAttachment());
+    }
+
+    @Test
+    void executeTradeBatch_RejectsOversizedBatch() {
+        when(batchTradeService.getMaxBatchSize()).thenReturn(1);
+        List<TradeRequest> requests = List.of(new TradeRequest(), new TradeRequest());
+
+        assertEquals(400, tradingController.executeTradeBatch(requests, false).getStatusCode().value());
+        verify(batchTradeService, never()).executeBatch(any(), anyBoolean());
+    }
+
+    @Test
+    void executeTradeBatch_DelegatesToService() {
+        List<TradeRequest> requests = List.of(new TradeRequest());
+        BatchTradeResponse expected = new BatchTradeResponse(true, 1, 0, List.of());
+        when(batchTradeService.getMaxBatchSize()).thenReturn(1000);
+        when(batchTradeService.executeBatch(requests, true)).thenReturn(expected);
+
+        assertSame(expected, tradingController.executeTradeBatch(requests, true).getBody());
+    }
+}
@@ -0,0 +1,178 @@
+package com.richard.gaming_trading_system.engine;
+
+import com.richard.gaming_trading_system.dto.EngineShardStats;
+import com.richard.gaming_trading_system.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeExecutionEngineTest {
+
+    private TradeExecutionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TradeExecutionEngine(4, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void execute_RunsSameUserOnOneThreadInOrder() throws Exception {
+        List<Integer> seen = new ArrayList<>();
+        ConcurrentHashMap<String, Boolean> threads = new ConcurrentHashMap<>();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int value = i;
+            futures.add(engine.submit(7L, () -> {
+                threads.put(Thread.currentThread().getName(), true);
+                seen.add(value); // unsynchronized: safe only because one shard owns user 7
+                return value;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, threads.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, seen.get(i));
+        }
+    }
+
+    @Test
+    void execute_KeepsConcurrentUpdatesOfOneUserConsistent() throws Exception {
+        int[] balance = new int[1];
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8000; i++) {
+            callers.submit(() -> engine.execute(42L, () -> ++balance[0]));
+        }
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8000, engine.execute(42L, () -> balance[0]));
+    }
+
+    @Test
+    void execute_RethrowsTaskException() {
+        assertThrows(InsufficientFundsException.class, () -> engine.execute(1L, () -> {
+            throw new InsufficientFundsException("no gems");
+        }));
+    }
+
+    @Test
+    void execute_RunsInlineWhenCalledFromOwnShard() {
+        int result = engine.execute(3L, () -> engine.execute(3L, () -> 5));
+
+        assertEquals(5, result);
+    }
+
+    @Test
+    void getShardStats_ReportsCompletedWork() {
+        for (long userId = 0; userId < 100; userId++) {
+            engine.execute(userId, () -> null);
+        }
+
+        List<EngineShardStats> stats = engine.getShardStats();
+
+        assertEquals(4, stats.size());
+        assertEquals(100L, stats.stream().mapToLong(EngineShardStats::getCompletedTasks).sum());
+        assertTrue(stats.stream().allMatch(s -> s.getQueueDepth() >= 0));
+    }
+
+    @Test
+    void executeExclusive_PausesEveryInvolvedShard() throws Exception {
+        long first = 1L;
+        long second = 2L;
+        while (engine.shardOf(second) == engine.shardOf(first)) {
+            second++;
+        }
+        long[] users = {first, second};
+        CompletableFuture<?>[] blocked = new CompletableFuture<?>[1];
+
+        String ranOn = engine.executeExclusive(users, () -> {
+            blocked[0] = engine.submit(users[1], () -> true);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertFalse(blocked[0].isDone(), "shard ran work while paused");
+            return Thread.currentThread().getName();
+        });
+
+        assertFalse(ranOn.startsWith("trade-shard-"));
+        assertEquals(true, blocked[0].get(5, TimeUnit.SECONDS));
+        // A single shard needs no pausing; the task just runs there
+        assertEquals("trade-shard-" + engine.shardOf(first),
+                engine.executeExclusive(new long[] {first, first}, () -> Thread.currentThread().getName()));
+    }
+
+    @Test
+    void executeExclusive_RunsOverDisjointShardsInParallel() throws Exception {
+        long[] byShard = new long[4];
+        for (long userId = 1; byShard[0] == 0 || byShard[1] == 0 || byShard[2] == 0 || byShard[3] == 0; userId++) {
+            if (byShard[engine.shardOf(userId)] == 0) {
+                byShard[engine.shardOf(userId)] = userId;
+            }
+        }
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // Each task only finishes once the other is running too, which a global lock would never allow
+            List<CompletableFuture<Boolean>> runs = List.of(
+                    CompletableFuture.supplyAsync(() -> engine.executeExclusive(new long[] {byShard[1], byShard[0]},
+                            () -> meet(bothRunning)), callers),
+                    CompletableFuture.supplyAsync(() -> engine.executeExclusive(new long[] {byShard[3], byShard[2]},
+                            () -> meet(bothRunning)), callers));
+            for (CompletableFuture<Boolean> run : runs) {
+                assertTrue(run.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void executeExclusive_OverlappingRunsInEitherOrderNeverDeadlock() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Integer>> runs = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                long first = 1 + i % 7;
+                long second = 1 + (i * 3 + 1) % 7;
+                long[] users = i % 2 == 0 ? new long[] {first, second} : new long[] {second, first};
+                runs.add(CompletableFuture.supplyAsync(() -> engine.executeExclusive(users, () -> 1), callers));
+            }
+            int completed = 0;
+            for (CompletableFuture<Integer> run : runs) {
+                completed += run.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(2000, completed);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static boolean meet(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
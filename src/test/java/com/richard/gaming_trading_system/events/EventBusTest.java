@@ -0,0 +1,144 @@
+package com.richard.gaming_trading_system.events;
+
+import com.richard.gaming_trading_system.dto.EventSubscriberStats;
+import com.richard.gaming_trading_system.metrics.MetricsExporter;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.Quantity;
+import com.richard.gaming_trading_system.model.TradeType;
+import com.richard.gaming_trading_system.repository.TradeAggregates;
+import com.richard.gaming_trading_system.repository.TradeRepository;
+import com.richard.gaming_trading_system.service.RankingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventBusTest {
+
+    private EventBus eventBus;
+
+    @AfterEach
+    void tearDown() {
+        if (eventBus != null) {
+            eventBus.shutdown();
+        }
+    }
+
+    @Test
+    void publish_DeliversInOrderInBatchesAndReportsLag() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        eventBus = new EventBus(List.of(subscriber), 1024, 64);
+
+        eventBus.publish(new GemsChanged(0L, 0));
+        assertTrue(subscriber.blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 100; i++) {
+            eventBus.publish(new GemsChanged(i, i));
+        }
+        eventBus.publish(new PriceTicked(null)); // not accepted, never queued
+
+        EventSubscriberStats blocked = eventBus.getSubscriberStats().get(0);
+        assertEquals("recording", blocked.getSubscriber());
+        assertEquals(101L, blocked.getLagEvents());
+        assertEquals(0L, blocked.getProcessedEvents());
+
+        subscriber.release.countDown();
+        assertTrue(eventBus.awaitDrained(5_000));
+
+        assertEquals(101, subscriber.userIds.size());
+        for (int i = 0; i <= 100; i++) {
+            assertEquals(i, subscriber.userIds.get(i));
+        }
+        // One batch for the first event, then at most 64 per batch for the 100 queued behind it
+        assertEquals(3, subscriber.batchSizes.size());
+        assertEquals(List.of(1, 64, 36), subscriber.batchSizes);
+        EventSubscriberStats drained = eventBus.getSubscriberStats().get(0);
+        assertEquals(0L, drained.getLagEvents());
+        assertEquals(101L, drained.getProcessedEvents());
+        assertEquals(3L, drained.getBatches());
+    }
+
+    @Test
+    void publish_KeepsDeliveringAfterSubscriberFailure() throws InterruptedException {
+        EventSubscriber failing = mock(EventSubscriber.class);
+        when(failing.getName()).thenReturn("failing");
+        when(failing.accepts(any())).thenReturn(true);
+        doThrow(new IllegalStateException("boom")).doNothing().when(failing).onEvents(anyList());
+        eventBus = new EventBus(List.of(failing), 16, 16);
+
+        eventBus.publish(new GemsChanged(1L, 1));
+        assertTrue(eventBus.awaitDrained(5_000));
+        eventBus.publish(new GemsChanged(1L, 2));
+        assertTrue(eventBus.awaitDrained(5_000));
+
+        verify(failing, times(2)).onEvents(anyList());
+        assertEquals(1L, eventBus.getSubscriberStats().get(0).getFailedBatches());
+        assertTrue(new MetricsExporter(List.of(eventBus)).scrape()
+                .contains("trading_event_bus_processed_total{subscriber=\"failing\"} 2\n"));
+    }
+
+    @Test
+    void rankingSubscriber_CoalescesToLatestBalancePerUser() {
+        RankingService rankingService = mock(RankingService.class);
+        RankingSubscriber subscriber = new RankingSubscriber(rankingService);
+
+        subscriber.onEvents(List.of(new GemsChanged(1L, 10), new GemsChanged(2L, 5), new GemsChanged(1L, 20)));
+
+        verify(rankingService).updateUserRank(1L, 20);
+        verify(rankingService).updateUserRank(2L, 5);
+        verifyNoMoreInteractions(rankingService);
+    }
+
+    @Test
+    void analyticsSubscriber_AggregatesTrades() {
+        TradeRepository tradeRepository = new TradeRepository();
+        AnalyticsSubscriber subscriber = new AnalyticsSubscriber(tradeRepository);
+        LocalDateTime now = LocalDateTime.now();
+
+        subscriber.onEvents(List.of(
+            new TradeExecuted(1L, 10L, 7L, TradeType.BUY, Money.ofWhole(5), Quantity.ofWhole(4), now),
+            new TradeExecuted(1L, 10L, 7L, TradeType.SELL, Money.ofWhole(6), Quantity.ofWhole(1), now)));
+
+        TradeAggregates aggregates = tradeRepository.getAggregates();
+        assertEquals(Map.of(7L, 2L), aggregates.getTradeCountByAsset());
+        assertEquals(Map.of(7L, 5L), aggregates.getVolumeByAsset());
+    }
+
+    private static final class RecordingSubscriber implements EventSubscriber {
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<Long> userIds = new ArrayList<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        @Override
+        public boolean accepts(DomainEvent event) {
+            return event instanceof GemsChanged;
+        }
+
+        @Override
+        public void onEvents(List<DomainEvent> batch) {
+            batchSizes.add(batch.size());
+            for (DomainEvent event : batch) {
+                userIds.add(((GemsChanged) event).getUserId());
+            }
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.richard.gaming_trading_system.idempotency;
+
+import com.richard.gaming_trading_system.dto.IdempotencyStats;
+import com.richard.gaming_trading_system.dto.TradeRequest;
+import com.richard.gaming_trading_system.exception.IdempotencyCacheFullException;
+import com.richard.gaming_trading_system.exception.IdempotencyKeyReusedException;
+import com.richard.gaming_trading_system.exception.InsufficientFundsException;
+import com.richard.gaming_trading_system.model.Trade;
+import com.richard.gaming_trading_system.model.TradeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private static final long TTL = TimeUnit.SECONDS.toNanos(10);
+    private static final long TICK = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new IdempotencyCache(1000, TTL, TICK, 4, clock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void retryReturnsOriginalTradeWithoutExecutingAgain() {
+        TradeRequest request = request(new BigDecimal("5"));
+
+        Trade first = cache.execute("k1", request, this::newTrade);
+        Trade retried = cache.execute("k1", request(new BigDecimal("5.00")), this::newTrade);
+
+        assertSame(first, retried);
+        assertEquals(1, executions.get());
+        IdempotencyStats stats = cache.getStats();
+        assertEquals(1L, stats.getHits());
+        assertEquals(1L, stats.getMisses());
+        assertEquals(1L, stats.getEntries());
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForInFlightTrade() throws Exception {
+        TradeRequest request = request(new BigDecimal("5"));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Trade> slowTrade = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return newTrade();
+        };
+
+        CompletableFuture<Trade> original = CompletableFuture.supplyAsync(() -> cache.execute("k1", request, slowTrade));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Trade> duplicate = CompletableFuture.supplyAsync(() -> cache.execute("k1", request, this::newTrade));
+        while (cache.getStats().getInFlightWaits() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertSame(original.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void rejectedTradeIsNotRemembered() {
+        TradeRequest request = request(new BigDecimal("5"));
+
+        assertThrows(InsufficientFundsException.class, () -> cache.execute("k1", request, () -> {
+            throw new InsufficientFundsException("Insufficient funds");
+        }));
+        cache.execute("k1", request, this::newTrade);
+
+        assertEquals(1, executions.get());
+        assertEquals(2L, cache.getStats().getMisses());
+        assertEquals(1L, cache.size());
+    }
+
+    @Test
+    void reusingKeyForDifferentTradeIsRejected() {
+        cache.execute("k1", request(new BigDecimal("5")), this::newTrade);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> cache.execute("k1", request(new BigDecimal("6")), this::newTrade));
+        assertEquals(1L, cache.getStats().getKeyReuses());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void keysAreScopedToPortfolio() {
+        TradeRequest other = request(new BigDecimal("5"));
+        other.setPortfolioId(2L);
+
+        cache.execute("k1", request(new BigDecimal("5")), this::newTrade);
+        cache.execute("k1", other, this::newTrade);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void timingWheelEvictsExpiredKeys() {
+        TradeRequest request = request(new BigDecimal("5"));
+        cache.execute("k1", request, this::newTrade);
+
+        clock.addAndGet(TTL / 2);
+        cache.expire(clock.get());
+        assertEquals(1L, cache.size());
+
+        clock.addAndGet(TTL / 2 + 2 * TICK);
+        cache.expire(clock.get());
+        assertEquals(0L, cache.size());
+        assertEquals(1L, cache.getStats().getExpirations());
+
+        cache.execute("k1", request, this::newTrade);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void fullCacheRefusesNewKeysWithoutTrading() {
+        cache.shutdown();
+        cache = new IdempotencyCache(1, TTL, TICK, 1, clock::get);
+        TradeRequest request = request(new BigDecimal("5"));
+
+        Trade first = cache.execute("k1", request, this::newTrade);
+        assertThrows(IdempotencyCacheFullException.class, () -> cache.execute("k2", request, this::newTrade));
+        assertThrows(IdempotencyCacheFullException.class, () -> cache.execute("k2", request, this::newTrade));
+
+        assertSame(first, cache.execute("k1", request, this::newTrade));
+        assertEquals(1, executions.get());
+        assertEquals(2L, cache.getStats().getOverflows());
+        assertEquals(1L, cache.getRetryAfterSeconds());
+
+        clock.addAndGet(TTL + 2 * TICK);
+        cache.expire(clock.get());
+        cache.execute("k2", request, this::newTrade);
+        assertEquals(2, executions.get());
+    }
+
+    private Trade newTrade() {
+        executions.incrementAndGet();
+        return new Trade();
+    }
+
+    private static TradeRequest request(BigDecimal quantity) {
+        TradeRequest request = new TradeRequest();
+        request.setPortfolioId(1L);
+        request.setAssetId(1L);
+        request.setQuantity(quantity);
+        request.setPrice(new BigDecimal("10.00"));
+        request.setTradeType(TradeType.BUY);
+        return request;
+    }
+}
@@ -0,0 +1,100 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import com.richard.gaming_trading_system.dto.Candle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private CandleStore candleStore;
+
+    @BeforeEach
+    void setUp() {
+        candleStore = new CandleStore(4);
+    }
+
+    @Test
+    void recordTrade_BuildsOhlcvAndVwap() {
+        candleStore.recordTrade(1L, new BigDecimal("10.00"), new BigDecimal("2"), START.plusSeconds(1));
+        candleStore.recordTrade(1L, new BigDecimal("12.00"), new BigDecimal("1"), START.plusSeconds(20));
+        candleStore.recordPriceTick(1L, new BigDecimal("8.50"), START.plusSeconds(40));
+        candleStore.recordTrade(1L, new BigDecimal("11.00"), new BigDecimal("1"), START.plusSeconds(59));
+
+        List<Candle> candles = candleStore.getCandles(1L, CandleResolution.ONE_MINUTE, 10);
+
+        assertEquals(1, candles.size());
+        Candle candle = candles.get(0);
+        assertEquals(START, candle.getOpenTime());
+        assertEquals(0, new BigDecimal("10").compareTo(candle.getOpen()));
+        assertEquals(0, new BigDecimal("12").compareTo(candle.getHigh()));
+        assertEquals(0, new BigDecimal("8.5").compareTo(candle.getLow()));
+        assertEquals(0, new BigDecimal("11").compareTo(candle.getClose()));
+        assertEquals(0, new BigDecimal("4").compareTo(candle.getVolume()));
+        assertEquals(new BigDecimal("10.7500"), candle.getVwap()); // (20 + 12 + 11) / 4
+    }
+
+    @Test
+    void getCandles_ReturnsNewestBucketsOldestFirstAcrossResolutions() {
+        for (int minute = 0; minute < 7; minute++) {
+            candleStore.recordTrade(1L, BigDecimal.valueOf(100 + minute), BigDecimal.ONE, START.plusMinutes(minute));
+        }
+
+        List<Candle> minutes = candleStore.getCandles(1L, CandleResolution.ONE_MINUTE, 3);
+        assertEquals(List.of(START.plusMinutes(4), START.plusMinutes(5), START.plusMinutes(6)),
+                minutes.stream().map(Candle::getOpenTime).toList());
+
+        // The ring only holds four buckets.
+        assertEquals(4, candleStore.getCandles(1L, CandleResolution.ONE_MINUTE, 500).size());
+
+        List<Candle> fiveMinutes = candleStore.getCandles(1L, CandleResolution.FIVE_MINUTES, 10);
+        assertEquals(2, fiveMinutes.size());
+        assertEquals(0, new BigDecimal("5").compareTo(fiveMinutes.get(0).getVolume()));
+        assertEquals(0, new BigDecimal("104").compareTo(fiveMinutes.get(0).getClose()));
+    }
+
+    @Test
+    void recordTrade_UpdatesLateBucketAndDropsExpiredOnes() {
+        candleStore.recordTrade(1L, new BigDecimal("10"), BigDecimal.ONE, START.plusMinutes(5));
+        candleStore.recordTrade(1L, new BigDecimal("20"), BigDecimal.ONE, START.plusMinutes(3));
+        candleStore.recordTrade(1L, new BigDecimal("30"), BigDecimal.ONE, START);
+
+        List<Candle> candles = candleStore.getCandles(1L, CandleResolution.ONE_MINUTE, 10);
+
+        assertEquals(List.of(START.plusMinutes(3), START.plusMinutes(5)),
+                candles.stream().map(Candle::getOpenTime).toList());
+        assertTrue(candleStore.getCandles(2L, CandleResolution.ONE_MINUTE, 10).isEmpty());
+    }
+
+    @Test
+    void recordTrade_GrowsRingUpToCapacityWithoutLosingLiveBuckets() {
+        CandleStore store = new CandleStore(100);
+        for (int minute = 0; minute < 150; minute += 3) {
+            store.recordTrade(1L, BigDecimal.valueOf(minute + 1), BigDecimal.ONE, START.plusMinutes(minute));
+        }
+
+        List<Candle> candles = store.getCandles(1L, CandleResolution.ONE_MINUTE, 500);
+
+        // Buckets 48..147 are the last 100 minutes.
+        assertEquals(34, candles.size());
+        assertEquals(START.plusMinutes(48), candles.get(0).getOpenTime());
+        assertEquals(START.plusMinutes(147), candles.get(33).getOpenTime());
+    }
+
+    @Test
+    void getCandles_PriceTicksOnlyHaveNoVwap() {
+        candleStore.recordPriceTick(1L, new BigDecimal("5.25"), START);
+
+        Candle candle = candleStore.getCandles(1L, CandleResolution.ONE_HOUR, 1).get(0);
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(candle.getVolume()));
+        assertNull(candle.getVwap());
+    }
+}
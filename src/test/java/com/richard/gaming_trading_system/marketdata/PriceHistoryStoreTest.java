@@ -0,0 +1,142 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import com.richard.gaming_trading_system.dto.PricePoint;
+import com.richard.gaming_trading_system.model.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceHistoryStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+    private static final long START_MILLIS = CandleStore.toEpochMillis(START);
+
+    @TempDir
+    Path tempDir;
+
+    private static List<long[]> read(PriceHistorySeries series, long from, long to) {
+        List<long[]> points = new ArrayList<>();
+        series.read(from, to, (millis, value) -> points.add(new long[] {millis, value}));
+        return points;
+    }
+
+    @Test
+    void append_RoundTripsIrregularPointsAcrossBlocks() {
+        PriceHistorySeries series = new PriceHistorySeries(64, null);
+        Random random = new Random(42);
+        List<long[]> expected = new ArrayList<>();
+        long millis = START_MILLIS;
+        long price = 10_000L;
+        for (int i = 0; i < 1000; i++) {
+            // Mix of steady ticks, jitter, long gaps, repeated prices and large jumps.
+            millis += switch (i % 7) {
+                case 0 -> 1000L + random.nextInt(20);
+                case 1 -> 1000L;
+                case 2 -> random.nextInt(5_000_000);
+                case 3 -> 0L;
+                default -> 1000L;
+            };
+            price = switch (i % 5) {
+                case 0 -> price;
+                case 1 -> Math.max(price + random.nextInt(401) - 200, 1L);
+                case 2 -> random.nextLong() & Long.MAX_VALUE;
+                default -> Math.max(price + random.nextInt(11) - 5, 1L);
+            };
+            series.append(millis, price);
+            expected.add(new long[] {millis, price});
+        }
+
+        List<long[]> actual = read(series, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "point " + i);
+        }
+    }
+
+    @Test
+    void getHistory_ReturnsHalfOpenRangeOldestFirstUpToLimit() {
+        PriceHistoryStore store = new PriceHistoryStore(true, 16, false, null, 0);
+        for (int second = 0; second < 100; second++) {
+            store.append(1L, START_MILLIS + second * 1000L, Money.ofWhole(10) + second * 100L);
+        }
+
+        List<PricePoint> range = store.getHistory(1L, START.plusSeconds(10), START.plusSeconds(40), 1000);
+        assertEquals(30, range.size());
+        assertEquals(START.plusSeconds(10), range.get(0).getTimestamp());
+        assertEquals(new BigDecimal("10.10"), range.get(0).getPrice());
+        assertEquals(START.plusSeconds(39), range.get(29).getTimestamp());
+
+        List<PricePoint> limited = store.getHistory(1L, START.plusSeconds(95), null, 3);
+        assertEquals(List.of(START.plusSeconds(95), START.plusSeconds(96), START.plusSeconds(97)),
+                limited.stream().map(PricePoint::getTimestamp).toList());
+
+        assertTrue(store.getHistory(2L, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void append_SteadyOneSecondTicksCostUnderTwoBytesAPoint() {
+        PriceHistorySeries series = new PriceHistorySeries(1024, null);
+        Random random = new Random(7);
+        long price = 12_345L;
+        int points = 1024 * 50;
+        for (int i = 0; i < points; i++) {
+            if (random.nextInt(10) == 0) {
+                price += random.nextInt(21) - 10;
+            }
+            series.append(START_MILLIS + i * 1000L, price);
+        }
+
+        assertEquals(points, series.pointCount());
+        assertTrue(series.sealedBytes() < 2L * points, "bytes: " + series.sealedBytes());
+    }
+
+    @Test
+    void append_DropsPointsOlderThanTheNewest() {
+        PriceHistorySeries series = new PriceHistorySeries(16, null);
+
+        assertTrue(series.append(START_MILLIS + 1000L, 5L));
+        assertFalse(series.append(START_MILLIS, 6L));
+
+        assertEquals(1, read(series, Long.MIN_VALUE, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    void spill_MovesSealedBlocksToMappedSegments() throws IOException {
+        Path dir = tempDir.resolve("history");
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("history-000000.seg"), new byte[] {1, 2, 3});
+        PriceHistoryStore store = new PriceHistoryStore(true, 16, true, dir.toString(), 4096);
+        store.open();
+
+        for (int second = 0; second < 200; second++) {
+            store.append(1L, START_MILLIS + second * 1000L, Money.ofWhole(5) + second % 3 * 100L);
+        }
+
+        assertEquals(store.getSeries(1L).sealedBytes(), store.getSpill().getSpilledBytes());
+        assertTrue(store.getSpill().getSpilledBytes() > 0);
+        assertEquals(4096L, Files.size(dir.resolve("history-000000.seg")));
+        List<PricePoint> history = store.getHistory(1L, null, null, 1000);
+        assertEquals(200, history.size());
+        assertEquals(new BigDecimal("5.01"), history.get(199).getPrice()); // 5.00 + 0.01 * (199 % 3)
+    }
+
+    @Test
+    void getHistory_DisabledStoreKeepsNothing() {
+        PriceHistoryStore store = new PriceHistoryStore(false, 16, false, null, 0);
+
+        store.append(1L, START_MILLIS, 100L);
+
+        assertTrue(store.getHistory(1L, null, null, 10).isEmpty());
+    }
+}
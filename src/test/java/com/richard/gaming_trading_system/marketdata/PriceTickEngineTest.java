@@ -0,0 +1,155 @@
+package com.richard.gaming_trading_system.marketdata;
+
+import com.richard.gaming_trading_system.dto.PricePoint;
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.PortfolioAsset;
+import com.richard.gaming_trading_system.repository.AssetRepository;
+import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTickEngineTest {
+
+    private AssetRepository assetRepository;
+    private PortfolioRepository portfolioRepository;
+    private CandleStore candleStore;
+    private PriceHistoryStore priceHistory;
+    private PriceTickEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        assetRepository = new AssetRepository();
+        candleStore = new CandleStore(10);
+        priceHistory = new PriceHistoryStore(true, 16, false, null, 0);
+        // A tiny chunk size forces the work to be split across the pool.
+        portfolioRepository = new PortfolioRepository();
+        engine = new PriceTickEngine(assetRepository, portfolioRepository, candleStore, priceHistory, 0.05, 4, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    private Asset asset(String symbol, String price) {
+        return assetRepository.save(new Asset(null, symbol, symbol, new BigDecimal(price)));
+    }
+
+    @Test
+    void tick_MovesEveryPriceWithinMaxChange() {
+        for (int i = 0; i < 100; i++) {
+            asset("A" + i, "100.00");
+        }
+
+        PriceSnapshot snapshot = engine.tick();
+
+        assertEquals(1L, snapshot.getVersion());
+        assertEquals(100, snapshot.size());
+        for (Asset asset : assetRepository.findAll()) {
+            BigDecimal price = snapshot.getPrice(asset.getAssetId());
+            assertTrue(price.compareTo(new BigDecimal("95.00")) >= 0);
+            assertTrue(price.compareTo(new BigDecimal("105.00")) <= 0);
+            assertEquals(price, asset.getCurrentPrice());
+            assertTrue(asset.getCurrentPrice().scale() <= Money.SCALE);
+        }
+    }
+
+    @Test
+    void tick_KeepsMinimumPrice() {
+        Asset penny = asset("PENNY", "0.01");
+
+        for (int i = 0; i < 20; i++) {
+            engine.tick();
+        }
+
+        assertTrue(penny.getCurrentPrice().compareTo(new BigDecimal("0.01")) >= 0);
+    }
+
+    @Test
+    void tick_PublishesNewSnapshotAndLeavesPreviousUntouched() {
+        Asset gem = asset("GEM", "100.123");
+        PriceSnapshot first = engine.tick();
+        long firstPrice = first.priceAt(0);
+
+        PriceSnapshot second = engine.tick();
+
+        assertNotSame(first, second);
+        assertEquals(2L, second.getVersion());
+        assertEquals(firstPrice, first.priceAt(0));
+        assertSame(second, engine.getSnapshot());
+        assertEquals(second.getPrice(gem.getAssetId()), gem.getCurrentPrice());
+        assertNull(second.getPrice(99L));
+    }
+
+    @Test
+    void tick_KeepsFourDecimalPrices() {
+        engine.shutdown();
+        engine = new PriceTickEngine(assetRepository, portfolioRepository, candleStore, priceHistory, 0.0, 4, 8);
+        Asset gem = asset("GEM", "100.1234");
+
+        PriceSnapshot snapshot = engine.tick();
+
+        assertEquals(Money.of(new BigDecimal("100.1234")), snapshot.priceAt(0));
+        assertEquals(new BigDecimal("100.1234"), snapshot.getPrice(gem.getAssetId()));
+        assertEquals(new BigDecimal("100.1234"), priceHistory.getHistory(gem.getAssetId(), null, null, 1).get(0).getPrice());
+    }
+
+    @Test
+    void tick_PicksUpAssetsCreatedSinceLastTick() {
+        asset("GEM", "10.00");
+        engine.tick();
+        Asset added = asset("NEW", "20.00");
+
+        PriceSnapshot snapshot = engine.tick();
+
+        assertEquals(2, snapshot.size());
+        assertTrue(snapshot.indexOf(added.getAssetId()) >= 0);
+    }
+
+    @Test
+    void tick_FeedsCandles() {
+        Asset gem = asset("GEM", "10.00");
+
+        engine.tick();
+
+        assertEquals(1, candleStore.getCandles(gem.getAssetId(), CandleResolution.ONE_MINUTE, 5).size());
+    }
+
+    @Test
+    void tick_AppendsEveryTickToHistory() {
+        Asset gem = asset("GEM", "10.00");
+
+        for (int i = 0; i < 40; i++) {
+            engine.tick();
+        }
+
+        List<PricePoint> history = priceHistory.getHistory(gem.getAssetId(), null, null, 100);
+        assertEquals(40, history.size());
+        assertEquals(0, history.get(39).getPrice().compareTo(gem.getCurrentPrice()));
+    }
+
+    @Test
+    void tick_RevaluesPortfoliosHoldingChangedAssets() {
+        Asset gem = asset("GEM", "10.00");
+        Portfolio portfolio = new Portfolio(null, 1L, "Main");
+        PortfolioAsset holding = new PortfolioAsset(null, gem.getAssetId(), new BigDecimal("3"), new BigDecimal("9.00"));
+        holding.setAsset(gem);
+        portfolio.getAssets().add(holding);
+        portfolioRepository.save(portfolio);
+
+        for (int i = 0; i < 5; i++) {
+            engine.tick();
+        }
+
+        BigDecimal expected = gem.getCurrentPrice().multiply(new BigDecimal("3"));
+        assertEquals(0, expected.compareTo(portfolioRepository.getValuation().getValue(portfolio.getPortfolioId())));
+    }
+}
@@ -0,0 +1,92 @@
+package com.richard.gaming_trading_system.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void getValueAtQuantile_WithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(50_000_000, snapshot.getValueAtQuantile(0.5), 50_000_000 * 0.032);
+        assertEquals(99_000_000, snapshot.getValueAtQuantile(0.99), 99_000_000 * 0.032);
+        assertEquals(100_000_000, snapshot.getValueAtQuantile(1.0));
+        assertEquals(100_000_000, snapshot.getMax());
+        assertEquals(100_000L * 100_001 / 2 * 1_000, snapshot.getSum());
+    }
+
+    @Test
+    void upperBound_CoversEveryValueOfItsBucket() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong(LatencyHistogram.MAX_VALUE) >>> random.nextInt(42);
+            long bound = LatencyHistogram.upperBound(LatencyHistogram.indexOf(value));
+            assertTrue(bound >= value, "bound below value " + value);
+            assertTrue(bound - value <= value / 32 + 1, "bound too loose for " + value);
+        }
+        assertEquals(0, LatencyHistogram.indexOf(0));
+        assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.upperBound(LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE)));
+    }
+
+    @Test
+    void record_ClampsOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.getValueAtQuantile(0.5));
+        assertEquals(LatencyHistogram.MAX_VALUE, snapshot.getMax());
+    }
+
+    @Test
+    void snapshot_MergesEveryRecordingThread() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long value = (t + 1) * 1_000L;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(value);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(40_000, snapshot.getCount());
+        assertEquals(4_000, snapshot.getMax());
+        assertEquals(1_000, snapshot.getValueAtQuantile(0.25), 1_000 * 0.032);
+        assertEquals(4_000, snapshot.getValueAtQuantile(0.99));
+    }
+
+    @Test
+    void record_ShortLivedThreadsShareAFixedSetOfStripes() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int t = 0; t < 500; t++) {
+            Thread thread = new Thread(() -> histogram.record(1_000));
+            thread.start();
+            thread.join();
+        }
+
+        assertTrue(histogram.stripeCount() <= LatencyHistogram.STRIPES);
+        assertEquals(500, histogram.snapshot().getCount());
+    }
+
+    @Test
+    void getValueAtQuantile_EmptyIsZero() {
+        assertEquals(0, new LatencyHistogram().snapshot().getValueAtQuantile(0.99));
+    }
+}
@@ -0,0 +1,46 @@
+package com.richard.gaming_trading_system.metrics;
+
+import com.richard.gaming_trading_system.exception.InsufficientAssetException;
+import com.richard.gaming_trading_system.exception.InsufficientFundsException;
+import com.richard.gaming_trading_system.exception.UserNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeMetricsTest {
+
+    @Test
+    void tradeRejected_CountsOnlyBusinessRejections() {
+        TradeMetrics metrics = new TradeMetrics();
+
+        metrics.tradeRejected(new InsufficientFundsException("funds"));
+        metrics.tradeRejected(new InsufficientFundsException("funds"));
+        metrics.tradeRejected(new InsufficientAssetException("asset"));
+        metrics.tradeRejected(new UserNotFoundException("user"));
+
+        assertEquals(2, metrics.getRejected(InsufficientFundsException.class));
+        assertEquals(1, metrics.getRejected(InsufficientAssetException.class));
+        assertEquals(0, metrics.getRejected(UserNotFoundException.class));
+    }
+
+    @Test
+    void scrape_WritesCountersAndStageSummaries() {
+        TradeMetrics metrics = new TradeMetrics();
+        metrics.record(TradeStage.TOTAL, 2_000_000L);
+        metrics.record(TradeStage.TOTAL, 4_000_000L);
+        metrics.record(TradeStage.RANK_UPDATE, 1_000L);
+        metrics.tradeRejected(new InsufficientAssetException("asset"));
+
+        String scrape = new MetricsExporter(List.of(metrics)).scrape();
+
+        assertTrue(scrape.contains("# TYPE trading_trades_total counter\ntrading_trades_total 2\n"));
+        assertTrue(scrape.contains("trading_trades_rejected_total{reason=\"insufficient_assets\"} 1\n"));
+        assertTrue(scrape.contains("trading_rank_updates_total 1\n"));
+        assertTrue(scrape.contains("# TYPE trading_trade_stage_seconds summary\n"));
+        assertTrue(scrape.contains("trading_trade_stage_seconds_count{stage=\"total\"} 2\n"));
+        assertTrue(scrape.contains("trading_trade_stage_seconds_sum{stage=\"total\"} 0.00600000000\n"));
+        assertTrue(scrape.contains("trading_trade_stage_seconds{stage=\"user_lookup\",quantile=\"0.99\"} 0.00000000\n"));
+    }
+}
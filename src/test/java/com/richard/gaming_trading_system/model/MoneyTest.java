@@ -0,0 +1,51 @@
+package com.richard.gaming_trading_system.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_RoundsHalfUpToScale() {
+        assertEquals(1_234_568L, Money.of(new BigDecimal("123.45675")));
+        assertEquals(-1_234_568L, Money.of(new BigDecimal("-123.45675")));
+        assertEquals(2_500_000L, Quantity.of(new BigDecimal("2.5")));
+    }
+
+    @Test
+    void toBigDecimal_UsesShortestExactScale() {
+        assertEquals(new BigDecimal("1000.00"), Money.toBigDecimal(Money.ofWhole(1000)));
+        assertEquals(new BigDecimal("0.1234"), Money.toBigDecimal(1234L));
+        assertEquals(new BigDecimal("0.00"), Money.toBigDecimal(0L));
+        assertEquals(new BigDecimal("10"), Quantity.toBigDecimal(Quantity.ofWhole(10)));
+        assertEquals(new BigDecimal("2.5"), Quantity.toBigDecimal(2_500_000L));
+    }
+
+    @Test
+    void multiply_RoundsHalfAwayFromZero() {
+        // 0.0001 * 0.5 = 0.00005 sits exactly on the half
+        assertEquals(0L, Money.multiply(1L, Money.of(new BigDecimal("0.4999"))));
+        assertEquals(1L, Money.multiply(100L, Money.of(new BigDecimal("0.5000"))));
+        assertEquals(-1L, Money.multiply(100L, Money.of(new BigDecimal("-0.5000"))));
+        assertEquals(Money.of(new BigDecimal("25.9259")),
+                Money.multiply(Quantity.of(new BigDecimal("2.592593")), Money.ofWhole(10)));
+    }
+
+    @Test
+    void multiply_LargeQuantitiesDoNotOverflowIntermediates() {
+        long quantity = Quantity.ofWhole(1_000_000_000L);
+        long price = Money.of(new BigDecimal("12345.6789"));
+
+        assertEquals(new BigDecimal("12345678900000.00"), Money.toBigDecimal(Money.multiply(quantity, price)));
+        assertThrows(ArithmeticException.class, () -> Money.multiply(Long.MAX_VALUE, price));
+    }
+
+    @Test
+    void toWholeUnits_TruncatesTowardZero() {
+        assertEquals(12L, Money.toWholeUnits(Money.of(new BigDecimal("12.9999"))));
+        assertEquals(-12L, Money.toWholeUnits(Money.of(new BigDecimal("-12.9999"))));
+    }
+}
@@ -0,0 +1,113 @@
+package com.richard.gaming_trading_system.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioTest {
+
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio(1L, 1L, "Main");
+    }
+
+    private static PortfolioAsset holding(long assetId, String quantity, String price) {
+        return new PortfolioAsset(1L, assetId, new BigDecimal(quantity), new BigDecimal(price));
+    }
+
+    @Test
+    void putHolding_ReplacesSameAssetAndKeepsTotal() {
+        portfolio.putHolding(holding(1L, "2", "10.00"));
+        portfolio.putHolding(holding(2L, "1", "5.00"));
+        portfolio.putHolding(holding(1L, "3", "10.00"));
+
+        assertEquals(2, portfolio.getPositionCount());
+        assertEquals(new BigDecimal("3"), portfolio.getHolding(1L).getQuantity());
+        assertEquals(0, new BigDecimal("35.00").compareTo(portfolio.getTotalValue()));
+        assertNull(portfolio.getHolding(3L));
+    }
+
+    @Test
+    void totalValue_FollowsInPlaceEditsAndRemoval() {
+        PortfolioAsset gem = holding(1L, "2", "10.00");
+        portfolio.putHolding(gem);
+        portfolio.putHolding(holding(2L, "1", "5.00"));
+
+        gem.setQuantity(new BigDecimal("4"));
+        gem.setPrice(new BigDecimal("12.00"));
+        assertEquals(0, new BigDecimal("53.00").compareTo(portfolio.getTotalValue()));
+
+        assertSame(gem, portfolio.removeHolding(1L));
+        assertEquals(0, new BigDecimal("5.00").compareTo(portfolio.getTotalValue()));
+
+        // A removed holding no longer feeds the total.
+        gem.setQuantity(new BigDecimal("100"));
+        assertEquals(0, new BigDecimal("5.00").compareTo(portfolio.getTotalValue()));
+    }
+
+    @Test
+    void removeHolding_StaysConsistentAcrossThousandsOfPositions() {
+        Random random = new Random(3);
+        Map<Long, BigDecimal> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long assetId = random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                portfolio.removeHolding(assetId);
+                expected.remove(assetId);
+            } else {
+                BigDecimal quantity = BigDecimal.valueOf(random.nextInt(100) + 1);
+                portfolio.putHolding(new PortfolioAsset(1L, assetId, quantity, BigDecimal.ONE));
+                expected.put(assetId, quantity);
+            }
+        }
+
+        assertEquals(expected.size(), portfolio.getPositionCount());
+        assertEquals(expected.size(), portfolio.getAssets().size());
+        expected.forEach((assetId, quantity) -> assertEquals(quantity, portfolio.getHolding(assetId).getQuantity()));
+        BigDecimal total = expected.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, total.compareTo(portfolio.getTotalValue()));
+    }
+
+    @Test
+    void getAssets_ListViewWritesThrough() {
+        PortfolioAsset gem = new PortfolioAsset();
+        gem.setAsset(new Asset(7L, "GEM", "Gem", new BigDecimal("1.00")));
+        gem.setQuantity(new BigDecimal("2"));
+        gem.setPrice(new BigDecimal("3.00"));
+
+        portfolio.getAssets().add(gem);
+        assertSame(gem, portfolio.getHolding(7L));
+        assertEquals(0, new BigDecimal("6.00").compareTo(portfolio.getTotalValue()));
+
+        portfolio.getAssets().removeIf(pa -> pa == gem);
+        assertEquals(0, portfolio.getPositionCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(portfolio.getTotalValue()));
+    }
+
+    @Test
+    void json_KeepsExistingShape() throws Exception {
+        portfolio.putHolding(holding(1L, "2", "10.00"));
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(portfolio));
+
+        List<String> fields = new ArrayList<>();
+        json.fieldNames().forEachRemaining(fields::add);
+        assertEquals(Set.of("portfolioId", "userId", "name", "assets", "createdAt", "totalValue"), Set.copyOf(fields));
+        assertEquals(1L, json.get("assets").get(0).get("assetId").asLong());
+        assertEquals(0, new BigDecimal("20.00").compareTo(json.get("totalValue").decimalValue()));
+    }
+}
@@ -0,0 +1,145 @@
+package com.richard.gaming_trading_system.orderbook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.richard.gaming_trading_system.dto.OrderRequest;
+import com.richard.gaming_trading_system.dto.OrderResult;
+import com.richard.gaming_trading_system.dto.OrderStatus;
+import com.richard.gaming_trading_system.dto.TradeErrorCode;
+import com.richard.gaming_trading_system.engine.TradeExecutionEngine;
+import com.richard.gaming_trading_system.events.EventBus;
+import com.richard.gaming_trading_system.events.TopOfBookChanged;
+import com.richard.gaming_trading_system.exception.InsufficientFundsException;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.OrderType;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.Quantity;
+import com.richard.gaming_trading_system.model.Trade;
+import com.richard.gaming_trading_system.model.TradeType;
+import com.richard.gaming_trading_system.service.AssetService;
+import com.richard.gaming_trading_system.service.PortfolioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Mockito.*;
+
+class MatchingEngineTest {
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Mock
+    private AssetService assetService;
+
+    @Mock
+    private TradeExecutionEngine tradeExecutionEngine;
+
+    @Mock
+    private EventBus eventBus;
+
+    private MatchingEngine matchingEngine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        for (long id = 1; id <= 2; id++) {
+            Portfolio portfolio = new Portfolio();
+            portfolio.setPortfolioId(id);
+            portfolio.setUserId(id * 10);
+            when(portfolioService.getPortfolioById(id)).thenReturn(portfolio);
+        }
+        when(tradeExecutionEngine.executeExclusive(any(), any())).thenAnswer(i -> ((Supplier<?>) i.getArgument(1)).get());
+        matchingEngine = new MatchingEngine(portfolioService, assetService, tradeExecutionEngine, eventBus, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        matchingEngine.shutdown();
+    }
+
+    @Test
+    void crossingOrdersSettleThroughPortfolioService() {
+        Trade buy = new Trade(100L, 10L, 7L, TradeType.BUY, new BigDecimal("3"), new BigDecimal("100"));
+        Trade sell = new Trade(101L, 20L, 7L, TradeType.SELL, new BigDecimal("3"), new BigDecimal("100"));
+        when(portfolioService.settleFill(1L, 2L, 7L, Quantity.ofWhole(3), Money.ofWhole(100))).thenReturn(List.of(buy, sell));
+
+        OrderResult resting = matchingEngine.placeOrder(order(2L, TradeType.SELL, "5", "100"));
+        OrderResult incoming = matchingEngine.placeOrder(order(1L, TradeType.BUY, "3", "101"));
+
+        assertEquals(OrderStatus.RESTING, resting.getStatus());
+        assertEquals(OrderStatus.FILLED, incoming.getStatus());
+        assertEquals(1, incoming.getFills().size());
+        assertEquals(100L, incoming.getFills().get(0).getTradeId());
+        assertEquals(TradeType.BUY, incoming.getFills().get(0).getSide());
+        verify(tradeExecutionEngine).executeExclusive(aryEq(new long[]{10L, 20L}), any());
+
+        ArgumentCaptor<TopOfBookChanged> tops = ArgumentCaptor.forClass(TopOfBookChanged.class);
+        verify(eventBus, times(2)).publish(tops.capture());
+        assertEquals(Money.ofWhole(100), tops.getValue().getAskPrice());
+        assertEquals(Quantity.ofWhole(2), tops.getValue().getAskQuantity());
+    }
+
+    @Test
+    void orderResultCarriesOnlyTheOwnersLegWithoutPortfolios() throws Exception {
+        Portfolio buyerPortfolio = portfolioService.getPortfolioById(1L);
+        Portfolio sellerPortfolio = portfolioService.getPortfolioById(2L);
+        Trade buy = new Trade(100L, 10L, 7L, TradeType.BUY, new BigDecimal("3"), new BigDecimal("100"));
+        buy.setPortfolio(buyerPortfolio);
+        Trade sell = new Trade(101L, 20L, 7L, TradeType.SELL, new BigDecimal("3"), new BigDecimal("100"));
+        sell.setPortfolio(sellerPortfolio);
+        when(portfolioService.settleFill(1L, 2L, 7L, Quantity.ofWhole(3), Money.ofWhole(100))).thenReturn(List.of(buy, sell));
+
+        matchingEngine.placeOrder(order(1L, TradeType.BUY, "3", "100"));
+        OrderResult incoming = matchingEngine.placeOrder(order(2L, TradeType.SELL, "3", "100"));
+
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(incoming);
+        assertEquals(1, json.get("fills").size());
+        JsonNode fill = json.get("fills").get(0);
+        assertEquals(101L, fill.get("tradeId").asLong());
+        assertEquals(incoming.getOrderId(), fill.get("orderId").asLong());
+        assertEquals("SELL", fill.get("side").asText());
+        assertEquals(0, new BigDecimal("100").compareTo(fill.get("price").decimalValue()));
+        assertNull(fill.get("portfolio"));
+        assertNull(fill.get("userId"));
+        assertFalse(json.toString().contains("\"portfolio"), json.toString());
+    }
+
+    @Test
+    void restingBuyerWhoCannotPayIsCancelled() {
+        when(portfolioService.settleFill(anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+            .thenThrow(new InsufficientFundsException("Insufficient funds"));
+
+        OrderResult bid = matchingEngine.placeOrder(order(1L, TradeType.BUY, "5", "100"));
+        OrderResult ask = matchingEngine.placeOrder(order(2L, TradeType.SELL, "5", "100"));
+
+        assertEquals(OrderStatus.RESTING, ask.getStatus());
+        assertTrue(ask.getFills().isEmpty());
+        assertTrue(matchingEngine.cancelOrder(7L, bid.getOrderId()).isEmpty());
+        assertEquals(OrderStatus.CANCELLED, matchingEngine.cancelOrder(7L, ask.getOrderId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void invalidOrdersAreRejectedWithoutReachingTheBook() {
+        OrderResult missingPrice = matchingEngine.placeOrder(order(1L, TradeType.BUY, "5", null));
+
+        assertEquals(OrderStatus.REJECTED, missingPrice.getStatus());
+        assertEquals(TradeErrorCode.INVALID_REQUEST, missingPrice.getErrorCode());
+        assertTrue(matchingEngine.getBook(7L, 10).getBids().isEmpty());
+        verifyNoInteractions(eventBus);
+    }
+
+    private static OrderRequest order(Long portfolioId, TradeType side, String quantity, String price) {
+        return new OrderRequest(portfolioId, 7L, side, OrderType.LIMIT, new BigDecimal(quantity),
+            price == null ? null : new BigDecimal(price));
+    }
+}
@@ -0,0 +1,168 @@
+package com.richard.gaming_trading_system.orderbook;
+
+import com.richard.gaming_trading_system.dto.OrderBookSnapshot;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.OrderType;
+import com.richard.gaming_trading_system.model.Quantity;
+import com.richard.gaming_trading_system.model.TradeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    private OrderBook book;
+    private List<long[]> fills;
+    private FillHandler recordFills;
+    private long nextOrderId;
+
+    @BeforeEach
+    void setUp() {
+        book = new OrderBook(1L);
+        fills = new ArrayList<>();
+        recordFills = (buy, sell, price, quantity) -> {
+            fills.add(new long[]{buy.getOrderId(), sell.getOrderId(), price, quantity});
+            return FillOutcome.FILLED;
+        };
+    }
+
+    @Test
+    void matchesBestPriceFirstThenOldestFirst() {
+        Order later = limit(1L, TradeType.SELL, 101, 5);
+        Order earlier = limit(2L, TradeType.SELL, 100, 5);
+        Order sameLevel = limit(3L, TradeType.SELL, 100, 5);
+        book.submit(later, recordFills);
+        book.submit(earlier, recordFills);
+        book.submit(sameLevel, recordFills);
+
+        Order buy = book.submit(limit(9L, TradeType.BUY, 101, 12), recordFills);
+
+        assertEquals(3, fills.size());
+        assertArrayEquals(new long[]{buy.getOrderId(), earlier.getOrderId(), Money.ofWhole(100), Quantity.ofWhole(5)}, fills.get(0));
+        assertArrayEquals(new long[]{buy.getOrderId(), sameLevel.getOrderId(), Money.ofWhole(100), Quantity.ofWhole(5)}, fills.get(1));
+        assertArrayEquals(new long[]{buy.getOrderId(), later.getOrderId(), Money.ofWhole(101), Quantity.ofWhole(2)}, fills.get(2));
+        assertEquals(0, buy.getRemaining());
+        assertFalse(buy.isResting());
+        assertEquals(Quantity.ofWhole(3), later.getRemaining());
+        assertEquals(Money.ofWhole(101), book.getBestAsk());
+        assertEquals(Quantity.ofWhole(3), book.getBestAskQuantity());
+    }
+
+    @Test
+    void unfilledLimitRestsAndMarketRemainderIsCancelled() {
+        book.submit(limit(1L, TradeType.SELL, 100, 5), recordFills);
+
+        Order limitBuy = book.submit(limit(2L, TradeType.BUY, 99, 4), recordFills);
+        Order marketBuy = book.submit(market(3L, TradeType.BUY, 8), recordFills);
+
+        assertTrue(limitBuy.isResting());
+        assertEquals(1, fills.size());
+        assertEquals(Quantity.ofWhole(5), marketBuy.getFilled());
+        assertTrue(marketBuy.isCancelled());
+        assertFalse(marketBuy.isResting());
+        assertEquals(0, book.getBestAsk());
+        assertEquals(Money.ofWhole(99), book.getBestBid());
+    }
+
+    @Test
+    void cancelRemovesRestingOrderAndEmptyLevel() {
+        Order first = book.submit(limit(1L, TradeType.BUY, 100, 5), recordFills);
+        Order second = book.submit(limit(2L, TradeType.BUY, 100, 5), recordFills);
+        book.submit(limit(3L, TradeType.BUY, 98, 5), recordFills);
+
+        assertSame(first, book.cancel(first.getOrderId()));
+        assertNull(book.cancel(first.getOrderId()));
+        assertTrue(first.isCancelled());
+        assertEquals(Quantity.ofWhole(5), book.getBestBidQuantity());
+
+        book.cancel(second.getOrderId());
+        assertEquals(Money.ofWhole(98), book.getBestBid());
+        assertEquals(1, book.getRestingOrderCount());
+    }
+
+    @Test
+    void selfTradeCancelsTheRestingOrder() {
+        Order resting = book.submit(limit(1L, TradeType.SELL, 100, 5), recordFills);
+        Order other = book.submit(limit(2L, TradeType.SELL, 100, 5), recordFills);
+
+        Order buy = book.submit(limit(1L, TradeType.BUY, 100, 5), recordFills);
+
+        assertTrue(resting.isCancelled());
+        assertEquals(1, fills.size());
+        assertEquals(other.getOrderId(), fills.get(0)[1]);
+        assertEquals(0, buy.getRemaining());
+    }
+
+    @Test
+    void restingOrderThatCannotSettleIsCancelledAndMatchingContinues() {
+        Order broke = book.submit(limit(1L, TradeType.BUY, 101, 5), recordFills);
+        Order funded = book.submit(limit(2L, TradeType.BUY, 100, 5), recordFills);
+
+        Order sell = book.submit(limit(3L, TradeType.SELL, 100, 5), (buy, seller, price, quantity) -> {
+            if (buy == broke) {
+                return FillOutcome.BUYER_REJECTED;
+            }
+            return recordFills.onFill(buy, seller, price, quantity);
+        });
+
+        assertTrue(broke.isCancelled());
+        assertFalse(broke.isResting());
+        assertEquals(0, funded.getRemaining());
+        assertEquals(0, sell.getRemaining());
+        assertEquals(0, book.getRestingOrderCount());
+    }
+
+    @Test
+    void abortedFillCancelsTheIncomingOrderOnly() {
+        Order resting = book.submit(limit(1L, TradeType.SELL, 100, 5), recordFills);
+
+        Order buy = book.submit(limit(2L, TradeType.BUY, 100, 5), (b, s, price, quantity) -> FillOutcome.ABORT);
+
+        assertTrue(buy.isCancelled());
+        assertFalse(buy.isResting());
+        assertTrue(resting.isResting());
+        assertEquals(Quantity.ofWhole(5), resting.getRemaining());
+    }
+
+    @Test
+    void snapshotListsLevelsFromTheBestPrice() {
+        book.submit(limit(1L, TradeType.BUY, 99, 1), recordFills);
+        book.submit(limit(1L, TradeType.BUY, 100, 2), recordFills);
+        book.submit(limit(1L, TradeType.BUY, 100, 3), recordFills);
+        book.submit(limit(2L, TradeType.SELL, 103, 1), recordFills);
+        book.submit(limit(2L, TradeType.SELL, 102, 1), recordFills);
+
+        OrderBookSnapshot snapshot = book.snapshot(10);
+
+        assertEquals(2, snapshot.getBids().size());
+        assertEquals(0, new BigDecimal("100").compareTo(snapshot.getBids().get(0).getPrice()));
+        assertEquals(0, new BigDecimal("5").compareTo(snapshot.getBids().get(0).getQuantity()));
+        assertEquals(2, snapshot.getBids().get(0).getOrders());
+        assertEquals(0, new BigDecimal("102").compareTo(snapshot.getAsks().get(0).getPrice()));
+        assertEquals(1, book.snapshot(1).getAsks().size());
+    }
+
+    @Test
+    void rejectsDuplicateAndEmptyOrders() {
+        Order order = book.submit(limit(1L, TradeType.BUY, 100, 1), recordFills);
+
+        assertThrows(IllegalArgumentException.class, () -> book.submit(
+                new Order(order.getOrderId(), 1L, 1L, TradeType.BUY, OrderType.LIMIT, Money.ofWhole(100), Quantity.ofWhole(1)),
+                recordFills));
+        assertThrows(IllegalArgumentException.class, () -> book.submit(limit(1L, TradeType.BUY, 100, 0), recordFills));
+    }
+
+    private Order limit(long portfolioId, TradeType side, long price, long quantity) {
+        return new Order(++nextOrderId, portfolioId, portfolioId, side, OrderType.LIMIT,
+                Money.ofWhole(price), Quantity.ofWhole(quantity));
+    }
+
+    private Order market(long portfolioId, TradeType side, long quantity) {
+        return new Order(++nextOrderId, portfolioId, portfolioId, side, OrderType.MARKET, 0, Quantity.ofWhole(quantity));
+    }
+}
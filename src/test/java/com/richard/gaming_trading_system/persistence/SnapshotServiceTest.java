@@ -0,0 +1,189 @@
+package com.richard.gaming_trading_system.persistence;
+
+import com.richard.gaming_trading_system.engine.TradeExecutionEngine;
+import com.richard.gaming_trading_system.model.*;
+import com.richard.gaming_trading_system.repository.AssetRepository;
+import com.richard.gaming_trading_system.repository.LeaderboardIndex;
+import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import com.richard.gaming_trading_system.repository.TradeRepository;
+import com.richard.gaming_trading_system.repository.UserRepository;
+import com.richard.gaming_trading_system.service.RankingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private TradeJournal journal;
+    private TradeExecutionEngine engine;
+
+    private final UserRepository users = new UserRepository();
+    private final PortfolioRepository portfolios = new PortfolioRepository();
+    private final AssetRepository assets = new AssetRepository();
+    private final TradeRepository trades = new TradeRepository();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = new TradeJournal(true, dir.resolve("trade.journal").toString(), FsyncPolicy.OS, 5);
+        journal.open();
+        engine = new TradeExecutionEngine(2, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+        engine.shutdown();
+    }
+
+    private SnapshotService snapshots(UserRepository userRepository, PortfolioRepository portfolioRepository,
+                                      AssetRepository assetRepository, TradeRepository tradeRepository) {
+        return new SnapshotService(true, dir.resolve("snapshots").toString(), 2, journal, engine,
+                userRepository, portfolioRepository, assetRepository, tradeRepository);
+    }
+
+    private void populate() {
+        User alice = new User(1L, "alice");
+        alice.setGemCount(40);
+        alice.setTotalTrades(1);
+        alice.setLastTradeTime(LocalDateTime.of(2026, 3, 4, 5, 6, 7, 8));
+        users.save(alice);
+        journal.appendUserCreated(alice);
+        users.save(new User(2L, "bob"));
+        journal.appendUserCreated(users.findById(2L).orElseThrow());
+
+        Asset asset = new Asset(5L, "GEM", "Gem Token", new BigDecimal("10.25"));
+        assets.save(asset);
+        journal.appendAssetCreated(asset);
+
+        Portfolio portfolio = new Portfolio(3L, 1L, "Main");
+        PortfolioAsset holding = new PortfolioAsset(3L, 5L, new BigDecimal("2.5"), new BigDecimal("10.25"));
+        holding.setAsset(asset);
+        portfolio.getAssets().add(holding);
+        portfolios.save(portfolio);
+        journal.appendPortfolioCreated(portfolio);
+
+        Trade trade = new Trade(9L, 1L, 5L, TradeType.BUY, new BigDecimal("2.5"), new BigDecimal("10.25"));
+        trade.setPortfolio(portfolio);
+        trade.setGemsAwarded(40);
+        trades.save(trade);
+        journal.appendTrade(trade, 3L, alice, holding);
+    }
+
+    @Test
+    void writeSnapshot_LoadsIntoEmptyRepositories() throws IOException {
+        populate();
+        assertEquals(5L, snapshots(users, portfolios, assets, trades).writeSnapshot());
+
+        UserRepository loadedUsers = new UserRepository();
+        PortfolioRepository loadedPortfolios = new PortfolioRepository();
+        AssetRepository loadedAssets = new AssetRepository();
+        TradeRepository loadedTrades = new TradeRepository();
+        long sequence = snapshots(loadedUsers, loadedPortfolios, loadedAssets, loadedTrades).loadLatest();
+
+        assertEquals(5L, sequence);
+        User alice = loadedUsers.findById(1L).orElseThrow();
+        assertEquals("alice", alice.getUsername());
+        assertEquals(40, alice.getGemCount());
+        assertEquals(users.findById(1L).orElseThrow().getLastTradeTime(), alice.getLastTradeTime());
+        assertEquals(2, loadedUsers.findAll().size());
+        assertEquals(new BigDecimal("10.25"), loadedAssets.findById(5L).orElseThrow().getCurrentPrice());
+
+        Portfolio portfolio = loadedPortfolios.findById(3L).orElseThrow();
+        assertEquals("Main", portfolio.getName());
+        assertEquals(new BigDecimal("2.5"), portfolio.getAssets().get(0).getQuantity());
+        assertSame(loadedAssets.findById(5L).orElseThrow(), portfolio.getAssets().get(0).getAsset());
+
+        Trade trade = loadedTrades.findById(9L).orElseThrow();
+        assertEquals(TradeType.BUY, trade.getTradeType());
+        assertEquals(40, trade.getGemsAwarded());
+        assertSame(portfolio, trade.getPortfolio());
+    }
+
+    @Test
+    void recover_ReplaysOnlyJournalTailAfterSnapshot() throws IOException {
+        populate();
+        snapshots(users, portfolios, assets, trades).writeSnapshot();
+        User bob = users.findById(2L).orElseThrow();
+        Portfolio portfolio = new Portfolio(4L, 2L, "Bob's");
+        journal.appendPortfolioCreated(portfolio);
+        bob.setGemCount(75);
+        bob.setTotalTrades(1);
+        Trade trade = new Trade(10L, 2L, 5L, TradeType.BUY, BigDecimal.ONE, new BigDecimal("10.25"));
+        journal.appendTrade(trade, 4L, bob, new PortfolioAsset(4L, 5L, BigDecimal.ONE, new BigDecimal("10.25")));
+
+        UserRepository loadedUsers = new UserRepository();
+        PortfolioRepository loadedPortfolios = new PortfolioRepository();
+        AssetRepository loadedAssets = new AssetRepository();
+        TradeRepository loadedTrades = new TradeRepository();
+        RankingService rankingService = new RankingService();
+        ReflectionTestUtils.setField(rankingService, "userRepository", loadedUsers);
+        ReflectionTestUtils.setField(rankingService, "leaderboardIndex", new LeaderboardIndex());
+
+        new RecoveryService(journal, snapshots(loadedUsers, loadedPortfolios, loadedAssets, loadedTrades),
+                loadedUsers, loadedPortfolios, loadedAssets, loadedTrades, rankingService).recover();
+
+        assertEquals(75, loadedUsers.findById(2L).orElseThrow().getGemCount());
+        assertEquals(2, loadedTrades.findAll().size());
+        assertEquals(1, loadedPortfolios.findById(4L).orElseThrow().getAssets().size());
+        assertEquals(1, rankingService.getUserRank(2L));
+        assertEquals(2, rankingService.getUserRank(1L));
+    }
+
+    @Test
+    void loadLatest_FallsBackWhenNewestSnapshotIsCorrupt() throws IOException {
+        populate();
+        SnapshotService service = snapshots(users, portfolios, assets, trades);
+        service.writeSnapshot();
+        journal.appendUserCreated(new User(7L, "carol"));
+        users.save(new User(7L, "carol"));
+        service.writeSnapshot();
+
+        Path newest;
+        try (Stream<Path> files = Files.list(dir.resolve("snapshots"))) {
+            newest = files.sorted().toList().get(1);
+        }
+        try (FileChannel channel = FileChannel.open(newest, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {42}), 40);
+        }
+
+        UserRepository loadedUsers = new UserRepository();
+        long sequence = snapshots(loadedUsers, new PortfolioRepository(), new AssetRepository(),
+                new TradeRepository()).loadLatest();
+
+        assertEquals(5L, sequence);
+        assertTrue(loadedUsers.findById(7L).isEmpty());
+    }
+
+    @Test
+    void writeSnapshot_KeepsOnlyRetainedSnapshots() throws IOException {
+        populate();
+        SnapshotService service = snapshots(users, portfolios, assets, trades);
+        for (long id = 20; id < 23; id++) {
+            journal.appendUserCreated(new User(id, "user" + id));
+            service.writeSnapshot();
+        }
+
+        try (Stream<Path> files = Files.list(dir.resolve("snapshots"))) {
+            List<String> names = files.map(path -> path.getFileName().toString()).sorted().toList();
+            assertEquals(List.of("snapshot-00000000000000000007.bin", "snapshot-00000000000000000008.bin"), names);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.richard.gaming_trading_system.persistence;
+
+import com.richard.gaming_trading_system.model.*;
+import com.richard.gaming_trading_system.repository.AssetRepository;
+import com.richard.gaming_trading_system.repository.LeaderboardIndex;
+import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import com.richard.gaming_trading_system.repository.TradeRepository;
+import com.richard.gaming_trading_system.repository.UserRepository;
+import com.richard.gaming_trading_system.service.RankingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private TradeJournal journal;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private TradeJournal open(FsyncPolicy policy) throws IOException {
+        journal = new TradeJournal(true, dir.resolve("trade.journal").toString(), policy, 5);
+        journal.open();
+        return journal;
+    }
+
+    private User user() {
+        User user = new User(1L, "alice");
+        user.setGemCount(120);
+        user.setTotalTrades(3);
+        user.setCurrentStreak(2);
+        user.setLongestStreak(4);
+        user.setLastTradeTime(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 6789));
+        return user;
+    }
+
+    private Trade trade() {
+        Trade trade = new Trade(9L, 1L, 5L, TradeType.BUY, new BigDecimal("2.5"), new BigDecimal("10.25"));
+        trade.setGemsAwarded(6);
+        trade.setTradeTimestamp(LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+        return trade;
+    }
+
+    @Test
+    void append_ReplaysRecordsAfterReopen() throws IOException {
+        open(FsyncPolicy.PER_TRADE);
+        journal.appendUserCreated(user());
+        journal.appendPortfolioCreated(new Portfolio(3L, 1L, "Main"));
+        journal.appendAssetCreated(new Asset(5L, "GEM", "Gem Token", new BigDecimal("10.25")));
+        PortfolioAsset holding = new PortfolioAsset(3L, 5L, new BigDecimal("2.5"), new BigDecimal("10.25"));
+        assertEquals(4L, journal.appendTrade(trade(), 3L, user(), holding));
+        journal.close();
+
+        open(FsyncPolicy.OS);
+        assertEquals(4L, journal.getLastSequence());
+
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(0L, records::add);
+
+        assertEquals(4, records.size());
+        assertEquals("alice", records.get(0).getUsername());
+        assertEquals("Main", records.get(1).getPortfolioName());
+        assertEquals("GEM", records.get(2).getSymbol());
+        assertEquals(new BigDecimal("10.25"), records.get(2).getPrice());
+        JournalRecord trade = records.get(3);
+        assertEquals(JournalRecord.Type.TRADE, trade.getType());
+        assertEquals(9L, trade.getTradeId());
+        assertEquals(new BigDecimal("2.5"), trade.getQuantity());
+        assertEquals(120, trade.getUserGems());
+        assertEquals(6, trade.getGemsAwarded());
+        assertEquals(user().getLastTradeTime(), trade.getUserLastTradeTime());
+
+        List<JournalRecord> tail = new ArrayList<>();
+        journal.replay(2L, tail::add);
+        assertEquals(2, tail.size());
+        assertEquals(3L, tail.get(0).getSequence());
+    }
+
+    @Test
+    void appendAll_WritesRecordsAtConsecutiveSequences() throws IOException {
+        open(FsyncPolicy.PER_TRADE);
+        journal.appendUserCreated(user());
+        Trade sell = trade();
+        sell.setTradeId(10L);
+        sell.setTradeType(TradeType.SELL);
+
+        assertEquals(3L, journal.appendAll(List.of(
+            JournalRecord.trade(trade(), 3L, user(), null),
+            JournalRecord.trade(sell, 4L, user(), null))));
+
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(1L, records::add);
+        assertEquals(List.of(9L, 10L), records.stream().map(JournalRecord::getTradeId).toList());
+        assertEquals(List.of(2L, 3L), records.stream().map(JournalRecord::getSequence).toList());
+    }
+
+    @Test
+    void open_StopsAtTornRecordAndOverwritesIt() throws IOException {
+        open(FsyncPolicy.PER_TRADE);
+        journal.appendUserCreated(user());
+        journal.appendUserCreated(new User(2L, "bob"));
+        journal.close();
+        journal = null;
+
+        // Corrupt the body of the second record as a partial write would.
+        try (FileChannel channel = FileChannel.open(dir.resolve("trade.journal"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {42}), JournalRecord.SIZE + 40);
+        }
+
+        open(FsyncPolicy.GROUP_COMMIT);
+        assertEquals(1L, journal.getLastSequence());
+        assertEquals(2L, journal.appendUserCreated(new User(3L, "carol")));
+
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(0L, records::add);
+        assertEquals(List.of("alice", "carol"), records.stream().map(JournalRecord::getUsername).toList());
+    }
+
+    @Test
+    void append_RejectsValuesLargerThanTheirField() throws IOException {
+        open(FsyncPolicy.OS);
+
+        assertThrows(IllegalArgumentException.class, () -> journal.appendUserCreated(new User(1L, "x".repeat(200))));
+        assertEquals(0L, journal.getLastSequence());
+    }
+
+    @Test
+    void recover_RebuildsRepositoriesFromJournal() throws IOException {
+        open(FsyncPolicy.OS);
+        journal.appendUserCreated(user());
+        journal.appendPortfolioCreated(new Portfolio(3L, 1L, "Main"));
+        journal.appendAssetCreated(new Asset(5L, "GEM", "Gem Token", new BigDecimal("10.25")));
+        journal.appendTrade(trade(), 3L, user(),
+                new PortfolioAsset(3L, 5L, new BigDecimal("2.5"), new BigDecimal("10.25")));
+        User granted = user();
+        granted.setGemCount(1120);
+        journal.appendGemsChanged(granted);
+
+        UserRepository users = new UserRepository();
+        PortfolioRepository portfolios = new PortfolioRepository();
+        AssetRepository assets = new AssetRepository();
+        TradeRepository trades = new TradeRepository();
+        RankingService rankingService = new RankingService();
+        LeaderboardIndex leaderboardIndex = new LeaderboardIndex();
+        ReflectionTestUtils.setField(rankingService, "userRepository", users);
+        ReflectionTestUtils.setField(rankingService, "leaderboardIndex", leaderboardIndex);
+
+        SnapshotService snapshots = new SnapshotService(false, dir.toString(), 2, journal, null,
+                users, portfolios, assets, trades);
+        new RecoveryService(journal, snapshots, users, portfolios, assets, trades, rankingService).recover();
+
+        User recovered = users.findById(1L).orElseThrow();
+        assertEquals("alice", recovered.getUsername());
+        assertEquals(1120, recovered.getGemCount()); // the grant after the trade
+        assertEquals(3, recovered.getTotalTrades());
+        Portfolio portfolio = portfolios.findById(3L).orElseThrow();
+        assertEquals(1, portfolio.getAssets().size());
+        assertEquals(new BigDecimal("2.5"), portfolio.getAssets().get(0).getQuantity());
+        assertEquals("GEM", portfolio.getAssets().get(0).getAsset().getSymbol());
+        assertEquals(1, trades.findByUserId(1L).size());
+        assertEquals(1, rankingService.getUserRank(1L));
+
+        // New entities must not reuse recovered ids.
+        assertEquals(2L, users.save(new User(null, "dave")).getUserId());
+    }
+}
@@ -0,0 +1,88 @@
+package com.richard.gaming_trading_system.profiling;
+
+import com.richard.gaming_trading_system.dto.FlightRecordingInfo;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingServiceTest {
+
+    private FlightRecordingService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void dump_ContainsTradingEventsAboveThreshold() throws IOException {
+        service = new FlightRecordingService("default", 60, 0, -1, 0, 0);
+        FlightRecordingInfo info = service.start(0);
+        assertEquals("RUNNING", info.getState());
+
+        TradeEvent trade = new TradeEvent();
+        trade.begin();
+        trade.setUserId(7L);
+        trade.setPortfolioId(3L);
+        trade.setAssetId(11L);
+        trade.setTradeType("BUY");
+        trade.setUsersTouched(1);
+        trade.commit();
+        RankUpdateEvent rankUpdate = new RankUpdateEvent();
+        rankUpdate.begin();
+        rankUpdate.setUserId(7L);
+        rankUpdate.commit();
+
+        List<RecordedEvent> events = read(service.dump().orElseThrow());
+
+        RecordedEvent recorded = events.stream()
+                .filter(event -> event.getEventType().getName().equals("trading.Trade"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(7L, recorded.getLong("userId"));
+        assertEquals(3L, recorded.getLong("portfolioId"));
+        assertEquals(11L, recorded.getLong("assetId"));
+        assertEquals("BUY", recorded.getString("tradeType"));
+        assertEquals(1, recorded.getInt("usersTouched"));
+        // A negative threshold leaves rank updates out
+        assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().equals("trading.RankUpdate")));
+    }
+
+    @Test
+    void start_ReturnsRunningRecordingUntilStopped() {
+        service = new FlightRecordingService("default", 60, 1, 1, 0, 0);
+        assertTrue(service.getStatus().isEmpty());
+        assertTrue(service.dump().isEmpty());
+
+        FlightRecordingInfo first = service.start(0);
+        FlightRecordingInfo second = service.start(30);
+
+        assertEquals(first.getId(), second.getId());
+        assertNull(second.getDurationSeconds());
+        FlightRecordingInfo stopped = service.stop().orElseThrow();
+        assertEquals(first.getId(), stopped.getId());
+        assertEquals("STOPPED", stopped.getState());
+        assertTrue(service.stop().isEmpty());
+        assertEquals(30L, service.start(30).getDurationSeconds());
+    }
+
+    private static List<RecordedEvent> read(byte[] data) throws IOException {
+        Path file = Files.createTempFile("recording-test-", ".jfr");
+        try {
+            Files.write(file, data);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
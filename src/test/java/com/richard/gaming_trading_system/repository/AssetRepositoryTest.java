@@ -0,0 +1,40 @@
+package com.richard.gaming_trading_system.repository;
+
+import com.richard.gaming_trading_system.exception.AssetAlreadyExistsException;
+import com.richard.gaming_trading_system.model.Asset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssetRepositoryTest {
+
+    private AssetRepository assetRepository;
+
+    @BeforeEach
+    void setUp() {
+        assetRepository = new AssetRepository();
+    }
+
+    @Test
+    void findBySymbol_UsesIndex() {
+        Asset gem = assetRepository.save(new Asset(null, "GEM", "Gem Token", new BigDecimal("10.00")));
+
+        assertSame(gem, assetRepository.findBySymbol("GEM").orElseThrow());
+        assertTrue(assetRepository.findBySymbol("gem").isEmpty());
+    }
+
+    @Test
+    void save_RejectsDuplicateSymbol() {
+        Asset gem = assetRepository.save(new Asset(null, "GEM", "Gem Token", new BigDecimal("10.00")));
+
+        assertThrows(AssetAlreadyExistsException.class,
+                () -> assetRepository.save(new Asset(null, "GEM", "Other", BigDecimal.ONE)));
+        assertEquals(1, assetRepository.findAll().size());
+
+        gem.setCurrentPrice(new BigDecimal("11.00"));
+        assertSame(gem, assetRepository.save(gem));
+    }
+}
@@ -0,0 +1,100 @@
+package com.richard.gaming_trading_system.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardIndexTest {
+
+    private LeaderboardIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LeaderboardIndex();
+    }
+
+    @Test
+    void rankOf_UsesCompetitionRanking() {
+        index.update(1L, 100);
+        index.update(2L, 200);
+        index.update(3L, 100);
+        index.update(4L, 50);
+
+        assertEquals(1, index.rankOf(2L));
+        assertEquals(2, index.rankOf(1L));
+        assertEquals(2, index.rankOf(3L));
+        assertEquals(4, index.rankOf(4L));
+        assertEquals(0, index.rankOf(99L));
+    }
+
+    @Test
+    void replaceAll_SwapsInTheNewLeaderboard() {
+        index.update(1L, 100);
+        index.update(2L, 200);
+        long version = index.getVersion();
+
+        index.replaceAll(Map.of(3L, 50, 4L, 300));
+
+        assertFalse(index.contains(1L));
+        assertEquals(2, index.size());
+        assertEquals(1, index.rankOf(4L));
+        assertEquals(2, index.rankOf(3L));
+        assertTrue(index.getVersion() > version);
+    }
+
+    @Test
+    void range_ReturnsPageInLeaderboardOrder() {
+        for (long userId = 1; userId <= 10; userId++) {
+            index.update(userId, (int) (userId * 10));
+        }
+
+        List<LeaderboardIndex.Entry> page = index.range(3, 4);
+
+        assertEquals(4, page.size());
+        assertEquals(7L, page.get(0).getUserId());
+        assertEquals(4, page.get(0).getRank());
+        assertEquals(4L, page.get(3).getUserId());
+        assertEquals(7, page.get(3).getPosition());
+        assertTrue(index.range(10, 5).isEmpty());
+    }
+
+    @Test
+    void update_MatchesFullSortUnderRandomChanges() {
+        Random random = new Random(42);
+        Map<Long, Integer> gems = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long userId = random.nextInt(500);
+            if (random.nextInt(10) == 0) {
+                index.remove(userId);
+                gems.remove(userId);
+            } else {
+                int gemCount = random.nextInt(100);
+                index.update(userId, gemCount);
+                gems.put(userId, gemCount);
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> expected = new ArrayList<>(gems.entrySet());
+        expected.sort((a, b) -> a.getValue().equals(b.getValue())
+                ? Long.compare(a.getKey(), b.getKey())
+                : Integer.compare(b.getValue(), a.getValue()));
+
+        List<LeaderboardIndex.Entry> actual = index.range(0, index.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            long userId = expected.get(i).getKey();
+            assertEquals(userId, actual.get(i).getUserId());
+            assertEquals(i, index.positionOf(userId));
+            long greater = gems.values().stream().filter(g -> g > gems.get(userId)).count();
+            assertEquals(greater + 1, index.rankOf(userId));
+            assertEquals(greater + 1, actual.get(i).getRank());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.richard.gaming_trading_system.repository;
+
+import com.richard.gaming_trading_system.model.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioRepositoryTest {
+
+    private PortfolioRepository portfolioRepository;
+
+    @BeforeEach
+    void setUp() {
+        portfolioRepository = new PortfolioRepository();
+    }
+
+    @Test
+    void findByUserId_ReturnsOnlyThatUsersPortfolios() {
+        portfolioRepository.save(new Portfolio(null, 1L, "Main"));
+        portfolioRepository.save(new Portfolio(null, 2L, "Other"));
+        portfolioRepository.save(new Portfolio(null, 1L, "Side"));
+
+        List<Portfolio> portfolios = portfolioRepository.findByUserId(1L);
+
+        assertEquals(List.of("Main", "Side"), portfolios.stream().map(Portfolio::getName).toList());
+        assertTrue(portfolioRepository.findByUserId(3L).isEmpty());
+    }
+
+    @Test
+    void save_MovesPortfolioToNewOwner() {
+        portfolioRepository.save(new Portfolio(5L, 1L, "Main"));
+        portfolioRepository.save(new Portfolio(5L, 2L, "Main"));
+
+        assertTrue(portfolioRepository.findByUserId(1L).isEmpty());
+        assertEquals(1, portfolioRepository.findByUserId(2L).size());
+    }
+}
@@ -0,0 +1,125 @@
+package com.richard.gaming_trading_system.repository;
+
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.PortfolioAsset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioValuationTest {
+
+    private PortfolioRepository portfolioRepository;
+    private PortfolioValuation valuation;
+    private Asset gem;
+    private Asset ore;
+
+    @BeforeEach
+    void setUp() {
+        portfolioRepository = new PortfolioRepository();
+        valuation = portfolioRepository.getValuation();
+        gem = new Asset(1L, "GEM", "Gem", new BigDecimal("10.00"));
+        ore = new Asset(2L, "ORE", "Ore", new BigDecimal("3.00"));
+    }
+
+    private Portfolio portfolio(Long userId, Object... holdings) {
+        Portfolio portfolio = portfolioRepository.save(new Portfolio(null, userId, "Main"));
+        for (int i = 0; i < holdings.length; i += 2) {
+            hold(portfolio, (Asset) holdings[i], (String) holdings[i + 1]);
+        }
+        return portfolioRepository.save(portfolio);
+    }
+
+    private static void hold(Portfolio portfolio, Asset asset, String quantity) {
+        portfolio.getAssets().removeIf(pa -> pa.getAssetId().equals(asset.getAssetId()));
+        if (new BigDecimal(quantity).signum() != 0) {
+            // The average price is deliberately not the market price.
+            PortfolioAsset holding = new PortfolioAsset(portfolio.getPortfolioId(), asset.getAssetId(),
+                    new BigDecimal(quantity), new BigDecimal("1.00"));
+            holding.setAsset(asset);
+            portfolio.getAssets().add(holding);
+        }
+    }
+
+    @Test
+    void getValue_MarksHoldingsAtMarketPrice() {
+        Portfolio portfolio = portfolio(1L, gem, "2", ore, "10");
+
+        assertEquals(0, new BigDecimal("50.00").compareTo(valuation.getValue(portfolio.getPortfolioId())));
+        assertEquals(0L, valuation.getFixedValue(99L));
+    }
+
+    @Test
+    void markPrice_AdjustsOnlyHoldersOfThatAsset() {
+        Portfolio gemHolder = portfolio(1L, gem, "2");
+        Portfolio oreHolder = portfolio(2L, ore, "10");
+        Portfolio both = portfolio(3L, gem, "1", ore, "1");
+
+        valuation.markPrice(gem.getAssetId(), Money.of(new BigDecimal("12.50")));
+
+        assertEquals(0, new BigDecimal("25.00").compareTo(valuation.getValue(gemHolder.getPortfolioId())));
+        assertEquals(0, new BigDecimal("30.00").compareTo(valuation.getValue(oreHolder.getPortfolioId())));
+        assertEquals(0, new BigDecimal("15.50").compareTo(valuation.getValue(both.getPortfolioId())));
+        assertEquals(2, valuation.getHolderCount(gem.getAssetId()));
+    }
+
+    @Test
+    void save_AppliesOnlyChangedHoldingsAtCurrentMark() {
+        Portfolio portfolio = portfolio(1L, gem, "2");
+        valuation.markPrice(gem.getAssetId(), Money.of(new BigDecimal("11.00")));
+
+        hold(portfolio, gem, "5");
+        hold(portfolio, ore, "1");
+        portfolioRepository.save(portfolio);
+        assertEquals(0, new BigDecimal("58.00").compareTo(valuation.getValue(portfolio.getPortfolioId())));
+
+        hold(portfolio, gem, "0");
+        portfolioRepository.save(portfolio);
+        assertEquals(0, new BigDecimal("3.00").compareTo(valuation.getValue(portfolio.getPortfolioId())));
+        assertEquals(0, valuation.getHolderCount(gem.getAssetId()));
+    }
+
+    @Test
+    void tradeSave_AdjustsOnlyTheTradedPosition() {
+        Portfolio portfolio = portfolio(1L, gem, "2", ore, "10");
+
+        hold(portfolio, gem, "3");
+        // The ore holding changes too, but a trade save is told only gem moved
+        hold(portfolio, ore, "20");
+        portfolioRepository.saveTraded(portfolio, gem.getAssetId());
+        assertEquals(0, new BigDecimal("60.00").compareTo(valuation.getValue(portfolio.getPortfolioId())));
+
+        hold(portfolio, gem, "0");
+        portfolioRepository.saveTraded(portfolio, gem.getAssetId());
+        assertEquals(0, new BigDecimal("30.00").compareTo(valuation.getValue(portfolio.getPortfolioId())));
+        assertEquals(0, valuation.getHolderCount(gem.getAssetId()));
+
+        // A full save afterwards reconciles the rest, and no later trade event can undo it
+        portfolioRepository.save(portfolio);
+        assertEquals(0, new BigDecimal("60.00").compareTo(valuation.getValue(portfolio.getPortfolioId())));
+    }
+
+    @Test
+    void markPrice_ConcurrentWithSavesStaysConsistent() throws InterruptedException {
+        Portfolio portfolio = portfolio(1L, gem, "1");
+        Thread ticker = new Thread(() -> {
+            for (int i = 1; i <= 2000; i++) {
+                valuation.markPrice(gem.getAssetId(), (1000 + i % 7) * 100L);
+            }
+        });
+        ticker.start();
+        for (int i = 1; i <= 2000; i++) {
+            hold(portfolio, gem, String.valueOf(1 + i % 5));
+            portfolioRepository.save(portfolio);
+        }
+        ticker.join();
+        valuation.markPrice(gem.getAssetId(), Money.of(new BigDecimal("20.00")));
+
+        BigDecimal quantity = portfolio.getAssets().get(0).getQuantity();
+        assertEquals(0, quantity.multiply(new BigDecimal("20.00")).compareTo(valuation.getValue(portfolio.getPortfolioId())));
+    }
+}
@@ -0,0 +1,104 @@
+package com.richard.gaming_trading_system.repository;
+
+import com.richard.gaming_trading_system.model.Trade;
+import com.richard.gaming_trading_system.model.TradeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private TradeRepository tradeRepository;
+
+    @BeforeEach
+    void setUp() {
+        tradeRepository = new TradeRepository();
+    }
+
+    private Trade trade(Long userId, int minutesAfterStart) {
+        Trade trade = new Trade(null, userId, 1L, TradeType.BUY, BigDecimal.ONE, BigDecimal.TEN);
+        trade.setTradeTimestamp(START.plusMinutes(minutesAfterStart));
+        return tradeRepository.save(trade);
+    }
+
+    private static List<Long> ids(List<Trade> trades) {
+        return trades.stream().map(Trade::getTradeId).toList();
+    }
+
+    @Test
+    void findByUserId_ReturnsNewestFirst() {
+        Trade first = trade(1L, 0);
+        Trade third = trade(1L, 20);
+        Trade second = trade(1L, 10);
+        trade(2L, 5);
+
+        assertEquals(List.of(third.getTradeId(), second.getTradeId(), first.getTradeId()),
+                ids(tradeRepository.findByUserId(1L)));
+        assertTrue(tradeRepository.findByUserId(3L).isEmpty());
+    }
+
+    @Test
+    void findByUserId_KeepsTradesWithSameTimestamp() {
+        Trade a = trade(1L, 0);
+        Trade b = trade(1L, 0);
+
+        assertEquals(List.of(b.getTradeId(), a.getTradeId()), ids(tradeRepository.findByUserId(1L)));
+    }
+
+    @Test
+    void findByUserIdBetween_AppliesHalfOpenRangeAndLimit() {
+        for (int minute = 0; minute < 10; minute++) {
+            trade(1L, minute);
+        }
+
+        List<Trade> range = tradeRepository.findByUserIdBetween(1L, START.plusMinutes(2), START.plusMinutes(6), 10);
+        assertEquals(4, range.size());
+        assertEquals(START.plusMinutes(5), range.get(0).getTradeTimestamp());
+        assertEquals(START.plusMinutes(2), range.get(3).getTradeTimestamp());
+
+        List<Trade> latest = tradeRepository.findByUserIdBetween(1L, START.plusMinutes(2), null, 3);
+        assertEquals(List.of(START.plusMinutes(9), START.plusMinutes(8), START.plusMinutes(7)),
+                latest.stream().map(Trade::getTradeTimestamp).toList());
+
+        assertEquals(3, tradeRepository.findByUserIdBetween(1L, null, START.plusMinutes(3), 10).size());
+        assertTrue(tradeRepository.findByUserIdBetween(1L, START.plusMinutes(6), START.plusMinutes(2), 10).isEmpty());
+    }
+
+    @Test
+    void save_ReplacesIndexEntryForResavedTrade() {
+        Trade original = trade(1L, 0);
+        Trade replacement = new Trade(original.getTradeId(), 1L, 1L, TradeType.SELL, BigDecimal.ONE, BigDecimal.TEN);
+        replacement.setTradeTimestamp(START.plusMinutes(30));
+        tradeRepository.save(replacement);
+
+        List<Trade> trades = tradeRepository.findByUserId(1L);
+        assertEquals(1, trades.size());
+        assertSame(replacement, trades.get(0));
+    }
+
+    @Test
+    void save_MaintainsAggregatesOncePerTrade() {
+        Trade first = trade(1L, 0);
+        trade(2L, 1);
+        tradeRepository.save(first);
+
+        TradeAggregates aggregates = tradeRepository.getAggregates();
+        assertEquals(2L, aggregates.getTradeCountByAsset().get(1L));
+        assertEquals(2L, aggregates.getVolumeByAsset().get(1L));
+        assertEquals(10.0, aggregates.getAverageTradeSizeByUser().get(1L));
+
+        Trade replacement = new Trade(first.getTradeId(), 1L, 2L, TradeType.SELL, new BigDecimal("3"), BigDecimal.TEN);
+        tradeRepository.save(replacement);
+
+        assertEquals(1L, aggregates.getTradeCountByAsset().get(1L));
+        assertEquals(3L, aggregates.getVolumeByAsset().get(2L));
+        assertEquals(30.0, aggregates.getAverageTradeSizeByUser().get(1L));
+    }
+}
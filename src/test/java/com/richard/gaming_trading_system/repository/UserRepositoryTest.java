@@ -0,0 +1,83 @@
+package com.richard.gaming_trading_system.repository;
+
+import com.richard.gaming_trading_system.exception.UserAlreadyExistsException;
+import com.richard.gaming_trading_system.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRepositoryTest {
+
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = new UserRepository();
+    }
+
+    @Test
+    void findByUsername_UsesIndex() {
+        User alice = userRepository.save(new User(null, "alice"));
+        userRepository.save(new User(null, "bob"));
+
+        assertSame(alice, userRepository.findByUsername("alice").orElseThrow());
+        assertTrue(userRepository.existsByUsername("bob"));
+        assertTrue(userRepository.findByUsername("carol").isEmpty());
+        assertFalse(userRepository.existsByUsername(null));
+    }
+
+    @Test
+    void save_RejectsDuplicateUsername() {
+        User alice = userRepository.save(new User(null, "alice"));
+
+        assertThrows(UserAlreadyExistsException.class, () -> userRepository.save(new User(null, "alice")));
+        assertEquals(1, userRepository.findAll().size());
+
+        // Saving the same user again is an update, not a duplicate.
+        alice.setGemCount(10);
+        assertSame(alice, userRepository.save(alice));
+    }
+
+    @Test
+    void save_ReindexesRenamedUser() {
+        userRepository.save(new User(1L, "alice"));
+        userRepository.save(new User(1L, "alicia"));
+
+        assertTrue(userRepository.findByUsername("alice").isEmpty());
+        assertEquals(1L, userRepository.findByUsername("alicia").orElseThrow().getUserId());
+        assertNotNull(userRepository.save(new User(null, "alice")).getUserId());
+    }
+
+    @Test
+    void save_AllowsOnlyOneConcurrentClaimOfAUsername() {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<CompletableFuture<Void>> saves = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            saves.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                    userRepository.save(new User(null, "contested"));
+                } catch (UserAlreadyExistsException e) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        start.countDown();
+        saves.forEach(CompletableFuture::join);
+
+        assertEquals(threads - 1, rejected.get());
+        assertEquals(1, userRepository.findAll().size());
+        assertTrue(userRepository.findByUsername("contested").isPresent());
+    }
+}
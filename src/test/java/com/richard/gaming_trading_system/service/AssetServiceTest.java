@@ -2,7 +2,11 @@ package com.richard.gaming_trading_system.service;
 
 import com.richard.gaming_trading_system.dto.CreateAssetRequest;
 import com.richard.gaming_trading_system.exception.AssetNotFoundException;
+import com.richard.gaming_trading_system.marketdata.CandleResolution;
+import com.richard.gaming_trading_system.marketdata.CandleStore;
+import com.richard.gaming_trading_system.marketdata.PriceHistoryStore;
 import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.persistence.TradeJournal;
 import com.richard.gaming_trading_system.repository.AssetRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +28,15 @@ class AssetServiceTest {
     @Mock
     private AssetRepository assetRepository;
 
+    @Mock
+    private TradeJournal tradeJournal;
+
+    @Mock
+    private CandleStore candleStore;
+
+    @Mock
+    private PriceHistoryStore priceHistoryStore;
+
     @InjectMocks
     private AssetService assetService;
 
@@ -57,6 +70,7 @@ class AssetServiceTest {
         assertEquals(testAsset.getName(), result.getName());
         assertEquals(testAsset.getCurrentPrice(), result.getCurrentPrice());
         verify(assetRepository).save(any(Asset.class));
+        verify(tradeJournal).appendAssetCreated(testAsset);
     }
 
     @Test
@@ -109,4 +123,30 @@ class AssetServiceTest {
         assertEquals(expectedAssets.get(0).getAssetId(), result.get(0).getAssetId());
         assertEquals(expectedAssets.get(0).getSymbol(), result.get(0).getSymbol());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getCandles_ParsesResolution() {
+        when(assetRepository.findById(testAsset.getAssetId())).thenReturn(Optional.of(testAsset));
+        when(candleStore.getCandles(testAsset.getAssetId(), CandleResolution.FIVE_MINUTES, 50)).thenReturn(List.of());
+
+        assertTrue(assetService.getCandles(testAsset.getAssetId(), "5m", 50).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> assetService.getCandles(testAsset.getAssetId(), "2m", 50));
+    }
+
+    @Test
+    void getCandles_AssetNotFound() {
+        when(assetRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(AssetNotFoundException.class, () -> assetService.getCandles(99L, "1m", 50));
+    }
+
+    @Test
+    void getPriceHistory_CapsLimit() {
+        when(assetRepository.findById(testAsset.getAssetId())).thenReturn(Optional.of(testAsset));
+        when(priceHistoryStore.getHistory(testAsset.getAssetId(), null, null, AssetService.MAX_HISTORY_POINTS))
+                .thenReturn(List.of());
+
+        assertTrue(assetService.getPriceHistory(testAsset.getAssetId(), null, null, 1_000_000).isEmpty());
+        verify(priceHistoryStore).getHistory(testAsset.getAssetId(), null, null, AssetService.MAX_HISTORY_POINTS);
+    }
+}
@@ -0,0 +1,175 @@
+package com.richard.gaming_trading_system.service;
+
+import com.richard.gaming_trading_system.dto.BatchTradeResponse;
+import com.richard.gaming_trading_system.dto.CreatePortfolioRequest;
+import com.richard.gaming_trading_system.dto.TradeErrorCode;
+import com.richard.gaming_trading_system.dto.TradeRequest;
+import com.richard.gaming_trading_system.dto.TradeResult;
+import com.richard.gaming_trading_system.engine.TradeExecutionEngine;
+import com.richard.gaming_trading_system.events.EventBus;
+import com.richard.gaming_trading_system.metrics.TradeMetrics;
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.TradeType;
+import com.richard.gaming_trading_system.model.User;
+import com.richard.gaming_trading_system.persistence.TradeJournal;
+import com.richard.gaming_trading_system.repository.AssetRepository;
+import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import com.richard.gaming_trading_system.repository.TradeRepository;
+import com.richard.gaming_trading_system.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BatchTradeServiceTest {
+
+    private final UserRepository userRepository = new UserRepository();
+    private final PortfolioRepository portfolioRepository = new PortfolioRepository();
+    private final AssetRepository assetRepository = new AssetRepository();
+    private final TradeRepository tradeRepository = new TradeRepository();
+    private final TradeJournal tradeJournal = mock(TradeJournal.class);
+    private final EventBus eventBus = mock(EventBus.class);
+    private TradeExecutionEngine engine;
+    private PortfolioService portfolioService;
+    private BatchTradeService batchTradeService;
+
+    private User alice;
+    private User bob;
+    private long alicePortfolio;
+    private long bobPortfolio;
+    private long assetId;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TradeExecutionEngine(4, 1000);
+        portfolioService = new PortfolioService(portfolioRepository, userRepository, assetRepository, tradeRepository,
+                tradeJournal, eventBus, new TradeMetrics());
+        batchTradeService = new BatchTradeService(portfolioService, userRepository, assetRepository, engine, 100);
+
+        alice = userWithGems("alice", 1000);
+        bob = userWithGems("bob", 1000);
+        alicePortfolio = portfolioService.createPortfolio(new CreatePortfolioRequest(alice.getUserId(), "Main")).getPortfolioId();
+        bobPortfolio = portfolioService.createPortfolio(new CreatePortfolioRequest(bob.getUserId(), "Main")).getPortfolioId();
+        Asset asset = new Asset();
+        asset.setSymbol("GEM");
+        asset.setName("Gem");
+        asset.setCurrentPrice(BigDecimal.TEN);
+        assetId = assetRepository.save(asset).getAssetId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    private User userWithGems(String username, int gems) {
+        User user = new User();
+        user.setUsername(username);
+        user.setGemCount(gems);
+        return userRepository.save(user);
+    }
+
+    private TradeRequest trade(long portfolioId, String quantity, TradeType tradeType) {
+        return new TradeRequest(portfolioId, assetId, new BigDecimal(quantity), BigDecimal.TEN, tradeType);
+    }
+
+    private static TradeErrorCode codeOf(BatchTradeResponse response, int index) {
+        TradeResult result = response.getResults().get(index);
+        assertEquals(index, result.getIndex());
+        return result.getErrorCode();
+    }
+
+    @Test
+    void executeBatch_ReportsTypedErrorPerTrade() {
+        BatchTradeResponse response = batchTradeService.executeBatch(List.of(
+                trade(alicePortfolio, "50", TradeType.BUY),
+                trade(alicePortfolio, "60", TradeType.BUY),
+                trade(bobPortfolio, "1", TradeType.SELL),
+                trade(999L, "1", TradeType.BUY),
+                trade(bobPortfolio, "-1", TradeType.BUY),
+                trade(alicePortfolio, "80", TradeType.SELL),
+                trade(bobPortfolio, "10", TradeType.BUY)
+        ), false);
+
+        assertFalse(response.getAtomic());
+        assertEquals(2, response.getExecuted());
+        assertEquals(5, response.getRejected());
+        assertNull(codeOf(response, 0));
+        assertEquals(TradeErrorCode.INSUFFICIENT_FUNDS, codeOf(response, 1));
+        assertEquals(TradeErrorCode.ASSET_NOT_FOUND, codeOf(response, 2));
+        assertEquals(TradeErrorCode.PORTFOLIO_NOT_FOUND, codeOf(response, 3));
+        assertEquals(TradeErrorCode.INVALID_REQUEST, codeOf(response, 4));
+        assertEquals(TradeErrorCode.INSUFFICIENT_ASSET, codeOf(response, 5));
+        assertNull(codeOf(response, 6));
+        assertEquals(alice.getUserId(), response.getResults().get(0).getTrade().getUserId());
+        assertEquals(501, alice.getGemCount()); // 1000 - 500 + 1 for the trade
+        assertEquals(901, bob.getGemCount());
+    }
+
+    @Test
+    void executeBatch_AtomicRejectsWholeBatchWhenOneTradeWouldFail() {
+        BatchTradeResponse response = batchTradeService.executeBatch(List.of(
+                trade(alicePortfolio, "10", TradeType.BUY),
+                trade(bobPortfolio, "10", TradeType.BUY),
+                trade(bobPortfolio, "20", TradeType.SELL)
+        ), true);
+
+        assertEquals(0, response.getExecuted());
+        assertEquals(TradeErrorCode.NOT_EXECUTED, codeOf(response, 0));
+        assertEquals(TradeErrorCode.NOT_EXECUTED, codeOf(response, 1));
+        assertEquals(TradeErrorCode.INSUFFICIENT_ASSET, codeOf(response, 2));
+        assertEquals(1000, alice.getGemCount());
+        assertEquals(1000, bob.getGemCount());
+        assertNull(portfolioService.getPortfolioById(alicePortfolio).getHolding(assetId));
+        assertTrue(tradeRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void executeBatch_AtomicCountsEarlierTradesOfTheBatch() {
+        // Bob can only afford the second buy with the proceeds of the sell before it
+        BatchTradeResponse response = batchTradeService.executeBatch(List.of(
+                trade(bobPortfolio, "100", TradeType.BUY),
+                trade(alicePortfolio, "100", TradeType.BUY),
+                trade(bobPortfolio, "100", TradeType.SELL),
+                trade(bobPortfolio, "100", TradeType.BUY)
+        ), true);
+
+        assertTrue(response.getAtomic());
+        assertEquals(4, response.getExecuted());
+        assertEquals(0, response.getRejected());
+        assertEquals(4, tradeRepository.findAll().size());
+        assertEquals(new BigDecimal("100"),
+                portfolioService.getPortfolioById(bobPortfolio).getHolding(assetId).getQuantity());
+    }
+
+    @Test
+    void executeBatch_AtomicKeepsNothingWhenTheLastTradeFailsAfterTheCheck() {
+        // The check leaves out awards and overflow, so the last sell passes it and then overflows Bob's gems
+        bob.setGemCount(Integer.MAX_VALUE - 1000);
+        BatchTradeResponse response = batchTradeService.executeBatch(List.of(
+                trade(alicePortfolio, "10", TradeType.BUY),
+                trade(bobPortfolio, "10", TradeType.BUY),
+                new TradeRequest(bobPortfolio, assetId, new BigDecimal("10"), new BigDecimal("1000"), TradeType.SELL)
+        ), true);
+
+        assertEquals(0, response.getExecuted());
+        assertEquals(TradeErrorCode.NOT_EXECUTED, codeOf(response, 0));
+        assertEquals(TradeErrorCode.NOT_EXECUTED, codeOf(response, 1));
+        assertEquals(TradeErrorCode.INVALID_REQUEST, codeOf(response, 2));
+        assertEquals(1000, alice.getGemCount());
+        assertEquals(0, alice.getTotalTrades());
+        assertEquals(Integer.MAX_VALUE - 1000, bob.getGemCount());
+        assertEquals(0, bob.getTotalTrades());
+        assertNull(portfolioService.getPortfolioById(alicePortfolio).getHolding(assetId));
+        assertNull(portfolioService.getPortfolioById(bobPortfolio).getHolding(assetId));
+        assertTrue(tradeRepository.findAll().isEmpty());
+        verify(tradeJournal, never()).appendAll(any());
+        verify(tradeJournal, never()).appendTrade(any(), any(), any(), any());
+        verifyNoInteractions(eventBus);
+    }
+}
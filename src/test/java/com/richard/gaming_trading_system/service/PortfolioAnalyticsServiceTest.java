@@ -1,7 +1,10 @@
 package com.richard.gaming_trading_system.service;
 
+import com.richard.gaming_trading_system.analytics.HeavyHitterTracker;
+import com.richard.gaming_trading_system.dto.MostTradedAssets;
 import com.richard.gaming_trading_system.model.*;
 import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import com.richard.gaming_trading_system.repository.TradeAggregates;
 import com.richard.gaming_trading_system.repository.TradeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +29,9 @@ class PortfolioAnalyticsServiceTest {
     @Mock
     private TradeRepository tradeRepository;
 
+    @Mock
+    private HeavyHitterTracker heavyHitterTracker;
+
     @InjectMocks
     private PortfolioAnalyticsService portfolioAnalyticsService;
 
@@ -86,6 +92,12 @@ class PortfolioAnalyticsServiceTest {
         testTrade2.setTimestamp(LocalDateTime.now());
     }
 
+    private TradeAggregates aggregatesOf(List<Trade> trades) {
+        TradeAggregates aggregates = new TradeAggregates();
+        trades.forEach(aggregates::record);
+        return aggregates;
+    }
+
     @Test
     void getMostTradedAssets_Success() {
         // Create a list of trades with the same asset ID to test counting
@@ -117,7 +129,7 @@ class PortfolioAnalyticsServiceTest {
         trade3.setTimestamp(LocalDateTime.now());
 
         List<Trade> trades = Arrays.asList(trade1, trade2, trade3);
-        when(tradeRepository.findAll()).thenReturn(trades);
+        when(tradeRepository.getAggregates()).thenReturn(aggregatesOf(trades));
 
         Map<Long, Integer> result = portfolioAnalyticsService.getMostTradedAssets();
 
@@ -142,7 +154,10 @@ class PortfolioAnalyticsServiceTest {
         testPortfolio.getAssets().add(portfolioAsset1);
         testPortfolio.getAssets().add(portfolioAsset2);
 
+        PortfolioRepository indexed = new PortfolioRepository();
+        indexed.save(testPortfolio);
         when(portfolioRepository.findAll()).thenReturn(Arrays.asList(testPortfolio));
+        when(portfolioRepository.getValuation()).thenReturn(indexed.getValuation());
 
         Map<Long, BigDecimal> result = portfolioAnalyticsService.getHighestPortfolioValues();
 
@@ -154,7 +169,8 @@ class PortfolioAnalyticsServiceTest {
     @Test
     void getPortfolioPerformance_Success() {
         List<Trade> trades = Arrays.asList(testTrade1, testTrade2);
-        when(tradeRepository.findByUserId(testUser.getUserId())).thenReturn(trades);
+        when(tradeRepository.findByUserIdBetween(eq(testUser.getUserId()), any(), isNull(), eq(Integer.MAX_VALUE)))
+                .thenReturn(trades);
 
         Map<Long, BigDecimal> result = portfolioAnalyticsService.getPortfolioPerformance(
             testUser.getUserId(),
@@ -170,7 +186,7 @@ class PortfolioAnalyticsServiceTest {
     @Test
     void getTradingVolumeByAsset_Success() {
         List<Trade> trades = Arrays.asList(testTrade1, testTrade1, testTrade2);
-        when(tradeRepository.findAll()).thenReturn(trades);
+        when(tradeRepository.getAggregates()).thenReturn(aggregatesOf(trades));
 
         Map<Long, Integer> result = portfolioAnalyticsService.getTradingVolumeByAsset();
 
@@ -180,4 +196,21 @@ class PortfolioAnalyticsServiceTest {
         assertEquals(5, result.get(testAsset2.getAssetId())); // 5 * 1 trade
     }
 
-} 
+    @Test
+    void getAverageTradeSizeByUser_Success() {
+        when(tradeRepository.getAggregates()).thenReturn(aggregatesOf(Arrays.asList(testTrade1, testTrade2)));
+
+        Map<Long, BigDecimal> result = portfolioAnalyticsService.getAverageTradeSizeByUser();
+
+        assertEquals(1, result.size());
+        assertEquals(new BigDecimal("1000.00"), result.get(testUser.getUserId()));
+    }
+
+    @Test
+    void getMostTradedAssets_InWindowDelegatesToTracker() {
+        MostTradedAssets expected = new MostTradedAssets("1h", 0.001, 0L, 0L, List.of());
+        when(heavyHitterTracker.getTopK("1h", 20)).thenReturn(expected);
+
+        assertSame(expected, portfolioAnalyticsService.getMostTradedAssets(20, "1h"));
+    }
+}
@@ -1,21 +1,32 @@
 package com.richard.gaming_trading_system.service;
 
 import com.richard.gaming_trading_system.dto.CreatePortfolioRequest;
+import com.richard.gaming_trading_system.events.EventBus;
+import com.richard.gaming_trading_system.events.GemsChanged;
+import com.richard.gaming_trading_system.events.TradeExecuted;
 import com.richard.gaming_trading_system.exception.AssetNotFoundException;
 import com.richard.gaming_trading_system.exception.InsufficientAssetException;
+import com.richard.gaming_trading_system.exception.InsufficientFundsException;
 import com.richard.gaming_trading_system.exception.PortfolioNotFoundException;
 import com.richard.gaming_trading_system.exception.UserNotFoundException;
+import com.richard.gaming_trading_system.metrics.TradeMetrics;
+import com.richard.gaming_trading_system.metrics.TradeStage;
 import com.richard.gaming_trading_system.model.*;
+import com.richard.gaming_trading_system.persistence.TradeJournal;
 import com.richard.gaming_trading_system.repository.AssetRepository;
 import com.richard.gaming_trading_system.repository.PortfolioRepository;
+import com.richard.gaming_trading_system.repository.TradeRepository;
 import com.richard.gaming_trading_system.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -36,10 +47,19 @@ class PortfolioServiceTest {
     private AssetRepository assetRepository;
 
     @Mock
-    private UserService userService;
+    private PortfolioValueService portfolioValueService;
 
     @Mock
-    private PortfolioValueService portfolioValueService;
+    private TradeRepository tradeRepository;
+
+    @Mock
+    private TradeJournal tradeJournal;
+
+    @Mock
+    private EventBus eventBus;
+
+    @Spy
+    private TradeMetrics tradeMetrics = new TradeMetrics();
 
     @InjectMocks
     private PortfolioService portfolioService;
@@ -86,6 +106,7 @@ class PortfolioServiceTest {
         assertEquals(testPortfolio.getUserId(), result.getUserId());
         assertEquals(testPortfolio.getName(), result.getName());
         verify(portfolioRepository).save(any(Portfolio.class));
+        verify(tradeJournal).appendPortfolioCreated(testPortfolio);
     }
 
     @Test
@@ -125,6 +146,16 @@ class PortfolioServiceTest {
         assertEquals(expectedPortfolios.get(0).getPortfolioId(), result.get(0).getPortfolioId());
     }
 
+    @Test
+    void getTradeHistory_CapsLimit() {
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        when(tradeRepository.findByUserIdBetween(testUser.getUserId(), from, null, PortfolioService.MAX_TRADE_HISTORY))
+                .thenReturn(List.of());
+
+        assertTrue(portfolioService.getTradeHistory(testUser.getUserId(), from, null, 1_000_000).isEmpty());
+        verify(tradeRepository).findByUserIdBetween(testUser.getUserId(), from, null, PortfolioService.MAX_TRADE_HISTORY);
+    }
+
     @Test
     void addAssetToPortfolio_Success() {
         when(portfolioRepository.findById(testPortfolio.getPortfolioId())).thenReturn(Optional.of(testPortfolio));
@@ -187,8 +218,6 @@ class PortfolioServiceTest {
         when(assetRepository.findById(testAsset.getAssetId())).thenReturn(Optional.of(testAsset));
         when(portfolioRepository.save(any(Portfolio.class))).thenReturn(testPortfolio);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(userService.updateUserGems(anyLong(), anyInt())).thenReturn(testUser);
-        doNothing().when(userService).incrementTradeCount(anyLong());
 
         Trade result = portfolioService.executeTrade(
             testPortfolio.getPortfolioId(),
@@ -202,9 +231,53 @@ class PortfolioServiceTest {
         assertEquals(TradeType.BUY, result.getTradeType());
         assertEquals(new BigDecimal("10"), result.getQuantity());
         assertEquals(new BigDecimal("100.00"), result.getPrice());
-        verify(userRepository).save(any(User.class));
-        verify(userService).updateUserGems(testUser.getUserId(), -1000); // -1000 gems for buying 10 units at 100.00 each
-        verify(userService).incrementTradeCount(testUser.getUserId());
+        // One load and one save per entity, and the cost and award land as one balance change
+        verify(portfolioRepository).findById(testPortfolio.getPortfolioId());
+        verify(userRepository).findById(testUser.getUserId());
+        verify(assetRepository).findById(testAsset.getAssetId());
+        verify(userRepository).save(testUser);
+        verify(portfolioRepository).saveTraded(testPortfolio, testAsset.getAssetId());
+        assertEquals(1001, testUser.getGemCount()); // 2000 - 1000 for 10 units at 100.00, + 1 for the trade
+        assertEquals(1, testUser.getTotalTrades());
+        assertEquals(new BigDecimal("10"), testPortfolio.getHolding(testAsset.getAssetId()).getQuantity());
+        verify(tradeRepository).saveExecuted(result);
+        verify(tradeJournal).appendTrade(eq(result), eq(testPortfolio.getPortfolioId()), eq(testUser), any(PortfolioAsset.class));
+        ArgumentCaptor<GemsChanged> changed = ArgumentCaptor.forClass(GemsChanged.class);
+        verify(eventBus).publish(changed.capture());
+        assertEquals(1001, changed.getValue().getGemCount());
+        ArgumentCaptor<TradeExecuted> executed = ArgumentCaptor.forClass(TradeExecuted.class);
+        verify(eventBus).publish(executed.capture());
+        assertEquals(testUser.getUserId(), executed.getValue().getUserId());
+        assertEquals(testAsset.getAssetId(), executed.getValue().getAssetId());
+        assertEquals(Money.of(new BigDecimal("100.00")), executed.getValue().getPrice());
+        assertEquals(Quantity.of(new BigDecimal("10")), executed.getValue().getQuantity());
+        assertEquals(result.getTradeTimestamp(), executed.getValue().getTimestamp());
+        assertEquals(1, tradeMetrics.getTrades());
+        for (TradeStage stage : new TradeStage[] {TradeStage.USER_LOOKUP, TradeStage.GEM_TRANSFER,
+                TradeStage.PORTFOLIO_UPDATE, TradeStage.STREAK_UPDATE, TradeStage.RECORD}) {
+            assertEquals(1, tradeMetrics.getStage(stage).getCount(), stage.label());
+        }
+    }
+
+    @Test
+    void executeTrade_Rejections_AreCounted() {
+        testUser.setGemCount(5);
+        when(portfolioRepository.findById(testPortfolio.getPortfolioId())).thenReturn(Optional.of(testPortfolio));
+        when(userRepository.findById(testUser.getUserId())).thenReturn(Optional.of(testUser));
+        when(assetRepository.findById(testAsset.getAssetId())).thenReturn(Optional.of(testAsset));
+
+        assertThrows(InsufficientFundsException.class, () -> portfolioService.executeTrade(
+                testPortfolio.getPortfolioId(), testAsset.getAssetId(), BigDecimal.ONE, BigDecimal.TEN, TradeType.BUY));
+        assertThrows(AssetNotFoundException.class, () -> portfolioService.executeTrade(
+                testPortfolio.getPortfolioId(), testAsset.getAssetId(), BigDecimal.ONE, BigDecimal.ONE, TradeType.SELL));
+
+        assertEquals(1, tradeMetrics.getRejected(InsufficientFundsException.class));
+        assertEquals(0, tradeMetrics.getRejected(InsufficientAssetException.class));
+        assertEquals(0, tradeMetrics.getTrades());
+        verifyNoInteractions(tradeRepository, eventBus);
+        verify(userRepository, never()).save(any(User.class));
+        assertEquals(5, testUser.getGemCount());
+        assertEquals(0, testUser.getTotalTrades());
     }
 
     @Test
@@ -218,8 +291,6 @@ class PortfolioServiceTest {
         when(userRepository.findById(testUser.getUserId())).thenReturn(Optional.of(testUser));
         when(portfolioRepository.save(any(Portfolio.class))).thenReturn(testPortfolio);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(userService.updateUserGems(anyLong(), anyInt())).thenReturn(testUser);
-        doNothing().when(userService).incrementTradeCount(anyLong());
 
         Trade result = portfolioService.executeTrade(
             testPortfolio.getPortfolioId(),
@@ -233,9 +304,113 @@ class PortfolioServiceTest {
         assertEquals(TradeType.SELL, result.getTradeType());
         assertEquals(new BigDecimal("10"), result.getQuantity());
         assertEquals(new BigDecimal("100.00"), result.getPrice());
-        verify(userRepository).save(any(User.class));
-        verify(userService).updateUserGems(testUser.getUserId(), 1000); // +1000 gems for selling 10 units at 100.00 each
-        verify(userService).incrementTradeCount(testUser.getUserId());
+        verify(userRepository).save(testUser);
+        verify(portfolioRepository).saveTraded(testPortfolio, testAsset.getAssetId());
+        verify(assetRepository, never()).findById(anyLong());
+        assertEquals(3001, testUser.getGemCount()); // 2000 + 1000 for 10 units at 100.00, + 1 for the trade
+        assertEquals(new BigDecimal("10"), testPortfolio.getHolding(testAsset.getAssetId()).getQuantity());
+    }
+
+    @Test
+    void settleFill_TradesBothSidesAtFillPrice() {
+        User seller = new User();
+        seller.setUserId(2L);
+        seller.setGemCount(0);
+        Portfolio sellerPortfolio = new Portfolio();
+        sellerPortfolio.setPortfolioId(2L);
+        sellerPortfolio.setUserId(seller.getUserId());
+        PortfolioAsset holding = new PortfolioAsset();
+        holding.setAsset(testAsset);
+        holding.setQuantity(new BigDecimal("20"));
+        sellerPortfolio.getAssets().add(holding);
+
+        when(portfolioRepository.findById(testPortfolio.getPortfolioId())).thenReturn(Optional.of(testPortfolio));
+        when(portfolioRepository.findById(sellerPortfolio.getPortfolioId())).thenReturn(Optional.of(sellerPortfolio));
+        when(userRepository.findById(testUser.getUserId())).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(seller.getUserId())).thenReturn(Optional.of(seller));
+        when(assetRepository.findById(testAsset.getAssetId())).thenReturn(Optional.of(testAsset));
+        when(portfolioRepository.save(any(Portfolio.class))).thenAnswer(i -> i.getArgument(0));
+
+        List<Trade> trades = portfolioService.settleFill(testPortfolio.getPortfolioId(), sellerPortfolio.getPortfolioId(),
+            testAsset.getAssetId(), Quantity.ofWhole(10), Money.ofWhole(100));
+
+        assertEquals(2, trades.size());
+        assertEquals(TradeType.BUY, trades.get(0).getTradeType());
+        assertEquals(TradeType.SELL, trades.get(1).getTradeType());
+        assertEquals(1001, testUser.getGemCount()); // 2000 - 1000 + 1 for the trade
+        assertEquals(1001, seller.getGemCount());
+        assertEquals(new BigDecimal("10"), testPortfolio.getHolding(testAsset.getAssetId()).getQuantity());
+        assertEquals(new BigDecimal("10"), sellerPortfolio.getHolding(testAsset.getAssetId()).getQuantity());
+        // Both legs go to the journal in one append
+        verify(tradeJournal).appendAll(argThat(records -> records.size() == 2));
+        verify(tradeJournal, never()).appendTrade(any(), any(), any(), any());
+        verify(eventBus, times(2)).publish(any(TradeExecuted.class));
+        // One latency sample for the pair, counted as two trades
+        assertEquals(2, tradeMetrics.getTrades());
+        assertEquals(1, tradeMetrics.getStage(TradeStage.TOTAL).getCount());
+    }
+
+    @Test
+    void settleFill_RollsBackTheBuyWhenTheSellLegFails() {
+        User seller = new User();
+        seller.setUserId(2L);
+        // The sale's proceeds overflow the seller's balance, after the buy leg has been applied
+        seller.setGemCount(Integer.MAX_VALUE);
+        Portfolio sellerPortfolio = new Portfolio();
+        sellerPortfolio.setPortfolioId(2L);
+        sellerPortfolio.setUserId(seller.getUserId());
+        PortfolioAsset holding = new PortfolioAsset();
+        holding.setAsset(testAsset);
+        holding.setQuantity(new BigDecimal("20"));
+        sellerPortfolio.getAssets().add(holding);
+        int streak = testUser.getCurrentStreak();
+
+        when(portfolioRepository.findById(testPortfolio.getPortfolioId())).thenReturn(Optional.of(testPortfolio));
+        when(portfolioRepository.findById(sellerPortfolio.getPortfolioId())).thenReturn(Optional.of(sellerPortfolio));
+        when(userRepository.findById(testUser.getUserId())).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(seller.getUserId())).thenReturn(Optional.of(seller));
+        when(assetRepository.findById(testAsset.getAssetId())).thenReturn(Optional.of(testAsset));
+
+        assertThrows(ArithmeticException.class, () -> portfolioService.settleFill(testPortfolio.getPortfolioId(),
+            sellerPortfolio.getPortfolioId(), testAsset.getAssetId(), Quantity.ofWhole(10), Money.ofWhole(100)));
+
+        assertEquals(2000, testUser.getGemCount());
+        assertEquals(0, testUser.getTotalTrades());
+        assertEquals(streak, testUser.getCurrentStreak());
+        assertNull(testPortfolio.getHolding(testAsset.getAssetId()));
+        assertEquals(Integer.MAX_VALUE, seller.getGemCount());
+        assertEquals(0, seller.getTotalTrades());
+        assertEquals(new BigDecimal("20"), sellerPortfolio.getHolding(testAsset.getAssetId()).getQuantity());
+        verify(userRepository, never()).save(any(User.class));
+        verify(portfolioRepository, never()).saveTraded(any(Portfolio.class), anyLong());
+        verify(tradeRepository, never()).saveExecuted(any(Trade.class));
+        verifyNoInteractions(tradeJournal, eventBus);
+    }
+
+    @Test
+    void settleFill_RejectsASellerWithoutTheAssetAndCountsIt() {
+        Portfolio sellerPortfolio = new Portfolio();
+        sellerPortfolio.setPortfolioId(2L);
+        sellerPortfolio.setUserId(2L);
+        when(portfolioRepository.findById(testPortfolio.getPortfolioId())).thenReturn(Optional.of(testPortfolio));
+        when(portfolioRepository.findById(sellerPortfolio.getPortfolioId())).thenReturn(Optional.of(sellerPortfolio));
+        when(userRepository.findById(testUser.getUserId())).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(sellerPortfolio.getUserId())).thenReturn(Optional.of(new User(2L, "seller")));
+        when(assetRepository.findById(testAsset.getAssetId())).thenReturn(Optional.of(testAsset));
+
+        assertThrows(InsufficientAssetException.class, () -> portfolioService.settleFill(testPortfolio.getPortfolioId(),
+            sellerPortfolio.getPortfolioId(), testAsset.getAssetId(), Quantity.ofWhole(10), Money.ofWhole(100)));
+        verify(userRepository, never()).save(any(User.class));
+        verify(tradeRepository, never()).saveExecuted(any(Trade.class));
+        assertEquals(2000, testUser.getGemCount());
+        assertNull(testPortfolio.getHolding(testAsset.getAssetId()));
+        assertEquals(1, tradeMetrics.getRejected(InsufficientAssetException.class));
+        assertEquals(0, tradeMetrics.getTrades());
+
+        testUser.setGemCount(5);
+        assertThrows(InsufficientFundsException.class, () -> portfolioService.settleFill(testPortfolio.getPortfolioId(),
+            sellerPortfolio.getPortfolioId(), testAsset.getAssetId(), Quantity.ofWhole(10), Money.ofWhole(100)));
+        assertEquals(1, tradeMetrics.getRejected(InsufficientFundsException.class));
     }
 
     @Test
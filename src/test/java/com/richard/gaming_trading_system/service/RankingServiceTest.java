@@ -1,15 +1,22 @@
 package com.richard.gaming_trading_system.service;
 
+import com.richard.gaming_trading_system.dto.LeaderboardEntry;
+import com.richard.gaming_trading_system.dto.LeaderboardPage;
+import com.richard.gaming_trading_system.exception.UserNotFoundException;
+import com.richard.gaming_trading_system.metrics.TradeMetrics;
+import com.richard.gaming_trading_system.metrics.TradeStage;
 import com.richard.gaming_trading_system.model.User;
+import com.richard.gaming_trading_system.repository.LeaderboardIndex;
 import com.richard.gaming_trading_system.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,6 +27,12 @@ class RankingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private LeaderboardIndex leaderboardIndex = new LeaderboardIndex();
+
+    @Spy
+    private TradeMetrics tradeMetrics = new TradeMetrics();
+
     @InjectMocks
     private RankingService rankingService;
 
@@ -46,22 +59,30 @@ class RankingServiceTest {
         user3.setUserId(3L);
         user3.setUsername("user3");
         user3.setGemCount(150);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(user3));
+    }
+
+    private void indexAll() {
+        rankingService.updateUserRank(user1);
+        rankingService.updateUserRank(user2);
+        rankingService.updateUserRank(user3);
     }
 
     @Test
     void updateUserRank_Success() {
-        List<User> allUsers = Arrays.asList(user1, user2, user3);
-        when(userRepository.findAll()).thenReturn(allUsers);
-        when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
-
-        rankingService.updateUserRank(user1);
+        indexAll();
 
-        // Verify ranks are assigned correctly based on gem count
-        assertEquals(3, user1.getRank()); // 100 gems
-        assertEquals(1, user2.getRank()); // 200 gems
-        assertEquals(2, user3.getRank()); // 150 gems
+        // Verify ranks are answered from the index based on gem count
+        assertEquals(3, rankingService.getUserRank(user1.getUserId())); // 100 gems
+        assertEquals(1, rankingService.getUserRank(user2.getUserId())); // 200 gems
+        assertEquals(2, rankingService.getUserRank(user3.getUserId())); // 150 gems
 
-        verify(userRepository, times(3)).save(any(User.class));
+        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).save(any(User.class));
+        assertEquals(3, tradeMetrics.getStage(TradeStage.RANK_UPDATE).getCount());
     }
 
     @Test
@@ -71,39 +92,47 @@ class RankingServiceTest {
         user2.setGemCount(100);
         user3.setGemCount(150);
 
-        List<User> allUsers = Arrays.asList(user1, user2, user3);
-        when(userRepository.findAll()).thenReturn(allUsers);
-        when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
-
-        rankingService.updateUserRank(user1);
+        indexAll();
 
         // Verify ranks are assigned correctly with equal gem counts
-        assertEquals(2, user1.getRank()); // 100 gems
-        assertEquals(2, user2.getRank()); // 100 gems
-        assertEquals(1, user3.getRank()); // 150 gems
+        assertEquals(2, rankingService.getUserRank(user1.getUserId())); // 100 gems
+        assertEquals(2, rankingService.getUserRank(user2.getUserId())); // 100 gems
+        assertEquals(1, rankingService.getUserRank(user3.getUserId())); // 150 gems
+    }
+
+    @Test
+    void updateUserRank_GemChangeMovesOnlyThatUser() {
+        indexAll();
+
+        user1.setGemCount(300);
+        rankingService.updateUserRank(user1);
 
-        verify(userRepository, times(3)).save(any(User.class));
+        assertEquals(1, rankingService.getUserRank(user1.getUserId()));
+        assertEquals(2, rankingService.getUserRank(user2.getUserId()));
+        assertEquals(3, rankingService.getUserRank(user3.getUserId()));
+        assertEquals(3, leaderboardIndex.size());
     }
 
     @Test
     void getTopUsers_Success() {
-        List<User> allUsers = Arrays.asList(user1, user2, user3);
-        when(userRepository.findAll()).thenReturn(allUsers);
+        indexAll();
 
-        List<User> result = rankingService.getTopUsers(2);
+        List<LeaderboardEntry> result = rankingService.getTopUsers(2);
 
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals(user2.getUserId(), result.get(0).getUserId()); // Highest gems
         assertEquals(user3.getUserId(), result.get(1).getUserId()); // Second highest gems
+        assertEquals(1, result.get(0).getRank());
+        assertEquals(2, result.get(1).getRank());
+        assertEquals(0, user2.getRank()); // The shared entity is left alone
     }
 
     @Test
     void getLeaderboard_Success() {
-        List<User> allUsers = Arrays.asList(user1, user2, user3);
-        when(userRepository.findAll()).thenReturn(allUsers);
+        indexAll();
 
-        List<User> result = rankingService.getLeaderboard();
+        List<LeaderboardEntry> result = rankingService.getLeaderboard();
 
         assertNotNull(result);
         assertEquals(3, result.size());
@@ -114,12 +143,51 @@ class RankingServiceTest {
 
     @Test
     void getTopUsers_WithLimitGreaterThanUsers() {
-        List<User> allUsers = Arrays.asList(user1, user2, user3);
-        when(userRepository.findAll()).thenReturn(allUsers);
+        indexAll();
 
-        List<User> result = rankingService.getTopUsers(5);
+        List<LeaderboardEntry> result = rankingService.getTopUsers(5);
 
         assertNotNull(result);
         assertEquals(3, result.size()); // Should return all users even though limit is 5
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getLeaderboardPage_FollowsCursor() {
+        indexAll();
+
+        LeaderboardPage first = rankingService.getLeaderboardPage(0, 2);
+
+        assertEquals(2, first.getEntries().size());
+        assertEquals(user2.getUserId(), first.getEntries().get(0).getUserId());
+        assertEquals("user2", first.getEntries().get(0).getUsername());
+        assertEquals(2, first.getNextCursor());
+        assertEquals(3, first.getTotalUsers());
+
+        LeaderboardPage second = rankingService.getLeaderboardPage(first.getNextCursor(), 2);
+
+        assertEquals(1, second.getEntries().size());
+        assertEquals(user1.getUserId(), second.getEntries().get(0).getUserId());
+        assertEquals(3, second.getEntries().get(0).getRank());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getLeaderboardAround_ReturnsWindow() {
+        indexAll();
+
+        List<LeaderboardEntry> result = rankingService.getLeaderboardAround(user3.getUserId(), 1);
+
+        assertEquals(3, result.size());
+        assertEquals(user2.getUserId(), result.get(0).getUserId());
+        assertEquals(user3.getUserId(), result.get(1).getUserId());
+        assertEquals(user1.getUserId(), result.get(2).getUserId());
+
+        List<LeaderboardEntry> top = rankingService.getLeaderboardAround(user2.getUserId(), 1);
+        assertEquals(2, top.size());
+    }
+
+    @Test
+    void getLeaderboardAround_UnknownUser() {
+        assertThrows(UserNotFoundException.class, () -> rankingService.getLeaderboardAround(99L, 10));
+    }
+}
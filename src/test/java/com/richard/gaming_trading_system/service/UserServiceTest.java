@@ -1,11 +1,16 @@
 package com.richard.gaming_trading_system.service;
 
 import com.richard.gaming_trading_system.dto.UserStatsResponse;
+import com.richard.gaming_trading_system.events.EventBus;
+import com.richard.gaming_trading_system.events.GemsChanged;
 import com.richard.gaming_trading_system.exception.UserNotFoundException;
 import com.richard.gaming_trading_system.model.User;
+import com.richard.gaming_trading_system.persistence.JournalRecord;
+import com.richard.gaming_trading_system.persistence.TradeJournal;
 import com.richard.gaming_trading_system.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -29,6 +34,12 @@ class UserServiceTest {
     @Mock
     private PortfolioValueService portfolioValueService;
 
+    @Mock
+    private TradeJournal tradeJournal;
+
+    @Mock
+    private EventBus eventBus;
+
     @InjectMocks
     private UserService userService;
 
@@ -56,9 +67,18 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals("testUser", result.getUsername());
         verify(userRepository).save(any(User.class));
+        verify(tradeJournal).appendUserCreated(testUser);
         verify(rankingService).updateUserRank(any(User.class));
     }
 
+    @Test
+    void createUser_RejectsUsernameTooLongToJournalBeforeSaving() {
+        String username = "u".repeat(JournalRecord.MAX_USERNAME_BYTES + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> userService.createUser(username));
+        verifyNoInteractions(userRepository, tradeJournal, rankingService);
+    }
+
     @Test
     void getUserById_Success() {
         when(userRepository.findById(testUser.getUserId())).thenReturn(java.util.Optional.of(testUser));
@@ -98,7 +118,8 @@ class UserServiceTest {
     @Test
     void getUserStats_Success() {
         when(userRepository.findById(testUser.getUserId())).thenReturn(java.util.Optional.of(testUser));
-        when(portfolioValueService.getPortfolioValue(testUser.getUserId())).thenReturn(new BigDecimal("1000.00"));
+        when(portfolioValueService.getUserPortfolioValue(testUser.getUserId())).thenReturn(new BigDecimal("1000.00"));
+        when(rankingService.getUserRank(testUser.getUserId())).thenReturn(testUser.getRank());
 
         UserStatsResponse result = userService.getUserStats(testUser.getUserId());
 
@@ -115,14 +136,18 @@ class UserServiceTest {
     void updateUserGems_Success() {
         when(userRepository.findById(testUser.getUserId())).thenReturn(java.util.Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        doNothing().when(rankingService).updateUserRank(any(User.class));
 
         User result = userService.updateUserGems(testUser.getUserId(), 50);
 
         assertNotNull(result);
         assertEquals(150, result.getGemCount()); // 100 + 50
         verify(userRepository).save(any(User.class));
-        verify(rankingService).updateUserRank(any(User.class));
+        verify(tradeJournal).appendGemsChanged(testUser);
+        ArgumentCaptor<GemsChanged> changed = ArgumentCaptor.forClass(GemsChanged.class);
+        verify(eventBus).publish(changed.capture());
+        assertEquals(testUser.getUserId(), changed.getValue().getUserId());
+        assertEquals(150, changed.getValue().getGemCount());
+        verify(rankingService, never()).updateUserRank(any(User.class));
     }
 
     @Test
@@ -0,0 +1,125 @@
+package com.richard.gaming_trading_system.simulation;
+
+import com.richard.gaming_trading_system.dto.CreatePortfolioRequest;
+import com.richard.gaming_trading_system.engine.TradeExecutionEngine;
+import com.richard.gaming_trading_system.exception.InsufficientFundsException;
+import com.richard.gaming_trading_system.metrics.LatencyHistogram;
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Portfolio;
+import com.richard.gaming_trading_system.model.User;
+import com.richard.gaming_trading_system.service.AssetService;
+import com.richard.gaming_trading_system.service.PortfolioAnalyticsService;
+import com.richard.gaming_trading_system.service.PortfolioService;
+import com.richard.gaming_trading_system.service.RankingService;
+import com.richard.gaming_trading_system.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LoadSimulatorTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Mock
+    private AssetService assetService;
+
+    @Mock
+    private RankingService rankingService;
+
+    @Mock
+    private PortfolioAnalyticsService analyticsService;
+
+    @Mock
+    private TradeExecutionEngine tradeExecutionEngine;
+
+    @Mock
+    private ApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        AtomicLong ids = new AtomicLong();
+        when(userService.createUser(anyString())).thenAnswer(invocation ->
+                new User(ids.incrementAndGet(), invocation.getArgument(0)));
+        when(portfolioService.createPortfolio(any(CreatePortfolioRequest.class))).thenAnswer(invocation ->
+                new Portfolio(ids.incrementAndGet(), invocation.<CreatePortfolioRequest>getArgument(0).getUserId(), "Simulation"));
+        when(assetService.createAsset(any())).thenAnswer(invocation ->
+                new Asset(ids.incrementAndGet(), "SIM", "Simulated", BigDecimal.TEN));
+    }
+
+    private LoadSimulator simulator(String mix, double rate, int clients) {
+        return new LoadSimulator(userService, portfolioService, assetService, rankingService, analyticsService,
+                tradeExecutionEngine, context, 3, 4, 2, 0.8, rate, 1, 0, clients, mix, false);
+    }
+
+    @Test
+    void seed_CreatesFundedUsersPortfoliosAndAssets() {
+        simulator("trade:1", 100, 1).seed();
+
+        verify(assetService, times(4)).createAsset(any());
+        verify(userService, times(3)).createUser(startsWith("sim-user-"));
+        verify(userService, times(3)).updateUserGems(anyLong(), eq(LoadSimulator.STARTING_GEMS));
+        verify(portfolioService, times(3)).createPortfolio(any(CreatePortfolioRequest.class));
+    }
+
+    @Test
+    void drive_MeasuresFromScheduledArrivalNotFromSend() throws InterruptedException {
+        // One client that needs 20 ms per request, offered 100 requests per second: a queue builds up
+        when(rankingService.getTopUsers(10)).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return List.of();
+        });
+        LoadSimulator simulator = simulator("leaderboard:1", 100, 1);
+        simulator.seed();
+
+        SimulationReport report = simulator.drive();
+
+        LatencyHistogram.Snapshot response = report.getResponseTimes(SimulatedOperation.LEADERBOARD);
+        LatencyHistogram.Snapshot service = report.getServiceTimes(SimulatedOperation.LEADERBOARD);
+        assertTrue(response.getCount() > 20);
+        assertEquals(response.getCount(), service.getCount());
+        assertTrue(service.getValueAtQuantile(0.99) < 100_000_000L);
+        assertTrue(response.getValueAtQuantile(0.99) > 5 * service.getValueAtQuantile(0.99));
+        assertEquals(0, report.getResponseTimes(SimulatedOperation.TRADE).getCount());
+    }
+
+    @Test
+    void drive_CountsFailedTradesAsErrors() throws InterruptedException {
+        when(tradeExecutionEngine.execute(anyLong(), any())).thenThrow(new InsufficientFundsException("No gems"));
+        LoadSimulator simulator = simulator("trade:1", 200, 2);
+        simulator.seed();
+
+        SimulationReport report = simulator.drive();
+
+        long trades = report.getResponseTimes(SimulatedOperation.TRADE).getCount();
+        assertTrue(trades > 0);
+        assertEquals(trades, report.getErrors(SimulatedOperation.TRADE));
+        assertTrue(report.format().contains("trade"));
+    }
+
+    @Test
+    void workloadMix_PicksByWeight() {
+        WorkloadMix mix = WorkloadMix.parse("trade:3, leaderboard:1, analytics:0");
+
+        assertEquals(SimulatedOperation.TRADE, mix.pick(0.0));
+        assertEquals(SimulatedOperation.TRADE, mix.pick(0.74));
+        assertEquals(SimulatedOperation.LEADERBOARD, mix.pick(0.76));
+        assertEquals(SimulatedOperation.LEADERBOARD, mix.pick(0.999));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("analytics:0"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("trade"));
+    }
+}
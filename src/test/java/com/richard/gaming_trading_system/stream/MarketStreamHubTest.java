@@ -0,0 +1,240 @@
+package com.richard.gaming_trading_system.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.richard.gaming_trading_system.dto.LeaderboardEntry;
+import com.richard.gaming_trading_system.dto.LeaderboardPage;
+import com.richard.gaming_trading_system.events.TopOfBookChanged;
+import com.richard.gaming_trading_system.marketdata.PriceSnapshot;
+import com.richard.gaming_trading_system.model.Asset;
+import com.richard.gaming_trading_system.model.Money;
+import com.richard.gaming_trading_system.model.Quantity;
+import com.richard.gaming_trading_system.repository.AssetRepository;
+import com.richard.gaming_trading_system.service.RankingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MarketStreamHubTest {
+
+    private AssetRepository assetRepository;
+    private RankingService rankingService;
+    private ObjectMapper objectMapper;
+    private MarketStreamHub hub;
+    private Asset gem;
+    private Asset ore;
+
+    @BeforeEach
+    void setUp() {
+        assetRepository = new AssetRepository();
+        gem = assetRepository.save(new Asset(null, "GEM", "Gem", new BigDecimal("1.00")));
+        ore = assetRepository.save(new Asset(null, "ORE", "Ore", new BigDecimal("2.00")));
+        rankingService = mock(RankingService.class);
+        when(rankingService.getLeaderboardPage(0, 10)).thenReturn(new LeaderboardPage(List.of(), null, 0));
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        hub = new MarketStreamHub(assetRepository, rankingService, objectMapper, 10, 0L, Executors.newFixedThreadPool(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    private static PriceSnapshot snapshot(long gemCents, long oreCents, long gemId, long oreId) {
+        PriceSnapshot snapshot = mock(PriceSnapshot.class);
+        when(snapshot.size()).thenReturn(2);
+        when(snapshot.getTickMillis()).thenReturn(0L);
+        when(snapshot.assetIdAt(0)).thenReturn(gemId);
+        when(snapshot.assetIdAt(1)).thenReturn(oreId);
+        when(snapshot.priceAt(0)).thenReturn(gemCents);
+        when(snapshot.priceAt(1)).thenReturn(oreCents);
+        when(snapshot.getPrice(gemId)).thenReturn(BigDecimal.valueOf(gemCents, 2));
+        when(snapshot.getPrice(oreId)).thenReturn(BigDecimal.valueOf(oreCents, 2));
+        return snapshot;
+    }
+
+    private PriceSnapshot snapshot(long gemCents, long oreCents) {
+        return snapshot(gemCents, oreCents, gem.getAssetId(), ore.getAssetId());
+    }
+
+    private static String[] next(BlockingQueue<String[]> events) throws InterruptedException {
+        String[] event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event, "no event received");
+        return event;
+    }
+
+    private List<Double> prices(String json, String symbol) throws IOException {
+        List<Double> prices = new ArrayList<>();
+        objectMapper.readTree(json).forEach(node -> {
+            if (node.get("symbol").asText().equals(symbol)) {
+                prices.add(node.get("price").doubleValue());
+            }
+        });
+        return prices;
+    }
+
+    @Test
+    void subscribe_StartsFromCurrentPrices() throws Exception {
+        BlockingQueue<String[]> events = new LinkedBlockingQueue<>();
+        hub.subscribe(null, false, (event, data) -> events.add(new String[] {event, data}));
+
+        String[] first = next(events);
+
+        assertEquals(StreamSubscriber.PRICES_EVENT, first[0]);
+        assertEquals(List.of(1.00), prices(first[1], "GEM"));
+        assertEquals(List.of(2.00), prices(first[1], "ORE"));
+    }
+
+    @Test
+    void publishPrices_SharesOneSerializedPayloadAcrossSubscribers() throws Exception {
+        BlockingQueue<String[]> first = new LinkedBlockingQueue<>();
+        BlockingQueue<String[]> second = new LinkedBlockingQueue<>();
+        hub.subscribe(null, false, (event, data) -> first.add(new String[] {event, data}));
+        hub.subscribe(null, false, (event, data) -> second.add(new String[] {event, data}));
+        next(first);
+        next(second);
+
+        hub.publishPrices(snapshot(100, 200));
+        String[] a = next(first);
+        String[] b = next(second);
+        assertSame(a[1], b[1]);
+        assertEquals(List.of(1.00), prices(a[1], "GEM"));
+
+        hub.publishPrices(snapshot(105, 200));
+        String[] changed = next(first);
+        assertEquals(List.of(1.05), prices(changed[1], "GEM"));
+        assertTrue(prices(changed[1], "ORE").isEmpty()); // unchanged prices are not resent
+    }
+
+    @Test
+    void publishPrices_ConflatesPerSymbolForSlowSubscriber() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        BlockingQueue<String[]> events = new LinkedBlockingQueue<>();
+        hub.subscribe(null, false, (event, data) -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(new String[] {event, data});
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS)); // stuck sending the initial prices
+
+        hub.publishPrices(snapshot(100, 200));
+        hub.publishPrices(snapshot(110, 200));
+        hub.publishPrices(snapshot(120, 210));
+        hub.publishPrices(snapshot(130, 210));
+        release.countDown();
+
+        next(events);
+        String[] conflated = next(events);
+        assertEquals(List.of(1.30), prices(conflated[1], "GEM"));
+        assertEquals(List.of(2.10), prices(conflated[1], "ORE"));
+        assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribe_FiltersBySymbol() throws Exception {
+        BlockingQueue<String[]> events = new LinkedBlockingQueue<>();
+        hub.subscribe(Set.of("ORE"), false, (event, data) -> events.add(new String[] {event, data}));
+        assertTrue(prices(next(events)[1], "GEM").isEmpty());
+
+        hub.publishPrices(snapshot(100, 200));
+        String[] initialTick = next(events);
+        assertTrue(prices(initialTick[1], "GEM").isEmpty());
+
+        hub.publishPrices(snapshot(150, 250));
+        String[] event = next(events);
+        assertTrue(prices(event[1], "GEM").isEmpty());
+        assertEquals(List.of(2.50), prices(event[1], "ORE"));
+    }
+
+    @Test
+    void publishLeaderboard_PushesOnlyWhenTopListChanges() throws Exception {
+        BlockingQueue<String[]> events = new LinkedBlockingQueue<>();
+        LeaderboardPage top = new LeaderboardPage(List.of(new LeaderboardEntry(1L, "alice", 50, 1, 1)), null, 1);
+        when(rankingService.getLeaderboardPage(0, 10)).thenReturn(top);
+        when(rankingService.getLeaderboardVersion()).thenReturn(1L);
+        hub.subscribe(Set.of("NONE"), true, (event, data) -> events.add(new String[] {event, data}));
+        String[] initial = next(events);
+        assertEquals(StreamSubscriber.LEADERBOARD_EVENT, initial[0]);
+
+        hub.publishLeaderboard();
+        when(rankingService.getLeaderboardVersion()).thenReturn(2L); // gems changed below the top
+        hub.publishLeaderboard();
+        assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+
+        when(rankingService.getLeaderboardPage(0, 10)).thenReturn(
+                new LeaderboardPage(List.of(new LeaderboardEntry(2L, "bob", 60, 1, 1)), null, 2));
+        when(rankingService.getLeaderboardVersion()).thenReturn(3L);
+        hub.publishLeaderboard();
+
+        String[] changed = next(events);
+        assertEquals(StreamSubscriber.LEADERBOARD_EVENT, changed[0]);
+        assertEquals("bob", objectMapper.readTree(changed[1]).get(0).get("username").asText());
+    }
+
+    @Test
+    void publishBook_PushesTopOfBookForFollowedSymbols() throws Exception {
+        BlockingQueue<String[]> events = new LinkedBlockingQueue<>();
+        hub.subscribe(Set.of("GEM"), false, (event, data) -> events.add(new String[] {event, data}));
+        next(events); // initial prices
+
+        hub.publishBook(new TopOfBookChanged(ore.getAssetId(), Money.ofWhole(2), Quantity.ofWhole(1), 0, 0));
+        hub.publishBook(new TopOfBookChanged(gem.getAssetId(), Money.ofWhole(1), Quantity.ofWhole(5),
+                Money.ofWhole(3) / 2, Quantity.ofWhole(2)));
+
+        String[] book = next(events);
+        assertEquals(StreamSubscriber.BOOK_EVENT, book[0]);
+        assertEquals(1, objectMapper.readTree(book[1]).size());
+        assertEquals("GEM", objectMapper.readTree(book[1]).get(0).get("symbol").asText());
+        assertEquals(5.0, objectMapper.readTree(book[1]).get(0).get("bidQuantity").doubleValue());
+        assertEquals(1.5, objectMapper.readTree(book[1]).get(0).get("askPrice").doubleValue());
+        assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+
+        // A client that connects later starts from the current top of book
+        BlockingQueue<String[]> late = new LinkedBlockingQueue<>();
+        hub.subscribe(Set.of("ORE"), false, (event, data) -> late.add(new String[] {event, data}));
+        next(late);
+        String[] current = next(late);
+        assertEquals(StreamSubscriber.BOOK_EVENT, current[0]);
+        assertEquals(2.0, objectMapper.readTree(current[1]).get(0).get("bidPrice").doubleValue());
+    }
+
+    @Test
+    void publishPrices_DropsSubscriberWhoseSendFails() throws Exception {
+        CountDownLatch failed = new CountDownLatch(1);
+        hub.subscribe(null, false, (event, data) -> {
+            failed.countDown();
+            throw new IOException("client went away");
+        });
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && hub.getSubscriberCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, hub.getSubscriberCount());
+    }
+
+    @Test
+    void parseSymbols_BlankMeansEverything() {
+        assertNull(MarketStreamHub.parseSymbols(null));
+        assertNull(MarketStreamHub.parseSymbols(" , "));
+        assertEquals(Set.of("GEM", "ORE"), MarketStreamHub.parseSymbols("GEM, ORE"));
+    }
+}